@@ -0,0 +1,67 @@
+package com.buschmais.xo.api;
+
+/**
+ * A snapshot of the statistics of the instance cache of a
+ * {@link com.buschmais.xo.api.XOManager}.
+ */
+public final class CacheStatistics {
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long evictions;
+
+    private final long size;
+
+    /**
+     * Constructor.
+     *
+     * @param hits
+     *            The number of lookups which returned a cached instance.
+     * @param misses
+     *            The number of lookups which required a new instance.
+     * @param evictions
+     *            The number of instances which have been evicted.
+     * @param size
+     *            The approximate number of cached instances.
+     */
+    public CacheStatistics(long hits, long misses, long evictions, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Return the ratio of lookups which returned a cached instance.
+     *
+     * @return The hit ratio or <code>1.0</code> if no lookup has been
+     *         performed.
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 1.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", size=" + size + '}';
+    }
+}
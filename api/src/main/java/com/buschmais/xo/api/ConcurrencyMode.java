@@ -1,9 +1,35 @@
 package com.buschmais.xo.api;
 
 /**
- * Created by dimahler on 1/14/14.
+ * Defines how an {@link com.buschmais.xo.api.XOManager} and its instances may
+ * be accessed by threads.
  */
 public enum ConcurrencyMode {
+    /**
+     * The {@link com.buschmais.xo.api.XOManager} is used by a single thread.
+     */
     SINGLETHREADED,
-    MULTITHREADED;
+    /**
+     * The {@link com.buschmais.xo.api.XOManager} may be shared between
+     * threads, all invocations are serialized using a lock.
+     */
+    MULTITHREADED,
+    /**
+     * The {@link com.buschmais.xo.api.XOManager} may be shared between
+     * threads without serializing invocations. Each thread uses its own
+     * transaction and keeps track of the instances it has written, instances
+     * which have been read are shared.
+     */
+    CONCURRENT,
+    /**
+     * The {@link com.buschmais.xo.api.XOManager} may be shared between
+     * threads, invocations which only read state (e.g. property getters,
+     * lookups by id or the iteration of results) are executed concurrently
+     * while all other invocations (including queries) are executed
+     * exclusively. An invocation which modifies state from within a reading
+     * invocation (e.g. a setter called by a listener) fails as the lock cannot
+     * be upgraded. Transactions are bound to threads like for
+     * {@link #CONCURRENT}.
+     */
+    READ_WRITE;
 }
@@ -0,0 +1,93 @@
+package com.buschmais.xo.api;
+
+/**
+ * Declares conditions other than equality for an {@link Example} used by
+ * {@link XOManager#find(Example, Class)}.
+ * <p>
+ * The instance passed to {@link Example#prepare(Object)} by find operations
+ * implements this interface, conditions are combined with the property values
+ * set on the example, e.g.
+ * </p>
+ *
+ * <pre>
+ * xoManager.find(person -&gt; {
+ *     person.setLastName("Doe");
+ *     Examples.conditions(person).between("age", 18, 65);
+ * }, Person.class);
+ * </pre>
+ *
+ * Properties are identified by their names, multiple conditions for the same
+ * property are combined.
+ */
+public interface ExampleConditions {
+
+    /**
+     * The value of the property must be greater than the given value.
+     *
+     * @param property
+     *            The property name.
+     * @param value
+     *            The value.
+     * @return The conditions.
+     */
+    ExampleConditions greaterThan(String property, Object value);
+
+    /**
+     * The value of the property must be greater than or equal to the given
+     * value.
+     *
+     * @param property
+     *            The property name.
+     * @param value
+     *            The value.
+     * @return The conditions.
+     */
+    ExampleConditions greaterThanOrEqualTo(String property, Object value);
+
+    /**
+     * The value of the property must be less than the given value.
+     *
+     * @param property
+     *            The property name.
+     * @param value
+     *            The value.
+     * @return The conditions.
+     */
+    ExampleConditions lessThan(String property, Object value);
+
+    /**
+     * The value of the property must be less than or equal to the given value.
+     *
+     * @param property
+     *            The property name.
+     * @param value
+     *            The value.
+     * @return The conditions.
+     */
+    ExampleConditions lessThanOrEqualTo(String property, Object value);
+
+    /**
+     * The value of the property must be within the given values (inclusive).
+     *
+     * @param property
+     *            The property name.
+     * @param from
+     *            The lower bound.
+     * @param to
+     *            The upper bound.
+     * @return The conditions.
+     */
+    ExampleConditions between(String property, Object from, Object to);
+
+    /**
+     * The value of the property must start with the given prefix.
+     *
+     * @param property
+     *            The property name.
+     * @param prefix
+     *            The prefix.
+     * @return The conditions.
+     */
+    ExampleConditions startsWith(String property, String prefix);
+
+}
@@ -0,0 +1,24 @@
+package com.buschmais.xo.api;
+
+/**
+ * Provides access to the capabilities of {@link Example} instances.
+ */
+public final class Examples {
+
+    private Examples() {
+    }
+
+    /**
+     * Return the {@link ExampleConditions} of an example instance passed to
+     * {@link Example#prepare(Object)} by a find operation.
+     *
+     * @param example The example instance.
+     * @return The {@link ExampleConditions}.
+     */
+    public static ExampleConditions conditions(Object example) {
+        if (!(example instanceof ExampleConditions)) {
+            throw new XOException("Conditions are only supported for examples of find operations.");
+        }
+        return (ExampleConditions) example;
+    }
+}
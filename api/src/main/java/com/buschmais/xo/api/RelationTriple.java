@@ -0,0 +1,85 @@
+package com.buschmais.xo.api;
+
+/**
+ * A source instance, a target instance and an optional example describing a
+ * relation to be created using
+ * {@link com.buschmais.xo.api.XOManager#createAllRelations(Class, Iterable)}.
+ *
+ * @param <S>
+ *            The source type.
+ * @param <R>
+ *            The relation type.
+ * @param <T>
+ *            The target type.
+ */
+public final class RelationTriple<S, R, T> {
+
+    private final S source;
+
+    private final Example<R> example;
+
+    private final T target;
+
+    private RelationTriple(S source, Example<R> example, T target) {
+        this.source = source;
+        this.example = example;
+        this.target = target;
+    }
+
+    /**
+     * Create a triple without an example.
+     *
+     * @param source
+     *            The source instance.
+     * @param target
+     *            The target instance.
+     * @param <S>
+     *            The source type.
+     * @param <R>
+     *            The relation type.
+     * @param <T>
+     *            The target type.
+     * @return The triple.
+     */
+    public static <S, R, T> RelationTriple<S, R, T> of(S source, T target) {
+        return new RelationTriple<>(source, null, target);
+    }
+
+    /**
+     * Create a triple using an example.
+     *
+     * @param source
+     *            The source instance.
+     * @param example
+     *            The example.
+     * @param target
+     *            The target instance.
+     * @param <S>
+     *            The source type.
+     * @param <R>
+     *            The relation type.
+     * @param <T>
+     *            The target type.
+     * @return The triple.
+     */
+    public static <S, R, T> RelationTriple<S, R, T> of(S source, Example<R> example, T target) {
+        return new RelationTriple<>(source, example, target);
+    }
+
+    public S getSource() {
+        return source;
+    }
+
+    /**
+     * Return the example.
+     *
+     * @return The example or <code>null</code> if none has been provided.
+     */
+    public Example<R> getExample() {
+        return example;
+    }
+
+    public T getTarget() {
+        return target;
+    }
+}
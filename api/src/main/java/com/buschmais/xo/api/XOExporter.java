@@ -0,0 +1,49 @@
+package com.buschmais.xo.api;
+
+/**
+ * Defines the interface for streaming entities and relations to a compact
+ * binary format which can be read by an {@link XOImporter}.
+ * <p>
+ * Entities are written with the names of their types and their primitive
+ * properties, relations with the source and target entity and their primitive
+ * properties. Each record is written as soon as it has been read, i.e. the
+ * memory required does not depend on the number of exported instances.
+ * </p>
+ * <p>
+ * All entities referenced by relations must be exported before the relations,
+ * e.g. by iterating a query result for exporting entities and iterating it
+ * again for exporting relations.
+ * </p>
+ */
+public interface XOExporter extends AutoCloseable {
+
+    /**
+     * Export the given entities.
+     *
+     * @param instances
+     *            The entity instances.
+     * @return The number of exported entities.
+     */
+    long exportEntities(Iterable<?> instances);
+
+    /**
+     * Export all relations of the given entities which are mapped by outgoing or
+     * incoming properties of their types.
+     * <p>
+     * Relations are exported in their stored direction. An incoming relation is
+     * only exported if the types of its source do not map the relation type,
+     * otherwise it is exported with the source.
+     * </p>
+     *
+     * @param instances
+     *            The entity instances.
+     * @return The number of exported relations.
+     */
+    long exportRelations(Iterable<?> instances);
+
+    /**
+     * Flush and close the underlying stream.
+     */
+    @Override
+    void close();
+}
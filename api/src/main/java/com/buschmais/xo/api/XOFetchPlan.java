@@ -0,0 +1,102 @@
+package com.buschmais.xo.api;
+
+import java.util.Collection;
+
+/**
+ * Defines the interface for loading the entities referenced by an instance in
+ * advance, e.g. before rendering a tree.
+ * <p>
+ * Starting at the instance the relations to follow are read from the
+ * datastore using a single access. The referenced entities are resolved level
+ * by level following the selected reference and collection properties, each
+ * entity is loaded only once, i.e. its instance is created, its types are
+ * resolved and the selected primitive properties are read. The followed
+ * properties of the loaded instances are served from the fetched relations,
+ * e.g. iterating over <code>getChildren()</code> does not access the
+ * datastore, until relations are created or removed, a query is executed or
+ * the transaction is completed.
+ * </p>
+ * <p>
+ * Properties are selected by invoking their get methods on a recording
+ * instance of the declaring type, e.g.
+ * <code>fetch(root).with(Node.class, Node::getChildren)</code>.
+ * </p>
+ */
+public interface XOFetchPlan {
+
+    /**
+     * Follow the given entity reference or entity collection property.
+     *
+     * @param type
+     *            The type declaring the property.
+     * @param property
+     *            The reference to the property.
+     * @param <T>
+     *            The type declaring the property.
+     * @return The fetch plan.
+     */
+    <T> XOFetchPlan with(Class<T> type, Property<T> property);
+
+    /**
+     * Read the given primitive property of all loaded entities.
+     *
+     * @param type
+     *            The type declaring the property.
+     * @param property
+     *            The reference to the property.
+     * @param <T>
+     *            The type declaring the property.
+     * @return The fetch plan.
+     */
+    <T> XOFetchPlan properties(Class<T> type, Property<T> property);
+
+    /**
+     * Set the number of levels to follow, the default is 1.
+     *
+     * @param depth
+     *            The depth.
+     * @return The fetch plan.
+     */
+    XOFetchPlan depth(int depth);
+
+    /**
+     * Load the entities.
+     *
+     * @return The loaded graph.
+     */
+    Result execute();
+
+    /**
+     * A reference to a property of a type.
+     *
+     * @param <T>
+     *            The type declaring the property.
+     */
+    interface Property<T> {
+
+        /**
+         * Invoke the get method of the property on the given instance, e.g.
+         * <code>node.getChildren()</code>.
+         *
+         * @param instance
+         *            The recording instance.
+         * @return The value returned by the recording instance.
+         */
+        Object of(T instance);
+    }
+
+    /**
+     * The graph loaded by a fetch plan. The loaded instances are held as long
+     * as the result is referenced.
+     */
+    interface Result {
+
+        /**
+         * Return the loaded instances.
+         *
+         * @return The loaded instances excluding the instance the fetch plan
+         *         has been created for.
+         */
+        Collection<Object> getInstances();
+    }
+}
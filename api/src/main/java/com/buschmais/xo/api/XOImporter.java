@@ -0,0 +1,58 @@
+package com.buschmais.xo.api;
+
+/**
+ * Defines the interface for reading entities and relations written by an
+ * {@link XOExporter}.
+ * <p>
+ * The records are read one by one and written to the datastore, the running
+ * transaction is committed and re-opened after each chunk of records.
+ * </p>
+ * <p>
+ * The mapping of exported ids to the ids of the imported entities is kept in
+ * memory for resolving relations. It holds one entry per imported entity, i.e.
+ * the required heap grows linearly with the number of entities in the stream
+ * and limits the size of an import. Relations and property values are not
+ * retained.
+ * </p>
+ */
+public interface XOImporter extends AutoCloseable {
+
+    /**
+     * The default number of records which is imported within one transaction.
+     */
+    int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Set the number of records which is imported within one transaction.
+     *
+     * @param chunkSize
+     *            The chunk size.
+     * @return The importer.
+     */
+    XOImporter withChunkSize(int chunkSize);
+
+    /**
+     * Read all records from the stream and write them to the datastore.
+     * <p>
+     * If no transaction is active a transaction is started and committed after
+     * the last chunk, otherwise the running transaction is committed after each
+     * chunk and left open for the caller.
+     * </p>
+     * <p>
+     * If the import fails the records of already committed chunks remain in the
+     * datastore, the thrown {@link XOException} reports their number. As the
+     * mapping of exported ids is only kept in memory an import cannot be
+     * resumed, i.e. the imported data must be removed before importing the
+     * stream again.
+     * </p>
+     *
+     * @return The number of imported records (i.e. entities and relations).
+     */
+    long execute();
+
+    /**
+     * Close the underlying stream.
+     */
+    @Override
+    void close();
+}
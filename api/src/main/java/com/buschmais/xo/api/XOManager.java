@@ -3,6 +3,8 @@ package com.buschmais.xo.api;
 import static com.buschmais.xo.api.Query.Result.CompositeRowObject;
 import static com.buschmais.xo.api.Transaction.TransactionAttribute.NOT_SUPPORTED;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Set;
 
 import javax.validation.ConstraintViolation;
@@ -132,6 +134,28 @@ public interface XOManager extends AutoCloseable {
      */
     <T> T create(Example<T> example, Class<T> type);
 
+    /**
+     * Create a batch of new property instances using examples.
+     * <p>
+     * The type metadata is resolved once for the whole batch. The examples are
+     * read and the entities are created by the datastore in bulk operations
+     * for chunks of examples while the returned iterator is consumed, i.e. it
+     * must be iterated to create all instances. As each chunk is created by a
+     * separate invocation a configured periodic commit may commit the running
+     * transaction between chunks.
+     * </p>
+     *
+     * @param type
+     *            The interface the property types shall implement.
+     * @param examples
+     *            The example instances, one for each instance to create.
+     * @param <T>
+     *            The expected return type.
+     * @return The iterator over the property instances in the order of the
+     *         provided examples.
+     */
+    <T> ResultIterator<T> createAll(Class<T> type, Iterable<Example<T>> examples);
+
     /**
      * Creates an instance of a typed relation between a source and a target
      * instance.
@@ -174,6 +198,34 @@ public interface XOManager extends AutoCloseable {
      */
     <S, R, T> R create(Example<R> example, S source, Class<R> relationType, T target);
 
+    /**
+     * Creates a batch of typed relations between source and target instances.
+     * <p>
+     * The relation metadata is resolved once for each combination of source
+     * and target types. The triples are read and the relations are created by
+     * the datastore in bulk operations for chunks of triples while the
+     * returned iterator is consumed, i.e. it must be iterated to create all
+     * relations. Instance listeners are notified after each chunk. As each
+     * chunk is created by a separate invocation a configured periodic commit
+     * may commit the running transaction between chunks.
+     * </p>
+     *
+     * @param relationType
+     *            The relation type.
+     * @param triples
+     *            The source and target instances and optional examples of the
+     *            relations to create.
+     * @param <S>
+     *            The source type.
+     * @param <R>
+     *            The relation type.
+     * @param <T>
+     *            The target type.
+     * @return The iterator over the created relation instances in the order
+     *         of the provided triples.
+     */
+    <S, R, T> ResultIterator<R> createAllRelations(Class<R> relationType, Iterable<RelationTriple<S, R, T>> triples);
+
     /**
      * Return a repository instance for the given type.
      *
@@ -309,6 +361,36 @@ public interface XOManager extends AutoCloseable {
      */
     <T> XOMigrator migrate(T instance);
 
+    /**
+     * Create an {@link XOFetchPlan} for loading the entities referenced by the
+     * given entity instance.
+     *
+     * @param instance
+     *            The entity instance.
+     * @param <T>
+     *            The instance type.
+     * @return The fetch plan.
+     */
+    <T> XOFetchPlan fetch(T instance);
+
+    /**
+     * Create an {@link XOExporter} writing to the given stream.
+     *
+     * @param outputStream
+     *            The output stream.
+     * @return The exporter.
+     */
+    XOExporter createExporter(OutputStream outputStream);
+
+    /**
+     * Create an {@link XOImporter} reading from the given stream.
+     *
+     * @param inputStream
+     *            The input stream.
+     * @return The importer.
+     */
+    XOImporter createImporter(InputStream inputStream);
+
     /**
      * Deletes a property instance.
      *
@@ -411,6 +493,24 @@ public interface XOManager extends AutoCloseable {
     @Transaction(NOT_SUPPORTED)
     <I> void registerInstanceListener(I instanceListener);
 
+    /**
+     * Return the statistics of the cache holding the entity instances of this
+     * {@link com.buschmais.xo.api.XOManager}.
+     *
+     * @return The cache statistics.
+     */
+    @Transaction(NOT_SUPPORTED)
+    CacheStatistics getEntityCacheStatistics();
+
+    /**
+     * Return the statistics of the cache holding the relation instances of
+     * this {@link com.buschmais.xo.api.XOManager}.
+     *
+     * @return The cache statistics.
+     */
+    @Transaction(NOT_SUPPORTED)
+    CacheStatistics getRelationCacheStatistics();
+
     /**
      * Defines the interface of strategies for migration between different
      * composite object types.
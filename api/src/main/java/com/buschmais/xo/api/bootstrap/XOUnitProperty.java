@@ -0,0 +1,140 @@
+package com.buschmais.xo.api.bootstrap;
+
+import java.util.Properties;
+
+import com.buschmais.xo.api.XOException;
+
+/**
+ * Identifiers for optional properties of a {@link XOUnit} which configure the
+ * XO implementation.
+ */
+public enum XOUnitProperty {
+
+    /**
+     * The engine used for creating proxy instances: "jdk" (default) or
+     * "bytecode".
+     */
+    PROXY_ENGINE("xo.proxy.engine"),
+
+    /**
+     * If "true" the proxy classes of all registered entity and relation types
+     * are created while the {@link com.buschmais.xo.api.XOManagerFactory} is
+     * initialized instead of on first use.
+     */
+    PROXY_PRELOAD("xo.proxy.preload"),
+
+    /**
+     * If "true" all types listed in the type indexes (META-INF/xo/types)
+     * created by the XO annotation processor are registered in addition to the
+     * types of the XO unit.
+     */
+    TYPE_INDEX("xo.types.index"),
+
+    /**
+     * The number of instances written by mutating operations after which a
+     * running transaction is committed and re-opened automatically, "0"
+     * (default) disables periodic commits. Mutating operations are refused
+     * while the limit is exceeded and query results are open.
+     */
+    PERIODIC_COMMIT("xo.transaction.periodicCommit"),
+
+    /**
+     * The references used for holding instances which have been read: "weak"
+     * (default) or "soft".
+     */
+    CACHE_VALUES("xo.cache.values"),
+
+    /**
+     * The maximum number of read instances which are retained per type of
+     * cache if they are not referenced by the application anymore, "0"
+     * (default) means unbounded.
+     */
+    CACHE_MAXIMUM_SIZE("xo.cache.maximumSize"),
+
+    /**
+     * The maximum number of cached read entity instances, overrides
+     * {@link #CACHE_MAXIMUM_SIZE}.
+     */
+    ENTITY_CACHE_MAXIMUM_SIZE("xo.cache.entities.maximumSize"),
+
+    /**
+     * The maximum number of cached read relation instances, overrides
+     * {@link #CACHE_MAXIMUM_SIZE}.
+     */
+    RELATION_CACHE_MAXIMUM_SIZE("xo.cache.relations.maximumSize"),
+
+    /**
+     * The maximum number of entities whose state is cached by the second level
+     * cache shared by all sessions of a
+     * {@link com.buschmais.xo.api.XOManagerFactory}, "0" (default) disables
+     * the second level cache.
+     */
+    SECOND_LEVEL_CACHE_MAXIMUM_SIZE("xo.cache.secondLevel.maximumSize"),
+
+    /**
+     * The maximum number of closed {@link com.buschmais.xo.api.XOManager}
+     * instances which are kept by a
+     * {@link com.buschmais.xo.api.XOManagerFactory} for being reused, "0"
+     * (default) disables pooling.
+     */
+    SESSION_POOL_MAXIMUM_SIZE("xo.session.pool.maximumSize");
+
+    private final String key;
+
+    XOUnitProperty(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Return the value of this property for the given XO unit.
+     *
+     * @param xoUnit
+     *            The XO unit.
+     * @param defaultValue
+     *            The value to return if the property is not set.
+     * @return The value.
+     */
+    public String get(XOUnit xoUnit, String defaultValue) {
+        Properties properties = xoUnit.getProperties();
+        Object value = properties != null ? properties.get(key) : null;
+        return value != null ? value.toString().trim() : defaultValue;
+    }
+
+    /**
+     * Return the boolean value of this property for the given XO unit.
+     *
+     * @param xoUnit
+     *            The XO unit.
+     * @param defaultValue
+     *            The value to return if the property is not set.
+     * @return The value.
+     */
+    public boolean getBoolean(XOUnit xoUnit, boolean defaultValue) {
+        return Boolean.parseBoolean(get(xoUnit, Boolean.toString(defaultValue)));
+    }
+
+    /**
+     * Return the integer value of this property for the given XO unit.
+     *
+     * @param xoUnit
+     *            The XO unit.
+     * @param defaultValue
+     *            The value to return if the property is not set.
+     * @return The value.
+     */
+    public int getInt(XOUnit xoUnit, int defaultValue) {
+        String value = get(xoUnit, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new XOException("Invalid value '" + value + "' for property " + key, e);
+        }
+    }
+}
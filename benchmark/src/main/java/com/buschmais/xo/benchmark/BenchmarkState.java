@@ -0,0 +1,103 @@
+package com.buschmais.xo.benchmark;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.bootstrap.XO;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.benchmark.composite.Node;
+import com.buschmais.xo.neo4j.api.Neo4jXOProvider;
+import com.buschmais.xo.test.trace.api.TraceDatastoreProvider;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.URISyntaxException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base state for all benchmarks, provides a {@link XOManager} with an active
+ * transaction for the configured datastore.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkState {
+
+    /**
+     * The datastores the benchmarks are executed against.
+     */
+    public enum Datastore {
+        /**
+         * In-memory Neo4j datastore.
+         */
+        NEO4J,
+        /**
+         * Trace datastore delegating to the in-memory Neo4j datastore.
+         */
+        TRACE;
+    }
+
+    private static final AtomicInteger UNIT_COUNTER = new AtomicInteger();
+
+    @Param({"NEO4J", "TRACE"})
+    public Datastore datastore;
+
+    private XOManagerFactory xoManagerFactory;
+
+    private XOManager xoManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws URISyntaxException {
+        xoManagerFactory = XO.createXOManagerFactory(getXOUnit());
+        xoManager = xoManagerFactory.createXOManager();
+        xoManager.currentTransaction().begin();
+        populate(xoManager);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (xoManager.currentTransaction().isActive()) {
+            xoManager.currentTransaction().rollback();
+        }
+        xoManager.close();
+        xoManagerFactory.close();
+    }
+
+    /**
+     * Populate the datastore before the benchmark is executed.
+     *
+     * @param xoManager
+     *            The {@link XOManager}.
+     */
+    protected void populate(XOManager xoManager) {
+    }
+
+    public XOManager getXoManager() {
+        return xoManager;
+    }
+
+    private XOUnit getXOUnit() throws URISyntaxException {
+        String name = "benchmark-" + datastore.name().toLowerCase() + "-" + UNIT_COUNTER.incrementAndGet();
+        switch (datastore) {
+        case NEO4J:
+            return builder(Neo4jXOProvider.class).name(name).create();
+        case TRACE:
+            return builder(TraceDatastoreProvider.class).name(name).property(TraceDatastoreProvider.DELEGATE_KEY, Neo4jXOProvider.class.getName())
+                    .create();
+        default:
+            throw new IllegalArgumentException("Unsupported datastore " + datastore);
+        }
+    }
+
+    private XOUnitBuilder builder(Class<?> provider) throws URISyntaxException {
+        return XOUnitBuilder.create("memory:///", provider, Node.class).validationMode(ValidationMode.NONE)
+                .concurrencyMode(ConcurrencyMode.SINGLETHREADED).transactionAttribute(Transaction.TransactionAttribute.NONE);
+    }
+}
@@ -0,0 +1,68 @@
+package com.buschmais.xo.benchmark;
+
+import com.buschmais.xo.api.ResultIterable;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.benchmark.composite.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the entity related operations of {@link XOManager}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Creates a batch of entities within one transaction.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void create(BenchmarkState state, Blackhole blackhole) {
+        XOManager xoManager = state.getXoManager();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Node node = xoManager.create(Node.class);
+            node.setValue(i);
+            blackhole.consume(node);
+        }
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+    }
+
+    @Benchmark
+    public Node findById(GraphState state) {
+        return state.getXoManager().findById(Node.class, state.getRootId());
+    }
+
+    @Benchmark
+    public Node find(GraphState state) {
+        ResultIterable<Node> result = state.getXoManager().find(Node.class, GraphState.ROOT);
+        return result.getSingleResult();
+    }
+
+    /**
+     * Modifies all children of the root node and flushes the changes to the
+     * datastore.
+     */
+    @Benchmark
+    public void flush(GraphState state) {
+        for (Node child : state.getRoot().getChildren()) {
+            child.setValue(child.getValue() + 1);
+        }
+        state.getXoManager().flush();
+    }
+}
@@ -0,0 +1,45 @@
+package com.buschmais.xo.benchmark;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.benchmark.composite.Node;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * State providing a root {@link Node} having a configurable number of
+ * children.
+ */
+@State(Scope.Benchmark)
+public class GraphState extends BenchmarkState {
+
+    static final String ROOT = "root";
+
+    @Param({"100"})
+    public int children;
+
+    private Node root;
+
+    private Object rootId;
+
+    @Override
+    protected void populate(XOManager xoManager) {
+        root = xoManager.create(Node.class);
+        root.setName(ROOT);
+        for (int i = 0; i < children; i++) {
+            Node child = xoManager.create(Node.class);
+            child.setName("child-" + i);
+            child.setValue(i);
+            root.getChildren().add(child);
+        }
+        rootId = xoManager.getId(root);
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public Object getRootId() {
+        return rootId;
+    }
+}
@@ -0,0 +1,107 @@
+package com.buschmais.xo.benchmark;
+
+import com.buschmais.xo.spi.interceptor.InterceptorFactory;
+import com.buschmais.xo.spi.interceptor.InvocationContext;
+import com.buschmais.xo.spi.interceptor.XOInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for invocations through the interceptor chain without a
+ * datastore.
+ * <p>
+ * Running the class verifies that an intercepted invocation does not
+ * allocate, i.e. that the normalized allocation rate reported by the GC
+ * profiler does not exceed {@link #MAX_ALLOCATION_PER_OPERATION} bytes:
+ * </p>
+ *
+ * <pre>
+ * java -cp benchmark/target/benchmarks.jar com.buschmais.xo.benchmark.InterceptorBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorBenchmark {
+
+    /**
+     * The accepted allocation per operation in bytes.
+     */
+    static final double MAX_ALLOCATION_PER_OPERATION = 1;
+
+    private static final String ALLOCATION_RATE_NORM = "\u00b7gc.alloc.rate.norm";
+
+    public interface Value {
+
+        Object get();
+    }
+
+    @State(Scope.Thread)
+    public static class InterceptorState {
+
+        private Value value;
+
+        @Setup
+        public void setUp() {
+            InterceptorFactory interceptorFactory = new InterceptorFactory(Arrays.asList(new PassThroughInterceptor(), new PassThroughInterceptor()));
+            final Object result = new Object();
+            value = interceptorFactory.addInterceptor(new Value() {
+                @Override
+                public Object get() {
+                    return result;
+                }
+            }, Value.class);
+        }
+    }
+
+    @Benchmark
+    public Object invoke(InterceptorState state) {
+        return state.value.get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (RunResult runResult : new Runner(new OptionsBuilder().include(InterceptorBenchmark.class.getName()).addProfiler(GCProfiler.class).build())
+                .run()) {
+            Result allocation = runResult.getSecondaryResults().get(ALLOCATION_RATE_NORM);
+            if (allocation == null) {
+                throw new IllegalStateException("The GC profiler did not report " + ALLOCATION_RATE_NORM);
+            }
+            if (allocation.getScore() > MAX_ALLOCATION_PER_OPERATION) {
+                throw new IllegalStateException(runResult.getParams().getBenchmark() + " allocates " + allocation.getScore()
+                        + " bytes per operation, expected at most " + MAX_ALLOCATION_PER_OPERATION);
+            }
+        }
+    }
+
+    private static class PassThroughInterceptor implements XOInterceptor {
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public Object invoke(InvocationContext invocationContext) throws Throwable {
+            return invocationContext.proceed();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.buschmais.xo.benchmark;
+
+import com.buschmais.xo.benchmark.composite.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for property access and collection iteration on entity proxies.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyBenchmark {
+
+    @Benchmark
+    public String getProperty(GraphState state) {
+        return state.getRoot().getName();
+    }
+
+    @Benchmark
+    public void setProperty(GraphState state) {
+        Node root = state.getRoot();
+        root.setValue(root.getValue() + 1);
+    }
+
+    @Benchmark
+    public void iterateCollection(GraphState state, Blackhole blackhole) {
+        for (Node child : state.getRoot().getChildren()) {
+            blackhole.consume(child);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.buschmais.xo.benchmark;
+
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for query execution including decoding of the result rows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final String QUERY = "match (r:Node)-[:CHILD]->(c:Node) where r.name={name} return c, c.value as value";
+
+    @Benchmark
+    public void execute(GraphState state, Blackhole blackhole) {
+        Query<CompositeRowObject> query = state.getXoManager().createQuery(QUERY);
+        Result<CompositeRowObject> result = query.withParameter("name", GraphState.ROOT).execute();
+        for (CompositeRowObject row : result) {
+            blackhole.consume(row.get("c", Object.class));
+            blackhole.consume(row.get("value", Long.class));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.buschmais.xo.benchmark.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Indexed;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+import java.util.List;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+/**
+ * Entity type used by the benchmarks.
+ */
+@Label("Node")
+public interface Node {
+
+    @Indexed(create = true)
+    String getName();
+
+    void setName(String name);
+
+    long getValue();
+
+    void setValue(long value);
+
+    @Relation("CHILD")
+    @Outgoing
+    List<Node> getChildren();
+
+}
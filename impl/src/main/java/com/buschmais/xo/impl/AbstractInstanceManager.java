@@ -53,7 +53,7 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> implem
      */
     @Override
     public <T> T readInstance(DatastoreType datastoreType) {
-        return getInstance(datastoreType, TransactionalCache.Mode.READ);
+        return getInstance(datastoreType, TransactionalCache.Mode.READ, false);
     }
 
     /**
@@ -68,12 +68,39 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> implem
      */
     @Override
     public <T> T createInstance(DatastoreType datastoreType) {
-        return getInstance(datastoreType, TransactionalCache.Mode.WRITE);
+        return getInstance(datastoreType, TransactionalCache.Mode.WRITE, true);
     }
 
+    /**
+     * Return the proxy instance which corresponds to the given datastore type
+     * for writing without modifying its state, e.g. for the endpoints of a
+     * created or removed relation. The instance is not flushed unless its
+     * state is modified.
+     *
+     * @param datastoreType
+     *            The datastore type.
+     * @param <T>
+     *            The instance type.
+     * @return The instance.
+     */
     @Override
     public <T> T updateInstance(DatastoreType datastoreType) {
-        return getInstance(datastoreType, TransactionalCache.Mode.WRITE);
+        return getInstance(datastoreType, TransactionalCache.Mode.WRITE, false);
+    }
+
+    /**
+     * Return the proxy instance which corresponds to the given datastore type
+     * after its state has been modified, i.e. it is flushed before the
+     * transaction completes.
+     *
+     * @param datastoreType
+     *            The datastore type.
+     * @param <T>
+     *            The instance type.
+     * @return The instance.
+     */
+    public <T> T modifyInstance(DatastoreType datastoreType) {
+        return getInstance(datastoreType, TransactionalCache.Mode.WRITE, true);
     }
 
     /**
@@ -81,11 +108,16 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> implem
      *
      * @param datastoreType
      *            The datastore type.
+     * @param cacheMode
+     *            The cache mode.
+     * @param dirty
+     *            If <code>true</code> the state of the instance is marked as
+     *            modified.
      * @param <T>
      *            The instance type.
      * @return The instance.
      */
-    private <T> T getInstance(DatastoreType datastoreType, TransactionalCache.Mode cacheMode) {
+    private <T> T getInstance(DatastoreType datastoreType, TransactionalCache.Mode cacheMode, boolean dirty) {
         DatastoreId id = getDatastoreId(datastoreType);
         Object instance = cache.get(id, cacheMode);
         if (instance == null) {
@@ -93,11 +125,17 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> implem
             TypeMetadataSet<?> types = getTypes(datastoreType);
             validateTypes(types);
             instance = proxyFactory.createInstance(invocationHandler, types.getCompositeType());
-            cache.put(id, instance, cacheMode);
-            if (TransactionalCache.Mode.READ.equals(cacheMode)) {
+            // another thread may have created a proxy for the same id in the meantime
+            Object present = cache.putIfAbsent(id, instance, cacheMode);
+            if (present != null) {
+                instance = present;
+            } else if (TransactionalCache.Mode.READ.equals(cacheMode)) {
                 instanceListenerService.postLoad(instance);
             }
         }
+        if (dirty) {
+            cache.markDirty(id);
+        }
         return (T) instance;
     }
 
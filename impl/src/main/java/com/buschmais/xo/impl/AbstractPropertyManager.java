@@ -10,11 +10,24 @@ import java.util.Map;
 
 public abstract class AbstractPropertyManager<DatastoreType> {
 
+    private final boolean threadBound;
+
     private Map<DatastoreType, Map<String, Object>> transientInstances = null;
 
+    /**
+     * Constructor.
+     *
+     * @param threadBound <code>true</code> if the session is used by concurrent threads, i.e. access to transient
+     *                    properties must be synchronized.
+     */
+    protected AbstractPropertyManager(boolean threadBound) {
+        this.threadBound = threadBound;
+    }
+
     public void setProperty(DatastoreType datastoreType, PrimitivePropertyMethodMetadata metadata, Object value) {
-        getDatastorePropertyManager().setProperty(datastoreType, metadata, value);
-        getInstanceManager().updateInstance(datastoreType);
+        if (getDatastorePropertyManager().setProperty(datastoreType, metadata, value)) {
+            getInstanceManager().modifyInstance(datastoreType);
+        }
     }
 
     public Object getProperty(DatastoreType datastoreType, PrimitivePropertyMethodMetadata metadata) {
@@ -27,14 +40,25 @@ public abstract class AbstractPropertyManager<DatastoreType> {
 
     public void removeProperty(DatastoreType datastoreType, PrimitivePropertyMethodMetadata metadata) {
         getDatastorePropertyManager().removeProperty(datastoreType, metadata);
-        getInstanceManager().updateInstance(datastoreType);
+        getInstanceManager().modifyInstance(datastoreType);
     }
 
     public void setTransientProperty(DatastoreType datastoreType, TransientPropertyMethodMetadata metadata, Object value) {
-        getTransientProperties(datastoreType).put(metadata.getAnnotatedMethod().getName(), value);
+        if (threadBound) {
+            synchronized (this) {
+                getTransientProperties(datastoreType).put(metadata.getAnnotatedMethod().getName(), value);
+            }
+        } else {
+            getTransientProperties(datastoreType).put(metadata.getAnnotatedMethod().getName(), value);
+        }
     }
 
     public Object getTransientProperty(DatastoreType datastoreType, TransientPropertyMethodMetadata metadata) {
+        if (threadBound) {
+            synchronized (this) {
+                return getTransientProperties(datastoreType).get(metadata.getAnnotatedMethod().getName());
+            }
+        }
         return getTransientProperties(datastoreType).get(metadata.getAnnotatedMethod().getName());
     }
 
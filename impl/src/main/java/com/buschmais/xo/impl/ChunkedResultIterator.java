@@ -0,0 +1,88 @@
+package com.buschmais.xo.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.buschmais.xo.api.ResultIterator;
+
+/**
+ * A {@link ResultIterator} which creates instances from the provided elements
+ * in chunks while it is consumed, i.e. the next chunk is read and created after
+ * the instances of the current chunk have been returned.
+ *
+ * @param <E>
+ *            The type of the elements.
+ * @param <T>
+ *            The type of the created instances.
+ */
+public abstract class ChunkedResultIterator<E, T> implements CreatingResultIterator<T> {
+
+    private final Iterator<E> elements;
+
+    private final int chunkSize;
+
+    private Iterator<T> chunk = Collections.emptyIterator();
+
+    private boolean closed = false;
+
+    /**
+     * Constructor.
+     *
+     * @param elements
+     *            The elements.
+     * @param chunkSize
+     *            The maximum number of elements which are passed to
+     *            {@link #create(List)}.
+     */
+    protected ChunkedResultIterator(Iterator<E> elements, int chunkSize) {
+        this.elements = elements;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!closed && !chunk.hasNext() && elements.hasNext()) {
+            List<E> next = new ArrayList<>(chunkSize);
+            while (next.size() < chunkSize && elements.hasNext()) {
+                next.add(elements.next());
+            }
+            chunk = create(next).iterator();
+        }
+        return chunk.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more instances available.");
+        }
+        return chunk.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Cannot remove instance.");
+    }
+
+    /**
+     * Discards the remaining elements, i.e. already created instances are
+     * kept.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        chunk = Collections.emptyIterator();
+    }
+
+    /**
+     * Create the instances for a chunk of elements.
+     *
+     * @param chunk
+     *            The elements.
+     * @return The created instances in the order of the elements.
+     */
+    protected abstract List<T> create(List<E> chunk);
+}
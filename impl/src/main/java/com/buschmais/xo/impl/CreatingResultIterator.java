@@ -0,0 +1,20 @@
+package com.buschmais.xo.impl;
+
+import com.buschmais.xo.api.ResultIterator;
+
+/**
+ * The interface to be used for intercepting a {@link ChunkedResultIterator}.
+ * The methods create instances, i.e. unlike the methods inherited from
+ * {@link ResultIterator} they are not read only.
+ *
+ * @param <T>
+ *            The type of the created instances.
+ */
+public interface CreatingResultIterator<T> extends ResultIterator<T> {
+
+    @Override
+    boolean hasNext();
+
+    @Override
+    T next();
+}
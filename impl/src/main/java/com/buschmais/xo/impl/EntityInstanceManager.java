@@ -3,8 +3,10 @@ package com.buschmais.xo.impl;
 import java.util.Set;
 
 import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.cache.SecondLevelCache;
 import com.buschmais.xo.impl.proxy.ProxyMethodService;
 import com.buschmais.xo.impl.proxy.entity.EntityProxyMethodService;
+import com.buschmais.xo.spi.datastore.DatastoreEntityManager;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 
 public class EntityInstanceManager<EntityId, Entity, EntityDiscriminator> extends AbstractInstanceManager<EntityId, Entity> {
@@ -33,8 +35,36 @@ public class EntityInstanceManager<EntityId, Entity, EntityDiscriminator> extend
 
     @Override
     protected TypeMetadataSet<?> getTypes(Entity entity) {
-        Set<EntityDiscriminator> discriminators = sessionContext.getDatastoreSession().getDatastoreEntityManager().getEntityDiscriminators(entity);
-        return sessionContext.getMetadataProvider().getTypes(discriminators);
+        return sessionContext.getMetadataProvider().getTypes(getDiscriminators(entity));
+    }
+
+    /**
+     * Return the discriminators of an entity using the second level cache if
+     * it is enabled and the entity has not been modified within the current
+     * transaction.
+     *
+     * @param entity
+     *            The entity.
+     * @return The discriminators.
+     */
+    private Set<EntityDiscriminator> getDiscriminators(Entity entity) {
+        DatastoreEntityManager<EntityId, Entity, ?, EntityDiscriminator, ?> datastoreEntityManager = sessionContext.getDatastoreSession()
+                .getDatastoreEntityManager();
+        SecondLevelCache<EntityDiscriminator> secondLevelCache = sessionContext.getSecondLevelCache();
+        if (secondLevelCache == null) {
+            return datastoreEntityManager.getEntityDiscriminators(entity);
+        }
+        EntityId id = getDatastoreId(entity);
+        if (sessionContext.getEntityCache().isModified(id)) {
+            return datastoreEntityManager.getEntityDiscriminators(entity);
+        }
+        Set<EntityDiscriminator> discriminators = secondLevelCache.getDiscriminators(id);
+        if (discriminators == null) {
+            long generation = secondLevelCache.getGeneration(id);
+            discriminators = datastoreEntityManager.getEntityDiscriminators(entity);
+            secondLevelCache.putDiscriminators(id, discriminators, generation);
+        }
+        return discriminators;
     }
 
     @Override
@@ -1,27 +1,37 @@
 package com.buschmais.xo.impl;
 
 import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.cache.SecondLevelCache;
 import com.buschmais.xo.spi.datastore.DatastorePropertyManager;
 import com.buschmais.xo.spi.datastore.DatastoreRelationManager;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.metadata.method.*;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends AbstractPropertyManager<Entity> {
 
     private final SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, PropertyMetadata> sessionContext;
 
+    /**
+     * The relations read by fetch plans, i.e. the relations of an entity reference or collection property by the id of
+     * the entity.
+     */
+    private final Map<Object, Map<AbstractRelationPropertyMethodMetadata<?>, List<Relation>>> fetchedRelations;
+
     /**
      * Constructor.
      *
      * @param sessionContext The {@link SessionContext}.
+     * @param threadBound    <code>true</code> if the session is used by concurrent threads.
      */
-    public EntityPropertyManager(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, PropertyMetadata> sessionContext) {
+    public EntityPropertyManager(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, PropertyMetadata> sessionContext, boolean threadBound) {
+        super(threadBound);
         this.sessionContext = sessionContext;
+        this.fetchedRelations = threadBound ? new ConcurrentHashMap<Object, Map<AbstractRelationPropertyMethodMetadata<?>, List<Relation>>>()
+                : new HashMap<Object, Map<AbstractRelationPropertyMethodMetadata<?>, List<Relation>>>();
     }
 
     @Override
@@ -34,6 +44,44 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
         return sessionContext.getEntityInstanceManager();
     }
 
+    @Override
+    public Object getProperty(Entity entity, PrimitivePropertyMethodMetadata metadata) {
+        Object value = getCachedProperty(entity, metadata);
+        return value != null && value != SecondLevelCache.ABSENT ? value : super.getProperty(entity, metadata);
+    }
+
+    @Override
+    public boolean hasProperty(Entity entity, PrimitivePropertyMethodMetadata metadata) {
+        Object value = getCachedProperty(entity, metadata);
+        return value != null ? value != SecondLevelCache.ABSENT : super.hasProperty(entity, metadata);
+    }
+
+    /**
+     * Return the value of a property using the second level cache.
+     *
+     * @param entity   The entity.
+     * @param metadata The property.
+     * @return The value, {@link SecondLevelCache#ABSENT} if the entity does not have the property or <code>null</code>
+     * if the second level cache cannot be used.
+     */
+    private Object getCachedProperty(Entity entity, PrimitivePropertyMethodMetadata metadata) {
+        SecondLevelCache<?> secondLevelCache = sessionContext.getSecondLevelCache();
+        if (secondLevelCache == null) {
+            return null;
+        }
+        Object id = sessionContext.getEntityInstanceManager().getDatastoreId(entity);
+        if (sessionContext.getEntityCache().isModified(id)) {
+            return null;
+        }
+        Object value = secondLevelCache.getProperty(id, metadata);
+        if (value == null) {
+            long generation = secondLevelCache.getGeneration(id);
+            value = super.hasProperty(entity, metadata) ? super.getProperty(entity, metadata) : SecondLevelCache.ABSENT;
+            secondLevelCache.putProperty(id, metadata, value, generation);
+        }
+        return value;
+    }
+
     public <T> T createEntityReference(Entity sourceEntity, AbstractRelationPropertyMethodMetadata<?> metadata, Object target) {
         AbstractInstanceManager<?, Entity> instanceManager = sessionContext.getEntityInstanceManager();
         Entity targetEntity = target != null ? instanceManager.getDatastoreType(target) : null;
@@ -53,7 +101,70 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
         return null;
     }
 
+    /**
+     * Create a batch of relation references between source entities and
+     * target instances.
+     * <p>
+     * Relations represented by collections on both sides are created using a
+     * single bulk operation of the datastore, all others (i.e. single
+     * references which may replace an existing relation) one by one.
+     * </p>
+     *
+     * @param sourceEntities
+     *            The source entities.
+     * @param fromProperty
+     *            The property metadata of the sources.
+     * @param targets
+     *            The target instances.
+     * @param toProperty
+     *            The property metadata of the targets.
+     * @param examples
+     *            The examples.
+     * @param <T>
+     *            The relation type.
+     * @return The relation instances in the order of the provided sources.
+     */
+    public <T> List<T> createRelationReferences(List<Entity> sourceEntities, AbstractRelationPropertyMethodMetadata<?> fromProperty, List<?> targets,
+            AbstractRelationPropertyMethodMetadata<?> toProperty, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        AbstractInstanceManager<?, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
+        List<Entity> targetEntities = new ArrayList<>(targets.size());
+        for (Object target : targets) {
+            targetEntities.add(entityInstanceManager.getDatastoreType(target));
+        }
+        clearFetchedRelations();
+        List<Relation> relations;
+        if (isSingleReference(fromProperty) || isSingleReference(toProperty)) {
+            relations = new ArrayList<>(sourceEntities.size());
+            for (int i = 0; i < sourceEntities.size(); i++) {
+                relations.add(createRelation(sourceEntities.get(i), fromProperty, targetEntities.get(i), toProperty, examples.get(i)));
+            }
+        } else if (fromProperty instanceof EntityCollectionPropertyMethodMetadata || fromProperty instanceof RelationCollectionPropertyMethodMetadata) {
+            DatastoreRelationManager<Entity, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, PropertyMetadata> relationManager = sessionContext
+                    .getDatastoreSession().getDatastoreRelationManager();
+            relations = relationManager.createRelations(sourceEntities, (RelationTypeMetadata) fromProperty.getRelationshipMetadata(),
+                    fromProperty.getDirection(), targetEntities, examples);
+        } else {
+            throw new XOException("Unsupported relation type " + fromProperty.getClass().getName());
+        }
+        Set<Entity> updatedEntities = Collections.newSetFromMap(new IdentityHashMap<Entity, Boolean>());
+        for (Entity targetEntity : targetEntities) {
+            if (updatedEntities.add(targetEntity)) {
+                entityInstanceManager.updateInstance(targetEntity);
+            }
+        }
+        AbstractInstanceManager<?, Relation> relationInstanceManager = sessionContext.getRelationInstanceManager();
+        List<T> instances = new ArrayList<>(relations.size());
+        for (Relation relation : relations) {
+            instances.add(relationInstanceManager.<T> createInstance(relation));
+        }
+        return instances;
+    }
+
     public Object getEntityReference(Entity entity, EntityReferencePropertyMethodMetadata metadata) {
+        List<Relation> fetched = getFetchedRelations(entity, metadata);
+        if (fetched != null) {
+            return fetched.isEmpty() ? null : sessionContext.getEntityInstanceManager().readInstance(getReferencedEntity(fetched.get(0), metadata.getDirection()));
+        }
         DatastoreRelationManager<Entity, ?, Relation, ?, ?, ?> relationManager = sessionContext.getDatastoreSession().getDatastoreRelationManager();
         if (relationManager.hasSingleRelation(entity, metadata.getRelationshipMetadata(), metadata.getDirection())) {
             Relation singleRelation = (Relation) relationManager.getSingleRelation(entity, metadata.getRelationshipMetadata(), metadata.getDirection());
@@ -64,8 +175,11 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
     }
 
     public Iterator<Entity> getEntityCollection(Entity entity, final EntityCollectionPropertyMethodMetadata<?> metadata) {
-        Iterable<Relation> relations = sessionContext.getDatastoreSession().getDatastoreRelationManager()
-                .getRelations(entity, metadata.getRelationshipMetadata(), metadata.getDirection());
+        Iterable<Relation> relations = getFetchedRelations(entity, metadata);
+        if (relations == null) {
+            relations = sessionContext.getDatastoreSession().getDatastoreRelationManager().getRelations(entity, metadata.getRelationshipMetadata(),
+                    metadata.getDirection());
+        }
         final Iterator<Relation> iterator = relations.iterator();
         return new Iterator<Entity>() {
             @Override
@@ -85,6 +199,46 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
         };
     }
 
+    /**
+     * Return the size of an entity or relation collection without iterating
+     * the relations.
+     *
+     * @param entity   The entity.
+     * @param metadata The collection property.
+     * @return The size.
+     */
+    public long getCollectionSize(Entity entity, AbstractRelationPropertyMethodMetadata<?> metadata) {
+        List<Relation> fetched = getFetchedRelations(entity, metadata);
+        if (fetched != null) {
+            return fetched.size();
+        }
+        return sessionContext.getDatastoreSession().getDatastoreRelationManager()
+                .getRelationCount(entity, metadata.getRelationshipMetadata(), metadata.getDirection());
+    }
+
+    /**
+     * Determine if an entity collection contains a target instance.
+     *
+     * @param entity   The entity.
+     * @param metadata The collection property.
+     * @param target   The target instance.
+     * @return <code>true</code> if the collection contains the target.
+     */
+    public boolean hasEntityReference(Entity entity, EntityCollectionPropertyMethodMetadata<?> metadata, Object target) {
+        Entity targetEntity = sessionContext.getEntityInstanceManager().getDatastoreType(target);
+        List<Relation> fetched = getFetchedRelations(entity, metadata);
+        if (fetched != null) {
+            for (Relation relation : fetched) {
+                if (getReferencedEntity(relation, metadata.getDirection()).equals(targetEntity)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return sessionContext.getDatastoreSession().getDatastoreRelationManager()
+                .hasRelation(entity, metadata.getRelationshipMetadata(), metadata.getDirection(), targetEntity);
+    }
+
     public Object getRelationReference(Entity entity, RelationReferencePropertyMethodMetadata<?> metadata) {
         DatastoreRelationManager<Entity, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, ?> relationManager = sessionContext.getDatastoreSession()
                 .getDatastoreRelationManager();
@@ -124,6 +278,7 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
     }
 
     private void removeRelation(Entity source, Relation relation, AbstractRelationPropertyMethodMetadata<?> metadata) {
+        clearFetchedRelations();
         AbstractInstanceManager<?, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
         entityInstanceManager.updateInstance(source);
         entityInstanceManager.updateInstance(getReferencedEntity(relation, metadata.getDirection()));
@@ -137,6 +292,36 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
 
     }
 
+    /**
+     * Provide the relations of an entity reference or collection property which have been read by a fetch plan, these
+     * are used instead of reading the relations from the datastore until {@link #clearFetchedRelations()} is called.
+     *
+     * @param entity    The entity.
+     * @param relations The relations by property, each list must contain all relations of the property.
+     */
+    public void putFetchedRelations(Entity entity, Map<AbstractRelationPropertyMethodMetadata<?>, List<Relation>> relations) {
+        fetchedRelations.put(sessionContext.getEntityInstanceManager().getDatastoreId(entity), relations);
+    }
+
+    /**
+     * Discard the relations which have been read by fetch plans, i.e. after relations have been created or removed or
+     * the transaction has been completed.
+     */
+    public void clearFetchedRelations() {
+        if (!fetchedRelations.isEmpty()) {
+            fetchedRelations.clear();
+        }
+    }
+
+    private List<Relation> getFetchedRelations(Entity entity, AbstractRelationPropertyMethodMetadata<?> metadata) {
+        if (fetchedRelations.isEmpty()) {
+            return null;
+        }
+        Map<AbstractRelationPropertyMethodMetadata<?>, List<Relation>> relations = fetchedRelations.get(sessionContext.getEntityInstanceManager()
+                .getDatastoreId(entity));
+        return relations != null ? relations.get(metadata) : null;
+    }
+
     private Entity getReferencedEntity(Relation relation, RelationTypeMetadata.Direction direction) {
         DatastoreRelationManager<Entity, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, ?> relationManager = sessionContext.getDatastoreSession()
                 .getDatastoreRelationManager();
@@ -150,8 +335,13 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
         }
     }
 
+    private boolean isSingleReference(AbstractRelationPropertyMethodMetadata<?> property) {
+        return property instanceof EntityReferencePropertyMethodMetadata || property instanceof RelationReferencePropertyMethodMetadata;
+    }
+
     private Relation createRelation(Entity sourceEntity, AbstractRelationPropertyMethodMetadata<?> fromProperty, Entity targetEntity,
                                     AbstractRelationPropertyMethodMetadata<?> toProperty, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
+        clearFetchedRelations();
         Relation relation;
         if (fromProperty instanceof EntityReferencePropertyMethodMetadata || fromProperty instanceof RelationReferencePropertyMethodMetadata) {
             relation = createSingleReference(sourceEntity, fromProperty, targetEntity, example);
@@ -2,6 +2,7 @@ package com.buschmais.xo.impl;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.Set;
 
@@ -100,4 +101,23 @@ public interface MetadataProvider<EntityMetadata extends DatastoreEntityMetadata
      * @return The annotation or null if the element is not annotated with a query.
      */
     <QL extends Annotation> QL getQuery(AnnotatedElement annotatedElement);
+
+    /**
+     * Determine if a method only reads state, e.g. a property getter, a lookup
+     * by id or the iteration of results.
+     *
+     * @param method The method.
+     * @return <code>true</code> if the method is known to only read state, <code>false</code> if it may modify state.
+     */
+    boolean isReadOnly(Method method);
+
+    /**
+     * Determine if a method executes a query, e.g. a find method or a method
+     * annotated with {@link com.buschmais.xo.api.annotation.ResultOf}. A query
+     * only reads state but flushes modified instances before its execution.
+     *
+     * @param method The method.
+     * @return <code>true</code> if the method executes a query.
+     */
+    boolean isQuery(Method method);
 }
@@ -1,16 +1,13 @@
 package com.buschmais.xo.impl;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
 import java.util.Arrays;
 
 import com.buschmais.xo.api.CompositeType;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
+import com.buschmais.xo.impl.proxy.ProxyEngine;
 import com.buschmais.xo.spi.interceptor.InterceptorFactory;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 
 /**
  * The factory provides methods for creating dynamic proxies and unwrapping the
@@ -19,8 +16,7 @@ import com.google.common.cache.CacheBuilder;
 public class ProxyFactory {
 
     private final InterceptorFactory interceptorFactory;
-    private final ClassLoader classLoader;
-    private final Cache<CompositeType, Constructor<?>> classCache = CacheBuilder.newBuilder().maximumSize(512).build();
+    private final ProxyEngine proxyEngine;
 
     /**
      * Constructor.
@@ -28,12 +24,12 @@ public class ProxyFactory {
      * @param interceptorFactory
      *            The
      *            {@link com.buschmais.xo.spi.interceptor.InterceptorFactory}.
-     * @param classLoader
-     *            The class loader.
+     * @param proxyEngine
+     *            The {@link com.buschmais.xo.impl.proxy.ProxyEngine}.
      */
-    public ProxyFactory(InterceptorFactory interceptorFactory, ClassLoader classLoader) {
+    public ProxyFactory(InterceptorFactory interceptorFactory, ProxyEngine proxyEngine) {
         this.interceptorFactory = interceptorFactory;
-        this.classLoader = classLoader;
+        this.proxyEngine = proxyEngine;
     }
 
     /**
@@ -48,29 +44,8 @@ public class ProxyFactory {
      * @return The instance.
      */
     public <Instance> Instance createInstance(InvocationHandler invocationHandler, CompositeType compositeType) {
-        Class<?>[] classes = compositeType.getClasses();
-        Constructor<?> constructor = classCache.getIfPresent(compositeType);
-        if (constructor == null) {
-            Class<?> type;
-            try {
-                type = Proxy.getProxyClass(classLoader, classes);
-            } catch (IllegalArgumentException e) {
-                throw new XOException("Cannot create proxy for " + compositeType + " of classes " + compositeType.getClasses(), e);
-            }
-            try {
-                constructor = type.getConstructor(new Class<?>[] { InvocationHandler.class });
-            } catch (NoSuchMethodException e) {
-                throw new XOException("Cannot find constructor for " + compositeType, e);
-            }
-            classCache.put(compositeType, constructor);
-        }
-        Instance instance;
-        try {
-            instance = (Instance) constructor.newInstance(invocationHandler);
-        } catch (Exception e) {
-            throw new XOException("Cannot create instance of  " + compositeType, e);
-        }
-        return interceptorFactory.addInterceptor(instance, classes);
+        Instance instance = proxyEngine.createInstance(invocationHandler, compositeType);
+        return interceptorFactory.addInterceptor(instance, compositeType.getClasses());
     }
 
     /**
@@ -95,7 +70,7 @@ public class ProxyFactory {
         } else {
             effectiveInstance = instance;
         }
-        InvocationHandler invocationHandler = Proxy.getInvocationHandler(effectiveInstance);
+        InvocationHandler invocationHandler = proxyEngine.getInvocationHandler(effectiveInstance);
         if (!(invocationHandler instanceof InstanceInvocationHandler)) {
             throw new XOException("Instance " + instance + " implementing " + Arrays.asList(instance.getClass().getInterfaces()) + " is not a "
                     + InstanceInvocationHandler.class.getName());
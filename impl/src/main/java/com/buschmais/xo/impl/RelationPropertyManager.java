@@ -15,8 +15,10 @@ public class RelationPropertyManager<Entity, Relation> extends AbstractPropertyM
      * Constructor.
      *
      * @param sessionContext The {@link SessionContext}.
+     * @param threadBound    <code>true</code> if the session is used by concurrent threads.
      */
-    public RelationPropertyManager(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext) {
+    public RelationPropertyManager(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext, boolean threadBound) {
+        super(threadBound);
         this.sessionContext = sessionContext;
     }
 
@@ -2,14 +2,22 @@ package com.buschmais.xo.impl;
 
 import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.XOTransaction;
+import com.buschmais.xo.impl.cache.CacheSettings;
 import com.buschmais.xo.impl.cache.CacheSynchronization;
 import com.buschmais.xo.impl.cache.CacheSynchronizationService;
+import com.buschmais.xo.impl.cache.SecondLevelCache;
+import com.buschmais.xo.impl.cache.SecondLevelCacheSynchronization;
 import com.buschmais.xo.impl.cache.TransactionalCache;
 import com.buschmais.xo.impl.instancelistener.InstanceListenerService;
 import com.buschmais.xo.impl.interceptor.ConcurrencyInterceptor;
+import com.buschmais.xo.impl.interceptor.PeriodicCommitInterceptor;
 import com.buschmais.xo.impl.interceptor.TransactionInterceptor;
 import com.buschmais.xo.impl.plugin.PluginRepositoryManager;
+import com.buschmais.xo.impl.proxy.ProxyEngine;
+import com.buschmais.xo.impl.proxy.example.ExampleTypeCache;
+import com.buschmais.xo.impl.query.RowProjectionCache;
 import com.buschmais.xo.impl.validation.InstanceValidationService;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
@@ -46,6 +54,7 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
     private final InstanceListenerService instanceListenerService;
     private final TransactionalCache<EntityId> entityCache;
     private final TransactionalCache<RelationId> relationCache;
+    private final SecondLevelCache<EntityDiscriminator> secondLevelCache;
     private final InstanceValidationService instanceValidationService;
     private final CacheSynchronizationService<Entity, Relation> cacheSynchronizationService;
     private final XOTransactionImpl xoTransaction;
@@ -53,31 +62,44 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
     private final RelationPropertyManager<Entity, Relation> relationPropertyManager;
     private final InterceptorFactory interceptorFactory;
     private final ProxyFactory proxyFactory;
+    private final RowProjectionCache rowProjectionCache;
+    private final ExampleTypeCache exampleTypeCache;
     private final DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession;
+    private volatile int lease = 0;
 
-    public SessionContext(MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider, PluginRepositoryManager pluginRepositoryManager, DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession, ValidatorFactory validatorFactory, List<? extends Class<?>> instanceListenerTypes, TransactionAttribute defaultTransactionAttribute, ValidationMode validationMode, ConcurrencyMode concurrencyMode, ClassLoader classLoader) {
+    public SessionContext(MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider, PluginRepositoryManager pluginRepositoryManager, DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession, ValidatorFactory validatorFactory, List<? extends Class<?>> instanceListenerTypes, TransactionAttribute defaultTransactionAttribute, ValidationMode validationMode, ConcurrencyMode concurrencyMode, ProxyEngine proxyEngine, int periodicCommit, CacheSettings entityCacheSettings, CacheSettings relationCacheSettings, SecondLevelCache<EntityDiscriminator> secondLevelCache, RowProjectionCache rowProjectionCache, ExampleTypeCache exampleTypeCache) {
         this.metadataProvider = metadataProvider;
         this.pluginRepositoryManager = pluginRepositoryManager;
         this.datastoreSession = datastoreSession;
-        this.entityCache = new TransactionalCache<>();
-        this.relationCache = new TransactionalCache<>();
+        // Transactions and written instances are bound to threads if the session may be used concurrently.
+        boolean threadBound = ConcurrencyMode.CONCURRENT.equals(concurrencyMode) || ConcurrencyMode.READ_WRITE.equals(concurrencyMode);
         DatastoreTransaction datastoreTransaction = datastoreSession.getDatastoreTransaction();
-        this.xoTransaction = datastoreTransaction != null ? new XOTransactionImpl(datastoreTransaction) : null;
+        this.xoTransaction = datastoreTransaction != null ? new XOTransactionImpl(datastoreTransaction, threadBound) : null;
+        // The second level cache relies on transactions for invalidation.
+        this.secondLevelCache = xoTransaction != null ? secondLevelCache : null;
+        this.entityCache = new TransactionalCache<>(entityCacheSettings, this.secondLevelCache != null, threadBound);
+        this.relationCache = new TransactionalCache<>(relationCacheSettings, false, threadBound);
+        this.cacheSynchronizationService = new CacheSynchronizationService<>(this, validationMode);
         List<XOInterceptor> interceptorChain = new ArrayList<>();
-        interceptorChain.add(new ConcurrencyInterceptor(concurrencyMode));
+        interceptorChain.add(new ConcurrencyInterceptor(concurrencyMode, metadataProvider, cacheSynchronizationService));
+        interceptorChain.add(new PeriodicCommitInterceptor(xoTransaction, periodicCommit, metadataProvider, entityCache, relationCache));
         interceptorChain.add(new TransactionInterceptor(xoTransaction, defaultTransactionAttribute));
         this.interceptorFactory = new InterceptorFactory(interceptorChain);
-        this.proxyFactory = new ProxyFactory(interceptorFactory, classLoader);
+        this.proxyFactory = new ProxyFactory(interceptorFactory, proxyEngine);
+        this.rowProjectionCache = rowProjectionCache;
+        this.exampleTypeCache = exampleTypeCache;
         this.instanceListenerService = new InstanceListenerService(instanceListenerTypes);
-        this.entityPropertyManager = new EntityPropertyManager<>(this);
-        this.relationPropertyManager = new RelationPropertyManager<>(this);
+        this.entityPropertyManager = new EntityPropertyManager<>(this, threadBound);
+        this.relationPropertyManager = new RelationPropertyManager<>(this, threadBound);
         this.relationInstanceManager = new RelationInstanceManager<>(this);
         this.entityInstanceManager = new EntityInstanceManager<>(this);
         this.instanceValidationService = new InstanceValidationService(validatorFactory, relationCache, entityCache);
-        this.cacheSynchronizationService = new CacheSynchronizationService<>(this, validationMode);
         if (xoTransaction != null) {
             // Register default synchronizations.
             xoTransaction.registerDefaultSynchronization(new CacheSynchronization<>(cacheSynchronizationService, entityCache, relationCache));
+            if (this.secondLevelCache != null) {
+                xoTransaction.registerDefaultSynchronization(new SecondLevelCacheSynchronization(this.secondLevelCache, entityCache));
+            }
         }
     }
 
@@ -109,6 +131,15 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
         return relationCache;
     }
 
+    /**
+     * Return the second level cache shared by all sessions.
+     *
+     * @return The second level cache or <code>null</code> if it is not enabled.
+     */
+    public SecondLevelCache<EntityDiscriminator> getSecondLevelCache() {
+        return secondLevelCache;
+    }
+
     public InstanceValidationService getInstanceValidationService() {
         return instanceValidationService;
     }
@@ -137,8 +168,55 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
         return proxyFactory;
     }
 
+    public RowProjectionCache getRowProjectionCache() {
+        return rowProjectionCache;
+    }
+
+    public ExampleTypeCache getExampleTypeCache() {
+        return exampleTypeCache;
+    }
+
     public DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> getDatastoreSession() {
         return datastoreSession;
     }
 
+    /**
+     * Return the current lease of this session context.
+     * <p>
+     * The lease changes each time the session context is returned to the
+     * session pool. Handles like managers, queries, results and collections
+     * record the lease they have been created for and must not be used
+     * anymore if it has changed, as the session context may have been passed
+     * to another user.
+     * </p>
+     *
+     * @return The lease.
+     */
+    public int getLease() {
+        return lease;
+    }
+
+    /**
+     * Verify that the lease of a handle is still the current one.
+     *
+     * @param lease
+     *            The lease the handle has been created for.
+     * @throws XOException
+     *             If the session context has been returned to the pool in the
+     *             meantime.
+     */
+    public void ensureLease(int lease) {
+        if (this.lease != lease) {
+            throw new XOException("The session has been closed and returned to the session pool.");
+        }
+    }
+
+    /**
+     * Start a new lease, i.e. invalidate all handles of the current one. Only
+     * the owner of the current lease may call this method.
+     */
+    void nextLease() {
+        lease++;
+    }
+
 }
@@ -0,0 +1,91 @@
+package com.buschmais.xo.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the session contexts of closed sessions of a
+ * {@link XOManagerFactoryImpl} for being reused.
+ * <p>
+ * The pool does not use locks, so acquiring and releasing sessions never
+ * blocks. A session starts a new lease when it is added to the pool, i.e. the
+ * handles created by its previous user cannot access it anymore.
+ * </p>
+ *
+ * @param <S>
+ *            The type of the pooled sessions.
+ */
+class SessionPool<S extends SessionContext<?, ?, ?, ?, ?, ?, ?, ?, ?>> {
+
+    private final int maximumSize;
+
+    private final Queue<S> idle = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize
+     *            The maximum number of idle sessions.
+     */
+    SessionPool(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Take an idle session from the pool.
+     *
+     * @return The session or <code>null</code> if no idle session is
+     *         available.
+     */
+    S acquire() {
+        S session = idle.poll();
+        if (session != null) {
+            size.decrementAndGet();
+        }
+        return session;
+    }
+
+    /**
+     * Return a session to the pool.
+     *
+     * @param session
+     *            The session.
+     * @return <code>true</code> if the session has been added to the pool,
+     *         <code>false</code> if the pool is full or closed and the session
+     *         must be closed by the caller.
+     */
+    boolean release(S session) {
+        if (closed) {
+            return false;
+        }
+        if (size.incrementAndGet() > maximumSize) {
+            size.decrementAndGet();
+            return false;
+        }
+        session.nextLease();
+        idle.offer(session);
+        return true;
+    }
+
+    /**
+     * Close the pool, i.e. sessions are not accepted anymore.
+     *
+     * @return The idle sessions which must be closed by the caller.
+     */
+    List<S> close() {
+        closed = true;
+        List<S> sessions = new ArrayList<>();
+        S session;
+        while ((session = acquire()) != null) {
+            sessions.add(session);
+        }
+        return sessions;
+    }
+}
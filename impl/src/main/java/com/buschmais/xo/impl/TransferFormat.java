@@ -0,0 +1,276 @@
+package com.buschmais.xo.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.spi.metadata.method.AbstractRelationPropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.method.MethodMetadata;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+
+/**
+ * Defines the binary format used by {@link XOExporterImpl} and
+ * {@link XOImporterImpl}.
+ * <p>
+ * The stream starts with a header followed by records, each record starts with
+ * a tag identifying an entity or a relation. Values are written with a tag
+ * identifying their type.
+ * </p>
+ */
+final class TransferFormat {
+
+    static final int MAGIC = 0x584F5846;
+    static final int VERSION = 2;
+
+    static final byte ENTITY = 'E';
+    static final byte RELATION = 'R';
+
+    private static final byte NULL = 'N';
+    private static final byte STRING = 'S';
+    private static final byte BOOLEAN = 'Z';
+    private static final byte BYTE = 'B';
+    private static final byte SHORT = 'H';
+    private static final byte CHARACTER = 'C';
+    private static final byte INTEGER = 'I';
+    private static final byte LONG = 'J';
+    private static final byte FLOAT = 'F';
+    private static final byte DOUBLE = 'D';
+    private static final byte UUID = 'U';
+    private static final byte ARRAY = 'A';
+
+    private static final Map<Class<?>, Byte> TAGS = new HashMap<>();
+    private static final Map<Byte, Class<?>> COMPONENT_TYPES = new HashMap<>();
+
+    static {
+        tag(String.class, STRING, String.class);
+        tag(Boolean.class, BOOLEAN, boolean.class);
+        tag(Byte.class, BYTE, byte.class);
+        tag(Short.class, SHORT, short.class);
+        tag(Character.class, CHARACTER, char.class);
+        tag(Integer.class, INTEGER, int.class);
+        tag(Long.class, LONG, long.class);
+        tag(Float.class, FLOAT, float.class);
+        tag(Double.class, DOUBLE, double.class);
+        TAGS.put(java.util.UUID.class, UUID);
+    }
+
+    private static void tag(Class<?> type, byte tag, Class<?> componentType) {
+        TAGS.put(type, tag);
+        TAGS.put(componentType, tag);
+        COMPONENT_TYPES.put(tag, componentType);
+    }
+
+    private TransferFormat() {
+    }
+
+    static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value.getClass().isArray()) {
+            Byte tag = getTag(value.getClass().getComponentType());
+            int length = Array.getLength(value);
+            out.writeByte(ARRAY);
+            out.writeByte(tag);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++) {
+                writeValue(out, tag, Array.get(value, i));
+            }
+        } else {
+            Byte tag = getTag(value.getClass());
+            out.writeByte(tag);
+            writeValue(out, tag, value);
+        }
+    }
+
+    static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case ARRAY:
+            byte componentTag = in.readByte();
+            Class<?> componentType = COMPONENT_TYPES.get(componentTag);
+            if (componentType == null) {
+                throw new XOException("Unsupported array component tag " + componentTag);
+            }
+            int length = in.readInt();
+            Object array = Array.newInstance(componentType, length);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, readValue(in, componentTag));
+            }
+            return array;
+        default:
+            return readValue(in, tag);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Collect the primitive properties of the given types including their
+     * super types.
+     *
+     * @param types
+     *            The types.
+     * @return The primitive properties by their declaring type and name, see
+     *         {@link #getKey(TypeMetadata, String)}.
+     */
+    static <PropertyMetadata> Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> getPrimitiveProperties(
+            Collection<? extends TypeMetadata> types) {
+        Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> properties = new TreeMap<>();
+        for (TypeMetadata type : collectTypes(types)) {
+            for (MethodMetadata<?, ?> methodMetadata : type.getProperties()) {
+                if (methodMetadata instanceof PrimitivePropertyMethodMetadata) {
+                    PrimitivePropertyMethodMetadata<PropertyMetadata> propertyMetadata = (PrimitivePropertyMethodMetadata<PropertyMetadata>) methodMetadata;
+                    properties.put(getKey(type, propertyMetadata.getAnnotatedMethod().getName()), propertyMetadata);
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Collect the relation properties of the given types including their super
+     * types.
+     *
+     * @param types
+     *            The types.
+     * @return The relation properties by their declaring type and their names.
+     */
+    static Map<String, Map<String, AbstractRelationPropertyMethodMetadata<?>>> getRelationProperties(Collection<? extends TypeMetadata> types) {
+        Map<String, Map<String, AbstractRelationPropertyMethodMetadata<?>>> properties = new TreeMap<>();
+        for (TypeMetadata type : collectTypes(types)) {
+            Map<String, AbstractRelationPropertyMethodMetadata<?>> typeProperties = new TreeMap<>();
+            for (MethodMetadata<?, ?> methodMetadata : type.getProperties()) {
+                if (methodMetadata instanceof AbstractRelationPropertyMethodMetadata) {
+                    AbstractRelationPropertyMethodMetadata<?> propertyMetadata = (AbstractRelationPropertyMethodMetadata<?>) methodMetadata;
+                    typeProperties.put(propertyMetadata.getAnnotatedMethod().getName(), propertyMetadata);
+                }
+            }
+            if (!typeProperties.isEmpty()) {
+                properties.put(getName(type), typeProperties);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Determine the key of a property, the name of the declaring type is
+     * included as different types may map properties with the same name to
+     * different datastore properties.
+     *
+     * @param type
+     *            The declaring type.
+     * @param name
+     *            The name of the property.
+     * @return The key.
+     */
+    static String getKey(TypeMetadata type, String name) {
+        return getName(type) + '#' + name;
+    }
+
+    static String getName(TypeMetadata type) {
+        return type.getAnnotatedType().getAnnotatedElement().getName();
+    }
+
+    private static Set<TypeMetadata> collectTypes(Collection<? extends TypeMetadata> types) {
+        Set<TypeMetadata> result = new LinkedHashSet<>();
+        Deque<TypeMetadata> queue = new ArrayDeque<>(types);
+        while (!queue.isEmpty()) {
+            TypeMetadata type = queue.poll();
+            if (type.getAnnotatedType() != null && result.add(type)) {
+                queue.addAll(type.getSuperTypes());
+            }
+        }
+        return result;
+    }
+
+    private static Byte getTag(Class<?> type) {
+        Byte tag = TAGS.get(type);
+        if (tag == null) {
+            throw new XOException("Unsupported value type " + type.getName());
+        }
+        return tag;
+    }
+
+    private static void writeValue(DataOutputStream out, byte tag, Object value) throws IOException {
+        switch (tag) {
+        case STRING:
+            writeString(out, (String) value);
+            break;
+        case BOOLEAN:
+            out.writeBoolean((Boolean) value);
+            break;
+        case BYTE:
+            out.writeByte((Byte) value);
+            break;
+        case SHORT:
+            out.writeShort((Short) value);
+            break;
+        case CHARACTER:
+            out.writeChar((Character) value);
+            break;
+        case INTEGER:
+            out.writeInt((Integer) value);
+            break;
+        case LONG:
+            out.writeLong((Long) value);
+            break;
+        case FLOAT:
+            out.writeFloat((Float) value);
+            break;
+        case DOUBLE:
+            out.writeDouble((Double) value);
+            break;
+        case UUID:
+            java.util.UUID uuid = (java.util.UUID) value;
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            break;
+        default:
+            throw new XOException("Unsupported value tag " + tag);
+        }
+    }
+
+    private static Object readValue(DataInputStream in, byte tag) throws IOException {
+        switch (tag) {
+        case STRING:
+            return readString(in);
+        case BOOLEAN:
+            return in.readBoolean();
+        case BYTE:
+            return in.readByte();
+        case SHORT:
+            return in.readShort();
+        case CHARACTER:
+            return in.readChar();
+        case INTEGER:
+            return in.readInt();
+        case LONG:
+            return in.readLong();
+        case FLOAT:
+            return in.readFloat();
+        case DOUBLE:
+            return in.readDouble();
+        case UUID:
+            return new java.util.UUID(in.readLong(), in.readLong());
+        default:
+            throw new XOException("Unsupported value tag " + tag);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.buschmais.xo.impl;
+
+import static com.buschmais.xo.spi.metadata.type.RelationTypeMetadata.Direction.FROM;
+import static com.buschmais.xo.spi.metadata.type.RelationTypeMetadata.Direction.TO;
+import static java.util.Collections.singletonList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOExporter;
+import com.buschmais.xo.spi.datastore.*;
+import com.buschmais.xo.spi.metadata.method.AbstractRelationPropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.method.RelationCollectionPropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.method.RelationReferencePropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
+
+/**
+ * Implementation of the {@link com.buschmais.xo.api.XOExporter} interface.
+ *
+ * @param <EntityId>
+ *            The type of entity ids as provided by the datastore.
+ * @param <Entity>
+ *            The type of entities as provided by the datastore.
+ * @param <EntityMetadata>
+ *            The type of entity metadata as provided by the datastore.
+ * @param <EntityDiscriminator>
+ *            The type of discriminators as provided by the datastore.
+ * @param <Relation>
+ *            The type of relations as provided by the datastore.
+ * @param <PropertyMetadata>
+ *            The type of property metadata as provided by the datastore.
+ */
+class XOExporterImpl<EntityId, Entity, EntityMetadata extends DatastoreEntityMetadata<EntityDiscriminator>, EntityDiscriminator, Relation, PropertyMetadata>
+        implements XOExporter {
+
+    private final MetadataProvider<EntityMetadata, EntityDiscriminator, ?, ?> metadataProvider;
+    private final AbstractInstanceManager<EntityId, Entity> entityInstanceManager;
+    private final DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata> datastoreEntityManager;
+    private final DatastoreRelationManager<Entity, ?, Relation, ?, ?, PropertyMetadata> datastoreRelationManager;
+    private final DataOutputStream out;
+
+    private final Map<TypeMetadataSet<EntityTypeMetadata<EntityMetadata>>, Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>>> entityProperties = new HashMap<>();
+    private final Map<TypeMetadataSet<EntityTypeMetadata<EntityMetadata>>, Map<Object, RelationProperty>> relationProperties = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param outputStream
+     *            The output stream.
+     * @param sessionContext
+     *            The session context.
+     */
+    XOExporterImpl(OutputStream outputStream,
+            SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, ?, Relation, ?, ?, PropertyMetadata> sessionContext) {
+        this.metadataProvider = sessionContext.getMetadataProvider();
+        this.entityInstanceManager = sessionContext.getEntityInstanceManager();
+        this.datastoreEntityManager = sessionContext.getDatastoreSession().getDatastoreEntityManager();
+        this.datastoreRelationManager = sessionContext.getDatastoreSession().getDatastoreRelationManager();
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        try {
+            out.writeInt(TransferFormat.MAGIC);
+            out.writeInt(TransferFormat.VERSION);
+        } catch (IOException e) {
+            throw new XOException("Cannot write export header.", e);
+        }
+    }
+
+    @Override
+    public long exportEntities(Iterable<?> instances) {
+        long count = 0;
+        try {
+            for (Object instance : instances) {
+                Entity entity = entityInstanceManager.getDatastoreType(instance);
+                TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types = getTypes(entity);
+                out.writeByte(TransferFormat.ENTITY);
+                TransferFormat.writeValue(out, datastoreEntityManager.getEntityId(entity));
+                out.writeInt(types.size());
+                for (EntityTypeMetadata<EntityMetadata> type : types) {
+                    TransferFormat.writeString(out, TransferFormat.getName(type));
+                }
+                Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> properties = entityProperties.get(types);
+                if (properties == null) {
+                    properties = TransferFormat.getPrimitiveProperties(types);
+                    entityProperties.put(types, properties);
+                }
+                writeProperties(entity, properties, datastoreEntityManager);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new XOException("Cannot export entities.", e);
+        }
+        return count;
+    }
+
+    @Override
+    public long exportRelations(Iterable<?> instances) {
+        long count = 0;
+        try {
+            for (Object instance : instances) {
+                Entity entity = entityInstanceManager.getDatastoreType(instance);
+                EntityId entityId = datastoreEntityManager.getEntityId(entity);
+                for (Map.Entry<Object, RelationProperty> entry : getRelationProperties(getTypes(entity)).entrySet()) {
+                    RelationProperty relationProperty = entry.getValue();
+                    RelationTypeMetadata relationTypeMetadata = relationProperty.metadata.getRelationshipMetadata();
+                    for (Relation relation : (Iterable<Relation>) datastoreRelationManager.getRelations(entity, relationTypeMetadata, FROM)) {
+                        writeRelation(entityId, relationProperty, datastoreEntityManager.getEntityId(datastoreRelationManager.getTo(relation)), relation);
+                        count++;
+                    }
+                    // Incoming relations are only exported if the types of the source do not map the relation type.
+                    for (Relation relation : (Iterable<Relation>) datastoreRelationManager.getRelations(entity, relationTypeMetadata, TO)) {
+                        Entity source = datastoreRelationManager.getFrom(relation);
+                        if (!getRelationProperties(getTypes(source)).containsKey(entry.getKey())) {
+                            writeRelation(datastoreEntityManager.getEntityId(source), relationProperty, entityId, relation);
+                            count++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new XOException("Cannot export relations.", e);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new XOException("Cannot close export stream.", e);
+        }
+    }
+
+    private TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> getTypes(Entity entity) {
+        return metadataProvider.getTypes(datastoreEntityManager.getEntityDiscriminators(entity));
+    }
+
+    private void writeRelation(EntityId sourceId, RelationProperty relationProperty, EntityId targetId, Relation relation) throws IOException {
+        out.writeByte(TransferFormat.RELATION);
+        TransferFormat.writeValue(out, sourceId);
+        TransferFormat.writeString(out, relationProperty.declaringType);
+        TransferFormat.writeString(out, relationProperty.name);
+        TransferFormat.writeValue(out, targetId);
+        writeProperties(relation, relationProperty.properties, datastoreRelationManager);
+    }
+
+    private <Element> void writeProperties(Element element, Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> properties,
+            DatastorePropertyManager<Element, PropertyMetadata> propertyManager) throws IOException {
+        List<Map.Entry<String, PrimitivePropertyMethodMetadata<PropertyMetadata>>> present = new ArrayList<>(properties.size());
+        for (Map.Entry<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> entry : properties.entrySet()) {
+            if (propertyManager.hasProperty(element, entry.getValue())) {
+                present.add(entry);
+            }
+        }
+        out.writeInt(present.size());
+        for (Map.Entry<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> entry : present) {
+            TransferFormat.writeString(out, entry.getKey());
+            TransferFormat.writeValue(out, propertyManager.getProperty(element, entry.getValue()));
+        }
+    }
+
+    /**
+     * Determine the relation properties of the given types by their relation
+     * discriminators, incoming and outgoing properties are considered as
+     * relations are exported in their stored direction. Typed relations are
+     * preferred as they may provide properties.
+     */
+    private Map<Object, RelationProperty> getRelationProperties(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types) {
+        Map<Object, RelationProperty> result = relationProperties.get(types);
+        if (result == null) {
+            List<RelationProperty> typed = new ArrayList<>();
+            List<RelationProperty> untyped = new ArrayList<>();
+            for (Map.Entry<String, Map<String, AbstractRelationPropertyMethodMetadata<?>>> typeEntry : TransferFormat.getRelationProperties(types)
+                    .entrySet()) {
+                for (Map.Entry<String, AbstractRelationPropertyMethodMetadata<?>> propertyEntry : typeEntry.getValue().entrySet()) {
+                    AbstractRelationPropertyMethodMetadata<?> property = propertyEntry.getValue();
+                    RelationProperty relationProperty = new RelationProperty(typeEntry.getKey(), propertyEntry.getKey(), property);
+                    if (property instanceof RelationCollectionPropertyMethodMetadata || property instanceof RelationReferencePropertyMethodMetadata) {
+                        typed.add(relationProperty);
+                    } else {
+                        untyped.add(relationProperty);
+                    }
+                }
+            }
+            typed.addAll(untyped);
+            result = new LinkedHashMap<>();
+            for (RelationProperty relationProperty : typed) {
+                DatastoreRelationMetadata<?> datastoreMetadata = (DatastoreRelationMetadata<?>) relationProperty.metadata.getRelationshipMetadata()
+                        .getDatastoreMetadata();
+                if (!result.containsKey(datastoreMetadata.getDiscriminator())) {
+                    result.put(datastoreMetadata.getDiscriminator(), relationProperty);
+                }
+            }
+            relationProperties.put(types, result);
+        }
+        return result;
+    }
+
+    /**
+     * A relation property identified by its declaring type and name.
+     */
+    private class RelationProperty {
+
+        private final String declaringType;
+        private final String name;
+        private final AbstractRelationPropertyMethodMetadata<?> metadata;
+        private final Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> properties;
+
+        private RelationProperty(String declaringType, String name, AbstractRelationPropertyMethodMetadata<?> metadata) {
+            this.declaringType = declaringType;
+            this.name = name;
+            this.metadata = metadata;
+            this.properties = TransferFormat.getPrimitiveProperties(singletonList(metadata.getRelationshipMetadata()));
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.buschmais.xo.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOFetchPlan;
+import com.buschmais.xo.spi.datastore.DatastoreEntityManager;
+import com.buschmais.xo.spi.datastore.DatastoreRelationManager;
+import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
+import com.buschmais.xo.spi.metadata.method.*;
+import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+
+/**
+ * Implementation of the {@link com.buschmais.xo.api.XOFetchPlan} interface.
+ *
+ * @param <Entity>
+ *            The type of entities as provided by the datastore.
+ * @param <Relation>
+ *            The type of relations as provided by the datastore.
+ * @param <RelationMetadata>
+ *            The type of relation metadata.
+ * @param <RelationDiscriminator>
+ *            The type of relation discriminators.
+ */
+class XOFetchPlanImpl<Entity, Relation, RelationMetadata extends DatastoreRelationMetadata<RelationDiscriminator>, RelationDiscriminator> implements XOFetchPlan {
+
+    private final Object instance;
+    private final SessionContext<?, Entity, ?, ?, ?, Relation, RelationMetadata, RelationDiscriminator, ?> sessionContext;
+    private final AbstractInstanceManager<?, Entity> entityInstanceManager;
+    private final EntityPropertyManager<Entity, Relation, ?> entityPropertyManager;
+
+    private final Set<AbstractRelationPropertyMethodMetadata<?>> relationProperties = new HashSet<>();
+    private final Set<PrimitivePropertyMethodMetadata<?>> primitiveProperties = new HashSet<>();
+    private int depth = 1;
+
+    /**
+     * The properties to fetch by the proxy classes of the loaded instances,
+     * each proxy class represents a combination of types.
+     */
+    private final Map<Class<?>, FetchedProperties> fetchedProperties = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param instance
+     *            The instance to start from.
+     * @param sessionContext
+     *            The session context.
+     */
+    XOFetchPlanImpl(Object instance, SessionContext<?, Entity, ?, ?, ?, Relation, RelationMetadata, RelationDiscriminator, ?> sessionContext) {
+        this.instance = instance;
+        this.sessionContext = sessionContext;
+        this.entityInstanceManager = sessionContext.getEntityInstanceManager();
+        this.entityPropertyManager = sessionContext.getEntityPropertyManager();
+        if (!entityInstanceManager.isInstance(instance)) {
+            throw new XOException(instance + " is not an entity instance.");
+        }
+    }
+
+    @Override
+    public <T> XOFetchPlan with(Class<T> type, Property<T> property) {
+        MethodMetadata<?, ?> methodMetadata = getPropertyMetadata(type, property);
+        if (!isRelationProperty(methodMetadata)) {
+            throw new XOException(methodMetadata.getAnnotatedMethod().getAnnotatedElement() + " is not an entity reference or collection property.");
+        }
+        relationProperties.add((AbstractRelationPropertyMethodMetadata<?>) methodMetadata);
+        return this;
+    }
+
+    @Override
+    public <T> XOFetchPlan properties(Class<T> type, Property<T> property) {
+        MethodMetadata<?, ?> methodMetadata = getPropertyMetadata(type, property);
+        if (!(methodMetadata instanceof PrimitivePropertyMethodMetadata)) {
+            throw new XOException(methodMetadata.getAnnotatedMethod().getAnnotatedElement() + " is not a primitive property.");
+        }
+        primitiveProperties.add((PrimitivePropertyMethodMetadata<?>) methodMetadata);
+        return this;
+    }
+
+    @Override
+    public XOFetchPlan depth(int depth) {
+        if (depth < 1) {
+            throw new XOException("The depth must be positive but is " + depth);
+        }
+        this.depth = depth;
+        return this;
+    }
+
+    @Override
+    public Result execute() {
+        DatastoreEntityManager<?, Entity, ?, ?, ?> entityManager = sessionContext.getDatastoreSession().getDatastoreEntityManager();
+        DatastoreRelationManager<Entity, ?, Relation, RelationMetadata, RelationDiscriminator, ?> relationManager = sessionContext.getDatastoreSession()
+                .getDatastoreRelationManager();
+        // Read all relations to follow at once and index them by the ids of their source and target entities.
+        Map<Object, List<Relation>> outgoing = new HashMap<>();
+        Map<Object, List<Relation>> incoming = new HashMap<>();
+        for (Relation relation : relationManager.getReachableRelations(entityInstanceManager.getDatastoreType(instance), getRelationTypes(), depth)) {
+            index(outgoing, entityManager.getEntityId(relationManager.getFrom(relation)), relation);
+            index(incoming, entityManager.getEntityId(relationManager.getTo(relation)), relation);
+        }
+        FetchResult result = new FetchResult();
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        visited.add(instance);
+        List<Object> level = Collections.singletonList(instance);
+        for (int i = 0; i < depth && !level.isEmpty(); i++) {
+            List<Object> nextLevel = new ArrayList<>();
+            for (Object current : level) {
+                Entity entity = entityInstanceManager.getDatastoreType(current);
+                Object id = entityManager.getEntityId(entity);
+                // All relations of an entity on this level have been read, i.e. they can be provided to its properties.
+                Map<AbstractRelationPropertyMethodMetadata<?>, List<Relation>> fetchedRelations = new HashMap<>();
+                for (AbstractRelationPropertyMethodMetadata<?> property : getFetchedProperties(current, entity).relations) {
+                    boolean from = RelationTypeMetadata.Direction.FROM.equals(property.getDirection());
+                    List<Relation> relations = from ? outgoing.get(id) : incoming.get(id);
+                    List<Relation> propertyRelations = new ArrayList<>();
+                    fetchedRelations.put(property, Collections.unmodifiableList(propertyRelations));
+                    if (relations == null) {
+                        continue;
+                    }
+                    RelationTypeMetadata<RelationMetadata> relationType = property.getRelationshipMetadata();
+                    RelationDiscriminator discriminator = relationType.getDatastoreMetadata().getDiscriminator();
+                    for (Relation relation : relations) {
+                        if (discriminator.equals(relationManager.getRelationDiscriminator(relation))) {
+                            propertyRelations.add(relation);
+                            Object target = entityInstanceManager.readInstance(from ? relationManager.getTo(relation) : relationManager.getFrom(relation));
+                            if (visited.add(target)) {
+                                nextLevel.add(target);
+                            }
+                        }
+                    }
+                }
+                entityPropertyManager.putFetchedRelations(entity, fetchedRelations);
+            }
+            for (Object loaded : nextLevel) {
+                Entity entity = entityInstanceManager.getDatastoreType(loaded);
+                for (PrimitivePropertyMethodMetadata<?> property : getFetchedProperties(loaded, entity).primitives) {
+                    if (entityPropertyManager.hasProperty(entity, property)) {
+                        entityPropertyManager.getProperty(entity, property);
+                    }
+                }
+            }
+            result.instances.addAll(nextLevel);
+            level = nextLevel;
+        }
+        return result;
+    }
+
+    private void index(Map<Object, List<Relation>> relationsById, Object id, Relation relation) {
+        List<Relation> relations = relationsById.get(id);
+        if (relations == null) {
+            relations = new ArrayList<>();
+            relationsById.put(id, relations);
+        }
+        relations.add(relation);
+    }
+
+    /**
+     * Determine the relation types and directions of the followed properties
+     * declared by all registered types.
+     *
+     * @return The relation types and directions.
+     */
+    private Map<RelationTypeMetadata<RelationMetadata>, Set<RelationTypeMetadata.Direction>> getRelationTypes() {
+        Map<RelationTypeMetadata<RelationMetadata>, Set<RelationTypeMetadata.Direction>> relationTypes = new HashMap<>();
+        for (TypeMetadata typeMetadata : sessionContext.getMetadataProvider().getRegisteredMetadata().values()) {
+            for (MethodMetadata<?, ?> methodMetadata : typeMetadata.getProperties()) {
+                if (isRelationProperty(methodMetadata)) {
+                    AbstractRelationPropertyMethodMetadata<?> property = (AbstractRelationPropertyMethodMetadata<?>) methodMetadata;
+                    if (relationProperties.contains(property)) {
+                        RelationTypeMetadata<RelationMetadata> relationType = property.getRelationshipMetadata();
+                        Set<RelationTypeMetadata.Direction> directions = relationTypes.get(relationType);
+                        if (directions == null) {
+                            directions = EnumSet.noneOf(RelationTypeMetadata.Direction.class);
+                            relationTypes.put(relationType, directions);
+                        }
+                        directions.add(property.getDirection());
+                    }
+                }
+            }
+        }
+        return relationTypes;
+    }
+
+    /**
+     * Determine the metadata of a property which is referenced by invoking its
+     * get method on a recording instance of the given type.
+     *
+     * @param type
+     *            The type declaring the property.
+     * @param property
+     *            The reference to the property.
+     * @param <T>
+     *            The type declaring the property.
+     * @return The metadata of the property.
+     */
+    private <T> MethodMetadata<?, ?> getPropertyMetadata(Class<T> type, Property<T> property) {
+        TypeMetadata typeMetadata = sessionContext.getMetadataProvider().getRegisteredMetadata().get(type);
+        if (typeMetadata == null) {
+            throw new XOException(type.getName() + " is not a registered type.");
+        }
+        final Method[] invoked = new Method[1];
+        T recorder = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                invoked[0] = method;
+                Class<?> returnType = method.getReturnType();
+                // Primitive values must not be null as they are unboxed by the proxy.
+                return returnType.isPrimitive() && !void.class.equals(returnType) ? Array.get(Array.newInstance(returnType, 1), 0) : null;
+            }
+        }));
+        property.of(recorder);
+        if (invoked[0] != null) {
+            Set<TypeMetadata> visited = new HashSet<>();
+            Deque<TypeMetadata> queue = new ArrayDeque<>();
+            queue.add(typeMetadata);
+            while (!queue.isEmpty()) {
+                TypeMetadata current = queue.poll();
+                if (visited.add(current)) {
+                    for (MethodMetadata<?, ?> methodMetadata : current.getProperties()) {
+                        if (methodMetadata instanceof AbstractPropertyMethodMetadata
+                                && invoked[0].equals(((AbstractPropertyMethodMetadata<?>) methodMetadata).getAnnotatedMethod().getAnnotatedElement())) {
+                            return methodMetadata;
+                        }
+                    }
+                    queue.addAll(current.getSuperTypes());
+                }
+            }
+        }
+        throw new XOException("The property reference does not invoke a get method of a property declared by " + type.getName());
+    }
+
+    private boolean isRelationProperty(MethodMetadata<?, ?> methodMetadata) {
+        return methodMetadata instanceof EntityReferencePropertyMethodMetadata || methodMetadata instanceof EntityCollectionPropertyMethodMetadata;
+    }
+
+    /**
+     * Return the properties to fetch for an instance.
+     *
+     * @param instance
+     *            The instance.
+     * @param entity
+     *            The entity represented by the instance.
+     * @return The properties.
+     */
+    private FetchedProperties getFetchedProperties(Object instance, Entity entity) {
+        FetchedProperties properties = fetchedProperties.get(instance.getClass());
+        if (properties == null) {
+            properties = new FetchedProperties(entityInstanceManager.getTypes(entity));
+            fetchedProperties.put(instance.getClass(), properties);
+        }
+        return properties;
+    }
+
+    /**
+     * The properties to fetch for a combination of types.
+     */
+    private class FetchedProperties {
+
+        private final List<AbstractRelationPropertyMethodMetadata<?>> relations = new ArrayList<>();
+        private final List<PrimitivePropertyMethodMetadata<?>> primitives = new ArrayList<>();
+
+        private FetchedProperties(Collection<? extends TypeMetadata> types) {
+            Set<TypeMetadata> visited = new HashSet<>();
+            Deque<TypeMetadata> queue = new ArrayDeque<>(types);
+            while (!queue.isEmpty()) {
+                TypeMetadata type = queue.poll();
+                if (visited.add(type)) {
+                    for (MethodMetadata<?, ?> methodMetadata : type.getProperties()) {
+                        if (isRelationProperty(methodMetadata)) {
+                            AbstractRelationPropertyMethodMetadata<?> property = (AbstractRelationPropertyMethodMetadata<?>) methodMetadata;
+                            if (relationProperties.contains(property)) {
+                                relations.add(property);
+                            }
+                        } else if (methodMetadata instanceof PrimitivePropertyMethodMetadata) {
+                            PrimitivePropertyMethodMetadata<?> property = (PrimitivePropertyMethodMetadata<?>) methodMetadata;
+                            if (primitiveProperties.contains(property)) {
+                                primitives.add(property);
+                            }
+                        }
+                    }
+                    queue.addAll(type.getSuperTypes());
+                }
+            }
+        }
+    }
+
+    /**
+     * The loaded graph.
+     */
+    private static class FetchResult implements Result {
+
+        private final List<Object> instances = new ArrayList<>();
+
+        @Override
+        public Collection<Object> getInstances() {
+            return Collections.unmodifiableList(instances);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.buschmais.xo.impl;
+
+import static com.buschmais.xo.spi.metadata.type.RelationTypeMetadata.Direction.FROM;
+import static java.util.Collections.singletonList;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOImporter;
+import com.buschmais.xo.api.XOTransaction;
+import com.buschmais.xo.spi.datastore.*;
+import com.buschmais.xo.spi.metadata.method.AbstractRelationPropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+
+/**
+ * Implementation of the {@link com.buschmais.xo.api.XOImporter} interface.
+ *
+ * @param <EntityId>
+ *            The type of entity ids as provided by the datastore.
+ * @param <Entity>
+ *            The type of entities as provided by the datastore.
+ * @param <EntityMetadata>
+ *            The type of entity metadata as provided by the datastore.
+ * @param <EntityDiscriminator>
+ *            The type of discriminators as provided by the datastore.
+ * @param <Relation>
+ *            The type of relations as provided by the datastore.
+ * @param <PropertyMetadata>
+ *            The type of property metadata as provided by the datastore.
+ */
+class XOImporterImpl<EntityId, Entity, EntityMetadata extends DatastoreEntityMetadata<EntityDiscriminator>, EntityDiscriminator, Relation, PropertyMetadata>
+        implements XOImporter {
+
+    private final SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, ?, Relation, ?, ?, PropertyMetadata> sessionContext;
+    private final DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata> datastoreEntityManager;
+    private final DatastoreRelationManager<Entity, ?, Relation, ?, ?, PropertyMetadata> datastoreRelationManager;
+    private final DataInputStream in;
+
+    private final Map<String, TypeMetadata> typesByName = new HashMap<>();
+    private final Map<List<String>, EntityTypes> entityTypes = new HashMap<>();
+    private final Map<String, RelationProperty> relationProperties = new HashMap<>();
+    /**
+     * The imported entities by their exported ids, holds one entry per imported
+     * entity, see {@link XOImporter}.
+     */
+    private final Map<Object, ImportedEntity> importedEntities = new HashMap<>();
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Constructor.
+     *
+     * @param inputStream
+     *            The input stream.
+     * @param sessionContext
+     *            The session context.
+     */
+    XOImporterImpl(InputStream inputStream,
+            SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, ?, Relation, ?, ?, PropertyMetadata> sessionContext) {
+        this.sessionContext = sessionContext;
+        this.datastoreEntityManager = sessionContext.getDatastoreSession().getDatastoreEntityManager();
+        this.datastoreRelationManager = sessionContext.getDatastoreSession().getDatastoreRelationManager();
+        this.in = new DataInputStream(new BufferedInputStream(inputStream));
+        // Relations may be declared by types which are not entity types, e.g. unlabeled mixins.
+        for (TypeMetadata typeMetadata : sessionContext.getMetadataProvider().getRegisteredMetadata().values()) {
+            if (typeMetadata.getAnnotatedType() != null) {
+                typesByName.put(TransferFormat.getName(typeMetadata), typeMetadata);
+            }
+        }
+    }
+
+    @Override
+    public XOImporter withChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new XOException("The chunk size must be positive but is " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    @Override
+    public long execute() {
+        XOTransaction xoTransaction = sessionContext.getXOTransaction();
+        if (xoTransaction == null) {
+            throw new XOException("Import requires a transactional datastore.");
+        }
+        boolean startTransaction = !xoTransaction.isActive();
+        if (startTransaction) {
+            xoTransaction.begin();
+        }
+        long count = 0;
+        long committed = 0;
+        try {
+            if (in.readInt() != TransferFormat.MAGIC) {
+                throw new XOException("The stream does not contain exported data.");
+            }
+            int version = in.readInt();
+            if (version != TransferFormat.VERSION) {
+                throw new XOException("Unsupported export format version " + version);
+            }
+            int tag;
+            while ((tag = in.read()) != -1) {
+                switch (tag) {
+                case TransferFormat.ENTITY:
+                    importEntity();
+                    break;
+                case TransferFormat.RELATION:
+                    importRelation();
+                    break;
+                default:
+                    throw new XOException("Unsupported record tag " + tag);
+                }
+                count++;
+                if (count % chunkSize == 0) {
+                    xoTransaction.commit();
+                    committed = count;
+                    xoTransaction.begin();
+                }
+            }
+            if (startTransaction) {
+                xoTransaction.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            rollback(xoTransaction, startTransaction);
+            throw new XOException("Cannot import record " + count + ", " + committed + " records have already been committed.", e);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new XOException("Cannot close import stream.", e);
+        }
+    }
+
+    private void rollback(XOTransaction xoTransaction, boolean startTransaction) {
+        if (startTransaction && xoTransaction.isActive()) {
+            xoTransaction.rollback();
+        }
+    }
+
+    private void importEntity() throws IOException {
+        Object exportedId = TransferFormat.readValue(in);
+        int typeCount = in.readInt();
+        List<String> typeNames = new ArrayList<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            typeNames.add(TransferFormat.readString(in));
+        }
+        EntityTypes types = entityTypes.get(typeNames);
+        if (types == null) {
+            types = new EntityTypes(typeNames);
+            entityTypes.put(typeNames, types);
+        }
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example = readProperties(types.properties);
+        Entity entity = datastoreEntityManager.createEntity(types.types, types.discriminators, example);
+        datastoreEntityManager.flushEntity(entity);
+        importedEntities.put(exportedId, new ImportedEntity(datastoreEntityManager.getEntityId(entity), types));
+    }
+
+    private void importRelation() throws IOException {
+        Object exportedSourceId = TransferFormat.readValue(in);
+        String declaringType = TransferFormat.readString(in);
+        String name = TransferFormat.readString(in);
+        Object exportedTargetId = TransferFormat.readValue(in);
+        String key = declaringType + '#' + name;
+        RelationProperty relationProperty = relationProperties.get(key);
+        if (relationProperty == null) {
+            relationProperty = new RelationProperty(declaringType, name);
+            relationProperties.put(key, relationProperty);
+        }
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example = readProperties(relationProperty.properties);
+        Entity source = findEntity(exportedSourceId);
+        Entity target = findEntity(exportedTargetId);
+        Relation relation = (Relation) datastoreRelationManager.createRelation(source, relationProperty.metadata.getRelationshipMetadata(), FROM, target,
+                example);
+        datastoreRelationManager.flushRelation(relation);
+    }
+
+    private Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> readProperties(
+            Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> properties) throws IOException {
+        int propertyCount = in.readInt();
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> values = new HashMap<>(propertyCount * 2);
+        for (int i = 0; i < propertyCount; i++) {
+            String name = TransferFormat.readString(in);
+            PrimitivePropertyMethodMetadata<PropertyMetadata> property = properties.get(name);
+            if (property == null) {
+                throw new XOException("Unknown property '" + name + "'");
+            }
+            values.put(property, TransferFormat.readValue(in));
+        }
+        return values;
+    }
+
+    private Entity findEntity(Object exportedId) {
+        ImportedEntity importedEntity = importedEntities.get(exportedId);
+        if (importedEntity == null) {
+            throw new XOException("Entity with exported id " + exportedId + " has not been imported.");
+        }
+        EntityTypeMetadata<EntityMetadata> type = importedEntity.types.types.iterator().next();
+        return datastoreEntityManager.findEntityById(type, type.getDatastoreMetadata().getDiscriminator(), importedEntity.id);
+    }
+
+    private TypeMetadata getType(String name) {
+        TypeMetadata type = typesByName.get(name);
+        if (type == null) {
+            throw new XOException("Type '" + name + "' is not registered.");
+        }
+        return type;
+    }
+
+    private EntityTypeMetadata<EntityMetadata> getEntityType(String name) {
+        TypeMetadata type = getType(name);
+        if (!(type instanceof EntityTypeMetadata)) {
+            throw new XOException("Type '" + name + "' is not an entity type.");
+        }
+        return (EntityTypeMetadata<EntityMetadata>) type;
+    }
+
+    /**
+     * The resolved types of imported entities.
+     */
+    private class EntityTypes {
+
+        private final TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types = new TypeMetadataSet<>();
+        private final Set<EntityDiscriminator> discriminators;
+        private final Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> properties;
+
+        private EntityTypes(List<String> typeNames) {
+            for (String typeName : typeNames) {
+                types.add(getEntityType(typeName));
+            }
+            this.discriminators = sessionContext.getMetadataProvider().getEntityDiscriminators(types);
+            this.properties = TransferFormat.getPrimitiveProperties(types);
+        }
+    }
+
+    /**
+     * The id of an imported entity and its types.
+     */
+    private class ImportedEntity {
+
+        private final EntityId id;
+        private final EntityTypes types;
+
+        private ImportedEntity(EntityId id, EntityTypes types) {
+            this.id = id;
+            this.types = types;
+        }
+    }
+
+    /**
+     * A relation property identified by its declaring type and name.
+     */
+    private class RelationProperty {
+
+        private final AbstractRelationPropertyMethodMetadata<?> metadata;
+        private final Map<String, PrimitivePropertyMethodMetadata<PropertyMetadata>> properties;
+
+        private RelationProperty(String declaringType, String name) {
+            Map<String, AbstractRelationPropertyMethodMetadata<?>> typeProperties = TransferFormat
+                    .getRelationProperties(singletonList(getType(declaringType))).get(declaringType);
+            this.metadata = typeProperties != null ? typeProperties.get(name) : null;
+            if (metadata == null) {
+                throw new XOException("Unknown relation property '" + name + "' of type '" + declaringType + "'");
+            }
+            this.properties = TransferFormat.getPrimitiveProperties(singletonList(metadata.getRelationshipMetadata()));
+        }
+    }
+}
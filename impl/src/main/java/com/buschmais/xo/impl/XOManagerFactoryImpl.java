@@ -1,5 +1,9 @@
 package com.buschmais.xo.impl;
 
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 import javax.validation.Validation;
 import javax.validation.ValidationException;
 import javax.validation.ValidatorFactory;
@@ -7,6 +11,7 @@ import javax.validation.ValidatorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.buschmais.xo.api.CompositeObject;
 import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.api.Transaction;
 import com.buschmais.xo.api.ValidationMode;
@@ -14,14 +19,27 @@ import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.XOManager;
 import com.buschmais.xo.api.XOManagerFactory;
 import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitProperty;
+import com.buschmais.xo.impl.bootstrap.TypeIndex;
+import com.buschmais.xo.impl.cache.CacheSettings;
+import com.buschmais.xo.impl.cache.SecondLevelCache;
 import com.buschmais.xo.impl.metadata.MetadataProviderImpl;
 import com.buschmais.xo.impl.plugin.PluginRepositoryManager;
 import com.buschmais.xo.impl.plugin.QueryLanguagePluginRepository;
+import com.buschmais.xo.impl.proxy.JdkProxyEngine;
+import com.buschmais.xo.impl.proxy.ProxyEngine;
+import com.buschmais.xo.impl.proxy.bytecode.BytecodeProxyEngine;
+import com.buschmais.xo.impl.proxy.example.ExampleTypeCache;
+import com.buschmais.xo.impl.query.RowProjectionCache;
 import com.buschmais.xo.spi.bootstrap.XODatastoreProvider;
 import com.buschmais.xo.spi.datastore.Datastore;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreSession;
+import com.buschmais.xo.spi.metadata.CompositeTypeBuilder;
+import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
 import com.buschmais.xo.spi.reflection.ClassHelper;
 
 public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends DatastoreEntityMetadata<EntityDiscriminator>, EntityDiscriminator, RelationId, Relation, RelationMetadata extends DatastoreRelationMetadata<RelationDiscriminator>, RelationDiscriminator, PropertyMetadata> implements XOManagerFactory {
@@ -31,12 +49,20 @@ public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends Datas
     private final XOUnit xoUnit;
     private final MetadataProvider metadataProvider;
     private final ClassLoader classLoader;
+    private final ProxyEngine proxyEngine;
     private final Datastore<?, EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> datastore;
     private final PluginRepositoryManager pluginRepositoryManager;
     private final ValidatorFactory validatorFactory;
     private final ValidationMode validationMode;
     private final ConcurrencyMode concurrencyMode;
     private final Transaction.TransactionAttribute defaultTransactionAttribute;
+    private final int periodicCommit;
+    private final CacheSettings entityCacheSettings;
+    private final CacheSettings relationCacheSettings;
+    private final SecondLevelCache<EntityDiscriminator> secondLevelCache;
+    private final RowProjectionCache rowProjectionCache;
+    private final ExampleTypeCache exampleTypeCache;
+    private final SessionPool<SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata>> sessionPool;
 
     public XOManagerFactoryImpl(XOUnit xoUnit) {
         this.xoUnit = xoUnit;
@@ -53,6 +79,13 @@ public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends Datas
         this.validationMode = xoUnit.getValidationMode();
         this.concurrencyMode = xoUnit.getConcurrencyMode();
         this.defaultTransactionAttribute = xoUnit.getDefaultTransactionAttribute();
+        this.periodicCommit = XOUnitProperty.PERIODIC_COMMIT.getInt(xoUnit, 0);
+        this.entityCacheSettings = getCacheSettings(xoUnit, XOUnitProperty.ENTITY_CACHE_MAXIMUM_SIZE);
+        this.relationCacheSettings = getCacheSettings(xoUnit, XOUnitProperty.RELATION_CACHE_MAXIMUM_SIZE);
+        int secondLevelCacheSize = XOUnitProperty.SECOND_LEVEL_CACHE_MAXIMUM_SIZE.getInt(xoUnit, 0);
+        this.secondLevelCache = secondLevelCacheSize > 0 ? new SecondLevelCache<>(secondLevelCacheSize) : null;
+        int sessionPoolSize = XOUnitProperty.SESSION_POOL_MAXIMUM_SIZE.getInt(xoUnit, 0);
+        this.sessionPool = sessionPoolSize > 0 ? new SessionPool<SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata>>(sessionPoolSize) : null;
         final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
         final ClassLoader parentClassLoader = contextClassLoader != null ? contextClassLoader : xoUnit.getClass().getClassLoader();
         LOGGER.debug("Using class loader '{}'.", parentClassLoader.toString());
@@ -62,9 +95,105 @@ public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends Datas
                 return parentClassLoader.loadClass(name);
             }
         };
-        metadataProvider = new MetadataProviderImpl(xoUnit.getTypes(), datastore);
+        proxyEngine = getProxyEngine(xoUnit, classLoader);
+        metadataProvider = new MetadataProviderImpl(getTypes(xoUnit, parentClassLoader), datastore);
+        rowProjectionCache = new RowProjectionCache(metadataProvider, proxyEngine);
+        exampleTypeCache = new ExampleTypeCache(metadataProvider);
         this.validatorFactory = getValidatorFactory();
         datastore.init(metadataProvider.getRegisteredMetadata());
+        if (XOUnitProperty.PROXY_PRELOAD.getBoolean(xoUnit, false)) {
+            preloadProxies();
+        }
+    }
+
+    /**
+     * Return the types to register, i.e. the types of the XO unit and - if
+     * enabled - the types from the type indexes.
+     *
+     * @param xoUnit
+     *            The XO unit.
+     * @param classLoader
+     *            The class loader to use for reading the type indexes.
+     * @return The types.
+     */
+    private Set<Class<?>> getTypes(XOUnit xoUnit, ClassLoader classLoader) {
+        Set<Class<?>> types = new LinkedHashSet<>(xoUnit.getTypes());
+        if (XOUnitProperty.TYPE_INDEX.getBoolean(xoUnit, false)) {
+            Set<Class<?>> indexedTypes = TypeIndex.getTypes(classLoader);
+            LOGGER.debug("Registering types {} from type indexes.", indexedTypes);
+            types.addAll(indexedTypes);
+        }
+        return types;
+    }
+
+    /**
+     * Creates the proxy classes for all registered entity and relation types.
+     */
+    private void preloadProxies() {
+        Map<Class<?>, TypeMetadata> registeredMetadata = metadataProvider.getRegisteredMetadata();
+        for (TypeMetadata typeMetadata : registeredMetadata.values()) {
+            if (typeMetadata instanceof EntityTypeMetadata || typeMetadata instanceof RelationTypeMetadata) {
+                proxyEngine.prepare(CompositeTypeBuilder.create(CompositeObject.class, typeMetadata.getAnnotatedType().getAnnotatedElement()));
+            }
+        }
+    }
+
+    /**
+     * Return the {@link com.buschmais.xo.impl.proxy.ProxyEngine} configured for
+     * the XO unit.
+     *
+     * @param xoUnit
+     *            The XO unit.
+     * @param classLoader
+     *            The class loader to use for proxy classes.
+     * @return The {@link com.buschmais.xo.impl.proxy.ProxyEngine}.
+     */
+    private ProxyEngine getProxyEngine(XOUnit xoUnit, ClassLoader classLoader) {
+        String engine = XOUnitProperty.PROXY_ENGINE.get(xoUnit, "jdk");
+        LOGGER.debug("Using proxy engine '{}'.", engine);
+        switch (engine.toLowerCase()) {
+        case "jdk":
+            return new JdkProxyEngine(classLoader);
+        case "bytecode":
+            try {
+                return new BytecodeProxyEngine(classLoader);
+            } catch (NoClassDefFoundError e) {
+                throw new XOException("Proxy engine 'bytecode' requires Byte Buddy (net.bytebuddy:byte-buddy) on the classpath.", e);
+            }
+        default:
+            throw new XOException("Unsupported proxy engine '" + engine + "' specified by property " + XOUnitProperty.PROXY_ENGINE.getKey());
+        }
+    }
+
+    /**
+     * Return the settings of a cache configured for the XO unit.
+     *
+     * @param xoUnit
+     *            The XO unit.
+     * @param maximumSizeProperty
+     *            The property specifying the maximum size of the cache.
+     * @return The cache settings.
+     */
+    private CacheSettings getCacheSettings(XOUnit xoUnit, XOUnitProperty maximumSizeProperty) {
+        String values = XOUnitProperty.CACHE_VALUES.get(xoUnit, "weak");
+        CacheSettings.Values cacheValues;
+        switch (values.toLowerCase()) {
+        case "weak":
+            cacheValues = CacheSettings.Values.WEAK;
+            break;
+        case "soft":
+            cacheValues = CacheSettings.Values.SOFT;
+            break;
+        default:
+            throw new XOException("Unsupported cache values '" + values + "' specified by property " + XOUnitProperty.CACHE_VALUES.getKey());
+        }
+        int maximumSize = maximumSizeProperty.getInt(xoUnit, XOUnitProperty.CACHE_MAXIMUM_SIZE.getInt(xoUnit, 0));
+        if (maximumSize < 0) {
+            throw new XOException("The cache size specified by property " + maximumSizeProperty.getKey() + " must not be negative.");
+        }
+        CacheSettings cacheSettings = new CacheSettings(cacheValues, maximumSize);
+        LOGGER.debug("Using {} for property {}.", cacheSettings, maximumSizeProperty.getKey());
+        return cacheSettings;
     }
 
     /**
@@ -83,14 +212,22 @@ public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends Datas
 
     @Override
     public XOManager createXOManager() {
-        DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession = datastore.createSession();
-        SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext = new SessionContext<>(metadataProvider, pluginRepositoryManager, datastoreSession, validatorFactory, xoUnit.getInstanceListeners(), defaultTransactionAttribute, validationMode, concurrencyMode, classLoader);
-        XOManagerImpl<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> xoManager = new XOManagerImpl<>(sessionContext);
+        SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext = sessionPool != null ? sessionPool.acquire() : null;
+        if (sessionContext == null) {
+            DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession = datastore.createSession();
+            sessionContext = new SessionContext<>(metadataProvider, pluginRepositoryManager, datastoreSession, validatorFactory, xoUnit.getInstanceListeners(), defaultTransactionAttribute, validationMode, concurrencyMode, proxyEngine, periodicCommit, entityCacheSettings, relationCacheSettings, secondLevelCache, rowProjectionCache, exampleTypeCache);
+        }
+        XOManagerImpl<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> xoManager = new XOManagerImpl<>(sessionContext, sessionPool);
         return sessionContext.getInterceptorFactory().addInterceptor(xoManager, XOManager.class);
     }
 
     @Override
     public void close() {
+        if (sessionPool != null) {
+            for (SessionContext<?, ?, ?, ?, ?, ?, ?, ?, ?> pooledSessionContext : sessionPool.close()) {
+                pooledSessionContext.getDatastoreSession().close();
+            }
+        }
         datastore.close();
     }
 
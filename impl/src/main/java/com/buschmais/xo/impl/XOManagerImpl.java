@@ -5,13 +5,17 @@ import static com.buschmais.xo.spi.metadata.type.RelationTypeMetadata.Direction.
 import static com.buschmais.xo.spi.metadata.type.RelationTypeMetadata.Direction.TO;
 import static java.util.Collections.emptyMap;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.*;
 
 import javax.validation.ConstraintViolation;
 
 import com.buschmais.xo.api.*;
+import com.buschmais.xo.impl.instancelistener.InstanceListenerService;
 import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
 import com.buschmais.xo.impl.proxy.example.ExampleProxyMethodService;
+import com.buschmais.xo.impl.proxy.example.ExampleTypeCache.ExampleType;
 import com.buschmais.xo.impl.proxy.repository.RepositoryInvocationHandler;
 import com.buschmais.xo.impl.proxy.repository.RepositoryProxyMethodService;
 import com.buschmais.xo.impl.query.XOQueryImpl;
@@ -53,12 +57,24 @@ import com.buschmais.xo.spi.session.XOSession;
 public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEntityMetadata<EntityDiscriminator>, EntityDiscriminator, RelationId, Relation, RelationMetadata extends DatastoreRelationMetadata<RelationDiscriminator>, RelationDiscriminator, PropertyMetadata>
         implements XOManager {
 
+    /**
+     * The maximum number of instances which are created by a single datastore
+     * operation of the createAll methods.
+     */
+    private static final int CREATE_CHUNK_SIZE = 1000;
+
     private final SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext;
 
     private final XOSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> session;
 
     private final Map<Class<?>, Object> repositories = new HashMap<>();
 
+    private final SessionPool<SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata>> sessionPool;
+
+    private final int lease;
+
+    private volatile boolean closed = false;
+
     /**
      * Constructor.
      *
@@ -67,22 +83,42 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
      */
     public XOManagerImpl(
             SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext) {
+        this(sessionContext, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sessionContext
+     *            The associated {@link SessionContext}.
+     * @param sessionPool
+     *            The pool to return the session context to on close or
+     *            <code>null</code> if pooling is disabled.
+     */
+    XOManagerImpl(
+            SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext,
+            SessionPool<SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata>> sessionPool) {
         this.sessionContext = sessionContext;
+        this.sessionPool = sessionPool;
+        this.lease = sessionContext.getLease();
         this.session = new XOSessionImpl<>(sessionContext);
     }
 
     @Override
     public XOTransaction currentTransaction() {
+        ensureOpen();
         return sessionContext.getXOTransaction();
     }
 
     @Override
     public Set<ConstraintViolation<Object>> validate() {
+        ensureOpen();
         return sessionContext.getInstanceValidationService().validate();
     }
 
     @Override
     public <T, I> T findById(Class<T> type, I id) {
+        ensureOpen();
         TypeMetadata typeMetadata = sessionContext.getMetadataProvider().getRegisteredMetadata().get(type);
         if (typeMetadata == null) {
             throw new XOException(type.getName() + " is not a registered type.");
@@ -103,6 +139,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <T> ResultIterable<T> find(final Class<T> type, final Object value) {
+        ensureOpen();
         EntityTypeMetadata<EntityMetadata> entityTypeMetadata = sessionContext.getMetadataProvider().getEntityMetadata(type);
         IndexedPropertyMethodMetadata indexedProperty = entityTypeMetadata.getIndexedProperty();
         Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = new HashMap<>(1);
@@ -116,13 +153,15 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <T> ResultIterable<T> find(Example<T> example, Class<T> type) {
-        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = prepareExample(example, type);
+        ensureOpen();
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = prepareFindExample(example, type);
         return findByExample(type, exampleEntity);
     }
 
     @Override
     public ResultIterable<CompositeObject> find(Example<CompositeObject> example, Class<?> type, Class<?>... types) {
-        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = prepareExample(example, type, types);
+        ensureOpen();
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = prepareFindExample(example, type, types);
         return findByExample(type, exampleEntity);
     }
 
@@ -138,12 +177,46 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
      * @return The example.
      */
     private <T> Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> prepareExample(Example<T> example, Class<?> type, Class<?>... types) {
-        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = new HashMap<>();
-        InstanceInvocationHandler invocationHandler = new InstanceInvocationHandler(exampleEntity, new ExampleProxyMethodService(type, sessionContext));
-        List<Class<?>> effectiveTypes = new ArrayList<>();
-        effectiveTypes.add(type);
-        effectiveTypes.addAll(Arrays.asList(types));
+        ExampleProxyMethodService proxyMethodService = new ExampleProxyMethodService(type, sessionContext);
         CompositeType compositeType = CompositeTypeBuilder.create(CompositeObject.class, type, types);
+        return prepareExample(example, proxyMethodService, compositeType);
+    }
+
+    /**
+     * Setup an example entity for a find operation, i.e. the example also
+     * implements {@link ExampleConditions}.
+     *
+     * @param type
+     *            The type.
+     * @param example
+     *            The provided example.
+     * @param <T>
+     *            The type.
+     * @return The example.
+     */
+    private <T> Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> prepareFindExample(Example<T> example, Class<?> type, Class<?>... types) {
+        ExampleType exampleType = sessionContext.getExampleTypeCache().getFindType(type, types);
+        return prepareExample(example, exampleType.getProxyMethodService(), exampleType.getCompositeType());
+    }
+
+    /**
+     * Setup an example entity using a prepared proxy method service and
+     * composite type, e.g. for re-using them for a batch of examples.
+     *
+     * @param example
+     *            The provided example.
+     * @param proxyMethodService
+     *            The proxy method service for the example type.
+     * @param compositeType
+     *            The composite type of the example.
+     * @param <T>
+     *            The type.
+     * @return The example.
+     */
+    private <T> Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> prepareExample(Example<T> example, ExampleProxyMethodService proxyMethodService,
+            CompositeType compositeType) {
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = new HashMap<>();
+        InstanceInvocationHandler invocationHandler = new InstanceInvocationHandler(exampleEntity, proxyMethodService);
         T instance = sessionContext.getProxyFactory().createInstance(invocationHandler, compositeType);
         example.prepare(instance);
         return exampleEntity;
@@ -173,11 +246,13 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
             @Override
             public boolean hasNext() {
+                ensureOpen();
                 return iterator.hasNext();
             }
 
             @Override
             public T next() {
+                ensureOpen();
                 Entity entity = iterator.next();
                 return entityInstanceManager.readInstance(entity);
             }
@@ -205,11 +280,13 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public CompositeObject create(Class<?> type, Class<?>... types) {
+        ensureOpen();
         return createByExample(type, types, emptyMap());
     }
 
     @Override
     public CompositeObject create(Example<CompositeObject> example, Class<?> type, Class<?>... types) {
+        ensureOpen();
         Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = prepareExample(example, type);
         return createByExample(type, new Class<?>[0], exampleEntity);
     }
@@ -220,10 +297,43 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <T> T create(Example<T> example, Class<T> type) {
+        ensureOpen();
         Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = prepareExample(example, type);
         return createByExample(type, new Class<?>[0], exampleEntity).as(type);
     }
 
+    @Override
+    public <T> ResultIterator<T> createAll(final Class<T> type, Iterable<Example<T>> examples) {
+        ensureOpen();
+        final ExampleProxyMethodService proxyMethodService = new ExampleProxyMethodService(type, sessionContext);
+        final CompositeType compositeType = CompositeTypeBuilder.create(CompositeObject.class, type);
+        final TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> effectiveTypes = getEffectiveTypes(type);
+        final Set<EntityDiscriminator> entityDiscriminators = sessionContext.getMetadataProvider().getEntityDiscriminators(effectiveTypes);
+        ResultIterator<T> iterator = new ChunkedResultIterator<Example<T>, T>(examples.iterator(), CREATE_CHUNK_SIZE) {
+            @Override
+            protected List<T> create(List<Example<T>> chunk) {
+                ensureOpen();
+                List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> exampleEntities = new ArrayList<>(chunk.size());
+                for (Example<T> example : chunk) {
+                    exampleEntities.add(prepareExample(example, proxyMethodService, compositeType));
+                }
+                List<Entity> entities = sessionContext.getDatastoreSession().getDatastoreEntityManager().createEntities(effectiveTypes,
+                        entityDiscriminators, exampleEntities);
+                AbstractInstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
+                InstanceListenerService instanceListenerService = sessionContext.getInstanceListenerService();
+                List<T> instances = new ArrayList<>(entities.size());
+                for (Entity entity : entities) {
+                    CompositeObject instance = entityInstanceManager.createInstance(entity);
+                    instanceListenerService.postCreate(instance);
+                    instances.add(instance.as(type));
+                }
+                return instances;
+            }
+        };
+        // Each chunk is created by a separate invocation, i.e. a periodic commit may happen in between.
+        return sessionContext.getInterceptorFactory().addInterceptor(iterator, CreatingResultIterator.class);
+    }
+
     /**
      * Create a new {@link CompositeObject} instance using an example.
      *
@@ -249,15 +359,97 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <S, R, T> R create(S from, Class<R> relationType, T to) {
+        ensureOpen();
         return createByExample(from, relationType, to, Collections.emptyMap());
     }
 
     @Override
     public <S, R, T> R create(Example<R> example, S from, Class<R> relationType, T to) {
+        ensureOpen();
         Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleRelation = prepareExample(example, relationType);
         return createByExample(from, relationType, to, exampleRelation);
     }
 
+    @Override
+    public <S, R, T> ResultIterator<R> createAllRelations(final Class<R> relationType, Iterable<RelationTriple<S, R, T>> triples) {
+        ensureOpen();
+        final MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider = sessionContext
+                .getMetadataProvider();
+        final Map<Class<?>, AbstractRelationPropertyMethodMetadata<?>> fromProperties = new HashMap<>();
+        final Map<Class<?>, AbstractRelationPropertyMethodMetadata<?>> toProperties = new HashMap<>();
+        ResultIterator<R> iterator = new ChunkedResultIterator<RelationTriple<S, R, T>, R>(triples.iterator(), CREATE_CHUNK_SIZE) {
+
+            private ExampleProxyMethodService proxyMethodService = null;
+
+            private CompositeType compositeType = null;
+
+            @Override
+            protected List<R> create(List<RelationTriple<S, R, T>> chunk) {
+                ensureOpen();
+                AbstractInstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
+                EntityPropertyManager<Entity, Relation, PropertyMetadata> entityPropertyManager = sessionContext.getEntityPropertyManager();
+                List<R> instances = new ArrayList<>(chunk.size());
+                // Consecutive triples sharing the same property metadata are passed as one batch
+                AbstractRelationPropertyMethodMetadata<?> batchFromProperty = null;
+                AbstractRelationPropertyMethodMetadata<?> batchToProperty = null;
+                List<Entity> sourceEntities = new ArrayList<>();
+                List<Object> targets = new ArrayList<>();
+                List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples = new ArrayList<>();
+                for (RelationTriple<S, R, T> triple : chunk) {
+                    S from = triple.getSource();
+                    T to = triple.getTarget();
+                    if (from == null || to == null) {
+                        throw new XOException("Source and target must be provided for relation type " + relationType.getName());
+                    }
+                    AbstractRelationPropertyMethodMetadata<?> fromProperty = fromProperties.get(from.getClass());
+                    if (fromProperty == null) {
+                        fromProperty = metadataProvider.getPropertyMetadata(from.getClass(), relationType, FROM);
+                        fromProperties.put(from.getClass(), fromProperty);
+                    }
+                    AbstractRelationPropertyMethodMetadata<?> toProperty = toProperties.get(to.getClass());
+                    if (toProperty == null) {
+                        toProperty = metadataProvider.getPropertyMetadata(to.getClass(), relationType, TO);
+                        toProperties.put(to.getClass(), toProperty);
+                    }
+                    if (fromProperty != batchFromProperty || toProperty != batchToProperty) {
+                        if (!sourceEntities.isEmpty()) {
+                            instances.addAll(
+                                    entityPropertyManager.<R> createRelationReferences(sourceEntities, batchFromProperty, targets, batchToProperty, examples));
+                            sourceEntities.clear();
+                            targets.clear();
+                            examples.clear();
+                        }
+                        batchFromProperty = fromProperty;
+                        batchToProperty = toProperty;
+                    }
+                    Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleRelation;
+                    if (triple.getExample() != null) {
+                        if (proxyMethodService == null) {
+                            proxyMethodService = new ExampleProxyMethodService(relationType, sessionContext);
+                            compositeType = CompositeTypeBuilder.create(CompositeObject.class, relationType);
+                        }
+                        exampleRelation = prepareExample(triple.getExample(), proxyMethodService, compositeType);
+                    } else {
+                        exampleRelation = emptyMap();
+                    }
+                    sourceEntities.add(entityInstanceManager.getDatastoreType(from));
+                    targets.add(to);
+                    examples.add(exampleRelation);
+                }
+                if (!sourceEntities.isEmpty()) {
+                    instances.addAll(entityPropertyManager.<R> createRelationReferences(sourceEntities, batchFromProperty, targets, batchToProperty, examples));
+                }
+                InstanceListenerService instanceListenerService = sessionContext.getInstanceListenerService();
+                for (R instance : instances) {
+                    instanceListenerService.postCreate(instance);
+                }
+                return instances;
+            }
+        };
+        // Each chunk is created by a separate invocation, i.e. a periodic commit may happen in between.
+        return sessionContext.getInterceptorFactory().addInterceptor(iterator, CreatingResultIterator.class);
+    }
+
     private <S, R, T> R createByExample(S from, Class<R> relationType, T to, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
         MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider = sessionContext.getMetadataProvider();
         AbstractRelationPropertyMethodMetadata<?> fromProperty = metadataProvider.getPropertyMetadata(from.getClass(), relationType, FROM);
@@ -270,6 +462,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <T> T getRepository(Class<T> repositoryType) {
+        ensureOpen();
         T repository = (T) repositories.get(repositoryType);
         if (repository == null) {
             T datastoreRepository = sessionContext.getDatastoreSession().createRepository(session, repositoryType);
@@ -290,6 +483,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <T, Id> Id getId(T instance) {
+        ensureOpen();
         InstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
         InstanceManager<RelationId, Relation> relationInstanceManager = sessionContext.getRelationInstanceManager();
         if (entityInstanceManager.isInstance(instance)) {
@@ -304,6 +498,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <T, M> CompositeObject migrate(T instance, MigrationStrategy<T, M> migrationStrategy, Class<M> targetType, Class<?>... targetTypes) {
+        ensureOpen();
         AbstractInstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
         Entity entity = entityInstanceManager.getDatastoreType(instance);
         DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession = sessionContext
@@ -315,7 +510,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         Set<EntityDiscriminator> targetEntityDiscriminators = metadataProvider.getEntityDiscriminators(effectiveTargetTypes);
         datastoreSession.getDatastoreEntityManager().migrateEntity(entity, types, entityDiscriminators, effectiveTargetTypes, targetEntityDiscriminators);
         entityInstanceManager.removeInstance(instance);
-        CompositeObject migratedInstance = entityInstanceManager.updateInstance(entity);
+        CompositeObject migratedInstance = entityInstanceManager.modifyInstance(entity);
         if (migrationStrategy != null) {
             migrationStrategy.migrate(instance, migratedInstance.as(targetType));
         }
@@ -325,30 +520,54 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public <T, M> CompositeObject migrate(T instance, Class<M> targetType, Class<?>... targetTypes) {
+        ensureOpen();
         return migrate(instance, null, targetType, targetTypes);
     }
 
     @Override
     public <T, M> M migrate(T instance, MigrationStrategy<T, M> migrationStrategy, Class<M> targetType) {
+        ensureOpen();
         return migrate(instance, migrationStrategy, targetType, new Class<?>[0]).as(targetType);
     }
 
     @Override
 	public <T> XOMigrator<T> migrate(T instance) {
+        ensureOpen();
 		return sessionContext.getInterceptorFactory().addInterceptor(new XOMigratorImpl<>(instance, sessionContext));
     }
 
+    @Override
+    public <T> XOFetchPlan fetch(T instance) {
+        ensureOpen();
+        return sessionContext.getInterceptorFactory().addInterceptor(new XOFetchPlanImpl<>(instance, sessionContext), XOFetchPlan.class);
+    }
+
+    @Override
+    public XOExporter createExporter(OutputStream outputStream) {
+        ensureOpen();
+        return new XOExporterImpl<>(outputStream, sessionContext);
+    }
+
+    @Override
+    public XOImporter createImporter(InputStream inputStream) {
+        ensureOpen();
+        return new XOImporterImpl<>(inputStream, sessionContext);
+    }
+
     @Override
     public <T, M> M migrate(T instance, Class<M> targetType) {
+        ensureOpen();
 		return sessionContext.getInterceptorFactory().addInterceptor(migrate(instance, null, targetType));
     }
 
     @Override
     public <T> void delete(T instance) {
+        ensureOpen();
         InstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
         InstanceManager<RelationId, Relation> relationInstanceManager = sessionContext.getRelationInstanceManager();
         DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession = sessionContext
                 .getDatastoreSession();
+        sessionContext.getEntityPropertyManager().clearFetchedRelations();
         if (entityInstanceManager.isInstance(instance)) {
             Entity entity = entityInstanceManager.getDatastoreType(instance);
             sessionContext.getInstanceListenerService().preDelete(instance);
@@ -370,43 +589,89 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public Query<CompositeRowObject> createQuery(String query) {
+        ensureOpen();
         XOQueryImpl<CompositeRowObject, ?, String, Entity, Relation> xoQuery = new XOQueryImpl<>(sessionContext, query);
         return sessionContext.getInterceptorFactory().addInterceptor(xoQuery, Query.class);
     }
 
     @Override
     public <T> Query<T> createQuery(String query, Class<T> type) {
+        ensureOpen();
         XOQueryImpl<T, ?, String, Entity, Relation> xoQuery = new XOQueryImpl<>(sessionContext, query, type);
         return sessionContext.getInterceptorFactory().addInterceptor(xoQuery, Query.class);
     }
 
     @Override
     public Query<CompositeRowObject> createQuery(String query, Class<?> type, Class<?>... types) {
+        ensureOpen();
         XOQueryImpl<CompositeRowObject, ?, String, Entity, Relation> xoQuery = new XOQueryImpl<>(sessionContext, query, type, Arrays.asList(types));
         return sessionContext.getInterceptorFactory().addInterceptor(xoQuery, Query.class);
     }
 
     @Override
     public <T> Query<T> createQuery(Class<T> query) {
+        ensureOpen();
         XOQueryImpl<T, ?, Class<T>, Entity, Relation> xoQuery = new XOQueryImpl<>(sessionContext, query, query);
         return sessionContext.getInterceptorFactory().addInterceptor(xoQuery, Query.class);
     }
 
     @Override
     public <Q> Query<CompositeRowObject> createQuery(Class<Q> query, Class<?>... types) {
+        ensureOpen();
         XOQueryImpl<CompositeRowObject, ?, Class<Q>, Entity, Relation> xoQuery = new XOQueryImpl<>(sessionContext, query, query, Arrays.asList(types));
         return sessionContext.getInterceptorFactory().addInterceptor(xoQuery, Query.class);
     }
 
     @Override
     public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
         sessionContext.getEntityInstanceManager().close();
         sessionContext.getRelationInstanceManager().close();
-        sessionContext.getDatastoreSession().close();
+        if (!release()) {
+            sessionContext.getDatastoreSession().close();
+        }
+    }
+
+    /**
+     * Return the session context to the session pool if it can be reused.
+     * <p>
+     * The session context starts a new lease if it has been added to the pool,
+     * i.e. this instance and all handles created by it cannot be used anymore.
+     * </p>
+     *
+     * @return <code>true</code> if the session context has been added to the
+     *         pool.
+     */
+    private boolean release() {
+        if (sessionPool == null) {
+            return false;
+        }
+        XOTransaction xoTransaction = sessionContext.getXOTransaction();
+        if (xoTransaction != null && xoTransaction.isActive()) {
+            return false;
+        }
+        sessionContext.getEntityCache().reset();
+        sessionContext.getRelationCache().reset();
+        sessionContext.getInstanceListenerService().reset();
+        sessionContext.getDatastoreSession().reset();
+        return sessionPool.release(sessionContext);
+    }
+
+    /**
+     * Verify that the session context has not been returned to the session
+     * pool since this instance has been created, as it may have been passed to
+     * another user.
+     */
+    private void ensureOpen() {
+        sessionContext.ensureLease(lease);
     }
 
     @Override
     public <DS> DS getDatastoreSession(Class<DS> sessionType) {
+        ensureOpen();
         DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession = sessionContext
                 .getDatastoreSession();
         return sessionType.cast(datastoreSession);
@@ -414,14 +679,28 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     @Override
     public void flush() {
+        ensureOpen();
         sessionContext.getCacheSynchronizationService().flush();
     }
 
     @Override
     public <I> void registerInstanceListener(I instanceListener) {
+        ensureOpen();
         sessionContext.getInstanceListenerService().registerInstanceListener(instanceListener);
     }
 
+    @Override
+    public CacheStatistics getEntityCacheStatistics() {
+        ensureOpen();
+        return sessionContext.getEntityCache().getStatistics();
+    }
+
+    @Override
+    public CacheStatistics getRelationCacheStatistics() {
+        ensureOpen();
+        return sessionContext.getRelationCache().getStatistics();
+    }
+
     private TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> getEffectiveTypes(Class<?> type, Class<?>... types) {
         MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider = sessionContext.getMetadataProvider();
         TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> effectiveTypes = new TypeMetadataSet<>();
@@ -21,6 +21,8 @@ public class XOSessionImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
     private SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext;
 
+    private final int lease;
+
     /**
      * Constructor.
      * 
@@ -30,6 +32,7 @@ public class XOSessionImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
     public XOSessionImpl(
             SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext) {
         this.sessionContext = sessionContext;
+        this.lease = sessionContext.getLease();
     }
 
     @Override
@@ -77,11 +80,13 @@ public class XOSessionImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
 
             @Override
             public boolean hasNext() {
+                sessionContext.ensureLease(lease);
                 return iterator.hasNext();
             }
 
             @Override
             public T next() {
+                sessionContext.ensureLease(lease);
                 Object datastoreValue = iterator.next();
                 return fromDatastore(datastoreValue);
             }
@@ -10,10 +10,36 @@ public class XOTransactionImpl implements XOTransaction {
     private final DatastoreTransaction datastoreTransaction;
 
     private final Collection<Synchronization> defaultSynchronizations = new LinkedList<>();
-    private final Collection<Synchronization> synchronizations = new LinkedList<>();
+    private final Collection<Synchronization> synchronizations;
+    private final ThreadLocal<Collection<Synchronization>> threadSynchronizations;
 
     public XOTransactionImpl(DatastoreTransaction datastoreTransaction) {
+        this(datastoreTransaction, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param datastoreTransaction
+     *            The datastore transaction.
+     * @param threadBound
+     *            If <code>true</code> synchronizations are registered for the
+     *            transaction of the current thread.
+     */
+    public XOTransactionImpl(DatastoreTransaction datastoreTransaction, boolean threadBound) {
         this.datastoreTransaction = datastoreTransaction;
+        if (threadBound) {
+            this.synchronizations = null;
+            this.threadSynchronizations = new ThreadLocal<Collection<Synchronization>>() {
+                @Override
+                protected Collection<Synchronization> initialValue() {
+                    return new LinkedList<>();
+                }
+            };
+        } else {
+            this.synchronizations = new LinkedList<>();
+            this.threadSynchronizations = null;
+        }
     }
 
     @Override
@@ -49,12 +75,22 @@ public class XOTransactionImpl implements XOTransaction {
 
     @Override
     public void registerSynchronization(Synchronization synchronization) {
-        synchronizations.add(synchronization);
+        getSynchronizations().add(synchronization);
     }
 
     @Override
     public void unregisterSynchronization(Synchronization synchronization) {
-        synchronizations.remove(synchronization);
+        getSynchronizations().remove(synchronization);
+    }
+
+    /**
+     * Determine if synchronizations have been registered for the current
+     * transaction (in addition to the default synchronizations).
+     *
+     * @return <code>true</code> if synchronizations are registered.
+     */
+    public boolean hasSynchronizations() {
+        return !getSynchronizations().isEmpty();
     }
 
     public void registerDefaultSynchronization(Synchronization synchronization) {
@@ -77,18 +113,22 @@ public class XOTransactionImpl implements XOTransaction {
                 synchronization.afterCompletion(committed);
             }
         });
-        synchronizations.clear();
+        getSynchronizations().clear();
     }
 
     private void executeSynchronizations(SynchronizationOperation operation) {
         for (Synchronization synchronization : defaultSynchronizations) {
             operation.run(synchronization);
         }
-        for (Synchronization synchronization : new ArrayList<>(synchronizations)) {
+        for (Synchronization synchronization : new ArrayList<>(getSynchronizations())) {
             operation.run(synchronization);
         }
     }
 
+    private Collection<Synchronization> getSynchronizations() {
+        return synchronizations != null ? synchronizations : threadSynchronizations.get();
+    }
+
     private interface SynchronizationOperation {
         void run(Synchronization synchronization);
     }
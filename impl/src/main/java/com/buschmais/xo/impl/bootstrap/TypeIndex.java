@@ -0,0 +1,98 @@
+package com.buschmais.xo.impl.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.spi.bootstrap.TypeIndexResource;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Provides access to the types listed in the type indexes created at compile
+ * time by the XO annotation processor (module xo.processor).
+ * <p>
+ * The indexes are read once per class loader, the types are cached as long as
+ * the class loader is reachable and memory is available.
+ * </p>
+ */
+public final class TypeIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TypeIndex.class);
+
+    private static final Cache<ClassLoader, Set<Class<?>>> TYPES = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+    private TypeIndex() {
+    }
+
+    /**
+     * Return all types listed in the indexes visible to the given class loader.
+     *
+     * @param classLoader
+     *            The class loader.
+     * @return The (unmodifiable) types.
+     */
+    public static Set<Class<?>> getTypes(final ClassLoader classLoader) {
+        try {
+            return TYPES.get(classLoader, new Callable<Set<Class<?>>>() {
+                @Override
+                public Set<Class<?>> call() {
+                    return Collections.unmodifiableSet(readTypes(classLoader));
+                }
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.propagateIfInstanceOf(e.getCause(), XOException.class);
+            throw new XOException("Cannot read type indexes " + TypeIndexResource.NAME, e.getCause());
+        }
+    }
+
+    private static Set<Class<?>> readTypes(ClassLoader classLoader) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Enumeration<URL> resources;
+        try {
+            resources = classLoader.getResources(TypeIndexResource.NAME);
+        } catch (IOException e) {
+            throw new XOException("Cannot read type indexes " + TypeIndexResource.NAME, e);
+        }
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            LOGGER.debug("Reading type index from '{}'.", url);
+            try (InputStream is = url.openStream()) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String typeName = line.trim();
+                    if (!typeName.isEmpty()) {
+                        types.add(getType(classLoader, typeName));
+                    }
+                }
+            } catch (IOException e) {
+                throw new XOException("Cannot read type index " + url, e);
+            }
+        }
+        return types;
+    }
+
+    private static Class<?> getType(ClassLoader classLoader, String typeName) {
+        try {
+            return Class.forName(typeName, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new XOException("Cannot find class with name '" + typeName + "' listed in type index", e);
+        }
+    }
+}
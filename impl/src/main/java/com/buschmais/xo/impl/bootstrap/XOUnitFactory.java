@@ -122,6 +122,10 @@ public class XOUnitFactory {
                 return ConcurrencyMode.SINGLETHREADED;
             case MULTITHREADED:
                 return ConcurrencyMode.MULTITHREADED;
+            case CONCURRENT:
+                return ConcurrencyMode.CONCURRENT;
+            case READ_WRITE:
+                return ConcurrencyMode.READ_WRITE;
             default:
                 throw new XOException("Unknown concurrency mode type " + concurrencyModeType);
         }
@@ -31,6 +31,17 @@ public abstract class AbstractCache<Key, Value> implements Cache<Key, Value> {
         return cache.getIfPresent(key);
     }
 
+    /**
+     * Put a value into the cache if no value is present for the given key.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return The value which is already present or <code>null</code> if the given value has been put.
+     */
+    public Value putIfAbsent(Key key, Value value) {
+        return cache.asMap().putIfAbsent(key, value);
+    }
+
     @Override
     public void remove(Key key) {
         cache.invalidate(key);
@@ -0,0 +1,58 @@
+package com.buschmais.xo.impl.cache;
+
+/**
+ * The settings of the read cache of a {@link TransactionalCache}.
+ */
+public class CacheSettings {
+
+    /**
+     * The reference type used for holding cached values.
+     */
+    public enum Values {
+        /**
+         * Values are released as soon as they are not strongly referenced
+         * anymore, unless they belong to the most recently used values within
+         * the maximum size.
+         */
+        WEAK,
+        /**
+         * Values which are not strongly referenced anymore are released by the
+         * garbage collector in response to memory demand.
+         */
+        SOFT
+    }
+
+    /**
+     * The default settings: weak values, unbounded.
+     */
+    public static final CacheSettings DEFAULT = new CacheSettings(Values.WEAK, 0);
+
+    private final Values values;
+
+    private final long maximumSize;
+
+    /**
+     * Constructor.
+     *
+     * @param values      The reference type for values.
+     * @param maximumSize The maximum number of values which are retained if not referenced by the application,
+     *                    <code>0</code> for unbounded.
+     */
+    public CacheSettings(Values values, long maximumSize) {
+        this.values = values;
+        this.maximumSize = maximumSize;
+    }
+
+    public Values getValues() {
+        return values;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheSettings{values=" + values + ", maximumSize=" + maximumSize + '}';
+    }
+}
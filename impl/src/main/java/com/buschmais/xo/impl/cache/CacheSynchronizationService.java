@@ -9,6 +9,7 @@ import com.buschmais.xo.spi.datastore.DatastoreSession;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
+import java.util.Map;
 import java.util.Set;
 
 public class CacheSynchronizationService<Entity, Relation> {
@@ -21,26 +22,63 @@ public class CacheSynchronizationService<Entity, Relation> {
         this.validationMode = validationMode;
     }
 
+    /**
+     * Flush all dirty instances, i.e. instances which have been created or whose state has been modified.
+     * <p>Instances which become dirty while flushing (e.g. modified by instance listeners) are flushed as well.</p>
+     */
     public void flush() {
+        boolean flushed;
+        do {
+            flushed = flushRelations();
+            flushed = flushEntities() || flushed;
+        } while (flushed);
+    }
+
+    /**
+     * Determine if there are dirty instances which must be flushed.
+     *
+     * @return <code>true</code> if there are dirty instances.
+     */
+    public boolean isDirty() {
+        return sessionContext.getEntityCache().isDirty() || sessionContext.getRelationCache().isDirty();
+    }
+
+    private boolean flushRelations() {
         DatastoreSession<?, Entity, ? extends DatastoreEntityMetadata<?>, ?, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, ?> datastoreSession = sessionContext.getDatastoreSession();
         InstanceListenerService instanceListenerService = sessionContext.getInstanceListenerService();
-        for (Object instance : sessionContext.getRelationCache().writtenInstances()) {
+        TransactionalCache<?> relationCache = sessionContext.getRelationCache();
+        Map<?, Object> instances = relationCache.dirtyInstances();
+        for (Map.Entry<?, Object> entry : instances.entrySet()) {
+            Object instance = entry.getValue();
             Relation relation = sessionContext.getRelationInstanceManager().getDatastoreType(instance);
             instanceListenerService.preUpdate(instance);
             validateInstance(instance);
             datastoreSession.getDatastoreRelationManager().flushRelation(relation);
+            relationCache.markClean(entry.getKey());
             instanceListenerService.postUpdate(instance);
         }
-        for (Object instance : sessionContext.getEntityCache().writtenInstances()) {
+        return !instances.isEmpty();
+    }
+
+    private boolean flushEntities() {
+        DatastoreSession<?, Entity, ? extends DatastoreEntityMetadata<?>, ?, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, ?> datastoreSession = sessionContext.getDatastoreSession();
+        InstanceListenerService instanceListenerService = sessionContext.getInstanceListenerService();
+        TransactionalCache<?> entityCache = sessionContext.getEntityCache();
+        Map<?, Object> instances = entityCache.dirtyInstances();
+        for (Map.Entry<?, Object> entry : instances.entrySet()) {
+            Object instance = entry.getValue();
             Entity entity = sessionContext.getEntityInstanceManager().getDatastoreType(instance);
             instanceListenerService.preUpdate(instance);
             validateInstance(instance);
             datastoreSession.getDatastoreEntityManager().flushEntity(entity);
+            entityCache.markClean(entry.getKey());
             instanceListenerService.postUpdate(instance);
         }
+        return !instances.isEmpty();
     }
 
     public void clear() {
+        sessionContext.getEntityPropertyManager().clearFetchedRelations();
         DatastoreSession<?, Entity, ? extends DatastoreEntityMetadata<?>, ?, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, ?> datastoreSession = sessionContext.getDatastoreSession();
         for (Object instance : sessionContext.getRelationCache().writtenInstances()) {
             Relation relation = sessionContext.getRelationInstanceManager().getDatastoreType(instance);
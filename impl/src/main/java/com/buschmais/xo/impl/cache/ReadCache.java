@@ -0,0 +1,124 @@
+package com.buschmais.xo.impl.cache;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache for instances which have been read.
+ * <p>
+ * Instances are held by weak references as long as they are referenced by the
+ * application, i.e. an instance is never replaced by another one for the same
+ * id while it is still in use. Additionally the most recently used instances
+ * are retained by soft or strong references, the number of these instances may
+ * be limited.
+ * </p>
+ *
+ * @param <Id> The key type.
+ */
+public class ReadCache<Id> extends AbstractCache<Id, Object> {
+
+    /**
+     * The instances by their ids.
+     */
+    private final com.google.common.cache.Cache<Id, Object> instances;
+
+    /**
+     * The retained instances, <code>null</code> if only instances referenced
+     * by the application are cached.
+     */
+    private final com.google.common.cache.Cache<Id, Object> retained;
+
+    protected ReadCache(CacheSettings settings) {
+        this(CacheBuilder.newBuilder().weakValues().recordStats().build(), buildRetained(settings));
+    }
+
+    private ReadCache(com.google.common.cache.Cache<Id, Object> instances, com.google.common.cache.Cache<Id, Object> retained) {
+        super(instances);
+        this.instances = instances;
+        this.retained = retained;
+    }
+
+    private static <Id> com.google.common.cache.Cache<Id, Object> buildRetained(CacheSettings settings) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        switch (settings.getValues()) {
+        case SOFT:
+            builder.softValues();
+            break;
+        default:
+            if (settings.getMaximumSize() == 0) {
+                return null;
+            }
+        }
+        if (settings.getMaximumSize() > 0) {
+            builder.maximumSize(settings.getMaximumSize());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void put(Id id, Object value) {
+        super.put(id, value);
+        retain(id, value);
+    }
+
+    @Override
+    public Object putIfAbsent(Id id, Object value) {
+        Object present = super.putIfAbsent(id, value);
+        retain(id, present != null ? present : value);
+        return present;
+    }
+
+    @Override
+    public Object get(Id id) {
+        Object value = super.get(id);
+        if (value != null && retained != null && retained.getIfPresent(id) == null) {
+            retained.put(id, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void remove(Id id) {
+        super.remove(id);
+        if (retained != null) {
+            retained.invalidate(id);
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        if (retained != null) {
+            retained.invalidateAll();
+        }
+    }
+
+    private void retain(Id id, Object value) {
+        if (retained != null) {
+            retained.put(id, value);
+        }
+    }
+
+    /**
+     * Return the number of values which are not retained anymore, either due
+     * to the size limit or as they have been garbage collected. An evicted
+     * value is still returned as long as it is referenced by the application.
+     *
+     * @return The number of evicted values.
+     */
+    public long evictionCount() {
+        return retained != null ? retained.stats().evictionCount() : instances.stats().evictionCount();
+    }
+
+    /**
+     * Return the approximate number of cached values.
+     *
+     * @return The number of cached values.
+     */
+    public long size() {
+        return instances.size();
+    }
+
+    @Override
+    public void afterCompletion(boolean success) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.buschmais.xo.impl.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache for the state of entities which is shared by all sessions of a
+ * {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>
+ * The state of an entity (i.e. its discriminators and property values) is
+ * collected while it is read by sessions and invalidated after a session
+ * modifying the entity has been committed. To prevent stale values the
+ * generation of an entity must be obtained before its state is read from the
+ * datastore, the state is only stored if the entity has not been invalidated
+ * in the meantime.
+ * </p>
+ * <p>
+ * Generations are maintained per entity id using a fixed number of stripes,
+ * i.e. invalidating an entity only affects concurrent reads of entities
+ * sharing its stripe.
+ * </p>
+ *
+ * @param <Discriminator> The entity discriminator type.
+ */
+public class SecondLevelCache<Discriminator> {
+
+    /**
+     * Marker for properties which are not present.
+     */
+    public static final Object ABSENT = new Object();
+
+    private final com.google.common.cache.Cache<Object, EntityState<Discriminator>> cache;
+
+    /**
+     * The number of generation stripes, must be a power of two.
+     */
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    /**
+     * The generation of all entities, increased by {@link #invalidateAll()}.
+     */
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize The maximum number of entities.
+     */
+    public SecondLevelCache(long maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Return the current generation of an entity, must be called before reading its state from the datastore.
+     *
+     * @param id The entity id.
+     * @return The generation.
+     */
+    public long getGeneration(Object id) {
+        // Both counters only increase, i.e. the sum changes with any invalidation affecting the entity.
+        return globalGeneration.get() + generations.get(getStripe(id));
+    }
+
+    /**
+     * Return the cached discriminators of an entity.
+     *
+     * @param id The entity id.
+     * @return The discriminators or <code>null</code> if they are not cached.
+     */
+    public Set<Discriminator> getDiscriminators(Object id) {
+        EntityState<Discriminator> state = cache.getIfPresent(id);
+        return state != null ? state.discriminators : null;
+    }
+
+    /**
+     * Cache the discriminators of an entity.
+     *
+     * @param id             The entity id.
+     * @param discriminators The discriminators.
+     * @param generation     The generation obtained before the discriminators have been read.
+     */
+    public void putDiscriminators(Object id, Set<Discriminator> discriminators, long generation) {
+        EntityState<Discriminator> state = getState(id, generation);
+        if (state != null) {
+            state.discriminators = discriminators;
+            verify(id, generation);
+        }
+    }
+
+    /**
+     * Return the cached value of a property.
+     *
+     * @param id       The entity id.
+     * @param property The property.
+     * @return The value, {@link #ABSENT} if the entity does not have the property or <code>null</code> if it is not
+     * cached.
+     */
+    public Object getProperty(Object id, Object property) {
+        EntityState<Discriminator> state = cache.getIfPresent(id);
+        return state != null ? state.properties.get(property) : null;
+    }
+
+    /**
+     * Cache the value of a property.
+     *
+     * @param id         The entity id.
+     * @param property   The property.
+     * @param value      The value or {@link #ABSENT}.
+     * @param generation The generation obtained before the value has been read.
+     */
+    public void putProperty(Object id, Object property, Object value, long generation) {
+        EntityState<Discriminator> state = getState(id, generation);
+        if (state != null) {
+            state.properties.put(property, value);
+            verify(id, generation);
+        }
+    }
+
+    /**
+     * Invalidate the state of the given entities.
+     *
+     * @param ids The entity ids.
+     */
+    public void invalidate(Collection<?> ids) {
+        if (!ids.isEmpty()) {
+            for (Object id : ids) {
+                generations.incrementAndGet(getStripe(id));
+            }
+            cache.invalidateAll(ids);
+        }
+    }
+
+    /**
+     * Invalidate the state of all entities.
+     */
+    public void invalidateAll() {
+        globalGeneration.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private EntityState<Discriminator> getState(Object id, long generation) {
+        if (getGeneration(id) != generation) {
+            return null;
+        }
+        EntityState<Discriminator> state = cache.getIfPresent(id);
+        if (state == null) {
+            state = new EntityState<>();
+            EntityState<Discriminator> existing = cache.asMap().putIfAbsent(id, state);
+            if (existing != null) {
+                state = existing;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Remove the state of an entity if an invalidation happened while it has been updated.
+     */
+    private void verify(Object id, long generation) {
+        if (getGeneration(id) != generation) {
+            cache.invalidate(id);
+        }
+    }
+
+    private int getStripe(Object id) {
+        int hash = id.hashCode();
+        // Spread the bits of the hash code, ids are often sequential numbers.
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash & (STRIPES - 1);
+    }
+
+    /**
+     * The cached state of an entity.
+     */
+    private static class EntityState<Discriminator> {
+
+        private volatile Set<Discriminator> discriminators;
+
+        private final Map<Object, Object> properties = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,30 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.api.XOTransaction;
+
+/**
+ * Invalidates the state of entities in the {@link SecondLevelCache} which have been modified by a committed
+ * transaction.
+ */
+public class SecondLevelCacheSynchronization implements XOTransaction.Synchronization {
+
+    private final SecondLevelCache<?> secondLevelCache;
+    private final TransactionalCache<?> entityCache;
+
+    public SecondLevelCacheSynchronization(SecondLevelCache<?> secondLevelCache, TransactionalCache<?> entityCache) {
+        this.secondLevelCache = secondLevelCache;
+        this.entityCache = entityCache;
+    }
+
+    @Override
+    public void beforeCompletion() {
+    }
+
+    @Override
+    public void afterCompletion(boolean committed) {
+        if (committed) {
+            secondLevelCache.invalidate(entityCache.getModifiedIds());
+        }
+        entityCache.clearModifiedIds();
+    }
+}
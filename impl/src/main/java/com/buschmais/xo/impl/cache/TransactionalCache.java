@@ -1,9 +1,23 @@
 package com.buschmais.xo.impl.cache;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.buschmais.xo.api.CacheStatistics;
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.CacheStats;
 
 /**
  * Transactional cache whcih handles read and write access to instances.
+ * <p>
+ * The read cache is always shared, the write cache and the ids of modified instances may be bound to the current
+ * thread, i.e. to its transaction.
+ * </p>
  *
  * @param <Id> The datastore id type.
  */
@@ -35,22 +49,98 @@ public class TransactionalCache<Id> {
         WRITE
     }
 
+    /**
+     * The state of a transaction, i.e. the written instances and the ids of modified instances.
+     */
+    private static class WriteState<Id> {
+
+        /**
+         * The write cache.
+         */
+        private final ReferenceCache<Id> writeCache = new ReferenceCache<>();
+
+        /**
+         * The ids of all instances which have been written or removed within the current transaction,
+         * <code>null</code> if not tracked.
+         */
+        private final Set<Id> modifiedIds;
+
+        /**
+         * The ids of the written instances whose state has been modified and
+         * not yet flushed.
+         */
+        private final Set<Id> dirtyIds = new LinkedHashSet<>();
+
+        /**
+         * The number of instances which have been added to the write cache
+         * since it has been cleared.
+         */
+        private int writeCount = 0;
+
+        private WriteState(boolean trackModifiedIds) {
+            this.modifiedIds = trackModifiedIds ? new HashSet<Id>() : null;
+        }
+
+        private void modified(Id id) {
+            if (modifiedIds != null) {
+                modifiedIds.add(id);
+            }
+        }
+    }
+
     /**
      * The read cache.
      */
-    private final WeakReferenceCache<CacheKey> readCache;
+    private final ReadCache<CacheKey> readCache;
 
     /**
-     * The write cache.
+     * The write state shared by all threads, <code>null</code> if it is bound to threads.
      */
-    private final ReferenceCache<Id> writeCache;
+    private final WriteState<Id> writeState;
+
+    /**
+     * The write state of the current thread, <code>null</code> if it is shared.
+     */
+    private volatile ThreadLocal<WriteState<Id>> threadWriteState;
+
+    private final boolean trackModifiedIds;
+
+    private final AbstractCache.StatsCounter statsCounter = new AbstractCache.SimpleStatsCounter();
 
     /**
      * Constructor.
      */
     public TransactionalCache() {
-        this.readCache = new WeakReferenceCache<>();
-        this.writeCache = new ReferenceCache<>();
+        this(CacheSettings.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param settings The settings of the read cache.
+     */
+    public TransactionalCache(CacheSettings settings) {
+        this(settings, false, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param settings         The settings of the read cache.
+     * @param trackModifiedIds If <code>true</code> the ids of modified instances are tracked until
+     *                         {@link #clearModifiedIds()} is called.
+     * @param threadBound      If <code>true</code> each thread uses its own write cache.
+     */
+    public TransactionalCache(CacheSettings settings, final boolean trackModifiedIds, boolean threadBound) {
+        this.readCache = new ReadCache<>(settings);
+        this.trackModifiedIds = trackModifiedIds;
+        if (threadBound) {
+            this.writeState = null;
+            this.threadWriteState = newThreadWriteState();
+        } else {
+            this.writeState = new WriteState<>(trackModifiedIds);
+            this.threadWriteState = null;
+        }
     }
 
     /**
@@ -62,11 +152,36 @@ public class TransactionalCache<Id> {
      */
     public void put(Id id, Object value, Mode mode) {
         if (Mode.WRITE.equals(mode)) {
-            writeCache.put(id, value);
+            write(id, value);
         }
         readCache.put(new CacheKey(id), value);
     }
 
+    /**
+     * Put an instance into the cache unless another thread has already put an instance with the same id.
+     *
+     * @param id    The id.
+     * @param value The instance.
+     * @param mode  The mode.
+     * @return The instance which is already present or <code>null</code> if the given instance has been put.
+     */
+    public Object putIfAbsent(Id id, Object value, Mode mode) {
+        Object present = readCache.putIfAbsent(new CacheKey(id), value);
+        if (Mode.WRITE.equals(mode)) {
+            write(id, present != null ? present : value);
+        }
+        return present;
+    }
+
+    private void write(Id id, Object value) {
+        WriteState<Id> state = getWriteState();
+        if (state.writeCache.get(id) == null) {
+            state.writeCount++;
+        }
+        state.writeCache.put(id, value);
+        state.modified(id);
+    }
+
     /**
      * Lookup an instance in the cache identified by its id.
      *
@@ -75,13 +190,21 @@ public class TransactionalCache<Id> {
      * @return The corresponding instance or <code>null</code> if no instance is available.
      */
     public Object get(Id id, Mode mode) {
-        Object value = writeCache.get(id);
+        WriteState<Id> state = getWriteState();
+        Object value = state.writeCache.get(id);
         if (value == null) {
             value = readCache.get(new CacheKey(id));
             if (value != null && Mode.WRITE.equals(mode)) {
-                writeCache.put(id, value);
+                state.writeCount++;
+                state.writeCache.put(id, value);
+                state.modified(id);
             }
         }
+        if (value != null) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordMisses(1);
+        }
         return value;
     }
 
@@ -92,7 +215,57 @@ public class TransactionalCache<Id> {
      */
     public void remove(Id id) {
         readCache.remove(new CacheKey(id));
-        writeCache.remove(id);
+        WriteState<Id> state = getWriteState();
+        state.writeCache.remove(id);
+        state.dirtyIds.remove(id);
+        state.modified(id);
+    }
+
+    /**
+     * Mark a written instance as dirty, i.e. its state must be flushed.
+     *
+     * @param id The id.
+     */
+    public void markDirty(Id id) {
+        getWriteState().dirtyIds.add(id);
+    }
+
+    /**
+     * Mark a written instance as clean after its state has been flushed.
+     *
+     * @param id The id.
+     */
+    public void markClean(Object id) {
+        getWriteState().dirtyIds.remove(id);
+    }
+
+    /**
+     * Determine if there are written instances which are dirty.
+     *
+     * @return <code>true</code> if there are dirty instances.
+     */
+    public boolean isDirty() {
+        return !getWriteState().dirtyIds.isEmpty();
+    }
+
+    /**
+     * Returns the written instances which are dirty.
+     *
+     * @return A snapshot of the dirty instances by their ids.
+     */
+    public Map<Id, Object> dirtyInstances() {
+        WriteState<Id> state = getWriteState();
+        if (state.dirtyIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Id, Object> instances = new LinkedHashMap<>();
+        for (Id id : state.dirtyIds) {
+            Object instance = state.writeCache.get(id);
+            if (instance != null) {
+                instances.put(id, instance);
+            }
+        }
+        return instances;
     }
 
     /**
@@ -100,7 +273,24 @@ public class TransactionalCache<Id> {
      * <p>Note: Affects only the write.</p>
      */
     public void clear() {
-        writeCache.clear();
+        WriteState<Id> state = getWriteState();
+        state.writeCache.clear();
+        state.dirtyIds.clear();
+        state.writeCount = 0;
+    }
+
+    /**
+     * Reset the cache, i.e. remove all read and written instances and the ids of modified instances.
+     * <p>If the write state is bound to threads the state of all threads is discarded.</p>
+     */
+    public void reset() {
+        readCache.clear();
+        if (threadWriteState != null) {
+            threadWriteState = newThreadWriteState();
+        } else {
+            clear();
+            clearModifiedIds();
+        }
     }
 
     /**
@@ -118,6 +308,72 @@ public class TransactionalCache<Id> {
      * @return The written instances.
      */
     public Collection<?> writtenInstances() {
-        return writeCache.values();
+        return getWriteState().writeCache.values();
+    }
+
+    /**
+     * Returns the number of instances which have been written since the last
+     * call of {@link #clear()}.
+     * <p>Note: Removed instances are still counted.</p>
+     *
+     * @return The number of written instances.
+     */
+    public int getWriteCount() {
+        return getWriteState().writeCount;
+    }
+
+    /**
+     * Return the statistics of this cache.
+     * <p>Note: Written instances are never evicted.</p>
+     *
+     * @return The statistics.
+     */
+    public CacheStatistics getStatistics() {
+        CacheStats stats = statsCounter.snapshot();
+        return new CacheStatistics(stats.hitCount(), stats.missCount(), readCache.evictionCount(), readCache.size());
+    }
+
+    /**
+     * Determine if an instance has been written or removed since the last call of {@link #clearModifiedIds()}.
+     *
+     * @param id The id.
+     * @return <code>true</code> if the instance has been modified or modifications are not tracked.
+     */
+    public boolean isModified(Object id) {
+        Set<Id> modifiedIds = getWriteState().modifiedIds;
+        return modifiedIds == null || modifiedIds.contains(id);
+    }
+
+    /**
+     * Returns the ids of the instances which have been written or removed since the last call of
+     * {@link #clearModifiedIds()}.
+     *
+     * @return The ids.
+     */
+    public Set<Id> getModifiedIds() {
+        return getWriteState().modifiedIds;
+    }
+
+    /**
+     * Clear the ids of modified instances, e.g. after completion of a transaction.
+     */
+    public void clearModifiedIds() {
+        Set<Id> modifiedIds = getWriteState().modifiedIds;
+        if (modifiedIds != null) {
+            modifiedIds.clear();
+        }
+    }
+
+    private ThreadLocal<WriteState<Id>> newThreadWriteState() {
+        return new ThreadLocal<WriteState<Id>>() {
+            @Override
+            protected WriteState<Id> initialValue() {
+                return new WriteState<>(trackModifiedIds);
+            }
+        };
+    }
+
+    private WriteState<Id> getWriteState() {
+        return writeState != null ? writeState : threadWriteState.get();
     }
 }
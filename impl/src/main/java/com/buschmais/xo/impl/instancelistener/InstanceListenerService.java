@@ -20,6 +20,7 @@ public class InstanceListenerService {
     private Map<Object, Set<Method>> preDeleteMethods;
     private Map<Object, Set<Method>> postDeleteMethods;
     private Map<Object, Set<Method>> postLoadMethods;
+    private final Set<Object> staticInstanceListeners;
 
     /**
      * Constructor.
@@ -33,9 +34,21 @@ public class InstanceListenerService {
         preDeleteMethods = new IdentityHashMap<>();
         postDeleteMethods = new IdentityHashMap<>();
         postLoadMethods = new IdentityHashMap<>();
+        staticInstanceListeners = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
         for (Class<?> listenerType : instanceListenerTypes) {
             Object instanceListener = ClassHelper.newInstance(listenerType);
             registerInstanceListener(instanceListener);
+            staticInstanceListeners.add(instanceListener);
+        }
+    }
+
+    /**
+     * Remove all instance listeners which have been registered after construction, i.e. only the statically registered
+     * instance listeners remain.
+     */
+    public void reset() {
+        for (Map<Object, Set<Method>> methods : Arrays.asList(postCreateMethods, preUpdateMethods, postUpdateMethods, preDeleteMethods, postDeleteMethods, postLoadMethods)) {
+            methods.keySet().retainAll(staticInstanceListeners);
         }
     }
 
@@ -2,30 +2,52 @@ package com.buschmais.xo.impl.interceptor;
 
 import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.MetadataProvider;
+import com.buschmais.xo.impl.cache.CacheSynchronizationService;
 import com.buschmais.xo.spi.interceptor.InvocationContext;
 import com.buschmais.xo.spi.interceptor.XOInterceptor;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class ConcurrencyInterceptor implements XOInterceptor {
 
     private final ConcurrencyMode concurrencyMode;
+    private final MetadataProvider<?, ?, ?, ?> metadataProvider;
+    private final CacheSynchronizationService<?, ?> cacheSynchronizationService;
     private final ReentrantLock lock;
+    private final ReentrantReadWriteLock readWriteLock;
 
-    public ConcurrencyInterceptor(ConcurrencyMode concurrencyMode) {
+    /**
+     * Constructor.
+     *
+     * @param concurrencyMode  The concurrency mode.
+     * @param metadataProvider The metadata provider used to classify methods, required for
+     *                         {@link ConcurrencyMode#READ_WRITE}.
+     * @param cacheSynchronizationService The cache synchronization service used to determine if queries must flush
+     *                                    modified instances, required for {@link ConcurrencyMode#READ_WRITE}.
+     */
+    public ConcurrencyInterceptor(ConcurrencyMode concurrencyMode, MetadataProvider<?, ?, ?, ?> metadataProvider,
+                                  CacheSynchronizationService<?, ?> cacheSynchronizationService) {
         this.concurrencyMode = concurrencyMode;
+        this.metadataProvider = metadataProvider;
+        this.cacheSynchronizationService = cacheSynchronizationService;
         lock = new ReentrantLock();
+        readWriteLock = new ReentrantReadWriteLock();
     }
 
     @Override
     public boolean isActive() {
-        return ConcurrencyMode.MULTITHREADED.equals(concurrencyMode);
+        return ConcurrencyMode.MULTITHREADED.equals(concurrencyMode) || ConcurrencyMode.READ_WRITE.equals(concurrencyMode);
     }
 
     @Override
     public Object invoke(InvocationContext invocationContext) throws Throwable {
         switch (concurrencyMode) {
             case SINGLETHREADED:
+            case CONCURRENT:
                 return invocationContext.proceed();
             case MULTITHREADED:
                 lock.lock();
@@ -34,9 +56,33 @@ public class ConcurrencyInterceptor implements XOInterceptor {
                 } finally {
                     lock.unlock();
                 }
+            case READ_WRITE:
+                // Nested invocations are executed using the lock of the outermost invocation.
+                if (readWriteLock.isWriteLockedByCurrentThread()) {
+                    return invocationContext.proceed();
+                }
+                Method method = invocationContext.getMethod();
+                boolean readOnly = metadataProvider.isReadOnly(method);
+                if (!readOnly && metadataProvider.isQuery(method)) {
+                    // A query only needs the write lock for flushing modified instances, these are bound to the current thread.
+                    readOnly = !cacheSynchronizationService.isDirty();
+                }
+                if (readWriteLock.getReadHoldCount() > 0) {
+                    // A read lock cannot be upgraded, waiting for the write lock would dead lock.
+                    if (!readOnly) {
+                        throw new XOException("Cannot invoke " + method + " from within a read only invocation.");
+                    }
+                    return invocationContext.proceed();
+                }
+                Lock effectiveLock = readOnly ? readWriteLock.readLock() : readWriteLock.writeLock();
+                effectiveLock.lock();
+                try {
+                    return invocationContext.proceed();
+                } finally {
+                    effectiveLock.unlock();
+                }
             default:
                 throw new XOException("Unsupported concurrency mode " + concurrencyMode);
         }
     }
 }
-
@@ -0,0 +1,101 @@
+package com.buschmais.xo.impl.interceptor;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.MetadataProvider;
+import com.buschmais.xo.impl.XOTransactionImpl;
+import com.buschmais.xo.impl.cache.TransactionalCache;
+import com.buschmais.xo.spi.interceptor.InvocationContext;
+import com.buschmais.xo.spi.interceptor.XOMethodInterceptor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Commits and re-opens a running transaction if the number of instances
+ * written by mutating operations exceeds a configured limit.
+ * <p>
+ * The check is performed after each outermost mutating invocation, i.e. never
+ * within an operation. Read only operations and queries (see
+ * {@link MetadataProvider#isReadOnly(Method)} and
+ * {@link MetadataProvider#isQuery(Method)}) neither trigger a commit nor
+ * count. If synchronizations are registered (e.g. for open query results which
+ * would be detached by a commit) the commit is deferred; a mutating invocation
+ * is refused with an {@link XOException} while the limit is exceeded and the
+ * synchronizations are still registered.
+ * </p>
+ */
+public class PeriodicCommitInterceptor implements XOMethodInterceptor {
+
+    private final XOTransactionImpl xoTransaction;
+    private final MetadataProvider<?, ?, ?, ?> metadataProvider;
+    private final TransactionalCache<?>[] caches;
+    private final int periodicCommit;
+
+    /**
+     * The invocation depth of the current thread.
+     */
+    private final ThreadLocal<int[]> depth = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    public PeriodicCommitInterceptor(XOTransactionImpl xoTransaction, int periodicCommit, MetadataProvider<?, ?, ?, ?> metadataProvider,
+            TransactionalCache<?>... caches) {
+        this.xoTransaction = xoTransaction;
+        this.periodicCommit = periodicCommit;
+        this.metadataProvider = metadataProvider;
+        this.caches = caches;
+    }
+
+    @Override
+    public boolean isActive() {
+        return xoTransaction != null && periodicCommit > 0;
+    }
+
+    @Override
+    public boolean isActive(Method method) {
+        return true;
+    }
+
+    @Override
+    public Object invoke(InvocationContext context) throws Throwable {
+        int[] depth = this.depth.get();
+        Method method = context.getMethod();
+        boolean mutating = depth[0] == 0 && !metadataProvider.isReadOnly(method) && !metadataProvider.isQuery(method);
+        if (mutating) {
+            // Results may have been closed since the limit has been exceeded.
+            commitIfRequired(method);
+        }
+        Object result;
+        depth[0]++;
+        try {
+            result = context.proceed();
+        } finally {
+            depth[0]--;
+        }
+        if (mutating && !xoTransaction.hasSynchronizations()) {
+            commitIfRequired(method);
+        }
+        return result;
+    }
+
+    private void commitIfRequired(Method method) {
+        if (xoTransaction.isActive() && getWrittenInstances() >= periodicCommit) {
+            if (xoTransaction.hasSynchronizations()) {
+                throw new XOException("Cannot invoke " + method + ": " + getWrittenInstances() + " instances have been written but the transaction cannot be "
+                        + "committed periodically while query results are open, close the results or process them in smaller chunks.");
+            }
+            xoTransaction.commit();
+            xoTransaction.begin();
+        }
+    }
+
+    private int getWrittenInstances() {
+        int count = 0;
+        for (TransactionalCache<?> cache : caches) {
+            count += cache.getWriteCount();
+        }
+        return count;
+    }
+}
@@ -4,14 +4,17 @@ import com.buschmais.xo.api.Transaction;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.XOTransaction;
 import com.buschmais.xo.spi.interceptor.InvocationContext;
-import com.buschmais.xo.spi.interceptor.XOInterceptor;
+import com.buschmais.xo.spi.interceptor.XOMethodInterceptor;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-public class TransactionInterceptor implements XOInterceptor {
+public class TransactionInterceptor implements XOMethodInterceptor {
 
     private final XOTransaction xoTransaction;
     private final Transaction.TransactionAttribute defaultTransactionAttribute;
+    private final ConcurrentMap<Method, Transaction.TransactionAttribute> transactionAttributes = new ConcurrentHashMap<>();
 
     public TransactionInterceptor(XOTransaction xoTransaction, Transaction.TransactionAttribute defaultTransactionAttribute) {
         this.xoTransaction = xoTransaction;
@@ -23,16 +26,15 @@ public class TransactionInterceptor implements XOInterceptor {
         return !Transaction.TransactionAttribute.NONE.equals(defaultTransactionAttribute);
     }
 
+    @Override
+    public boolean isActive(Method method) {
+        return !Transaction.TransactionAttribute.NOT_SUPPORTED.equals(getTransactionAttribute(method));
+    }
+
     @Override
     public Object invoke(InvocationContext context) throws Throwable {
         Method method = context.getMethod();
-        Transaction.TransactionAttribute transactionAttribute;
-        Transaction transaction = method.getAnnotation(Transaction.class);
-        if (transaction != null) {
-            transactionAttribute = transaction.value();
-        } else {
-            transactionAttribute = this.defaultTransactionAttribute;
-        }
+        Transaction.TransactionAttribute transactionAttribute = getTransactionAttribute(method);
         switch (transactionAttribute) {
             case MANDATORY:
                 if (!this.xoTransaction.isActive()) {
@@ -69,4 +71,22 @@ public class TransactionInterceptor implements XOInterceptor {
             }
         }
     }
+
+    /**
+     * Return the transaction attribute of a method, i.e. the value of a
+     * {@link Transaction} annotation or the default transaction attribute.
+     *
+     * @param method
+     *            The method.
+     * @return The transaction attribute.
+     */
+    private Transaction.TransactionAttribute getTransactionAttribute(Method method) {
+        Transaction.TransactionAttribute transactionAttribute = transactionAttributes.get(method);
+        if (transactionAttribute == null) {
+            Transaction transaction = method.getAnnotation(Transaction.class);
+            transactionAttribute = transaction != null ? transaction.value() : defaultTransactionAttribute;
+            transactionAttributes.put(method, transactionAttribute);
+        }
+        return transactionAttribute;
+    }
 }
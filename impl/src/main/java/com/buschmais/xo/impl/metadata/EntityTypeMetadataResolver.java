@@ -3,12 +3,15 @@ package com.buschmais.xo.impl.metadata;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
+import com.buschmais.xo.spi.datastore.DiscriminatorSet;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
 import com.buschmais.xo.spi.metadata.type.TypeMetadata;
@@ -27,8 +30,15 @@ public class EntityTypeMetadataResolver<EntityMetadata extends DatastoreEntityMe
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EntityTypeMetadataResolver.class);
 
+    /**
+     * The maximum number of resolved discriminator sets to cache, further sets
+     * are resolved on each request.
+     */
+    private static final int MAX_RESOLVED_TYPES = 4096;
+
     private final Map<EntityTypeMetadata<EntityMetadata>, Set<Discriminator>> aggregatedDiscriminators = new Object2ObjectOpenHashMap<>();
     private final Map<Discriminator, Set<EntityTypeMetadata<EntityMetadata>>> typeMetadataByDiscriminator = new Object2ObjectOpenHashMap<>();
+    private final ConcurrentMap<Set<Discriminator>, TypeMetadataSet<EntityTypeMetadata<EntityMetadata>>> resolvedTypes = new ConcurrentHashMap<>();
 
     /**
      * Constructor.
@@ -102,12 +112,40 @@ public class EntityTypeMetadataResolver<EntityMetadata extends DatastoreEntityMe
     /**
      * Return a {@link com.buschmais.xo.spi.datastore.TypeMetadataSet}
      * containing all types matching to the given entity discriminators.
+     * <p>
+     * The result is shared between all callers requesting the same set of
+     * discriminators and therefore unmodifiable.
+     * </p>
      *
      * @param discriminators
      *            The discriminators.
      * @return The {@link com.buschmais.xo.spi.datastore.TypeMetadataSet}.
      */
     public TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> getTypes(Set<Discriminator> discriminators) {
+        TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types = resolvedTypes.get(discriminators);
+        if (types == null) {
+            types = resolveTypes(discriminators);
+            if (resolvedTypes.size() < MAX_RESOLVED_TYPES) {
+                // The discriminators provided by the datastore may change, so a copy is used as key.
+                Set<Discriminator> key = discriminators instanceof DiscriminatorSet ? discriminators
+                        : Collections.unmodifiableSet(new ObjectOpenHashSet<>(discriminators));
+                TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> existingTypes = resolvedTypes.putIfAbsent(key, types);
+                if (existingTypes != null) {
+                    types = existingTypes;
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Resolve the types matching to the given entity discriminators.
+     *
+     * @param discriminators
+     *            The discriminators.
+     * @return The {@link com.buschmais.xo.spi.datastore.TypeMetadataSet}.
+     */
+    private TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> resolveTypes(Set<Discriminator> discriminators) {
         // Get all types matching the discriminators
         TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> allEntityTypeMetadatas = new TypeMetadataSet<>();
         for (Discriminator discriminator : discriminators) {
@@ -121,7 +159,7 @@ public class EntityTypeMetadataResolver<EntityMetadata extends DatastoreEntityMe
                 }
             }
         }
-        return allEntityTypeMetadatas;
+        return allEntityTypeMetadatas.asUnmodifiable();
     }
 
     public Set<Discriminator> getDiscriminators(EntityTypeMetadata<EntityMetadata> entityTypeMetadata) {
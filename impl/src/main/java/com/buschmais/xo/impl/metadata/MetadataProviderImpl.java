@@ -17,9 +17,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.ExampleConditions;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.ResultIterable;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.XOManager;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.annotation.*;
 import com.buschmais.xo.impl.MetadataProvider;
+import com.buschmais.xo.impl.query.QueryValueDecoder;
 import com.buschmais.xo.spi.annotation.EntityDefinition;
 import com.buschmais.xo.spi.annotation.IndexDefinition;
 import com.buschmais.xo.spi.annotation.QueryDefinition;
@@ -55,6 +61,8 @@ public class MetadataProviderImpl<EntityMetadata extends DatastoreEntityMetadata
     private final Map<Class<?>, Collection<AnnotatedMethod>> annotatedMethods;
     private final Map<Class<?>, TypeMetadata> metadataByType = new LinkedHashMap<>();
     private final Cache<AnnotatedElement, com.google.common.base.Optional<Annotation>> queryTypes = CacheBuilder.newBuilder().build();
+    private final Set<Method> readOnlyMethods;
+    private final Set<Method> queryMethods;
 
     /**
      * Constructor.
@@ -83,6 +91,8 @@ public class MetadataProviderImpl<EntityMetadata extends DatastoreEntityMetadata
         relationTypeMetadataResolver = new RelationTypeMetadataResolver<>(metadataByType, entityTypeMetadataResolver);
         metadataByType.put(CompositeObject.class, new SimpleTypeMetadata(new AnnotatedType(CompositeObject.class), Collections.<TypeMetadata> emptyList(),
                 Collections.<MethodMetadata<?, ?>> emptyList(), null));
+        this.readOnlyMethods = getReadOnlyMethods();
+        this.queryMethods = getQueryMethods();
     }
 
     @Override
@@ -600,6 +610,116 @@ public class MetadataProviderImpl<EntityMetadata extends DatastoreEntityMetadata
         return metadataType.cast(typeMetadata);
     }
 
+    @Override
+    public boolean isReadOnly(Method method) {
+        return readOnlyMethods.contains(method);
+    }
+
+    @Override
+    public boolean isQuery(Method method) {
+        return queryMethods.contains(method);
+    }
+
+    /**
+     * Determine the methods which only read state, i.e. property getters of
+     * the registered types and the reading methods of the XO API and of the
+     * collections and iterators provided by XO. Queries are not considered as
+     * read only as they may flush modified instances before execution, see
+     * {@link #getQueryMethods()}.
+     *
+     * @return The read only methods.
+     */
+    private Set<Method> getReadOnlyMethods() {
+        Set<Method> methods = new HashSet<>();
+        for (Collection<AnnotatedMethod> methodsOfType : annotatedMethods.values()) {
+            for (AnnotatedMethod annotatedMethod : methodsOfType) {
+                if (annotatedMethod instanceof GetPropertyMethod && annotatedMethod.getAnnotation(ImplementedBy.class) == null
+                        && annotatedMethod.getAnnotation(ResultOf.class) == null) {
+                    methods.add(annotatedMethod.getAnnotatedElement());
+                }
+            }
+        }
+        addMethods(methods, XOManager.class, "findById", "getId", "getDatastoreSession", "currentTransaction", "getEntityCacheStatistics",
+                "getRelationCacheStatistics");
+        addMethods(methods, CompositeObject.class, "getId", "as", "getDelegate");
+        addMethods(methods, ExampleConditions.class, "greaterThan", "greaterThanOrEqualTo", "lessThan", "lessThanOrEqualTo", "between", "startsWith");
+        addMethods(methods, Query.class, "using", "withParameter", "withParameters");
+        addMethods(methods, Query.Result.CompositeRowObject.class, "getId", "as", "getDelegate", "getColumns", "get");
+        for (Class<?> resultType : Arrays.asList(ResultIterable.class, Query.Result.class)) {
+            addMethods(methods, resultType, "iterator", "getSingleResult", "hasResult", "close");
+        }
+        addMethods(methods, ResultIterator.class, "hasNext", "next", "close");
+        addMethods(methods, QueryValueDecoder.class, "decode");
+        addMethods(methods, Iterator.class, "hasNext", "next");
+        for (Class<?> collectionType : Arrays.asList(Collection.class, List.class, Set.class)) {
+            addMethod(methods, collectionType, "size");
+            addMethod(methods, collectionType, "isEmpty");
+            addMethod(methods, collectionType, "contains", Object.class);
+            addMethod(methods, collectionType, "containsAll", Collection.class);
+            addMethod(methods, collectionType, "iterator");
+            addMethod(methods, collectionType, "toArray");
+            addMethod(methods, collectionType, "toArray", Object[].class);
+            addMethod(methods, collectionType, "get", int.class);
+            addMethod(methods, collectionType, "indexOf", Object.class);
+            addMethod(methods, collectionType, "lastIndexOf", Object.class);
+            addMethod(methods, collectionType, "listIterator");
+            addMethod(methods, collectionType, "listIterator", int.class);
+            addMethod(methods, collectionType, "subList", int.class, int.class);
+        }
+        for (Class<?> type : Arrays.asList(Object.class, XOManager.class, CompositeObject.class, Collection.class, List.class, Set.class)) {
+            addMethod(methods, type, "equals", Object.class);
+            addMethod(methods, type, "hashCode");
+            addMethod(methods, type, "toString");
+        }
+        return methods;
+    }
+
+    /**
+     * Determine the methods which execute queries, i.e. the find methods of
+     * the XO API, the execution of queries and methods annotated with
+     * {@link ResultOf}. They only read state unless modified instances must be
+     * flushed before.
+     *
+     * @return The query methods.
+     */
+    private Set<Method> getQueryMethods() {
+        Set<Method> methods = new HashSet<>();
+        for (Collection<AnnotatedMethod> methodsOfType : annotatedMethods.values()) {
+            for (AnnotatedMethod annotatedMethod : methodsOfType) {
+                if (annotatedMethod.getAnnotation(ResultOf.class) != null) {
+                    methods.add(annotatedMethod.getAnnotatedElement());
+                }
+            }
+        }
+        addMethods(methods, XOManager.class, "find", "createQuery");
+        addMethods(methods, Query.class, "execute");
+        return methods;
+    }
+
+    /**
+     * Add all methods of a type with the given names, i.e. including all
+     * overloaded methods.
+     */
+    private void addMethods(Set<Method> methods, Class<?> type, String... names) {
+        Set<String> methodNames = new HashSet<>(Arrays.asList(names));
+        for (Method method : type.getMethods()) {
+            if (methodNames.contains(method.getName())) {
+                methods.add(method);
+            }
+        }
+    }
+
+    /**
+     * Add the method of a type with the given signature if it is declared.
+     */
+    private void addMethod(Set<Method> methods, Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            methods.add(type.getMethod(name, parameterTypes));
+        } catch (NoSuchMethodException e) {
+            // e.g. get(int) is only declared by List
+        }
+    }
+
     @Override
     public <QL extends Annotation> QL getQuery(AnnotatedElement annotatedElement) {
         Optional<Annotation> cachedOptional = queryTypes.getIfPresent(annotatedElement);
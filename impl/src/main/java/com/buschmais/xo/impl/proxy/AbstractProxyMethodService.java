@@ -15,17 +15,58 @@ import java.util.Map;
 
 public class AbstractProxyMethodService<E> implements ProxyMethodService<E> {
 
+    /**
+     * Marks a method id which is bound to an unsupported method.
+     */
+    private static final ProxyMethod<Object> UNSUPPORTED = new ProxyMethod<Object>() {
+        @Override
+        public Object invoke(Object element, Object instance, Object[] args) {
+            throw new XOException("Unsupported method.");
+        }
+    };
+
     private final Map<Method, ProxyMethod<E>> proxyMethods = new HashMap<>();
 
+    /**
+     * The proxy methods bound to method ids, the array is replaced on each
+     * modification and therefore can be read without locking.
+     */
+    private volatile ProxyMethod<?>[] boundProxyMethods = new ProxyMethod<?>[0];
+
     @Override
     public Object invoke(E element, Object instance, Method method, Object[] args) throws Exception {
-        ProxyMethod<E> proxyMethod = proxyMethods.get(method);
+        ProxyMethod<E> proxyMethod = getProxyMethod(method);
         if (proxyMethod == null) {
             throw new XOException("Cannot find proxy for method '" + method.toGenericString() + "'");
         }
         return proxyMethod.invoke(element, instance, args);
     }
 
+    @Override
+    public ProxyMethod<E> getProxyMethod(Method method) {
+        return proxyMethods.get(method);
+    }
+
+    // Only proxy methods of this service are bound, i.e. all share the element type.
+    @SuppressWarnings("unchecked")
+    @Override
+    public ProxyMethod<E> getProxyMethod(int methodId, Method method) {
+        ProxyMethod<?>[] current = boundProxyMethods;
+        ProxyMethod<?> proxyMethod = methodId < current.length ? current[methodId] : null;
+        if (proxyMethod == null) {
+            return bind(methodId, method);
+        }
+        return proxyMethod == UNSUPPORTED ? null : (ProxyMethod<E>) proxyMethod;
+    }
+
+    private synchronized ProxyMethod<E> bind(int methodId, Method method) {
+        ProxyMethod<E> proxyMethod = getProxyMethod(method);
+        ProxyMethod<?>[] bound = Arrays.copyOf(boundProxyMethods, Math.max(boundProxyMethods.length, methodId + 1));
+        bound[methodId] = proxyMethod != null ? proxyMethod : UNSUPPORTED;
+        boundProxyMethods = bound;
+        return proxyMethod;
+    }
+
     protected void addMethod(ProxyMethod<E> proxyMethod, Class<?> type, String name, Class<?>... argumentTypes) {
         Method method;
         try {
@@ -17,14 +17,29 @@ public class InstanceInvocationHandler<DatastoreType> implements InvocationHandl
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        return proxyMethodService.invoke(getManagedDatastoreType(), proxy, method, args);
+    }
+
+    public DatastoreType getDatastoreType() {
+        return datastoreType;
+    }
+
+    /**
+     * Return the datastore type of a managed instance.
+     *
+     * @return The datastore type.
+     * @throws XOException
+     *             If the instance is not managed anymore.
+     */
+    public DatastoreType getManagedDatastoreType() {
         if (datastoreType == null) {
             throw new XOException("Invalid access to an un-managed instance.");
         }
-        return proxyMethodService.invoke(datastoreType, proxy, method, args);
+        return datastoreType;
     }
 
-    public DatastoreType getDatastoreType() {
-        return datastoreType;
+    public ProxyMethodService<DatastoreType> getProxyMethodService() {
+        return proxyMethodService;
     }
 
     public void close() {
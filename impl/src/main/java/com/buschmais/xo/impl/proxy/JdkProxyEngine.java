@@ -0,0 +1,68 @@
+package com.buschmais.xo.impl.proxy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+import com.buschmais.xo.api.CompositeType;
+import com.buschmais.xo.api.XOException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@link ProxyEngine} based on {@link java.lang.reflect.Proxy}.
+ */
+public class JdkProxyEngine implements ProxyEngine {
+
+    private final ClassLoader classLoader;
+    private final Cache<CompositeType, Constructor<?>> classCache = CacheBuilder.newBuilder().maximumSize(512).build();
+
+    /**
+     * Constructor.
+     *
+     * @param classLoader
+     *            The class loader.
+     */
+    public JdkProxyEngine(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public <Instance> Instance createInstance(InvocationHandler invocationHandler, CompositeType compositeType) {
+        Constructor<?> constructor = getConstructor(compositeType);
+        try {
+            return (Instance) constructor.newInstance(invocationHandler);
+        } catch (Exception e) {
+            throw new XOException("Cannot create instance of  " + compositeType, e);
+        }
+    }
+
+    @Override
+    public void prepare(CompositeType compositeType) {
+        getConstructor(compositeType);
+    }
+
+    @Override
+    public InvocationHandler getInvocationHandler(Object instance) {
+        return Proxy.getInvocationHandler(instance);
+    }
+
+    private Constructor<?> getConstructor(CompositeType compositeType) {
+        Constructor<?> constructor = classCache.getIfPresent(compositeType);
+        if (constructor == null) {
+            Class<?> type;
+            try {
+                type = Proxy.getProxyClass(classLoader, compositeType.getClasses());
+            } catch (IllegalArgumentException e) {
+                throw new XOException("Cannot create proxy for " + compositeType + " of classes " + compositeType.getClasses(), e);
+            }
+            try {
+                constructor = type.getConstructor(new Class<?>[] { InvocationHandler.class });
+            } catch (NoSuchMethodException e) {
+                throw new XOException("Cannot find constructor for " + compositeType, e);
+            }
+            classCache.put(compositeType, constructor);
+        }
+        return constructor;
+    }
+}
@@ -0,0 +1,47 @@
+package com.buschmais.xo.impl.proxy;
+
+import java.lang.reflect.InvocationHandler;
+
+import com.buschmais.xo.api.CompositeType;
+
+/**
+ * Defines the strategy for creating proxy instances of composite types. An
+ * engine is shared by all sessions of a
+ * {@link com.buschmais.xo.api.XOManagerFactory}, therefore implementations
+ * must be thread safe.
+ */
+public interface ProxyEngine {
+
+    /**
+     * Creates a proxy instance.
+     *
+     * @param invocationHandler
+     *            The {@link java.lang.reflect.InvocationHandler}.
+     * @param compositeType
+     *            The composite type to create an instance for.
+     * @param <Instance>
+     *            The instance type.
+     * @return The instance.
+     */
+    <Instance> Instance createInstance(InvocationHandler invocationHandler, CompositeType compositeType);
+
+    /**
+     * Prepares the creation of instances of a composite type, i.e. creates and
+     * caches the proxy class.
+     *
+     * @param compositeType
+     *            The composite type.
+     */
+    void prepare(CompositeType compositeType);
+
+    /**
+     * Return the {@link java.lang.reflect.InvocationHandler} of a proxy
+     * instance created by this engine.
+     *
+     * @param instance
+     *            The proxy instance.
+     * @return The {@link java.lang.reflect.InvocationHandler}.
+     */
+    InvocationHandler getInvocationHandler(Object instance);
+
+}
@@ -2,7 +2,34 @@ package com.buschmais.xo.impl.proxy;
 
 import java.lang.reflect.Method;
 
+import com.buschmais.xo.api.proxy.ProxyMethod;
+
 public interface ProxyMethodService<E> {
 
     Object invoke(E element, Object instance, Method method, Object[] args) throws Exception;
+
+    /**
+     * Return the {@link ProxyMethod} implementing a method.
+     *
+     * @param method
+     *            The method.
+     * @return The {@link ProxyMethod} or <code>null</code> if the method is
+     *         not supported.
+     */
+    ProxyMethod<E> getProxyMethod(Method method);
+
+    /**
+     * Return the {@link ProxyMethod} implementing a method which is identified
+     * by an id, the resolved {@link ProxyMethod} is bound to the id such that
+     * subsequent calls do not need to look up the method.
+     *
+     * @param methodId
+     *            The id of the method, ids are small non-negative integers
+     *            which are assigned by the proxy engine.
+     * @param method
+     *            The method.
+     * @return The {@link ProxyMethod} or <code>null</code> if the method is
+     *         not supported.
+     */
+    ProxyMethod<E> getProxyMethod(int methodId, Method method);
 }
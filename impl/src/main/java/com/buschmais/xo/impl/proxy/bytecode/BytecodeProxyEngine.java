@@ -0,0 +1,197 @@
+package com.buschmais.xo.impl.proxy.bytecode;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.buschmais.xo.api.CompositeType;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.proxy.ProxyEngine;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.MethodDelegation;
+
+/**
+ * {@link ProxyEngine} generating a concrete class for each composite type.
+ * <p>
+ * Each generated method directly calls its own {@link MethodBinding} held in a
+ * static field. Every method is assigned an id, the binding dispatches to the
+ * {@link com.buschmais.xo.api.proxy.ProxyMethod} which the proxy method
+ * service of the session has bound to this id, i.e. without looking it up by
+ * the {@link java.lang.reflect.Method}. The
+ * {@link java.lang.reflect.InvocationHandler} is stored in a final instance
+ * field. Instances are created using a {@link java.lang.invoke.MethodHandle}
+ * of the generated constructor.
+ * </p>
+ * <p>
+ * At most {@link #MAX_CLASSES} generated classes are cached. Each class is
+ * loaded by its own class loader, so an evicted class is unloaded as soon as
+ * no instances of it are left. Method ids are kept per method, i.e. a class
+ * generated again for the same composite type re-uses the ids and therefore
+ * the proxy methods already bound by the sessions.
+ * </p>
+ */
+public class BytecodeProxyEngine implements ProxyEngine {
+
+    static final String HANDLER_FIELD = "xo$invocationHandler";
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, InvocationHandler.class);
+
+    /**
+     * The maximum number of cached proxy classes.
+     */
+    static final int MAX_CLASSES = 512;
+
+    private static final List<String> OBJECT_METHODS = Arrays.asList("equals", "hashCode", "toString");
+
+    private final ClassLoader classLoader;
+    private final ByteBuddy byteBuddy = new ByteBuddy();
+    private final Cache<CompositeType, MethodHandle> constructorCache = CacheBuilder.newBuilder().maximumSize(MAX_CLASSES).build();
+    private final Map<Method, Integer> methodIds = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param classLoader
+     *            The class loader used as parent for the generated classes.
+     */
+    public BytecodeProxyEngine(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public <Instance> Instance createInstance(InvocationHandler invocationHandler, CompositeType compositeType) {
+        MethodHandle constructor = getConstructor(compositeType);
+        try {
+            return (Instance) constructor.invoke(invocationHandler);
+        } catch (Throwable e) {
+            throw new XOException("Cannot create instance of  " + compositeType, e);
+        }
+    }
+
+    @Override
+    public void prepare(CompositeType compositeType) {
+        getConstructor(compositeType);
+    }
+
+    @Override
+    public InvocationHandler getInvocationHandler(Object instance) {
+        if (!(instance instanceof GeneratedProxy)) {
+            throw new XOException("Instance " + instance + " is not a proxy created by " + BytecodeProxyEngine.class.getName());
+        }
+        return ((GeneratedProxy) instance).xo$getInvocationHandler();
+    }
+
+    private MethodHandle getConstructor(final CompositeType compositeType) {
+        try {
+            return constructorCache.get(compositeType, new Callable<MethodHandle>() {
+                @Override
+                public MethodHandle call() throws Exception {
+                    return createConstructor(compositeType);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new XOException("Cannot create proxy for " + compositeType + " of classes " + Arrays.asList(compositeType.getClasses()), e.getCause());
+        }
+    }
+
+    /**
+     * Generates the proxy class for a composite type and resolves its
+     * constructor.
+     *
+     * @param compositeType
+     *            The composite type.
+     * @return The {@link java.lang.invoke.MethodHandle} of the constructor.
+     * @throws ReflectiveOperationException
+     *             If the constructor cannot be resolved.
+     */
+    private MethodHandle createConstructor(CompositeType compositeType) throws ReflectiveOperationException {
+        DynamicType.Builder<Object> builder = byteBuddy.subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .implement(compositeType.getClasses()).implement(GeneratedProxy.class)
+                .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PRIVATE, FieldManifestation.FINAL).defineConstructor(Visibility.PUBLIC)
+                .withParameters(InvocationHandler.class)
+                .intercept(MethodCall.invoke(Object.class.getConstructor()).andThen(FieldAccessor.ofField(HANDLER_FIELD).setsArgumentAt(0)));
+        for (Method method : getMethods(compositeType)) {
+            String target = method.getParameterTypes().length == 0 ? MethodBinding.INVOKE_WITHOUT_ARGUMENTS : MethodBinding.INVOKE;
+            builder = builder.method(named(method.getName()).and(takesArguments(method.getParameterTypes())))
+                    .intercept(MethodDelegation.withDefaultConfiguration().filter(named(target)).to(new MethodBinding(getMethodId(method), method)));
+        }
+        Class<?> type = builder.method(isDeclaredBy(GeneratedProxy.class)).intercept(FieldAccessor.ofField(HANDLER_FIELD)).make()
+                .load(classLoader, ClassLoadingStrategy.Default.WRAPPER).getLoaded();
+        return MethodHandles.publicLookup().findConstructor(type, CONSTRUCTOR_TYPE);
+    }
+
+    /**
+     * Return the id of a method, ids are assigned in ascending order starting
+     * with 0.
+     *
+     * @param method
+     *            The method.
+     * @return The id.
+     */
+    private synchronized int getMethodId(Method method) {
+        Integer methodId = methodIds.get(method);
+        if (methodId == null) {
+            methodId = methodIds.size();
+            methodIds.put(method, methodId);
+        }
+        return methodId;
+    }
+
+    /**
+     * Return the methods to implement for a composite type, i.e. the methods of
+     * its classes and the methods equals, hashCode and toString of
+     * {@link Object}.
+     * <p>
+     * If a signature is declared by several classes the first declaration is
+     * used, this is consistent with {@link java.lang.reflect.Proxy}.
+     * </p>
+     *
+     * @param compositeType
+     *            The composite type.
+     * @return The methods.
+     */
+    private Iterable<Method> getMethods(CompositeType compositeType) {
+        Map<List<Object>, Method> methods = new LinkedHashMap<>();
+        for (Method method : Object.class.getMethods()) {
+            if (OBJECT_METHODS.contains(method.getName())) {
+                methods.put(getSignature(method), method);
+            }
+        }
+        for (Class<?> type : compositeType.getClasses()) {
+            for (Method method : type.getMethods()) {
+                List<Object> signature = getSignature(method);
+                if (!methods.containsKey(signature)) {
+                    methods.put(signature, method);
+                }
+            }
+        }
+        return methods.values();
+    }
+
+    private List<Object> getSignature(Method method) {
+        return Arrays.<Object> asList(method.getName(), Arrays.asList(method.getParameterTypes()));
+    }
+}
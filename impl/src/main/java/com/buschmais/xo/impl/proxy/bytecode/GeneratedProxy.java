@@ -0,0 +1,18 @@
+package com.buschmais.xo.impl.proxy.bytecode;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * Interface implemented by all proxy classes generated by the
+ * {@link BytecodeProxyEngine}.
+ */
+public interface GeneratedProxy {
+
+    /**
+     * Return the {@link java.lang.reflect.InvocationHandler} of this instance.
+     *
+     * @return The {@link java.lang.reflect.InvocationHandler}.
+     */
+    InvocationHandler xo$getInvocationHandler();
+
+}
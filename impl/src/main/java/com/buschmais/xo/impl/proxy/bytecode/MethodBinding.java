@@ -0,0 +1,72 @@
+package com.buschmais.xo.impl.proxy.bytecode;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
+import com.buschmais.xo.impl.proxy.ProxyMethodService;
+
+import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.FieldValue;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.This;
+
+/**
+ * The target of a single method of a proxy class generated by the
+ * {@link BytecodeProxyEngine}.
+ * <p>
+ * The generated method calls its binding directly. The binding dispatches to
+ * the {@link ProxyMethod} which the {@link ProxyMethodService} of an
+ * {@link InstanceInvocationHandler} has bound to the id of the method, i.e. the
+ * resolution is held per service and not shared between sessions. Other
+ * {@link InvocationHandler}s are invoked as usual.
+ * </p>
+ * <p>
+ * Methods without parameters are bound to
+ * {@link #invokeWithoutArguments(Object, InvocationHandler)} which does not
+ * allocate an argument array, <code>null</code> is passed as arguments like
+ * {@link java.lang.reflect.Proxy} does.
+ * </p>
+ */
+public final class MethodBinding {
+
+    static final String INVOKE = "invoke";
+
+    static final String INVOKE_WITHOUT_ARGUMENTS = "invokeWithoutArguments";
+
+    private final int methodId;
+
+    private final Method method;
+
+    MethodBinding(int methodId, Method method) {
+        this.methodId = methodId;
+        this.method = method;
+    }
+
+    @RuntimeType
+    public Object invokeWithoutArguments(@This Object proxy, @FieldValue(BytecodeProxyEngine.HANDLER_FIELD) InvocationHandler invocationHandler)
+            throws Throwable {
+        return invoke(proxy, invocationHandler, null);
+    }
+
+    @RuntimeType
+    public Object invoke(@This Object proxy, @FieldValue(BytecodeProxyEngine.HANDLER_FIELD) InvocationHandler invocationHandler,
+            @AllArguments Object[] args) throws Throwable {
+        if (invocationHandler instanceof InstanceInvocationHandler) {
+            InstanceInvocationHandler<?> instanceInvocationHandler = (InstanceInvocationHandler<?>) invocationHandler;
+            ProxyMethod<?> proxyMethod = instanceInvocationHandler.getProxyMethodService().getProxyMethod(methodId, method);
+            if (proxyMethod != null) {
+                return invoke(proxyMethod, instanceInvocationHandler, proxy, args);
+            }
+        }
+        return invocationHandler.invoke(proxy, method, args);
+    }
+
+    // The proxy method has been resolved from the proxy method service of the
+    // invocation handler, i.e. both share the same element type.
+    @SuppressWarnings("unchecked")
+    private <E> Object invoke(ProxyMethod<?> proxyMethod, InstanceInvocationHandler<E> invocationHandler, Object proxy, Object[] args) throws Exception {
+        return ((ProxyMethod<E>) proxyMethod).invoke(invocationHandler.getManagedDatastoreType(), proxy, args);
+    }
+}
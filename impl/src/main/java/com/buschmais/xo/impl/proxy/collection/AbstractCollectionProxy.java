@@ -5,21 +5,29 @@ import com.buschmais.xo.spi.metadata.method.AbstractRelationPropertyMethodMetada
 
 import java.util.AbstractCollection;
 import java.util.Collection;
-import java.util.Iterator;
 
 public abstract class AbstractCollectionProxy<Instance, Entity, Relation, PropertyMetadata extends AbstractRelationPropertyMethodMetadata<?>> extends AbstractCollection<Instance> implements Collection<Instance> {
 
     private final SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext;
+    private final int lease;
     private final Entity entity;
     private final PropertyMetadata metadata;
 
     public AbstractCollectionProxy(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext, Entity entity, PropertyMetadata metadata) {
         this.sessionContext = sessionContext;
+        this.lease = sessionContext.getLease();
         this.entity = entity;
         this.metadata = metadata;
     }
 
+    /**
+     * Return the session context, the collection cannot be used anymore if the
+     * session context has been returned to the session pool.
+     *
+     * @return The session context.
+     */
     public SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> getSessionContext() {
+        sessionContext.ensureLease(lease);
         return sessionContext;
     }
 
@@ -32,11 +40,7 @@ public abstract class AbstractCollectionProxy<Instance, Entity, Relation, Proper
     }
 
     public int size() {
-        int size = 0;
-        for (Iterator<Instance> iterator = iterator(); iterator.hasNext(); ) {
-            iterator.next();
-            size++;
-        }
-        return size;
+        long size = getSessionContext().getEntityPropertyManager().getCollectionSize(entity, metadata);
+        return size < Integer.MAX_VALUE ? (int) size : Integer.MAX_VALUE;
     }
 }
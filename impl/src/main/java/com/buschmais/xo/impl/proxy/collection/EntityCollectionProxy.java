@@ -25,7 +25,7 @@ public class EntityCollectionProxy<Instance, Entity, Relation> extends AbstractC
 
             @Override
             public Instance next() {
-                return sessionContext.getEntityInstanceManager().readInstance(iterator.next());
+                return getSessionContext().getEntityInstanceManager().readInstance(iterator.next());
             }
 
             @Override
@@ -35,6 +35,15 @@ public class EntityCollectionProxy<Instance, Entity, Relation> extends AbstractC
         }, Iterator.class);
     }
 
+    @Override
+    public boolean contains(Object o) {
+        SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext = getSessionContext();
+        if (sessionContext.getEntityInstanceManager().isInstance(o)) {
+            return sessionContext.getEntityPropertyManager().hasEntityReference(getEntity(), getMetadata(), o);
+        }
+        return false;
+    }
+
     @Override
     public boolean add(Instance instance) {
         getSessionContext().getEntityPropertyManager().createEntityReference(getEntity(), getMetadata(), instance);
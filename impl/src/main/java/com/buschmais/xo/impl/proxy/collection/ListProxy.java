@@ -73,6 +73,23 @@ public class ListProxy<Instance> extends AbstractSequentialList<Instance> implem
         return collectionProxy.size();
     }
 
+    @Override
+    public boolean contains(Object o) {
+        return collectionProxy.contains(o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int index = 0;
+        for (Iterator<Instance> iterator = collectionProxy.iterator(); iterator.hasNext(); index++) {
+            Instance instance = iterator.next();
+            if (o == null ? instance == null : o.equals(instance)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
     @Override
     public boolean add(Instance instance) {
         return collectionProxy.add(instance);
@@ -22,6 +22,11 @@ public class SetProxy<T> extends AbstractSet<T> implements Set<T> {
         return collectionProxy.size();
     }
 
+    @Override
+    public boolean contains(Object o) {
+        return collectionProxy.contains(o);
+    }
+
     @Override
     public boolean add(T t) {
         if (contains(t)) {
@@ -1,6 +1,7 @@
 package com.buschmais.xo.impl.proxy.common.object;
 
 import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.impl.proxy.bytecode.GeneratedProxy;
 
 public abstract class AbstractToStringMethod<T> implements ProxyMethod<T> {
 
@@ -8,6 +9,9 @@ public abstract class AbstractToStringMethod<T> implements ProxyMethod<T> {
     public Object invoke(T datastoreType, Object instance, Object[] args) {
         StringBuffer stringBuffer = new StringBuffer();
         for (Class<?> type : instance.getClass().getInterfaces()) {
+            if (GeneratedProxy.class.equals(type)) {
+                continue;
+            }
             if (stringBuffer.length() > 0) {
                 stringBuffer.append('|');
             }
@@ -1,9 +1,14 @@
 package com.buschmais.xo.impl.proxy.example;
 
 import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.ExampleConditions;
+import com.buschmais.xo.impl.MetadataProvider;
 import com.buschmais.xo.impl.SessionContext;
 import com.buschmais.xo.impl.proxy.AbstractProxyMethodService;
 import com.buschmais.xo.impl.proxy.example.composite.AsMethod;
+import com.buschmais.xo.impl.proxy.example.condition.RangeConditionMethod;
+import com.buschmais.xo.impl.proxy.example.condition.RangeConditionMethod.Bound;
+import com.buschmais.xo.impl.proxy.example.condition.StartsWithConditionMethod;
 import com.buschmais.xo.impl.proxy.example.property.PrimitivePropertySetMethod;
 import com.buschmais.xo.spi.metadata.method.MethodMetadata;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
@@ -11,24 +16,37 @@ import com.buschmais.xo.spi.metadata.type.TypeMetadata;
 import com.buschmais.xo.spi.reflection.AnnotatedMethod;
 import com.buschmais.xo.spi.reflection.SetPropertyMethod;
 
+import java.util.HashMap;
 import java.util.Map;
 
 public class ExampleProxyMethodService<Entity> extends AbstractProxyMethodService<Map<PrimitivePropertyMethodMetadata<?>, Object>> {
 
     public ExampleProxyMethodService(Class<?> type, SessionContext<?, Entity, ?, ?, ?, ?, ?, ?, ?> sessionContext) {
-        for (TypeMetadata typeMetadata : sessionContext.getMetadataProvider().getRegisteredMetadata().values()) {
+        this(type, sessionContext.getMetadataProvider());
+    }
+
+    public ExampleProxyMethodService(Class<?> type, MetadataProvider<?, ?, ?, ?> metadataProvider) {
+        Map<String, PrimitivePropertyMethodMetadata<?>> properties = new HashMap<>();
+        for (TypeMetadata typeMetadata : metadataProvider.getRegisteredMetadata().values()) {
             if (typeMetadata.getAnnotatedType().getAnnotatedElement().isAssignableFrom(type)) {
                 for (MethodMetadata<?, ?> methodMetadata : typeMetadata.getProperties()) {
                     if (methodMetadata instanceof PrimitivePropertyMethodMetadata<?>) {
                         AnnotatedMethod method = methodMetadata.getAnnotatedMethod();
                         if (method instanceof SetPropertyMethod) {
                             addProxyMethod(new PrimitivePropertySetMethod((PrimitivePropertyMethodMetadata<?>) methodMetadata), method.getAnnotatedElement());
+                            properties.put(((SetPropertyMethod) method).getName(), (PrimitivePropertyMethodMetadata<?>) methodMetadata);
                         }
                     }
                 }
             }
         }
         addMethod(new AsMethod(), CompositeObject.class, "as", Class.class);
+        addMethod(new RangeConditionMethod(properties, Bound.LOWER), ExampleConditions.class, "greaterThan", String.class, Object.class);
+        addMethod(new RangeConditionMethod(properties, Bound.LOWER_INCLUSIVE), ExampleConditions.class, "greaterThanOrEqualTo", String.class, Object.class);
+        addMethod(new RangeConditionMethod(properties, Bound.UPPER), ExampleConditions.class, "lessThan", String.class, Object.class);
+        addMethod(new RangeConditionMethod(properties, Bound.UPPER_INCLUSIVE), ExampleConditions.class, "lessThanOrEqualTo", String.class, Object.class);
+        addMethod(new RangeConditionMethod(properties, Bound.BETWEEN), ExampleConditions.class, "between", String.class, Object.class, Object.class);
+        addMethod(new StartsWithConditionMethod(properties), ExampleConditions.class, "startsWith", String.class, String.class);
     }
 
 }
@@ -0,0 +1,90 @@
+package com.buschmais.xo.impl.proxy.example;
+
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.CompositeType;
+import com.buschmais.xo.api.ExampleConditions;
+import com.buschmais.xo.impl.MetadataProvider;
+import com.buschmais.xo.spi.metadata.CompositeTypeBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache for the types of examples used by find operations of a
+ * {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>
+ * The proxy method service and the composite type are resolved once per set of
+ * types and shared by all sessions. The number of entries is bounded by the
+ * types declared in the application, therefore no eviction is applied.
+ * </p>
+ */
+public class ExampleTypeCache {
+
+    private final MetadataProvider<?, ?, ?, ?> metadataProvider;
+
+    private final ConcurrentMap<List<Class<?>>, ExampleType> findTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param metadataProvider
+     *            The {@link MetadataProvider}.
+     */
+    public ExampleTypeCache(MetadataProvider<?, ?, ?, ?> metadataProvider) {
+        this.metadataProvider = metadataProvider;
+    }
+
+    /**
+     * Return the example type for a find operation, i.e. the example also
+     * implements {@link ExampleConditions}.
+     *
+     * @param type
+     *            The type.
+     * @param types
+     *            The additional types.
+     * @return The example type.
+     */
+    public ExampleType getFindType(Class<?> type, Class<?>... types) {
+        List<Class<?>> key = new ArrayList<>(types.length + 1);
+        key.add(type);
+        key.addAll(Arrays.asList(types));
+        ExampleType exampleType = findTypes.get(key);
+        if (exampleType == null) {
+            Class<?>[] effectiveTypes = Arrays.copyOf(types, types.length + 1);
+            effectiveTypes[types.length] = ExampleConditions.class;
+            exampleType = new ExampleType(new ExampleProxyMethodService<>(type, metadataProvider),
+                    CompositeTypeBuilder.create(CompositeObject.class, type, effectiveTypes));
+            ExampleType existing = findTypes.putIfAbsent(key, exampleType);
+            if (existing != null) {
+                exampleType = existing;
+            }
+        }
+        return exampleType;
+    }
+
+    /**
+     * The resolved type of an example.
+     */
+    public static final class ExampleType {
+
+        private final ExampleProxyMethodService<?> proxyMethodService;
+
+        private final CompositeType compositeType;
+
+        private ExampleType(ExampleProxyMethodService<?> proxyMethodService, CompositeType compositeType) {
+            this.proxyMethodService = proxyMethodService;
+            this.compositeType = compositeType;
+        }
+
+        public ExampleProxyMethodService<?> getProxyMethodService() {
+            return proxyMethodService;
+        }
+
+        public CompositeType getCompositeType() {
+            return compositeType;
+        }
+    }
+}
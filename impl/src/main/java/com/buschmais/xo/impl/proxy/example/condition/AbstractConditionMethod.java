@@ -0,0 +1,50 @@
+package com.buschmais.xo.impl.proxy.example.condition;
+
+import java.util.Map;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.spi.datastore.PropertyPredicate;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+
+/**
+ * Abstract base class for methods of
+ * {@link com.buschmais.xo.api.ExampleConditions}, the condition is stored as
+ * {@link PropertyPredicate} value of the property.
+ */
+public abstract class AbstractConditionMethod implements ProxyMethod<Map<PrimitivePropertyMethodMetadata<?>, Object>> {
+
+    private final Map<String, PrimitivePropertyMethodMetadata<?>> properties;
+
+    protected AbstractConditionMethod(Map<String, PrimitivePropertyMethodMetadata<?>> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object invoke(Map<PrimitivePropertyMethodMetadata<?>, Object> example, Object instance, Object[] args) throws Exception {
+        String name = (String) args[0];
+        PrimitivePropertyMethodMetadata<?> methodMetadata = properties.get(name);
+        if (methodMetadata == null) {
+            throw new XOException("Cannot resolve property '" + name + "' of example.");
+        }
+        Object value = example.get(methodMetadata);
+        if (value != null && !(value instanceof PropertyPredicate)) {
+            throw new XOException("A value has already been set for property '" + name + "' of example.");
+        }
+        example.put(methodMetadata, getPredicate((PropertyPredicate) value, args));
+        return instance;
+    }
+
+    /**
+     * Create the predicate for the condition.
+     *
+     * @param predicate
+     *            The existing predicate of the property or <code>null</code>.
+     * @param args
+     *            The arguments of the method, the first one is the name of the
+     *            property.
+     * @return The predicate.
+     */
+    protected abstract PropertyPredicate getPredicate(PropertyPredicate predicate, Object[] args);
+
+}
@@ -0,0 +1,50 @@
+package com.buschmais.xo.impl.proxy.example.condition;
+
+import java.util.Map;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.spi.datastore.PropertyPredicate;
+import com.buschmais.xo.spi.datastore.PropertyRange;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+
+/**
+ * Adds a lower and/or upper bound to the range of a property.
+ */
+public class RangeConditionMethod extends AbstractConditionMethod {
+
+    /**
+     * The bound(s) added by a method.
+     */
+    public enum Bound {
+        LOWER, LOWER_INCLUSIVE, UPPER, UPPER_INCLUSIVE, BETWEEN
+    }
+
+    private final Bound bound;
+
+    public RangeConditionMethod(Map<String, PrimitivePropertyMethodMetadata<?>> properties, Bound bound) {
+        super(properties);
+        this.bound = bound;
+    }
+
+    @Override
+    protected PropertyPredicate getPredicate(PropertyPredicate predicate, Object[] args) {
+        if (predicate != null && !(predicate instanceof PropertyRange)) {
+            throw new XOException("Cannot combine range with condition '" + predicate + "' for property '" + args[0] + "'.");
+        }
+        PropertyRange range = predicate != null ? (PropertyRange) predicate : PropertyRange.ALL;
+        switch (bound) {
+        case LOWER:
+            return range.withLower(args[1], false);
+        case LOWER_INCLUSIVE:
+            return range.withLower(args[1], true);
+        case UPPER:
+            return range.withUpper(args[1], false);
+        case UPPER_INCLUSIVE:
+            return range.withUpper(args[1], true);
+        case BETWEEN:
+            return range.withLower(args[1], true).withUpper(args[2], true);
+        default:
+            throw new XOException("Unsupported bound " + bound);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.buschmais.xo.impl.proxy.example.condition;
+
+import java.util.Map;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.spi.datastore.PropertyPredicate;
+import com.buschmais.xo.spi.datastore.PropertyPrefix;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+
+/**
+ * Sets a prefix for the value of a property.
+ */
+public class StartsWithConditionMethod extends AbstractConditionMethod {
+
+    public StartsWithConditionMethod(Map<String, PrimitivePropertyMethodMetadata<?>> properties) {
+        super(properties);
+    }
+
+    @Override
+    protected PropertyPredicate getPredicate(PropertyPredicate predicate, Object[] args) {
+        if (predicate != null) {
+            throw new XOException("Cannot combine prefix with condition '" + predicate + "' for property '" + args[0] + "'.");
+        }
+        return new PropertyPrefix((String) args[1]);
+    }
+}
@@ -1,6 +1,8 @@
 package com.buschmais.xo.impl.proxy.example.property;
 
+import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.spi.datastore.PropertyPredicate;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 
 import java.util.Map;
@@ -15,6 +17,9 @@ public class PrimitivePropertySetMethod implements ProxyMethod<Map<PrimitiveProp
 
     @Override
     public Object invoke(Map<PrimitivePropertyMethodMetadata<?>, Object> properties, Object instance, Object[] args) throws Exception {
+        if (properties.get(methodMetadata) instanceof PropertyPredicate) {
+            throw new XOException("A condition has already been set for property '" + methodMetadata.getAnnotatedMethod().getName() + "' of example.");
+        }
         properties.put(methodMetadata, args[0]);
         return null;
     }
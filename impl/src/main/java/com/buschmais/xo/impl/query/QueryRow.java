@@ -0,0 +1,78 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.spi.datastore.DatastoreColumns;
+import com.buschmais.xo.spi.datastore.DatastoreRow;
+
+import java.util.*;
+
+/**
+ * A query result row backed by a {@link DatastoreRow}.
+ * <p>
+ * The value of a column is decoded on first access using the
+ * {@link QueryValueDecoder} of the result and kept in a flat array, column
+ * indexes are resolved using the {@link DatastoreColumns} shared by all rows
+ * of the result.
+ * </p>
+ */
+class QueryRow extends AbstractMap<String, Object> {
+
+    /**
+     * Marks a value which has not been decoded yet.
+     */
+    private static final Object UNDECODED = new Object();
+
+    private final DatastoreRow row;
+
+    private final DatastoreColumns columns;
+
+    private final QueryValueDecoder valueDecoder;
+
+    private final Object[] values;
+
+    QueryRow(DatastoreRow row, QueryValueDecoder valueDecoder) {
+        this.row = row;
+        this.columns = row.getColumns();
+        this.valueDecoder = valueDecoder;
+        this.values = new Object[columns.size()];
+        Arrays.fill(values, UNDECODED);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return columns.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = columns.indexOf(key);
+        return index >= 0 ? getValue(index) : null;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new LinkedHashSet<>(columns.getNames());
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Set<Entry<String, Object>> entries = new LinkedHashSet<>(columns.size() * 2);
+        for (int i = 0; i < columns.size(); i++) {
+            entries.add(new SimpleImmutableEntry<>(columns.getName(i), getValue(i)));
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+
+    private Object getValue(int index) {
+        Object value = values[index];
+        if (value == UNDECODED) {
+            value = valueDecoder.decode(row.get(index));
+            values[index] = value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package com.buschmais.xo.impl.query;
+
+/**
+ * Decodes values of query results from their datastore representation.
+ * <p>
+ * The decoder of a result is intercepted, i.e. instances are read and
+ * their @PostLoad listeners are invoked within the transaction context of
+ * the session even if a row is accessed lazily.
+ * </p>
+ */
+public interface QueryValueDecoder {
+
+    /**
+     * Decode a value, i.e. entities and relations are converted to instances.
+     *
+     * @param value
+     *            The value in datastore representation.
+     * @return The decoded value.
+     */
+    Object decode(Object value);
+}
@@ -0,0 +1,51 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.api.CompositeType;
+import com.buschmais.xo.impl.ProxyFactory;
+import com.buschmais.xo.impl.proxy.query.RowInvocationHandler;
+import com.buschmais.xo.impl.proxy.query.RowProxyMethodService;
+
+import java.util.Map;
+
+/**
+ * The projection of query result rows to a set of return types, i.e. the
+ * bindings of the getters to columns and the composite type of the row proxies.
+ * <p>
+ * A projection is immutable and may be shared by all sessions of a
+ * {@link com.buschmais.xo.api.XOManagerFactory}.
+ * </p>
+ */
+public class RowProjection {
+
+    private final RowProxyMethodService rowProxyMethodService;
+
+    private final CompositeType compositeType;
+
+    /**
+     * Constructor.
+     *
+     * @param rowProxyMethodService
+     *            The {@link RowProxyMethodService}.
+     * @param compositeType
+     *            The composite type of the row proxies.
+     */
+    RowProjection(RowProxyMethodService rowProxyMethodService, CompositeType compositeType) {
+        this.rowProxyMethodService = rowProxyMethodService;
+        this.compositeType = compositeType;
+    }
+
+    /**
+     * Creates a proxy for a row.
+     *
+     * @param proxyFactory
+     *            The {@link ProxyFactory} of the session.
+     * @param row
+     *            The row.
+     * @param <T>
+     *            The expected type.
+     * @return The proxy.
+     */
+    <T> T createInstance(ProxyFactory proxyFactory, Map<String, Object> row) {
+        return proxyFactory.createInstance(new RowInvocationHandler(row, rowProxyMethodService), compositeType);
+    }
+}
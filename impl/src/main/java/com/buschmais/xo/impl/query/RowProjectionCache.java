@@ -0,0 +1,82 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.impl.MetadataProvider;
+import com.buschmais.xo.impl.proxy.ProxyEngine;
+import com.buschmais.xo.impl.proxy.query.RowProxyMethodService;
+import com.buschmais.xo.spi.metadata.CompositeTypeBuilder;
+import com.buschmais.xo.api.CompositeType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+/**
+ * Cache for the {@link RowProjection}s of a
+ * {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>
+ * Projections are resolved once per set of return types and shared by all
+ * sessions. The number of entries is bounded by the return types declared in
+ * the application, therefore no eviction is applied.
+ * </p>
+ */
+public class RowProjectionCache {
+
+    /**
+     * Marker for return types which do not require a projection.
+     */
+    private static final RowProjection NONE = new RowProjection(null, null);
+
+    private final MetadataProvider<?, ?, ?, ?> metadataProvider;
+
+    private final ProxyEngine proxyEngine;
+
+    private final ConcurrentMap<List<Class<?>>, RowProjection> projections = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param metadataProvider
+     *            The {@link MetadataProvider}.
+     * @param proxyEngine
+     *            The {@link ProxyEngine}.
+     */
+    public RowProjectionCache(MetadataProvider<?, ?, ?, ?> metadataProvider, ProxyEngine proxyEngine) {
+        this.metadataProvider = metadataProvider;
+        this.proxyEngine = proxyEngine;
+    }
+
+    /**
+     * Return the projection for the given return types.
+     *
+     * @param returnTypes
+     *            The return types.
+     * @return The projection or <code>null</code> if the rows are returned as
+     *         single column values.
+     */
+    public RowProjection get(SortedSet<Class<?>> returnTypes) {
+        List<Class<?>> key = new ArrayList<>(returnTypes);
+        RowProjection projection = projections.get(key);
+        if (projection == null) {
+            projection = create(returnTypes);
+            RowProjection existing = projections.putIfAbsent(key, projection);
+            if (existing != null) {
+                projection = existing;
+            }
+        }
+        return projection != NONE ? projection : null;
+    }
+
+    private RowProjection create(SortedSet<Class<?>> returnTypes) {
+        if (returnTypes.size() == 1 && metadataProvider.getQuery(returnTypes.first()) == null) {
+            return NONE;
+        }
+        RowProxyMethodService rowProxyMethodService = new RowProxyMethodService(returnTypes);
+        CompositeType compositeType = CompositeTypeBuilder.create(CompositeRowObject.class, returnTypes.toArray(new Class[returnTypes.size()]));
+        proxyEngine.prepare(compositeType);
+        return new RowProjection(rowProxyMethodService, compositeType);
+    }
+}
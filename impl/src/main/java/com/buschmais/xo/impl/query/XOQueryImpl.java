@@ -15,7 +15,10 @@ import com.buschmais.xo.impl.transaction.TransactionalResultIterator;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreQuery;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
+import com.buschmais.xo.spi.datastore.DatastoreRow;
+import com.buschmais.xo.spi.datastore.DatastoreRowQuery;
 import com.buschmais.xo.spi.datastore.DatastoreSession;
+import com.buschmais.xo.spi.datastore.MapDatastoreRowIterator;
 import com.buschmais.xo.spi.plugin.QueryLanguagePlugin;
 
 /**
@@ -42,11 +45,13 @@ public class XOQueryImpl<T, QL extends Annotation, QE, Entity, Relation> impleme
     private final Collection<? extends Class<?>> returnTypes;
     private final InstanceManager<?, Entity> entityInstanceManager;
     private final InstanceManager<?, Relation> relationInstanceManager;
+    private final int lease;
     private Map<String, Object> parameters = null;
 
     public XOQueryImpl(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext, QE expression, Class<?> returnType,
             Collection<? extends Class<?>> returnTypes) {
         this.sessionContext = sessionContext;
+        this.lease = sessionContext.getLease();
         this.entityInstanceManager = sessionContext.getEntityInstanceManager();
         this.relationInstanceManager = sessionContext.getRelationInstanceManager();
         this.queryLanguagePluginManager = sessionContext.getPluginRepositoryManager().getPluginManager(QueryLanguagePlugin.class);
@@ -65,12 +70,14 @@ public class XOQueryImpl<T, QL extends Annotation, QE, Entity, Relation> impleme
 
     @Override
     public Query<T> using(Class<? extends Annotation> queryLanguage) {
+        sessionContext.ensureLease(lease);
         this.queryLanguage = queryLanguage;
         return sessionContext.getInterceptorFactory().addInterceptor(this, Query.class);
     }
 
     @Override
     public Query<T> withParameter(String name, Object value) {
+        sessionContext.ensureLease(lease);
         if (parameters == null) {
             parameters = new HashMap<>();
         }
@@ -83,6 +90,7 @@ public class XOQueryImpl<T, QL extends Annotation, QE, Entity, Relation> impleme
 
     @Override
     public Query<T> withParameters(Map<String, Object> parameters) {
+        sessionContext.ensureLease(lease);
         if (parameters == null) {
             throw new XOException("Parameters must not be null.");
         }
@@ -102,7 +110,10 @@ public class XOQueryImpl<T, QL extends Annotation, QE, Entity, Relation> impleme
 
     @Override
     public Result<T> execute() {
+        sessionContext.ensureLease(lease);
         sessionContext.getCacheSynchronizationService().flush();
+        // The query may create or remove relations.
+        sessionContext.getEntityPropertyManager().clearFetchedRelations();
         DatastoreSession<?, Entity, ? extends DatastoreEntityMetadata<?>, ?, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, ?> datastoreSession = sessionContext
                 .getDatastoreSession();
         if (queryLanguage == null) {
@@ -116,24 +127,28 @@ public class XOQueryImpl<T, QL extends Annotation, QE, Entity, Relation> impleme
             query = (DatastoreQuery<QL>) sessionContext.getDatastoreSession().createQuery(queryLanguage);
         }
         Map<String, Object> effectiveParameters = parameters != null ? parameters : Collections.emptyMap();
-        ResultIterator<Map<String, Object>> iterator;
+        DatastoreRowQuery<QL> rowQuery = query instanceof DatastoreRowQuery ? (DatastoreRowQuery<QL>) query : null;
+        ResultIterator<DatastoreRow> iterator;
         if (expression instanceof String) {
-            iterator = query.execute((String) expression, effectiveParameters);
+            String stringExpression = (String) expression;
+            iterator = rowQuery != null ? rowQuery.executeRows(stringExpression, effectiveParameters)
+                    : new MapDatastoreRowIterator(query.execute(stringExpression, effectiveParameters));
         } else if (expression instanceof AnnotatedElement) {
             AnnotatedElement typeExpression = (AnnotatedElement) expression;
             QL queryAnnotation = sessionContext.getMetadataProvider().getQuery(typeExpression);
             if (queryAnnotation == null) {
                 throw new XOException("Cannot find query annotation on element " + expression.toString());
             }
-            iterator = query.execute(queryAnnotation, effectiveParameters);
+            iterator = rowQuery != null ? rowQuery.executeRows(queryAnnotation, effectiveParameters)
+                    : new MapDatastoreRowIterator(query.execute(queryAnnotation, effectiveParameters));
         } else {
             throw new XOException("Expression type is not supported: " + expression);
         }
         SortedSet<Class<?>> resultTypes = getResultTypes();
         XOTransaction xoTransaction = sessionContext.getXOTransaction();
         return sessionContext.getInterceptorFactory().addInterceptor(
-                new QueryResultIterableImpl(sessionContext, xoTransaction != null ? new TransactionalResultIterator<>(iterator, xoTransaction) : iterator,
-                        resultTypes), Result.class);
+                new QueryResultIterableImpl(sessionContext, lease, xoTransaction != null ? new TransactionalResultIterator<>(iterator, xoTransaction) : iterator,
+                        sessionContext.getRowProjectionCache().get(resultTypes)), Result.class);
     }
 
     /**
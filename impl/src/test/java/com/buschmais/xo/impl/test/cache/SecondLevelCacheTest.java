@@ -0,0 +1,43 @@
+package com.buschmais.xo.impl.test.cache;
+
+import com.buschmais.xo.impl.cache.SecondLevelCache;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SecondLevelCacheTest {
+
+    private static final String PROPERTY = "value";
+
+    private final SecondLevelCache<String> cache = new SecondLevelCache<>(100);
+
+    @Test
+    public void invalidationOfOtherEntities() {
+        long generation = cache.getGeneration(1L);
+        cache.invalidate(Collections.singleton(2L));
+        cache.putProperty(1L, PROPERTY, "1", generation);
+        assertThat(cache.getProperty(1L, PROPERTY), equalTo((Object) "1"));
+    }
+
+    @Test
+    public void invalidationOfEntity() {
+        long generation = cache.getGeneration(1L);
+        cache.invalidate(Collections.singleton(1L));
+        cache.putProperty(1L, PROPERTY, "1", generation);
+        assertThat(cache.getProperty(1L, PROPERTY), nullValue());
+        cache.putProperty(1L, PROPERTY, "2", cache.getGeneration(1L));
+        assertThat(cache.getProperty(1L, PROPERTY), equalTo((Object) "2"));
+    }
+
+    @Test
+    public void invalidationOfAllEntities() {
+        long generation = cache.getGeneration(1L);
+        cache.invalidateAll();
+        cache.putProperty(1L, PROPERTY, "1", generation);
+        assertThat(cache.getProperty(1L, PROPERTY), nullValue());
+    }
+}
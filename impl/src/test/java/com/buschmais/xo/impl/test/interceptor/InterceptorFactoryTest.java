@@ -0,0 +1,110 @@
+package com.buschmais.xo.impl.test.interceptor;
+
+import com.buschmais.xo.spi.interceptor.InterceptorFactory;
+import com.buschmais.xo.spi.interceptor.InvocationContext;
+import com.buschmais.xo.spi.interceptor.XOInterceptor;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class InterceptorFactoryTest {
+
+    private static final int INVOCATIONS = 100000;
+
+    public interface Value {
+
+        Object get();
+
+        Object getNested(Value value);
+    }
+
+    @Test
+    public void nestedInvocations() {
+        final List<String> invocations = new ArrayList<>();
+        InterceptorFactory interceptorFactory = new InterceptorFactory(Arrays.asList(new RecordingInterceptor(invocations)));
+        final Object result = new Object();
+        Value value = interceptorFactory.addInterceptor(new ValueImpl(result), Value.class);
+        assertThat(value.getNested(value), sameInstance(result));
+        assertThat(invocations, equalTo(Arrays.asList("getNested", "get", "get", "get", "get", "getNested")));
+    }
+
+    @Test
+    public void invocationDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+        InterceptorFactory interceptorFactory = new InterceptorFactory(Arrays.asList(new PassThroughInterceptor(), new PassThroughInterceptor()));
+        Value value = interceptorFactory.addInterceptor(new ValueImpl(new Object()), Value.class);
+        long threadId = Thread.currentThread().getId();
+        long allocated = Long.MAX_VALUE;
+        // Repeat until the invocations are compiled.
+        for (int i = 0; i < 10 && allocated > 0; i++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int j = 0; j < INVOCATIONS; j++) {
+                value.get();
+            }
+            allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        }
+        assertThat(allocated / INVOCATIONS, lessThan(1L));
+    }
+
+    private static class ValueImpl implements Value {
+
+        private final Object value;
+
+        private ValueImpl(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object get() {
+            return value;
+        }
+
+        @Override
+        public Object getNested(Value value) {
+            Object result = value.get();
+            // The context of the outer invocation must not be affected.
+            value.get();
+            return result;
+        }
+    }
+
+    private static class PassThroughInterceptor implements XOInterceptor {
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public Object invoke(InvocationContext invocationContext) throws Throwable {
+            return invocationContext.proceed();
+        }
+    }
+
+    private static class RecordingInterceptor extends PassThroughInterceptor {
+
+        private final List<String> invocations;
+
+        private RecordingInterceptor(List<String> invocations) {
+            this.invocations = invocations;
+        }
+
+        @Override
+        public Object invoke(InvocationContext invocationContext) throws Throwable {
+            invocations.add(invocationContext.getMethod().getName());
+            Object result = invocationContext.proceed();
+            invocations.add(invocationContext.getMethod().getName());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.buschmais.xo.impl.test.metadata;
+
+import com.buschmais.xo.api.CompositeType;
+import com.buschmais.xo.impl.metadata.EntityTypeMetadataResolver;
+import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
+import com.buschmais.xo.spi.datastore.TypeMetadataSet;
+import com.buschmais.xo.spi.metadata.method.MethodMetadata;
+import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+import com.buschmais.xo.spi.reflection.AnnotatedType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class EntityTypeMetadataResolverTest {
+
+    public interface A {
+    }
+
+    public interface B {
+    }
+
+    private EntityTypeMetadata<Metadata> a;
+
+    private EntityTypeMetadata<Metadata> b;
+
+    private EntityTypeMetadataResolver<Metadata, String> resolver;
+
+    @Before
+    public void setUp() {
+        a = createType(A.class, "A");
+        b = createType(B.class, "B");
+        Map<Class<?>, TypeMetadata> metadataByType = new HashMap<>();
+        metadataByType.put(A.class, a);
+        metadataByType.put(B.class, b);
+        resolver = new EntityTypeMetadataResolver<>(metadataByType);
+    }
+
+    @Test
+    public void typesAreCachedPerDiscriminatorSet() {
+        Set<String> discriminators = new HashSet<>(Arrays.asList("A", "B"));
+        TypeMetadataSet<EntityTypeMetadata<Metadata>> types = resolver.getTypes(discriminators);
+        assertThat(types, containsInAnyOrder(a, b));
+        assertThat(resolver.getTypes(new HashSet<>(Arrays.asList("B", "A"))), sameInstance(types));
+        assertThat(types.getCompositeType(), sameInstance(types.getCompositeType()));
+        // The cache is not affected by modifications of the discriminators used as key.
+        discriminators.remove("B");
+        assertThat(resolver.getTypes(new HashSet<>(Arrays.asList("A", "B"))), sameInstance(types));
+        assertThat(resolver.getTypes(discriminators), contains(a));
+    }
+
+    @Test
+    public void cachedTypesAreUnmodifiable() {
+        TypeMetadataSet<EntityTypeMetadata<Metadata>> types = resolver.getTypes(new HashSet<>(Arrays.asList("A", "B")));
+        CompositeType compositeType = types.getCompositeType();
+        try {
+            types.add(a);
+            fail("Expecting an UnsupportedOperationException.");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            types.remove(b);
+            fail("Expecting an UnsupportedOperationException.");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            types.removeAll(Collections.singleton(b));
+            fail("Expecting an UnsupportedOperationException.");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            types.retainAll(Collections.singleton(a));
+            fail("Expecting an UnsupportedOperationException.");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            Iterator<EntityTypeMetadata<Metadata>> iterator = types.iterator();
+            iterator.next();
+            iterator.remove();
+            fail("Expecting an UnsupportedOperationException.");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            types.clear();
+            fail("Expecting an UnsupportedOperationException.");
+        } catch (UnsupportedOperationException e) {
+        }
+        assertThat(resolver.getTypes(new HashSet<>(Arrays.asList("A", "B"))), containsInAnyOrder(a, b));
+        assertThat(types.getCompositeType(), sameInstance(compositeType));
+    }
+
+    @Test
+    public void compositeTypeIsRebuiltAfterModification() {
+        TypeMetadataSet<EntityTypeMetadata<Metadata>> types = new TypeMetadataSet<>();
+        types.add(a);
+        types.add(b);
+        assertThat(types.getCompositeType().getClasses().length, equalTo(3));
+        types.removeAll(Collections.singleton(b));
+        assertThat(Arrays.<Class<?>> asList(types.getCompositeType().getClasses()), not(hasItem(B.class)));
+        types.add(b);
+        types.retainAll(Collections.singleton(b));
+        assertThat(Arrays.<Class<?>> asList(types.getCompositeType().getClasses()), not(hasItem(A.class)));
+    }
+
+    private EntityTypeMetadata<Metadata> createType(Class<?> type, String discriminator) {
+        return new EntityTypeMetadata<>(new AnnotatedType(type), Collections.<TypeMetadata> emptyList(), Collections.<MethodMetadata<?, ?>> emptyList(), false,
+                false, null, new Metadata(discriminator));
+    }
+
+    private static class Metadata implements DatastoreEntityMetadata<String> {
+
+        private final String discriminator;
+
+        private Metadata(String discriminator) {
+            this.discriminator = discriminator;
+        }
+
+        @Override
+        public String getDiscriminator() {
+            return discriminator;
+        }
+    }
+}
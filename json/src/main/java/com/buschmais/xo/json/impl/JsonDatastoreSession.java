@@ -53,6 +53,10 @@ public class JsonDatastoreSession implements
         throw new XOException("Repositories are not supported");
     }
 
+    @Override
+    public void reset() {
+    }
+
     @Override
     public void close() {
     }
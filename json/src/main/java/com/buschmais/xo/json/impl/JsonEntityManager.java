@@ -16,7 +16,9 @@ import org.codehaus.jackson.node.ObjectNode;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -71,6 +73,16 @@ public class JsonEntityManager implements DatastoreEntityManager<UUID, ObjectNod
         return rootNode;
     }
 
+    @Override
+    public List<ObjectNode> createEntities(TypeMetadataSet<EntityTypeMetadata<JsonNodeMetadata>> types, Set<String> discriminators,
+            List<Map<PrimitivePropertyMethodMetadata<JsonPropertyMetadata>, Object>> exampleEntities) {
+        List<ObjectNode> entities = new ArrayList<>(exampleEntities.size());
+        for (Map<PrimitivePropertyMethodMetadata<JsonPropertyMetadata>, Object> exampleEntity : exampleEntities) {
+            entities.add(createEntity(types, discriminators, exampleEntity));
+        }
+        return entities;
+    }
+
     @Override
     public void deleteEntity(ObjectNode entity) {
         File file = getFile(entity);
@@ -117,10 +129,16 @@ public class JsonEntityManager implements DatastoreEntityManager<UUID, ObjectNod
     }
 
     @Override
-    public void setProperty(ObjectNode objectNode, PrimitivePropertyMethodMetadata<JsonPropertyMetadata> metadata, Object value) {
+    public boolean setProperty(ObjectNode objectNode, PrimitivePropertyMethodMetadata<JsonPropertyMetadata> metadata, Object value) {
         Class<?> type = metadata.getAnnotatedMethod().getType();
         if (String.class.equals(type)) {
-            objectNode.put(metadata.getAnnotatedMethod().getName(), (String) value);
+            String name = metadata.getAnnotatedMethod().getName();
+            JsonNode current = objectNode.get(name);
+            if (current != null && current.isTextual() && current.getTextValue().equals(value)) {
+                return false;
+            }
+            objectNode.put(name, (String) value);
+            return true;
         } else {
             throw new XOException("Unsupported type " + type + " for property " + metadata.getAnnotatedMethod().getName());
         }
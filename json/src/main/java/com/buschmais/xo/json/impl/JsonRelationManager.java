@@ -8,7 +8,11 @@ import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 import org.codehaus.jackson.node.ObjectNode;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class JsonRelationManager implements DatastoreRelationManager<ObjectNode, Long, JsonRelation, JsonRelationMetadata, String, JsonPropertyMetadata> {
 
@@ -55,12 +59,49 @@ public class JsonRelationManager implements DatastoreRelationManager<ObjectNode,
         return null;
     }
 
+    @Override
+    public Iterable<JsonRelation> getReachableRelations(ObjectNode source,
+            Map<RelationTypeMetadata<JsonRelationMetadata>, Set<RelationTypeMetadata.Direction>> types, int depth) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public long getRelationCount(ObjectNode source, RelationTypeMetadata<JsonRelationMetadata> metadata, RelationTypeMetadata.Direction direction) {
+        long count = 0;
+        for (JsonRelation ignored : getRelations(source, metadata, direction)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasRelation(ObjectNode source, RelationTypeMetadata<JsonRelationMetadata> metadata, RelationTypeMetadata.Direction direction,
+            ObjectNode target) {
+        for (JsonRelation relation : getRelations(source, metadata, direction)) {
+            ObjectNode node = RelationTypeMetadata.Direction.FROM.equals(direction) ? getTo(relation) : getFrom(relation);
+            if (target.equals(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public JsonRelation createRelation(ObjectNode source, RelationTypeMetadata<JsonRelationMetadata> metadata, RelationTypeMetadata.Direction direction,
             ObjectNode target, Map<PrimitivePropertyMethodMetadata<JsonPropertyMetadata>, Object> example) {
         return null;
     }
 
+    @Override
+    public List<JsonRelation> createRelations(List<ObjectNode> sources, RelationTypeMetadata<JsonRelationMetadata> metadata,
+            RelationTypeMetadata.Direction direction, List<ObjectNode> targets, List<Map<PrimitivePropertyMethodMetadata<JsonPropertyMetadata>, Object>> examples) {
+        List<JsonRelation> relations = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            relations.add(createRelation(sources.get(i), metadata, direction, targets.get(i), examples.get(i)));
+        }
+        return relations;
+    }
+
     @Override
     public void deleteRelation(JsonRelation jsonRelation) {
     }
@@ -76,7 +117,8 @@ public class JsonRelationManager implements DatastoreRelationManager<ObjectNode,
     }
 
     @Override
-    public void setProperty(JsonRelation entity, PrimitivePropertyMethodMetadata<JsonPropertyMetadata> metadata, Object value) {
+    public boolean setProperty(JsonRelation entity, PrimitivePropertyMethodMetadata<JsonPropertyMetadata> metadata, Object value) {
+        return false;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.buschmais.xo.neo4j.api;
 
+import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.spi.datastore.Datastore;
 
 import java.net.MalformedURLException;
@@ -7,6 +8,6 @@ import java.net.URI;
 import java.util.Properties;
 
 interface DatastoreFactory<DS extends Datastore> {
-    DS createGraphDatabaseService(URI uri, Properties properties) throws MalformedURLException;
+    DS createGraphDatabaseService(URI uri, Properties properties, ConcurrencyMode concurrencyMode) throws MalformedURLException;
 }
 
@@ -11,12 +11,13 @@ import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
 import org.neo4j.graphdb.factory.GraphDatabaseFactory;
 
+import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.neo4j.impl.datastore.EmbeddedNeo4jDatastore;
 
 public class FileDatastoreFactory implements DatastoreFactory<EmbeddedNeo4jDatastore> {
 
     @Override
-    public EmbeddedNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties) throws MalformedURLException {
+    public EmbeddedNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties, ConcurrencyMode concurrencyMode) throws MalformedURLException {
         String path;
         try {
             path = URLDecoder.decode(uri.toURL().getPath(), "UTF-8");
@@ -29,6 +30,6 @@ public class FileDatastoreFactory implements DatastoreFactory<EmbeddedNeo4jDatas
             databaseBuilder.setConfig(name, neo4jProperties.getProperty(name));
         }
         GraphDatabaseService graphDatabaseService = databaseBuilder.newGraphDatabase();
-        return new EmbeddedNeo4jDatastore(graphDatabaseService);
+        return new EmbeddedNeo4jDatastore(graphDatabaseService, properties, concurrencyMode);
     }
 }
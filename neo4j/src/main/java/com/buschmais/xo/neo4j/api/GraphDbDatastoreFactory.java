@@ -1,5 +1,6 @@
 package com.buschmais.xo.neo4j.api;
 
+import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.neo4j.impl.datastore.GraphDbNeo4jDatastore;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -14,12 +15,12 @@ import java.util.Properties;
 public class GraphDbDatastoreFactory implements DatastoreFactory<GraphDbNeo4jDatastore> {
 
     @Override
-    public GraphDbNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties) throws MalformedURLException {
+    public GraphDbNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties, ConcurrencyMode concurrencyMode) throws MalformedURLException {
         String graphDbPropertyName = GraphDatabaseService.class.getName();
         GraphDatabaseService graphDatabaseService = (GraphDatabaseService) properties.get(graphDbPropertyName);
         if (graphDatabaseService == null) {
             throw new XOException("Property " + graphDbPropertyName + " is not specified.");
         }
-        return new GraphDbNeo4jDatastore(graphDatabaseService);
+        return new GraphDbNeo4jDatastore(graphDatabaseService, properties, concurrencyMode);
     }
 }
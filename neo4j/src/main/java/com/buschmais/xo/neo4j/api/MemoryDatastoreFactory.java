@@ -6,13 +6,14 @@ import java.util.Properties;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.test.TestGraphDatabaseFactory;
 
+import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.neo4j.impl.datastore.EmbeddedNeo4jDatastore;
 
 public class MemoryDatastoreFactory implements DatastoreFactory<EmbeddedNeo4jDatastore> {
 
     @Override
-    public EmbeddedNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties) {
+    public EmbeddedNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties, ConcurrencyMode concurrencyMode) {
         GraphDatabaseService graphDatabaseService = new TestGraphDatabaseFactory().newImpermanentDatabase();
-        return new EmbeddedNeo4jDatastore(graphDatabaseService);
+        return new EmbeddedNeo4jDatastore(graphDatabaseService, properties, concurrencyMode);
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.buschmais.xo.neo4j.api.model.Neo4jNode;
 import com.buschmais.xo.neo4j.api.model.Neo4jRelationship;
 import org.neo4j.graphdb.GraphDatabaseService;
 
+import com.buschmais.xo.api.CacheStatistics;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.NodeMetadata;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.RelationshipMetadata;
@@ -26,4 +27,11 @@ public interface Neo4jDatastoreSession<GDS extends GraphDatabaseService>
     Object convertValue(Object value);
 
     Object convertParameter(Object value);
+
+    /**
+     * Return the statistics of the cache holding the labels of nodes.
+     *
+     * @return The statistics.
+     */
+    CacheStatistics getLabelCacheStatistics();
 }
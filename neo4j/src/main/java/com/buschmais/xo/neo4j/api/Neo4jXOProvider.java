@@ -21,7 +21,7 @@ public class Neo4jXOProvider implements XODatastoreProvider {
         URI uri = xoUnit.getUri();
         DatastoreFactory datastoreFactory = lookupFactory(uri);
         try {
-            return datastoreFactory.createGraphDatabaseService(uri, xoUnit.getProperties());
+            return datastoreFactory.createGraphDatabaseService(uri, xoUnit.getProperties(), xoUnit.getConcurrencyMode());
         } catch (MalformedURLException e) {
             throw new XOException("Cannot create datastore.", e);
         }
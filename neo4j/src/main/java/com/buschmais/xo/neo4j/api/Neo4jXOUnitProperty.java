@@ -0,0 +1,58 @@
+package com.buschmais.xo.neo4j.api;
+
+import java.util.Properties;
+
+import com.buschmais.xo.api.XOException;
+
+/**
+ * Identifiers for optional properties of a
+ * {@link com.buschmais.xo.api.bootstrap.XOUnit} which configure the Neo4j
+ * datastore.
+ */
+public enum Neo4jXOUnitProperty {
+
+    /**
+     * The maximum number of nodes whose labels are cached per session,
+     * default is 10000.
+     */
+    LABEL_CACHE_MAXIMUM_SIZE("xo.neo4j.labelCache.maximumSize"),
+
+    /**
+     * The maximum number of nodes whose labels are cached by a cache shared by
+     * all sessions of a datastore, "0" (default) disables the shared cache.
+     * Labels modified by a session are removed from the shared cache when the
+     * transaction completes.
+     */
+    SHARED_LABEL_CACHE_MAXIMUM_SIZE("xo.neo4j.labelCache.shared.maximumSize");
+
+    private final String key;
+
+    Neo4jXOUnitProperty(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Return the integer value of this property.
+     *
+     * @param properties
+     *            The properties of the XO unit, may be <code>null</code>.
+     * @param defaultValue
+     *            The value to return if the property is not set.
+     * @return The value.
+     */
+    public int getInt(Properties properties, int defaultValue) {
+        Object value = properties != null ? properties.get(key) : null;
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new XOException("Invalid value '" + value + "' for property " + key, e);
+        }
+    }
+}
@@ -1,20 +1,76 @@
 package com.buschmais.xo.neo4j.api.model;
 
 import java.util.Map;
+import java.util.Objects;
 
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.PropertyContainer;
 
 import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
 
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-
+/**
+ * Base class for nodes and relationships which buffer property values.
+ * <p>
+ * Property values accessed using {@link PropertyMetadata} are buffered in an
+ * array, written values are tracked in a second array until they are flushed.
+ * The value stored in the datastore is recorded per property when it is first
+ * written, writes of this value are dropped.
+ * A property is stored at the index given by its slot if it is free, i.e. for
+ * instances of a single type, otherwise at the next free index. Access by
+ * property name reads through the buffers and writes through to the delegate.
+ * </p>
+ * <p>
+ * The buffers are not thread safe. Sessions which are used by concurrent
+ * threads access properties by name only, i.e. the buffers stay empty and
+ * values are isolated by the transaction of each thread.
+ * </p>
+ *
+ * @param <T>
+ *            The type of the delegate.
+ */
 public abstract class AbstractNeo4jPropertyContainer<T extends PropertyContainer> implements PropertyContainer {
 
+    private static final PropertyMetadata[] EMPTY_PROPERTIES = new PropertyMetadata[0];
+
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    private static final boolean[] EMPTY_WRITES = new boolean[0];
+
+    /**
+     * Marks a property which is not stored in the datastore.
+     */
+    private static final Object ABSENT = new Object();
+
     protected T delegate;
 
-    private Object2ObjectOpenHashMap<String, Object> readCache = null;
-    private Object2ObjectOpenHashMap<String, Object> writeCache = null;
+    /**
+     * The buffered properties by index.
+     */
+    private PropertyMetadata[] properties = EMPTY_PROPERTIES;
+
+    /**
+     * The buffered values by index, <code>null</code> if a value has not been
+     * read yet.
+     */
+    private Object[] values = EMPTY_VALUES;
+
+    /**
+     * The indexes of the properties whose values have been written but not
+     * flushed yet.
+     */
+    private boolean[] writes = EMPTY_WRITES;
+
+    /**
+     * The values stored in the datastore by index, {@link #ABSENT} if a
+     * property is not stored and <code>null</code> if it has not been read
+     * yet.
+     */
+    private Object[] originals = EMPTY_VALUES;
+
+    private int propertyCount = 0;
+
+    private int writeCount = 0;
 
     public AbstractNeo4jPropertyContainer(T delegate) {
         this.delegate = delegate;
@@ -25,9 +81,79 @@ public abstract class AbstractNeo4jPropertyContainer<T extends PropertyContainer
         return delegate.getGraphDatabase();
     }
 
+    public boolean hasProperty(PropertyMetadata metadata) {
+        int index = indexOf(metadata);
+        if (index >= 0 && values[index] != null) {
+            return true;
+        }
+        return delegate.hasProperty(metadata.getName());
+    }
+
+    public Object getProperty(PropertyMetadata metadata) {
+        int index = indexOf(metadata);
+        if (index >= 0 && values[index] != null) {
+            return values[index];
+        }
+        Object value = delegate.getProperty(metadata.getName());
+        if (index < 0) {
+            index = add(metadata);
+        }
+        values[index] = value;
+        originals[index] = value;
+        return value;
+    }
+
+    /**
+     * Set the value of a property, the value is written to the delegate on
+     * {@link #flush()}.
+     *
+     * @param metadata
+     *            The property.
+     * @param value
+     *            The value.
+     * @return <code>false</code> if the value is equal to the value stored in
+     *         the datastore, i.e. no write is pending.
+     */
+    public boolean setProperty(PropertyMetadata metadata, Object value) {
+        int index = indexOf(metadata);
+        if (index < 0) {
+            index = add(metadata);
+        }
+        Object original = originals[index];
+        if (original == null) {
+            String name = metadata.getName();
+            original = delegate.hasProperty(name) ? delegate.getProperty(name) : ABSENT;
+            originals[index] = original;
+        }
+        if (Objects.deepEquals(original, value)) {
+            values[index] = value;
+            if (writes[index]) {
+                writes[index] = false;
+                writeCount--;
+            }
+            return false;
+        }
+        values[index] = value;
+        if (!writes[index]) {
+            writes[index] = true;
+            writeCount++;
+        }
+        return true;
+    }
+
+    public void removeProperty(PropertyMetadata metadata) {
+        int index = indexOf(metadata);
+        if (index >= 0) {
+            discard(index);
+            originals[index] = ABSENT;
+        }
+        delegate.removeProperty(metadata.getName());
+    }
+
     @Override
     public boolean hasProperty(String key) {
-        if (getReadCache().containsKey(key)) {
+        int index = indexOf(key);
+        if (index >= 0 && values[index] != null) {
             return true;
         }
         return delegate.hasProperty(key);
@@ -35,13 +161,11 @@ public abstract class AbstractNeo4jPropertyContainer<T extends PropertyContainer
 
     @Override
     public Object getProperty(String key) {
-        Object2ObjectOpenHashMap<String, Object> readCache = getReadCache();
-        if (readCache.containsKey(key)) {
-            return readCache.get(key);
+        int index = indexOf(key);
+        if (index >= 0 && values[index] != null) {
+            return values[index];
         }
-        Object value = delegate.getProperty(key);
-        readCache.put(key, value);
-        return value;
+        return delegate.getProperty(key);
     };
 
     @Override
@@ -51,15 +175,23 @@ public abstract class AbstractNeo4jPropertyContainer<T extends PropertyContainer
 
     @Override
     public void setProperty(String key, Object value) {
-        getWriteCache().put(key, value);
-        getReadCache().put(key, value);
+        int index = indexOf(key);
+        if (index >= 0) {
+            discard(index);
+        }
+        delegate.setProperty(key, value);
     }
 
     @Override
     public Object removeProperty(String key) {
-        getWriteCache().remove(key);
-        getReadCache().remove(key);
-        return delegate.removeProperty(key);
+        int index = indexOf(key);
+        Object pending = null;
+        if (index >= 0) {
+            pending = writes[index] ? values[index] : null;
+            discard(index);
+        }
+        Object removed = delegate.removeProperty(key);
+        return pending != null ? pending : removed;
     }
 
     @Override
@@ -78,31 +210,126 @@ public abstract class AbstractNeo4jPropertyContainer<T extends PropertyContainer
     }
 
     public void flush() {
-        if (writeCache != null) {
-            for (Map.Entry<String, Object> entry : writeCache.entrySet()) {
-                delegate.setProperty(entry.getKey(), entry.getValue());
+        if (writeCount > 0) {
+            for (int index = 0; index < writes.length; index++) {
+                if (writes[index]) {
+                    delegate.setProperty(properties[index].getName(), values[index]);
+                    originals[index] = values[index];
+                    writes[index] = false;
+                }
             }
+            writeCount = 0;
         }
-        writeCache = null;
     }
 
     public void clear() {
-        readCache = null;
-        writeCache = null;
+        properties = EMPTY_PROPERTIES;
+        values = EMPTY_VALUES;
+        writes = EMPTY_WRITES;
+        originals = EMPTY_VALUES;
+        propertyCount = 0;
+        writeCount = 0;
+    }
+
+    /**
+     * Return the index of a buffered property, starting the search at its
+     * slot. Properties with the same name share an index.
+     *
+     * @param metadata
+     *            The property.
+     * @return The index or -1 if the property is not buffered.
+     */
+    private int indexOf(PropertyMetadata metadata) {
+        int length = properties.length;
+        int slot = metadata.getSlot();
+        int start = slot < length ? slot : 0;
+        for (int i = 0; i < length; i++) {
+            int index = start + i < length ? start + i : start + i - length;
+            PropertyMetadata property = properties[index];
+            if (property == metadata || (property != null && property.getName().equals(metadata.getName()))) {
+                return index;
+            }
+        }
+        return -1;
     }
 
-    private Object2ObjectOpenHashMap<String, Object> getReadCache() {
-        if (readCache == null) {
-            readCache = new Object2ObjectOpenHashMap<>();
+    /**
+     * Return the index of a buffered property by its name.
+     *
+     * @param name
+     *            The name.
+     * @return The index or -1 if the property is not buffered.
+     */
+    private int indexOf(String name) {
+        for (int index = 0; index < properties.length; index++) {
+            PropertyMetadata property = properties[index];
+            if (property != null && property.getName().equals(name)) {
+                return index;
+            }
         }
-        return readCache;
+        return -1;
     }
 
-    private Object2ObjectOpenHashMap<String, Object> getWriteCache() {
-        if (writeCache == null) {
-            writeCache = new Object2ObjectOpenHashMap<>();
+    /**
+     * Add a property to the buffers, preferably at the index given by its
+     * slot.
+     *
+     * @param metadata
+     *            The property.
+     * @return The index.
+     */
+    private int add(PropertyMetadata metadata) {
+        int slot = metadata.getSlot();
+        if (slot >= properties.length || propertyCount == properties.length) {
+            grow(Math.max(slot + 1, properties.length * 2));
+        }
+        int index = slot;
+        while (properties[index] != null) {
+            index = index + 1 < properties.length ? index + 1 : 0;
+        }
+        properties[index] = metadata;
+        propertyCount++;
+        return index;
+    }
+
+    /**
+     * Discard the buffered value, the recorded datastore value and a pending
+     * write of a property.
+     *
+     * @param index
+     *            The index of the property.
+     */
+    private void discard(int index) {
+        values[index] = null;
+        originals[index] = null;
+        if (writes[index]) {
+            writes[index] = false;
+            writeCount--;
+        }
+    }
+
+    private void grow(int length) {
+        PropertyMetadata[] oldProperties = properties;
+        Object[] oldValues = values;
+        boolean[] oldWrites = writes;
+        Object[] oldOriginals = originals;
+        properties = new PropertyMetadata[length];
+        values = new Object[length];
+        writes = new boolean[length];
+        originals = new Object[length];
+        for (int oldIndex = 0; oldIndex < oldProperties.length; oldIndex++) {
+            PropertyMetadata property = oldProperties[oldIndex];
+            if (property != null) {
+                int index = property.getSlot() < length ? property.getSlot() : 0;
+                while (properties[index] != null) {
+                    index = index + 1 < length ? index + 1 : 0;
+                }
+                properties[index] = property;
+                values[index] = oldValues[oldIndex];
+                writes[index] = oldWrites[oldIndex];
+                originals[index] = oldOriginals[oldIndex];
+            }
         }
-        return writeCache;
     }
 
     @Override
@@ -9,6 +9,8 @@ public final class Neo4jLabel {
 
     private Label label;
 
+    private volatile int index = -1;
+
     public Neo4jLabel(String name) {
         this.name = name;
         this.label = DynamicLabel.label(name);
@@ -26,6 +28,27 @@ public final class Neo4jLabel {
         return label;
     }
 
+    /**
+     * Return the id which has been assigned to this instance by the label
+     * index of a datastore.
+     *
+     * @return The id or -1 if this instance has not been registered.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Set the id which has been assigned to this instance by the label index
+     * of a datastore.
+     *
+     * @param index
+     *            The id.
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
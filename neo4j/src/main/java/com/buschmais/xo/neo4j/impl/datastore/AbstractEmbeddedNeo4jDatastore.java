@@ -1,6 +1,7 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
 import java.util.Map;
+import java.util.Properties;
 
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
@@ -9,6 +10,7 @@ import org.neo4j.graphdb.schema.IndexDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.neo4j.api.model.Neo4jLabel;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.IndexedPropertyMetadata;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.NodeMetadata;
@@ -32,12 +34,28 @@ public abstract class AbstractEmbeddedNeo4jDatastore extends AbstractNeo4jDatast
      *            The graph database service.
      */
     public AbstractEmbeddedNeo4jDatastore(GraphDatabaseService graphDatabaseService) {
+        this(graphDatabaseService, new Properties(), ConcurrencyMode.SINGLETHREADED);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param graphDatabaseService
+     *            The graph database service.
+     * @param properties
+     *            The properties of the XO unit.
+     * @param concurrencyMode
+     *            The concurrency mode of the XO unit.
+     */
+    public AbstractEmbeddedNeo4jDatastore(GraphDatabaseService graphDatabaseService, Properties properties, ConcurrencyMode concurrencyMode) {
+        super(properties, concurrencyMode);
         this.graphDatabaseService = graphDatabaseService;
     }
 
     @Override
     public EmbeddedNeo4jDatastoreSession createSession() {
-        return new EmbeddedNeo4jDatastoreSession(graphDatabaseService);
+        return new EmbeddedNeo4jDatastoreSession(graphDatabaseService, getLabelIndex(), getLabelCacheMaximumSize(), getSharedLabelCache(),
+                isThreadBound());
     }
 
     @Override
@@ -46,6 +64,10 @@ public abstract class AbstractEmbeddedNeo4jDatastore extends AbstractNeo4jDatast
             for (TypeMetadata typeMetadata : registeredMetadata.values()) {
                 if (typeMetadata instanceof EntityTypeMetadata) {
                     EntityTypeMetadata<NodeMetadata> entityTypeMetadata = (EntityTypeMetadata<NodeMetadata>) typeMetadata;
+                    Neo4jLabel label = entityTypeMetadata.getDatastoreMetadata().getDiscriminator();
+                    if (label != null) {
+                        getLabelIndex().register(label);
+                    }
                     // check for indexed property declared in type
                     ensureIndex(entityTypeMetadata, entityTypeMetadata.getIndexedProperty());
                     ensureIndex(entityTypeMetadata, entityTypeMetadata.getDatastoreMetadata().getUsingIndexedPropertyOf());
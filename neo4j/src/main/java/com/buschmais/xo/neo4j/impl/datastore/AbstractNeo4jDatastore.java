@@ -1,7 +1,11 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
+import java.util.Properties;
+
+import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.neo4j.api.Neo4jDatastore;
 import com.buschmais.xo.neo4j.api.Neo4jDatastoreSession;
+import com.buschmais.xo.neo4j.api.Neo4jXOUnitProperty;
 import com.buschmais.xo.neo4j.api.model.Neo4jLabel;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.NodeMetadata;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.RelationshipMetadata;
@@ -18,9 +22,70 @@ public abstract class AbstractNeo4jDatastore<DS extends Neo4jDatastoreSession> i
 
     private final Neo4jMetadataFactory metadataFactory = new Neo4jMetadataFactory();
 
+    private final LabelIndex labelIndex = new LabelIndex();
+
+    private final int labelCacheMaximumSize;
+
+    private final SharedLabelCache sharedLabelCache;
+
+    private final boolean threadBound;
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            The properties of the XO unit.
+     * @param concurrencyMode
+     *            The concurrency mode of the XO unit.
+     */
+    protected AbstractNeo4jDatastore(Properties properties, ConcurrencyMode concurrencyMode) {
+        this.labelCacheMaximumSize = Neo4jXOUnitProperty.LABEL_CACHE_MAXIMUM_SIZE.getInt(properties, 10000);
+        int sharedLabelCacheMaximumSize = Neo4jXOUnitProperty.SHARED_LABEL_CACHE_MAXIMUM_SIZE.getInt(properties, 0);
+        this.sharedLabelCache = sharedLabelCacheMaximumSize > 0 ? new SharedLabelCache(sharedLabelCacheMaximumSize) : null;
+        this.threadBound = ConcurrencyMode.CONCURRENT.equals(concurrencyMode) || ConcurrencyMode.READ_WRITE.equals(concurrencyMode);
+    }
+
     @Override
     public DatastoreMetadataFactory<NodeMetadata, Neo4jLabel, RelationshipMetadata, RelationshipType> getMetadataFactory() {
         return metadataFactory;
     }
 
+    /**
+     * Return the {@link LabelIndex} shared by all sessions of this datastore.
+     *
+     * @return The label index.
+     */
+    protected LabelIndex getLabelIndex() {
+        return labelIndex;
+    }
+
+    /**
+     * Return the maximum number of nodes whose labels are cached per session.
+     *
+     * @return The maximum size.
+     */
+    protected int getLabelCacheMaximumSize() {
+        return labelCacheMaximumSize;
+    }
+
+    /**
+     * Return the {@link SharedLabelCache} shared by all sessions of this
+     * datastore.
+     *
+     * @return The shared label cache or <code>null</code> if it is disabled.
+     */
+    protected SharedLabelCache getSharedLabelCache() {
+        return sharedLabelCache;
+    }
+
+    /**
+     * Determine if sessions may be used by concurrent threads, each of them
+     * running its own transaction.
+     *
+     * @return <code>true</code> if sessions are used by concurrent threads.
+     */
+    protected boolean isThreadBound() {
+        return threadBound;
+    }
+
 }
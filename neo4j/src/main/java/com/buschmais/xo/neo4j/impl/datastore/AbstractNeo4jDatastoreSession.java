@@ -7,6 +7,7 @@ import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 
+import com.buschmais.xo.api.CacheStatistics;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.neo4j.api.Neo4jDatastoreSession;
 import com.buschmais.xo.neo4j.api.TypedNeo4jRepository;
@@ -36,10 +37,11 @@ public abstract class AbstractNeo4jDatastoreSession<GDS extends GraphDatabaseSer
     private final Neo4jEntityManager entityManager;
     private final Neo4jRelationManager relationManager;
 
-    public AbstractNeo4jDatastoreSession(GDS graphDatabaseService) {
+    public AbstractNeo4jDatastoreSession(GDS graphDatabaseService, LabelIndex labelIndex, long labelCacheMaximumSize, SharedLabelCache sharedLabelCache,
+            boolean threadBound) {
         this.graphDatabaseService = graphDatabaseService;
-        this.entityManager = new Neo4jEntityManager(graphDatabaseService);
-        this.relationManager = new Neo4jRelationManager(graphDatabaseService);
+        this.entityManager = new Neo4jEntityManager(graphDatabaseService, labelIndex, labelCacheMaximumSize, sharedLabelCache, threadBound);
+        this.relationManager = new Neo4jRelationManager(graphDatabaseService, threadBound);
     }
 
     @Override
@@ -52,6 +54,27 @@ public abstract class AbstractNeo4jDatastoreSession<GDS extends GraphDatabaseSer
         return relationManager;
     }
 
+    @Override
+    public CacheStatistics getLabelCacheStatistics() {
+        return entityManager.getLabelCacheStatistics();
+    }
+
+    /**
+     * Notify the session about the completion of a transaction.
+     *
+     * @param committed
+     *            <code>true</code> if the transaction has been committed,
+     *            <code>false</code> if it has been rolled back.
+     */
+    protected void afterCompletion(boolean committed) {
+        entityManager.afterCompletion(committed);
+    }
+
+    @Override
+    public void reset() {
+        entityManager.reset();
+    }
+
     @Override
     public Class<? extends Annotation> getDefaultQueryLanguage() {
         return Cypher.class;
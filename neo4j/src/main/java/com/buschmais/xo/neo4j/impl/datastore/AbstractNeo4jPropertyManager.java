@@ -1,36 +1,70 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
+import com.buschmais.xo.neo4j.api.model.AbstractNeo4jPropertyContainer;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
 import com.buschmais.xo.spi.datastore.DatastorePropertyManager;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
-import org.neo4j.graphdb.PropertyContainer;
 
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Abstract implementation of a {@link DatastorePropertyManager} for Neo4j.
+ * <p>
+ * If the session is used by concurrent threads the property buffers of the
+ * elements are bypassed, i.e. values are read from and written to the
+ * transaction of the current thread.
+ * </p>
  */
-public abstract class AbstractNeo4jPropertyManager<Element extends PropertyContainer> implements DatastorePropertyManager<Element, PropertyMetadata> {
+public abstract class AbstractNeo4jPropertyManager<Element extends AbstractNeo4jPropertyContainer<?>> implements DatastorePropertyManager<Element, PropertyMetadata> {
 
-    @Override
-    public void setProperty(Element element, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
-        element.setProperty(metadata.getDatastoreMetadata().getName(), value);
+    private final boolean threadBound;
+
+    /**
+     * Constructor.
+     *
+     * @param threadBound
+     *            <code>true</code> if the session is used by concurrent
+     *            threads.
+     */
+    protected AbstractNeo4jPropertyManager(boolean threadBound) {
+        this.threadBound = threadBound;
     }
 
+    @Override
+    public boolean setProperty(Element element, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
+        PropertyMetadata propertyMetadata = metadata.getDatastoreMetadata();
+        if (threadBound) {
+            String name = propertyMetadata.getName();
+            if (element.hasProperty(name) && Objects.deepEquals(element.getProperty(name), value)) {
+                return false;
+            }
+            element.setProperty(name, value);
+            return true;
+        }
+        return element.setProperty(propertyMetadata, value);
+    }
 
     @Override
     public boolean hasProperty(Element element, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
-        return element.hasProperty(metadata.getDatastoreMetadata().getName());
+        PropertyMetadata propertyMetadata = metadata.getDatastoreMetadata();
+        return threadBound ? element.hasProperty(propertyMetadata.getName()) : element.hasProperty(propertyMetadata);
     }
 
     @Override
     public void removeProperty(Element element, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
-        element.removeProperty(metadata.getDatastoreMetadata().getName());
+        PropertyMetadata propertyMetadata = metadata.getDatastoreMetadata();
+        if (threadBound) {
+            element.removeProperty(propertyMetadata.getName());
+        } else {
+            element.removeProperty(propertyMetadata);
+        }
     }
 
     @Override
     public Object getProperty(Element element, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
-        return element.getProperty(metadata.getDatastoreMetadata().getName());
+        PropertyMetadata propertyMetadata = metadata.getDatastoreMetadata();
+        return threadBound ? element.getProperty(propertyMetadata.getName()) : element.getProperty(propertyMetadata);
     }
 
     protected void setProperties(Element element, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
@@ -10,58 +10,78 @@ import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.neo4j.api.model.Neo4jNode;
 import com.buschmais.xo.neo4j.api.model.Neo4jRelationship;
 import com.buschmais.xo.neo4j.api.annotation.Cypher;
+import com.buschmais.xo.spi.datastore.DatastoreColumns;
 import com.buschmais.xo.spi.datastore.DatastoreQuery;
+import com.buschmais.xo.spi.datastore.DatastoreRow;
+import com.buschmais.xo.spi.datastore.DatastoreRowQuery;
 import com.buschmais.xo.spi.datastore.DatastoreTransaction;
 
 public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession<GraphDatabaseService> {
 
+    /**
+     * The datastore transaction, as Neo4j transactions are bound to the thread
+     * which started them the transaction is held per thread.
+     */
     private class EmbeddedNeo4jDatastoreTransaction implements DatastoreTransaction {
 
-        private Transaction transaction;
+        private final ThreadLocal<Transaction> transaction = new ThreadLocal<>();
 
         @Override
         public void begin() {
-            if (transaction != null) {
+            if (transaction.get() != null) {
                 throw new XOException("There is already an existing transaction.");
             }
-            transaction = getGraphDatabaseService().beginTx();
+            transaction.set(getGraphDatabaseService().beginTx());
         }
 
         @Override
         public void commit() {
-            ensureTransaction();
-            transaction.success();
-            closeTransaction();
+            Transaction tx = ensureTransaction();
+            tx.success();
+            boolean committed = false;
+            try {
+                closeTransaction(tx);
+                committed = true;
+            } finally {
+                afterCompletion(committed);
+            }
         }
 
         @Override
         public void rollback() {
-            ensureTransaction();
-            transaction.failure();
-            closeTransaction();
+            Transaction tx = ensureTransaction();
+            tx.failure();
+            try {
+                closeTransaction(tx);
+            } finally {
+                afterCompletion(false);
+            }
         }
 
         @Override
         public boolean isActive() {
-            return transaction != null;
+            return transaction.get() != null;
         }
 
-        private void ensureTransaction() {
-            if (transaction == null) {
+        private Transaction ensureTransaction() {
+            Transaction tx = transaction.get();
+            if (tx == null) {
                 throw new XOException("There is no existing transaction.");
             }
+            return tx;
         }
 
-        private void closeTransaction() {
-            transaction.close();
-            transaction = null;
+        private void closeTransaction(Transaction tx) {
+            transaction.remove();
+            tx.close();
         }
     }
 
     private final DatastoreTransaction datastoreTransaction;
 
-    public EmbeddedNeo4jDatastoreSession(GraphDatabaseService graphDatabaseService) {
-        super(graphDatabaseService);
+    public EmbeddedNeo4jDatastoreSession(GraphDatabaseService graphDatabaseService, LabelIndex labelIndex, long labelCacheMaximumSize,
+            SharedLabelCache sharedLabelCache, boolean threadBound) {
+        super(graphDatabaseService, labelIndex, labelCacheMaximumSize, sharedLabelCache, threadBound);
         datastoreTransaction = new EmbeddedNeo4jDatastoreTransaction();
     }
 
@@ -78,7 +98,7 @@ public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession
         throw new XOException("Unsupported query language: " + queryLanguage.getName());
     }
 
-    public class EmbeddedNeo4jCypherQuery implements DatastoreQuery<Cypher> {
+    public class EmbeddedNeo4jCypherQuery implements DatastoreQuery<Cypher>, DatastoreRowQuery<Cypher> {
 
         @Override
         public ResultIterator<Map<String, Object>> execute(Cypher expression, Map<String, Object> parameters) {
@@ -87,25 +107,69 @@ public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession
 
         @Override
         public ResultIterator<Map<String, Object>> execute(String expression, Map<String, Object> parameters) {
-            Result executionResult = getGraphDatabaseService().execute(expression, convertParameters(parameters));
-            final List<String> columns = executionResult.columns();
+            final ResultIterator<DatastoreRow> iterator = executeRows(expression, parameters);
             return new ResultIterator<Map<String, Object>>() {
 
                 @Override
                 public boolean hasNext() {
-                    return executionResult.hasNext();
+                    return iterator.hasNext();
                 }
 
                 @Override
                 public Map<String, Object> next() {
-                    Map<String, Object> next = executionResult.next();
-                    Map<String, Object> result = new LinkedHashMap<>(next.size(), 1);
-                    for (String column : columns) {
-                        result.put(column, convertValue(next.get(column)));
+                    DatastoreRow row = iterator.next();
+                    DatastoreColumns columns = row.getColumns();
+                    Map<String, Object> result = new LinkedHashMap<>(columns.size(), 1);
+                    for (int i = 0; i < columns.size(); i++) {
+                        result.put(columns.getName(i), row.get(i));
                     }
                     return result;
                 }
 
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+
+                @Override
+                public void close() {
+                    iterator.close();
+                }
+            };
+        }
+
+        @Override
+        public ResultIterator<DatastoreRow> executeRows(Cypher expression, Map<String, Object> parameters) {
+            return executeRows(expression.value(), parameters);
+        }
+
+        @Override
+        public ResultIterator<DatastoreRow> executeRows(String expression, Map<String, Object> parameters) {
+            final Result executionResult = getGraphDatabaseService().execute(expression, convertParameters(parameters));
+            final DatastoreColumns columns = new DatastoreColumns(executionResult.columns());
+            return new ResultIterator<DatastoreRow>() {
+
+                @Override
+                public boolean hasNext() {
+                    return executionResult.hasNext();
+                }
+
+                @Override
+                public DatastoreRow next() {
+                    final Map<String, Object> next = executionResult.next();
+                    return new DatastoreRow() {
+                        @Override
+                        public DatastoreColumns getColumns() {
+                            return columns;
+                        }
+
+                        @Override
+                        public Object get(int index) {
+                            return convertValue(next.get(columns.getName(index)));
+                        }
+                    };
+                }
+
                 @Override
                 public void remove() {
                     throw new XOException("Remove operation is not supported for query results.");
@@ -1,13 +1,21 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
+import java.util.Properties;
+
 import org.neo4j.graphdb.GraphDatabaseService;
 
+import com.buschmais.xo.api.ConcurrencyMode;
+
 public class GraphDbNeo4jDatastore extends AbstractEmbeddedNeo4jDatastore {
 
     public GraphDbNeo4jDatastore(GraphDatabaseService graphDatabaseService) {
         super(graphDatabaseService);
     }
 
+    public GraphDbNeo4jDatastore(GraphDatabaseService graphDatabaseService, Properties properties, ConcurrencyMode concurrencyMode) {
+        super(graphDatabaseService, properties, concurrencyMode);
+    }
+
     @Override
     public void close() {
     }
@@ -0,0 +1,89 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.buschmais.xo.neo4j.api.model.Neo4jLabel;
+
+/**
+ * Assigns dense ids to labels which are used for representing sets of labels
+ * as bitsets (see {@link LabelSet}).
+ * <p>
+ * Only the labels of the registered types are assigned ids at initialization
+ * of the datastore, i.e. the index is bounded by the number of registered
+ * types. Other labels (e.g. added by queries or other applications) cannot be
+ * resolved to types and are not represented by label sets. Ids are never
+ * released.
+ * </p>
+ */
+public class LabelIndex {
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private volatile Neo4jLabel[] labels = new Neo4jLabel[0];
+
+    /**
+     * Return the id of a label.
+     *
+     * @param name
+     *            The name of the label.
+     * @return The id or -1 if the label is not known.
+     */
+    public int findId(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Return the id of a label.
+     * <p>
+     * The id assigned to a registered label instance (e.g. the label of an
+     * entity type) is taken from the instance, i.e. the name is not hashed.
+     * </p>
+     *
+     * @param label
+     *            The label.
+     * @return The id or -1 if the label is not known.
+     */
+    public int findId(Neo4jLabel label) {
+        int id = label.getIndex();
+        Neo4jLabel[] registeredLabels = labels;
+        if (id >= 0 && id < registeredLabels.length && registeredLabels[id] == label) {
+            return id;
+        }
+        return findId(label.getName());
+    }
+
+    /**
+     * Return the label for an id.
+     *
+     * @param id
+     *            The id.
+     * @return The label.
+     */
+    public Neo4jLabel getLabel(int id) {
+        return labels[id];
+    }
+
+    /**
+     * Register a label, the assigned id is also stored in the instance.
+     *
+     * @param label
+     *            The label.
+     * @return The id of the label.
+     */
+    public synchronized int register(Neo4jLabel label) {
+        Integer id = ids.get(label.getName());
+        if (id == null) {
+            id = labels.length;
+            Neo4jLabel[] registeredLabels = Arrays.copyOf(labels, id + 1);
+            registeredLabels[id] = label;
+            label.setIndex(id);
+            // Publish the label before its id.
+            labels = registeredLabels;
+            ids.put(label.getName(), id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,207 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.neo4j.graphdb.Label;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.api.model.Neo4jLabel;
+import com.buschmais.xo.spi.datastore.DiscriminatorSet;
+
+/**
+ * An immutable set of labels represented as bitset over the ids assigned by a
+ * {@link LabelIndex}.
+ * <p>
+ * Containment checks and comparisons with other label sets of the same index
+ * do not require hashing the labels.
+ * </p>
+ */
+public final class LabelSet extends AbstractSet<Neo4jLabel> implements DiscriminatorSet<Neo4jLabel> {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final LabelIndex labelIndex;
+
+    private final long[] bits;
+
+    private final int size;
+
+    private final int hashCode;
+
+    /**
+     * Constructor.
+     *
+     * @param labelIndex
+     *            The label index.
+     * @param bits
+     *            The bits, trailing empty words are removed.
+     */
+    private LabelSet(LabelIndex labelIndex, long[] bits) {
+        int length = bits.length;
+        while (length > 0 && bits[length - 1] == 0) {
+            length--;
+        }
+        this.labelIndex = labelIndex;
+        this.bits = length == bits.length ? bits : Arrays.copyOf(bits, length);
+        int size = 0;
+        int hashCode = 0;
+        for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+            size++;
+            hashCode += labelIndex.getLabel(id).hashCode();
+        }
+        this.size = size;
+        this.hashCode = hashCode;
+    }
+
+    /**
+     * Create a label set from the labels of a node, labels which are not
+     * registered in the index are ignored.
+     *
+     * @param labelIndex
+     *            The label index.
+     * @param labels
+     *            The labels.
+     * @return The label set.
+     */
+    public static LabelSet fromLabels(LabelIndex labelIndex, Iterable<Label> labels) {
+        long[] bits = EMPTY;
+        for (Label label : labels) {
+            int id = labelIndex.findId(label.name());
+            if (id >= 0) {
+                bits = set(bits, id);
+            }
+        }
+        return new LabelSet(labelIndex, bits);
+    }
+
+    /**
+     * Create a label set from a set of labels.
+     *
+     * @param labelIndex
+     *            The label index.
+     * @param labels
+     *            The labels.
+     * @return The label set, this is the given set if it is already a label
+     *         set using the same index.
+     * @throws XOException
+     *             If a label is not registered in the index.
+     */
+    public static LabelSet of(LabelIndex labelIndex, Set<Neo4jLabel> labels) {
+        if (labels instanceof LabelSet && ((LabelSet) labels).labelIndex == labelIndex) {
+            return (LabelSet) labels;
+        }
+        long[] bits = EMPTY;
+        for (Neo4jLabel label : labels) {
+            int id = labelIndex.findId(label);
+            if (id < 0) {
+                throw new XOException("Label '" + label.getName() + "' is not declared by a registered type.");
+            }
+            bits = set(bits, id);
+        }
+        return new LabelSet(labelIndex, bits);
+    }
+
+    /**
+     * Return the labels of this set which are not contained in another set.
+     *
+     * @param other
+     *            The other set, it must use the same label index.
+     * @return The difference.
+     */
+    public LabelSet without(LabelSet other) {
+        long[] difference = bits.clone();
+        for (int i = 0; i < Math.min(difference.length, other.bits.length); i++) {
+            difference[i] &= ~other.bits[i];
+        }
+        return new LabelSet(labelIndex, difference);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Neo4jLabel) {
+            int id = labelIndex.findId((Neo4jLabel) o);
+            return id >= 0 && isSet(id);
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<Neo4jLabel> iterator() {
+        return new Iterator<Neo4jLabel>() {
+
+            private int next = nextId(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Neo4jLabel next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                Neo4jLabel label = labelIndex.getLabel(next);
+                next = nextId(next + 1);
+                return label;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Label sets are immutable.");
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof LabelSet && ((LabelSet) o).labelIndex == labelIndex) {
+            return Arrays.equals(bits, ((LabelSet) o).bits);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    private boolean isSet(int id) {
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    private int nextId(int fromId) {
+        int word = fromId >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long remaining = bits[word] & (-1L << fromId);
+        while (remaining == 0) {
+            if (++word == bits.length) {
+                return -1;
+            }
+            remaining = bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static long[] set(long[] bits, int id) {
+        int word = id >>> 6;
+        long[] result = word < bits.length ? bits : Arrays.copyOf(bits, word + 1);
+        result[word] |= 1L << id;
+        return result;
+    }
+}
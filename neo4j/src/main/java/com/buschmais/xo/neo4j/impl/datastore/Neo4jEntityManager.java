@@ -1,14 +1,20 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
-import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Result;
 
+import com.buschmais.xo.api.CacheStatistics;
 import com.buschmais.xo.api.ResultIterator;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.neo4j.api.model.Neo4jLabel;
@@ -16,12 +22,16 @@ import com.buschmais.xo.neo4j.api.model.Neo4jNode;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.NodeMetadata;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreEntityManager;
+import com.buschmais.xo.spi.datastore.PropertyPredicate;
+import com.buschmais.xo.spi.datastore.PropertyPrefix;
+import com.buschmais.xo.spi.datastore.PropertyRange;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 import com.buschmais.xo.spi.metadata.method.IndexedPropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
 /**
  * Implementation of a
@@ -32,11 +42,55 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
 
     private final GraphDatabaseService graphDatabaseService;
 
-    private final Cache<Long, Set<Neo4jLabel>> labelCache;
+    private final LabelIndex labelIndex;
 
-    public Neo4jEntityManager(GraphDatabaseService graphDatabaseService) {
+    private final Cache<Long, LabelSet> labelCache;
+
+    private final SharedLabelCache sharedLabelCache;
+
+    /**
+     * The ids of the nodes whose labels have been modified by the current
+     * transaction, <code>null</code> if they are bound to threads.
+     */
+    private final Set<Long> modifiedNodes;
+
+    /**
+     * The ids of the nodes whose labels have been modified by the transaction
+     * of the current thread, <code>null</code> if they are shared.
+     */
+    private volatile ThreadLocal<Set<Long>> threadModifiedNodes;
+
+    private final AtomicLong sharedLabelCacheHits = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param graphDatabaseService
+     *            The graph database service.
+     * @param labelIndex
+     *            The label index.
+     * @param labelCacheMaximumSize
+     *            The maximum number of nodes whose labels are cached.
+     * @param sharedLabelCache
+     *            The {@link SharedLabelCache} or <code>null</code>.
+     * @param threadBound
+     *            <code>true</code> if the session is used by concurrent
+     *            threads.
+     */
+    public Neo4jEntityManager(GraphDatabaseService graphDatabaseService, LabelIndex labelIndex, long labelCacheMaximumSize,
+            SharedLabelCache sharedLabelCache, boolean threadBound) {
+        super(threadBound);
         this.graphDatabaseService = graphDatabaseService;
-        this.labelCache = CacheBuilder.newBuilder().maximumSize(256).build();
+        this.labelIndex = labelIndex;
+        this.labelCache = CacheBuilder.newBuilder().maximumSize(labelCacheMaximumSize).recordStats().build();
+        this.sharedLabelCache = sharedLabelCache;
+        if (threadBound) {
+            this.modifiedNodes = null;
+            this.threadModifiedNodes = newThreadModifiedNodes();
+        } else {
+            this.modifiedNodes = new HashSet<>();
+            this.threadModifiedNodes = null;
+        }
     }
 
     @Override
@@ -46,17 +100,75 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
 
     @Override
     public Set<Neo4jLabel> getEntityDiscriminators(Neo4jNode node) {
-        Set<Neo4jLabel> labels = labelCache.getIfPresent(node.getId());
+        long id = node.getId();
+        LabelSet labels = labelCache.getIfPresent(id);
         if (labels == null) {
-            labels = new ObjectOpenHashSet<>();
-            for (Label label : node.getLabels()) {
-                labels.add(new Neo4jLabel(label));
+            if (sharedLabelCache != null && !getModifiedNodes().contains(id)) {
+                labels = sharedLabelCache.get(id);
+                if (labels != null) {
+                    sharedLabelCacheHits.incrementAndGet();
+                } else {
+                    long generation = sharedLabelCache.getGeneration();
+                    labels = LabelSet.fromLabels(labelIndex, node.getLabels());
+                    sharedLabelCache.put(id, labels, generation);
+                }
+            } else {
+                labels = LabelSet.fromLabels(labelIndex, node.getLabels());
             }
-            labelCache.put(node.getId(), labels);
+            labelCache.put(id, labels);
         }
         return labels;
     }
 
+    /**
+     * Return the statistics of the label cache, lookups answered by the
+     * {@link SharedLabelCache} are counted as hits.
+     *
+     * @return The statistics.
+     */
+    public CacheStatistics getLabelCacheStatistics() {
+        CacheStats stats = labelCache.stats();
+        long sharedHits = sharedLabelCacheHits.get();
+        return new CacheStatistics(stats.hitCount() + sharedHits, stats.missCount() - sharedHits, stats.evictionCount(), labelCache.size());
+    }
+
+    /**
+     * Notify the entity manager about the completion of a transaction.
+     *
+     * @param committed
+     *            <code>true</code> if the transaction has been committed,
+     *            <code>false</code> if it has been rolled back.
+     */
+    public void afterCompletion(boolean committed) {
+        Set<Long> nodes = getModifiedNodes();
+        if (!nodes.isEmpty()) {
+            if (sharedLabelCache != null) {
+                sharedLabelCache.invalidate(nodes);
+            }
+            if (!committed) {
+                labelCache.invalidateAll(nodes);
+            }
+            nodes.clear();
+        }
+    }
+
+    /**
+     * Clear the state of the session, i.e. cached labels must not be used
+     * after the session has been reused as node ids may have been reused.
+     * <p>
+     * If the modified nodes are bound to threads the state of all threads is
+     * discarded.
+     * </p>
+     */
+    public void reset() {
+        labelCache.invalidateAll();
+        if (threadModifiedNodes != null) {
+            threadModifiedNodes = newThreadModifiedNodes();
+        } else {
+            modifiedNodes.clear();
+        }
+    }
+
     @Override
     public Long getEntityId(Neo4jNode entity) {
         return Long.valueOf(entity.getId());
@@ -65,14 +177,36 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
     @Override
     public Neo4jNode createEntity(TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> types, Set<Neo4jLabel> discriminators,
             Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
+        LabelSet labelSet = LabelSet.of(labelIndex, discriminators);
+        return createNode(getLabels(labelSet), labelSet, example);
+    }
+
+    @Override
+    public List<Neo4jNode> createEntities(TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> types, Set<Neo4jLabel> discriminators,
+            List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        LabelSet labelSet = LabelSet.of(labelIndex, discriminators);
+        Label[] labels = getLabels(labelSet);
+        List<Neo4jNode> nodes = new ArrayList<>(examples.size());
+        for (Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example : examples) {
+            nodes.add(createNode(labels, labelSet, example));
+        }
+        return nodes;
+    }
+
+    private Label[] getLabels(LabelSet discriminators) {
         Label[] labels = new Label[discriminators.size()];
         int i = 0;
         for (Neo4jLabel discriminator : discriminators) {
             labels[i++] = discriminator.getLabel();
         }
+        return labels;
+    }
+
+    private Neo4jNode createNode(Label[] labels, LabelSet discriminators, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
         Neo4jNode node = new Neo4jNode(graphDatabaseService.createNode(labels));
         setProperties(node, example);
         labelCache.put(node.getId(), discriminators);
+        getModifiedNodes().add(node.getId());
         return node;
     }
 
@@ -80,6 +214,7 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
     public void deleteEntity(Neo4jNode entity) {
         entity.delete();
         labelCache.invalidate(entity.getId());
+        getModifiedNodes().add(entity.getId());
     }
 
     @Override
@@ -90,11 +225,57 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
     @Override
     public ResultIterator<Neo4jNode> findEntity(EntityTypeMetadata<NodeMetadata> entityTypeMetadata, Neo4jLabel discriminator,
             Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> values) {
-        if (values.size() > 1) {
-            throw new XOException("Only one property value is supported for find operation");
+        if (values.isEmpty()) {
+            throw new XOException("At least one property value or condition is required for find operation.");
+        }
+        if (values.size() == 1) {
+            Map.Entry<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> entry = values.entrySet().iterator().next();
+            Object value = entry.getValue();
+            if (!(value instanceof PropertyPredicate)) {
+                PropertyMetadata propertyMetadata = getPropertyMetadata(entityTypeMetadata, entry.getKey());
+                return getNodes(graphDatabaseService.findNodes(discriminator.getLabel(), propertyMetadata.getName(), value));
+            }
         }
-        Map.Entry<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> entry = values.entrySet().iterator().next();
-        PrimitivePropertyMethodMetadata<PropertyMetadata> propertyMethodMetadata = entry.getKey();
+        // Conjunctions and predicates are executed as Cypher query, the planner
+        // selects the most selective index and filters the remaining properties.
+        StringBuilder expression = new StringBuilder("MATCH (n:").append(escape(discriminator.getLabel().name())).append(')');
+        Map<String, Object> parameters = new HashMap<>();
+        for (Map.Entry<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> entry : values.entrySet()) {
+            String property = "n." + escape(getPropertyMetadata(entityTypeMetadata, entry.getKey()).getName());
+            Object value = entry.getValue();
+            if (value instanceof PropertyRange) {
+                PropertyRange range = (PropertyRange) value;
+                if (range.getLower() != null) {
+                    addCondition(expression, property, range.isLowerInclusive() ? ">=" : ">", range.getLower(), parameters);
+                }
+                if (range.getUpper() != null) {
+                    addCondition(expression, property, range.isUpperInclusive() ? "<=" : "<", range.getUpper(), parameters);
+                }
+            } else if (value instanceof PropertyPrefix) {
+                addCondition(expression, property, "STARTS WITH", ((PropertyPrefix) value).getPrefix(), parameters);
+            } else if (value instanceof PropertyPredicate) {
+                throw new XOException("Unsupported predicate " + value);
+            } else {
+                addCondition(expression, property, "=", value, parameters);
+            }
+        }
+        expression.append(" RETURN n");
+        Result result = graphDatabaseService.execute(expression.toString(), parameters);
+        return getNodes(result.<Node> columnAs("n"));
+    }
+
+    /**
+     * Return the metadata of a property used for a find operation.
+     *
+     * @param entityTypeMetadata
+     *            The entity type.
+     * @param propertyMethodMetadata
+     *            The property or <code>null</code> for the indexed property of
+     *            the entity type.
+     * @return The property metadata.
+     */
+    private PropertyMetadata getPropertyMetadata(EntityTypeMetadata<NodeMetadata> entityTypeMetadata,
+            PrimitivePropertyMethodMetadata<PropertyMetadata> propertyMethodMetadata) {
         if (propertyMethodMetadata == null) {
             IndexedPropertyMethodMetadata<?> indexedProperty = entityTypeMetadata.getDatastoreMetadata().getUsingIndexedPropertyOf();
             if (indexedProperty == null) {
@@ -102,9 +283,34 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
             }
             propertyMethodMetadata = indexedProperty.getPropertyMethodMetadata();
         }
-        PropertyMetadata propertyMetadata = propertyMethodMetadata.getDatastoreMetadata();
-        Object value = entry.getValue();
-        ResourceIterator<Node> iterator = graphDatabaseService.findNodes(discriminator.getLabel(), propertyMetadata.getName(), value);
+        return propertyMethodMetadata.getDatastoreMetadata();
+    }
+
+    private void addCondition(StringBuilder expression, String property, String operator, Object value, Map<String, Object> parameters) {
+        String parameter = "p" + parameters.size();
+        parameters.put(parameter, value);
+        expression.append(parameters.size() == 1 ? " WHERE " : " AND ").append(property).append(' ').append(operator).append(" {").append(parameter)
+                .append('}');
+    }
+
+    private String escape(String name) {
+        return '`' + name.replace("`", "``") + '`';
+    }
+
+    private ThreadLocal<Set<Long>> newThreadModifiedNodes() {
+        return new ThreadLocal<Set<Long>>() {
+            @Override
+            protected Set<Long> initialValue() {
+                return new HashSet<>();
+            }
+        };
+    }
+
+    private Set<Long> getModifiedNodes() {
+        return modifiedNodes != null ? modifiedNodes : threadModifiedNodes.get();
+    }
+
+    private ResultIterator<Neo4jNode> getNodes(final ResourceIterator<Node> iterator) {
         return new ResultIterator<Neo4jNode>() {
             @Override
             public boolean hasNext() {
@@ -131,15 +337,22 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
     @Override
     public void migrateEntity(Neo4jNode entity, TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> types, Set<Neo4jLabel> discriminators,
             TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> targetTypes, Set<Neo4jLabel> targetDiscriminators) {
-        Set<Neo4jLabel> labelsToRemove = new ObjectOpenHashSet<>(discriminators);
-        labelsToRemove.removeAll(targetDiscriminators);
-        for (Neo4jLabel label : labelsToRemove) {
-            entity.removeLabel(label.getLabel());
+        LabelSet labels = LabelSet.of(labelIndex, discriminators);
+        LabelSet targetLabels = LabelSet.of(labelIndex, targetDiscriminators);
+        // Labels which are not registered are not contained in the discriminators, so the labels of the node are used.
+        List<Label> labelsToRemove = new ArrayList<>();
+        for (Label label : entity.getLabels()) {
+            int id = labelIndex.findId(label.name());
+            if (id < 0 || !targetLabels.contains(labelIndex.getLabel(id))) {
+                labelsToRemove.add(label);
+            }
         }
-        Set<Neo4jLabel> labelsToAdd = new ObjectOpenHashSet<>(targetDiscriminators);
-        labelsToAdd.removeAll(discriminators);
-        addDiscriminators(entity, labelsToAdd);
-        labelCache.put(entity.getId(), targetDiscriminators);
+        for (Label label : labelsToRemove) {
+            entity.removeLabel(label);
+        }
+        addDiscriminators(entity, targetLabels.without(labels));
+        labelCache.put(entity.getId(), targetLabels);
+        getModifiedNodes().add(entity.getId());
     }
 
     @Override
@@ -148,6 +361,7 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
             node.addLabel(label.getLabel());
         }
         labelCache.invalidate(node.getId());
+        getModifiedNodes().add(node.getId());
     }
 
     @Override
@@ -156,12 +370,12 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Neo4jNode>
             node.removeLabel(label.getLabel());
         }
         labelCache.invalidate(node.getId());
+        getModifiedNodes().add(node.getId());
     }
 
     @Override
     public void flushEntity(Neo4jNode node) {
         node.flush();
-        labelCache.invalidate(node.getId());
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.neo4j.graphdb.DynamicRelationshipType;
@@ -25,6 +26,11 @@ import com.google.common.base.CaseFormat;
  */
 public class Neo4jMetadataFactory implements DatastoreMetadataFactory<NodeMetadata, Neo4jLabel, RelationshipMetadata, RelationshipType> {
 
+    /**
+     * The slots assigned to property names by declaring type.
+     */
+    private final Map<Class<?>, Map<String, Integer>> slots = new HashMap<>();
+
     @Override
     public NodeMetadata createEntityMetadata(AnnotatedType annotatedType, Map<Class<?>, TypeMetadata> metadataByType) {
         Label labelAnnotation = annotatedType.getAnnotation(Label.class);
@@ -64,7 +70,7 @@ public class Neo4jMetadataFactory implements DatastoreMetadataFactory<NodeMetada
     public PropertyMetadata createPropertyMetadata(PropertyMethod propertyMethod) {
         Property property = propertyMethod.getAnnotationOfProperty(Property.class);
         String name = property != null ? property.value() : propertyMethod.getName();
-        return new PropertyMetadata(name);
+        return new PropertyMetadata(name, getSlot(propertyMethod.getAnnotatedElement().getDeclaringClass(), name));
     }
 
     @Override
@@ -94,4 +100,28 @@ public class Neo4jMetadataFactory implements DatastoreMetadataFactory<NodeMetada
         RelationshipType relationshipType = new RelationshipType(DynamicRelationshipType.withName(name));
         return new RelationshipMetadata(relationshipType);
     }
+
+    /**
+     * Return the slot for a property name, the slots of the properties
+     * declared by a type are dense, i.e. they start at 0.
+     *
+     * @param declaringType
+     *            The type declaring the property.
+     * @param name
+     *            The name.
+     * @return The slot.
+     */
+    private synchronized int getSlot(Class<?> declaringType, String name) {
+        Map<String, Integer> slotsOfType = slots.get(declaringType);
+        if (slotsOfType == null) {
+            slotsOfType = new HashMap<>();
+            slots.put(declaringType, slotsOfType);
+        }
+        Integer slot = slotsOfType.get(name);
+        if (slot == null) {
+            slot = slotsOfType.size();
+            slotsOfType.put(name, slot);
+        }
+        return slot;
+    }
 }
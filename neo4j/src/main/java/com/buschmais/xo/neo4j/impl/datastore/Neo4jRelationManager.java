@@ -1,11 +1,21 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.PathExpanderBuilder;
 import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.traversal.Evaluators;
+import org.neo4j.graphdb.traversal.TraversalDescription;
+import org.neo4j.graphdb.traversal.Uniqueness;
 
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.neo4j.api.model.Neo4jNode;
@@ -31,8 +41,12 @@ public class Neo4jRelationManager extends AbstractNeo4jPropertyManager<Neo4jRela
      * 
      * @param graphDatabaseService
      *            The graph database service.
+     * @param threadBound
+     *            <code>true</code> if the session is used by concurrent
+     *            threads.
      */
-    public Neo4jRelationManager(GraphDatabaseService graphDatabaseService) {
+    public Neo4jRelationManager(GraphDatabaseService graphDatabaseService, boolean threadBound) {
+        super(threadBound);
         this.graphDatabaseService = graphDatabaseService;
     }
 
@@ -64,6 +78,29 @@ public class Neo4jRelationManager extends AbstractNeo4jPropertyManager<Neo4jRela
         return relationship;
     }
 
+    @Override
+    public List<Neo4jRelationship> createRelations(List<Neo4jNode> sources, RelationTypeMetadata<RelationshipMetadata> metadata,
+            RelationTypeMetadata.Direction direction, List<Neo4jNode> targets, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        RelationshipType relationshipType = metadata.getDatastoreMetadata().getDiscriminator();
+        List<Neo4jRelationship> relationships = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            Neo4jRelationship relationship;
+            switch (direction) {
+            case FROM:
+                relationship = new Neo4jRelationship(sources.get(i).createRelationshipTo(targets.get(i), relationshipType));
+                break;
+            case TO:
+                relationship = new Neo4jRelationship(targets.get(i).createRelationshipTo(sources.get(i), relationshipType));
+                break;
+            default:
+                throw new XOException("Unsupported direction " + direction);
+            }
+            setProperties(relationship, examples.get(i));
+            relationships.add(relationship);
+        }
+        return relationships;
+    }
+
     @Override
     public void deleteRelation(Neo4jRelationship relationship) {
         relationship.delete();
@@ -124,6 +161,64 @@ public class Neo4jRelationManager extends AbstractNeo4jPropertyManager<Neo4jRela
         };
     }
 
+    @Override
+    public Iterable<Neo4jRelationship> getReachableRelations(Neo4jNode source,
+            Map<RelationTypeMetadata<RelationshipMetadata>, Set<RelationTypeMetadata.Direction>> types, int depth) {
+        Map<RelationshipType, Direction> directions = new HashMap<>();
+        for (Map.Entry<RelationTypeMetadata<RelationshipMetadata>, Set<RelationTypeMetadata.Direction>> entry : types.entrySet()) {
+            RelationshipType relationshipType = entry.getKey().getDatastoreMetadata().getDiscriminator();
+            for (RelationTypeMetadata.Direction direction : entry.getValue()) {
+                Direction current = directions.get(relationshipType);
+                Direction neo4jDirection = getDirection(direction);
+                directions.put(relationshipType, current == null || current == neo4jDirection ? neo4jDirection : Direction.BOTH);
+            }
+        }
+        PathExpanderBuilder expander = PathExpanderBuilder.empty();
+        for (Map.Entry<RelationshipType, Direction> entry : directions.entrySet()) {
+            expander = expander.add(entry.getKey(), entry.getValue());
+        }
+        // Each relationship is traversed once, i.e. it is the last relationship of exactly one path.
+        TraversalDescription traversal = graphDatabaseService.traversalDescription().breadthFirst().expand(expander.build())
+                .uniqueness(Uniqueness.RELATIONSHIP_GLOBAL).evaluator(Evaluators.toDepth(depth));
+        List<Neo4jRelationship> relationships = new ArrayList<>();
+        for (Path path : traversal.traverse(source)) {
+            Relationship relationship = path.lastRelationship();
+            if (relationship != null) {
+                relationships.add(new Neo4jRelationship(relationship));
+            }
+        }
+        return relationships;
+    }
+
+    @Override
+    public long getRelationCount(Neo4jNode source, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction) {
+        return source.getDegree(metadata.getDatastoreMetadata().getDiscriminator(), getDirection(direction));
+    }
+
+    @Override
+    public boolean hasRelation(Neo4jNode source, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction,
+            Neo4jNode target) {
+        RelationshipType relationshipType = metadata.getDatastoreMetadata().getDiscriminator();
+        Direction sourceDirection = getDirection(direction);
+        Direction targetDirection = sourceDirection.reverse();
+        // Scan the relationships of the node with the lower degree.
+        if (source.getDegree(relationshipType, sourceDirection) <= target.getDegree(relationshipType, targetDirection)) {
+            return hasRelationship(source, relationshipType, sourceDirection, target);
+        }
+        return hasRelationship(target, relationshipType, targetDirection, source);
+    }
+
+    private boolean hasRelationship(Neo4jNode node, RelationshipType relationshipType, Direction direction, Neo4jNode other) {
+        long otherId = other.getId();
+        for (Relationship relationship : node.getRelationships(relationshipType, direction)) {
+            Node otherNode = direction == Direction.OUTGOING ? relationship.getEndNode() : relationship.getStartNode();
+            if (otherNode.getId() == otherId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public Neo4jNode getFrom(Neo4jRelationship relationship) {
         return new Neo4jNode(relationship.getStartNode());
@@ -0,0 +1,85 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A cache for the labels of nodes which is shared by all sessions of a
+ * datastore.
+ * <p>
+ * Labels must only be stored if they represent committed state. Invalidations
+ * increase a generation counter, the generation must be obtained before the
+ * labels are read from the datastore, the labels are only stored if no
+ * invalidation happened in the meantime.
+ * </p>
+ */
+public class SharedLabelCache {
+
+    private final Cache<Long, LabelSet> cache;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize
+     *            The maximum number of cached nodes.
+     */
+    public SharedLabelCache(long maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Return the current generation, must be called before reading labels
+     * from the datastore.
+     *
+     * @return The generation.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Return the cached labels of a node.
+     *
+     * @param id
+     *            The id of the node.
+     * @return The labels or <code>null</code> if they are not cached.
+     */
+    public LabelSet get(long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Store the labels of a node.
+     *
+     * @param id
+     *            The id of the node.
+     * @param labels
+     *            The labels.
+     * @param generation
+     *            The generation obtained before the labels have been read.
+     */
+    public void put(long id, LabelSet labels, long generation) {
+        if (this.generation.get() == generation) {
+            cache.put(id, labels);
+            if (this.generation.get() != generation) {
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the labels of the given nodes.
+     *
+     * @param ids
+     *            The ids of the nodes.
+     */
+    public void invalidate(Collection<Long> ids) {
+        generation.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+}
@@ -4,11 +4,28 @@ public class PropertyMetadata {
 
     private final String name;
 
-    public PropertyMetadata(String name) {
+    private final int slot;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            The name of the property.
+     * @param slot
+     *            The preferred slot which holds buffered values of the
+     *            property, the slots of the properties declared by a type
+     *            are dense.
+     */
+    public PropertyMetadata(String name, int slot) {
         this.name = name;
+        this.slot = slot;
     }
 
     public String getName() {
         return name;
     }
+
+    public int getSlot() {
+        return slot;
+    }
 }
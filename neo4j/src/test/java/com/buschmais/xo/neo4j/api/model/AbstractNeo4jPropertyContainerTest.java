@@ -0,0 +1,188 @@
+package com.buschmais.xo.neo4j.api.model;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
+
+public class AbstractNeo4jPropertyContainerTest {
+
+    private GraphDatabaseService graphDatabaseService;
+
+    private Transaction transaction;
+
+    private final List<String> writes = new ArrayList<>();
+
+    @Before
+    public void createDatabase() {
+        graphDatabaseService = new TestGraphDatabaseFactory().newImpermanentDatabase();
+        transaction = graphDatabaseService.beginTx();
+    }
+
+    @After
+    public void shutdownDatabase() {
+        transaction.close();
+        graphDatabaseService.shutdown();
+    }
+
+    @Test
+    public void unchangedValueIsNotWritten() {
+        PropertyMetadata value = new PropertyMetadata("value", 0);
+        Neo4jNode node = createNode("value", 1);
+        assertThat(node.setProperty(value, 1), equalTo(false));
+        node.flush();
+        assertThat(writes, empty());
+        assertThat(node.setProperty(value, 2), equalTo(true));
+        node.flush();
+        assertThat(writes, equalTo(Arrays.asList("value")));
+        assertThat(node.setProperty(value, 2), equalTo(false));
+        node.flush();
+        assertThat(writes, equalTo(Arrays.asList("value")));
+    }
+
+    @Test
+    public void valueSetBackToOriginalIsNotWritten() {
+        PropertyMetadata value = new PropertyMetadata("value", 0);
+        PropertyMetadata name = new PropertyMetadata("name", 1);
+        Neo4jNode node = createNode("value", 1);
+        assertThat(node.getProperty(value), equalTo((Object) 1));
+        assertThat(node.setProperty(value, 2), equalTo(true));
+        assertThat(node.getProperty(value), equalTo((Object) 2));
+        assertThat(node.setProperty(value, 1), equalTo(false));
+        assertThat(node.setProperty(name, "a"), equalTo(true));
+        node.flush();
+        assertThat(writes, equalTo(Arrays.asList("name")));
+        assertThat(node.getProperty(value), equalTo((Object) 1));
+        assertThat(node.getProperty("name"), equalTo((Object) "a"));
+    }
+
+    @Test
+    public void removedValueIsWrittenAgain() {
+        PropertyMetadata value = new PropertyMetadata("value", 0);
+        Neo4jNode node = createNode("value", 1);
+        assertThat(node.getProperty(value), equalTo((Object) 1));
+        node.removeProperty(value);
+        assertThat(node.hasProperty(value), equalTo(false));
+        assertThat(node.setProperty(value, 1), equalTo(true));
+        node.flush();
+        assertThat(writes, equalTo(Arrays.asList("value")));
+        assertThat(node.hasProperty("value"), equalTo(true));
+    }
+
+    @Test
+    public void propertiesOfDifferentTypesWithCollidingSlots() {
+        PropertyMetadata name = new PropertyMetadata("name", 0);
+        PropertyMetadata value = new PropertyMetadata("value", 0);
+        Neo4jNode node = createNode("value", 1);
+        assertThat(node.setProperty(name, "a"), equalTo(true));
+        assertThat(node.getProperty(value), equalTo((Object) 1));
+        assertThat(node.setProperty(value, 2), equalTo(true));
+        assertThat(node.getProperty(name), equalTo((Object) "a"));
+        assertThat(node.getProperty(value), equalTo((Object) 2));
+        node.flush();
+        assertThat(writes, equalTo(Arrays.asList("name", "value")));
+        assertThat(node.getProperty("name"), equalTo((Object) "a"));
+        assertThat(node.getProperty("value"), equalTo((Object) 2));
+    }
+
+    @Test
+    public void probingWrapsAroundAndSurvivesGrowing() {
+        PropertyMetadata a = new PropertyMetadata("a", 3);
+        PropertyMetadata b = new PropertyMetadata("b", 3);
+        PropertyMetadata c = new PropertyMetadata("c", 1);
+        PropertyMetadata d = new PropertyMetadata("d", 0);
+        PropertyMetadata e = new PropertyMetadata("e", 6);
+        Neo4jNode node = createNode("value", 1);
+        node.setProperty(a, "a");
+        node.setProperty(b, "b");
+        node.setProperty(c, "c");
+        node.setProperty(d, "d");
+        node.setProperty(e, "e");
+        assertThat(node.getProperty(a), equalTo((Object) "a"));
+        assertThat(node.getProperty(b), equalTo((Object) "b"));
+        assertThat(node.getProperty(c), equalTo((Object) "c"));
+        assertThat(node.getProperty(d), equalTo((Object) "d"));
+        assertThat(node.getProperty(e), equalTo((Object) "e"));
+        node.flush();
+        assertThat(writes.size(), equalTo(5));
+        for (String key : Arrays.asList("a", "b", "c", "d", "e")) {
+            assertThat(node.getProperty(key), equalTo((Object) key));
+        }
+    }
+
+    @Test
+    public void typesSharingAPropertyNameWithDifferentSlots() {
+        PropertyMetadata nameOfA = new PropertyMetadata("name", 0);
+        PropertyMetadata valueOfA = new PropertyMetadata("value", 1);
+        PropertyMetadata nameOfB = new PropertyMetadata("name", 1);
+        Neo4jNode node = createNode("value", 1);
+        assertThat(node.getProperty(valueOfA), equalTo((Object) 1));
+        assertThat(node.setProperty(nameOfA, "a"), equalTo(true));
+        assertThat(node.getProperty(nameOfB), equalTo((Object) "a"));
+        assertThat(node.setProperty(nameOfB, "b"), equalTo(true));
+        assertThat(node.getProperty(nameOfA), equalTo((Object) "b"));
+        assertThat(node.getProperty(valueOfA), equalTo((Object) 1));
+        node.flush();
+        assertThat(writes, equalTo(Arrays.asList("name")));
+        assertThat(node.getProperty("name"), equalTo((Object) "b"));
+    }
+
+    @Test
+    public void readByNameThroughBuffers() {
+        PropertyMetadata value = new PropertyMetadata("value", 0);
+        PropertyMetadata name = new PropertyMetadata("name", 1);
+        Neo4jNode node = createNode("value", 1);
+        node.setProperty(value, 2);
+        node.setProperty(name, "a");
+        assertThat(node.hasProperty("name"), equalTo(true));
+        assertThat(node.getProperty("name"), equalTo((Object) "a"));
+        assertThat(node.getProperty("value"), equalTo((Object) 2));
+        assertThat(writes, empty());
+        node.setProperty("value", 3);
+        assertThat(node.getProperty(value), equalTo((Object) 3));
+        assertThat(node.removeProperty("name"), equalTo((Object) "a"));
+        assertThat(node.hasProperty(name), equalTo(false));
+        node.flush();
+        assertThat(writes, equalTo(Arrays.asList("value")));
+    }
+
+    /**
+     * Create a node with a property and wrap it such that property writes to
+     * the datastore are recorded.
+     */
+    private Neo4jNode createNode(String key, Object value) {
+        final Node node = graphDatabaseService.createNode();
+        node.setProperty(key, value);
+        Node recordingNode = (Node) Proxy.newProxyInstance(Node.class.getClassLoader(), new Class<?>[] { Node.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("setProperty".equals(method.getName())) {
+                    writes.add((String) args[0]);
+                }
+                try {
+                    return method.invoke(node, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+        return new Neo4jNode(recordingNode);
+    }
+}
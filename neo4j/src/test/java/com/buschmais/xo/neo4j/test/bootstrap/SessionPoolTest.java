@@ -0,0 +1,162 @@
+package com.buschmais.xo.neo4j.test.bootstrap;
+
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.annotation.PostLoad;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.api.bootstrap.XOUnitProperty;
+import com.buschmais.xo.neo4j.api.Neo4jDatastoreSession;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.bootstrap.composite.A;
+
+@RunWith(Parameterized.class)
+public class SessionPoolTest extends AbstractNeo4jXOManagerTest {
+
+    public SessionPoolTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return Arrays.<Object[]> asList(new Object[] { XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class)
+                .property(XOUnitProperty.SESSION_POOL_MAXIMUM_SIZE.getKey(), "1").create() });
+    }
+
+    @Test
+    public void reuseClosedSession() {
+        XOManager xoManager = getXoManagerFactory().createXOManager();
+        Object datastoreSession = xoManager.getDatastoreSession(Object.class);
+        Listener listener = new Listener();
+        xoManager.registerInstanceListener(listener);
+        xoManager.currentTransaction().begin();
+        xoManager.create(A.class).setName("a");
+        xoManager.currentTransaction().commit();
+        xoManager.close();
+
+        XOManager pooledXOManager = getXoManagerFactory().createXOManager();
+        assertThat(pooledXOManager.getDatastoreSession(Object.class), sameInstance(datastoreSession));
+        assertThat(pooledXOManager.getEntityCacheStatistics().getSize(), equalTo(0L));
+        pooledXOManager.currentTransaction().begin();
+        A a = pooledXOManager.find(A.class, "a").getSingleResult();
+        assertThat(a.getName(), equalTo("a"));
+        pooledXOManager.currentTransaction().commit();
+        assertThat(listener.loaded.isEmpty(), equalTo(true));
+        pooledXOManager.close();
+    }
+
+    @Test
+    public void maximumSize() {
+        XOManager xoManager1 = getXoManagerFactory().createXOManager();
+        XOManager xoManager2 = getXoManagerFactory().createXOManager();
+        Object datastoreSession1 = xoManager1.getDatastoreSession(Object.class);
+        Object datastoreSession2 = xoManager2.getDatastoreSession(Object.class);
+        xoManager1.close();
+        xoManager2.close();
+
+        XOManager pooledXOManager = getXoManagerFactory().createXOManager();
+        XOManager newXOManager = getXoManagerFactory().createXOManager();
+        assertThat(pooledXOManager.getDatastoreSession(Object.class), sameInstance(datastoreSession1));
+        assertThat(newXOManager.getDatastoreSession(Object.class), not(sameInstance(datastoreSession2)));
+        pooledXOManager.close();
+        newXOManager.close();
+    }
+
+    @Test
+    public void closedSession() {
+        XOManager otherXOManager = getXoManagerFactory().createXOManager();
+        otherXOManager.currentTransaction().begin();
+        otherXOManager.create(A.class).setName("a");
+        otherXOManager.currentTransaction().commit();
+        XOManager xoManager = getXoManagerFactory().createXOManager();
+        xoManager.currentTransaction().begin();
+        xoManager.find(A.class, "a").getSingleResult();
+        xoManager.currentTransaction().commit();
+        assertThat(xoManager.getDatastoreSession(Neo4jDatastoreSession.class).getLabelCacheStatistics().getSize(), greaterThan(0L));
+        xoManager.close();
+        // closing twice must not return the session to the pool twice
+        xoManager.close();
+        otherXOManager.close();
+
+        XOManager pooledXOManager = getXoManagerFactory().createXOManager();
+        XOManager newXOManager = getXoManagerFactory().createXOManager();
+        assertThat(newXOManager.getDatastoreSession(Object.class), not(sameInstance(pooledXOManager.getDatastoreSession(Object.class))));
+        assertThat(pooledXOManager.getDatastoreSession(Neo4jDatastoreSession.class).getLabelCacheStatistics().getSize(), equalTo(0L));
+        try {
+            xoManager.currentTransaction();
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        pooledXOManager.close();
+        newXOManager.close();
+    }
+
+    @Test
+    public void outstandingHandles() {
+        XOManager xoManager = getXoManagerFactory().createXOManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.getChildren().add(xoManager.create(A.class));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        List<A> children = a.getChildren();
+        Query<A> query = xoManager.createQuery("MATCH (a:A) RETURN a", A.class);
+        Query.Result<A> result = xoManager.createQuery("MATCH (a:A) RETURN a", A.class).execute();
+        xoManager.currentTransaction().commit();
+        xoManager.close();
+
+        XOManager pooledXOManager = getXoManagerFactory().createXOManager();
+        pooledXOManager.currentTransaction().begin();
+        try {
+            query.execute();
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        try {
+            result.iterator();
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        try {
+            children.size();
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        try {
+            xoManager.createQuery("MATCH (a:A) RETURN a");
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        assertThat(pooledXOManager.createQuery("MATCH (a:A) RETURN a", A.class).execute().iterator().hasNext(), equalTo(true));
+        pooledXOManager.currentTransaction().commit();
+        pooledXOManager.close();
+    }
+
+    public static class Listener {
+
+        private final List<Object> loaded = new ArrayList<>();
+
+        @PostLoad
+        public void postLoad(Object instance) {
+            loaded.add(instance);
+        }
+    }
+}
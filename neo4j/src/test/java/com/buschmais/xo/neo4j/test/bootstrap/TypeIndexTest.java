@@ -0,0 +1,71 @@
+package com.buschmais.xo.neo4j.test.bootstrap;
+
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.api.bootstrap.XOUnitProperty;
+import com.buschmais.xo.impl.bootstrap.TypeIndex;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.bootstrap.composite.A;
+import com.buschmais.xo.neo4j.test.bootstrap.composite.B;
+import com.buschmais.xo.neo4j.test.bootstrap.composite.B2B;
+
+/**
+ * Verifies registration of types using the type index
+ * (src/test/resources/META-INF/xo/types) and preloading of proxy classes.
+ */
+@RunWith(Parameterized.class)
+public class TypeIndexTest extends AbstractNeo4jXOManagerTest {
+
+    public TypeIndexTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return Arrays.asList(new Object[] { xoUnit("jdk") }, new Object[] { xoUnit("bytecode") });
+    }
+
+    private static XOUnit xoUnit(String proxyEngine) {
+        return XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class).property(XOUnitProperty.TYPE_INDEX.getKey(), "true")
+                .property(XOUnitProperty.PROXY_PRELOAD.getKey(), "true").property(XOUnitProperty.PROXY_ENGINE.getKey(), proxyEngine).create();
+    }
+
+    @Test
+    public void indexedTypes() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setName("a");
+        B b1 = xoManager.create(B.class);
+        B b2 = xoManager.create(B.class);
+        B2B b2b = xoManager.create(b1, B2B.class, b2);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(b1.getOutgoingB2B(), equalTo(b2b));
+        assertThat(b2.getIncomingB2B(), equalTo(b2b));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void indexIsReadOncePerClassLoader() {
+        ClassLoader classLoader = TypeIndexTest.class.getClassLoader();
+        Set<Class<?>> types = TypeIndex.getTypes(classLoader);
+        assertThat(types, hasItems(B.class, B2B.class));
+        assertThat(TypeIndex.getTypes(classLoader), sameInstance(types));
+    }
+}
@@ -2,6 +2,9 @@ package com.buschmais.xo.neo4j.test.bootstrap.composite;
 
 import com.buschmais.xo.neo4j.api.annotation.Indexed;
 import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+import java.util.List;
 
 @Label("A")
 public interface A {
@@ -10,4 +13,7 @@ public interface A {
     String getName();
 
     void setName(String name);
+
+    @Relation("HAS_CHILD")
+    List<A> getChildren();
 }
@@ -0,0 +1,66 @@
+package com.buschmais.xo.neo4j.test.cache;
+
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.CacheStatistics;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.api.bootstrap.XOUnitProperty;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.cache.composite.A;
+
+@RunWith(Parameterized.class)
+public class CacheTest extends AbstractNeo4jXOManagerTest {
+
+    public CacheTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return Arrays.<Object[]> asList(new Object[] { XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class)
+                .property(XOUnitProperty.CACHE_VALUES.getKey(), "soft").property(XOUnitProperty.ENTITY_CACHE_MAXIMUM_SIZE.getKey(), "5").create() });
+    }
+
+    @Test
+    public void boundedCache() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            A a = xoManager.create(A.class);
+            a.setIndex(i);
+            ids.add(xoManager.getId(a));
+        }
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        // an instance which is referenced must not be replaced by eviction
+        A first = xoManager.findById(A.class, ids.get(0));
+        for (Object id : ids) {
+            xoManager.findById(A.class, id);
+        }
+        CacheStatistics statistics = xoManager.getEntityCacheStatistics();
+        assertThat(statistics.getEvictions(), greaterThan(0L));
+        assertThat(xoManager.findById(A.class, ids.get(0)), sameInstance(first));
+        A a = xoManager.findById(A.class, ids.get(19));
+        assertThat(xoManager.findById(A.class, ids.get(19)), sameInstance(a));
+        assertThat(a.getIndex(), equalTo(19));
+        assertThat(xoManager.getEntityCacheStatistics().getHits(), greaterThan(statistics.getHits()));
+        assertThat(xoManager.getRelationCacheStatistics().getSize(), equalTo(0L));
+        xoManager.currentTransaction().commit();
+    }
+}
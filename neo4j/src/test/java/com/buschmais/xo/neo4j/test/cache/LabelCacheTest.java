@@ -0,0 +1,132 @@
+package com.buschmais.xo.neo4j.test.cache;
+
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.CacheStatistics;
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.bootstrap.XO;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.neo4j.api.Neo4jDatastoreSession;
+import com.buschmais.xo.neo4j.api.Neo4jXOUnitProperty;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.cache.composite.A;
+import com.buschmais.xo.neo4j.test.cache.composite.B;
+
+@RunWith(Parameterized.class)
+public class LabelCacheTest extends AbstractNeo4jXOManagerTest {
+
+    public LabelCacheTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return Arrays.<Object[]> asList(new Object[] { XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class, B.class)
+                .property(Neo4jXOUnitProperty.SHARED_LABEL_CACHE_MAXIMUM_SIZE.getKey(), "100").create() });
+    }
+
+    @Test
+    public void sharedLabels() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Object id = xoManager.getId(xoManager.create(A.class));
+        xoManager.currentTransaction().commit();
+        // populate the shared label cache
+        CacheStatistics statistics = readStatistics(id, false);
+        assertThat(statistics.getMisses(), equalTo(1L));
+        statistics = readStatistics(id, false);
+        assertThat(statistics.getMisses(), equalTo(0L));
+        assertThat(statistics.getHits(), greaterThan(0L));
+        // labels modified by a committed transaction are read again
+        xoManager.currentTransaction().begin();
+        xoManager.migrate(xoManager.findById(A.class, id), A.class, B.class);
+        xoManager.currentTransaction().commit();
+        statistics = readStatistics(id, true);
+        assertThat(statistics.getMisses(), equalTo(1L));
+    }
+
+    @Test
+    public void sharedLabelsOfConcurrentTransactions() throws Exception {
+        XOUnit xoUnit = XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class, B.class).concurrencyMode(ConcurrencyMode.CONCURRENT)
+                .property(Neo4jXOUnitProperty.SHARED_LABEL_CACHE_MAXIMUM_SIZE.getKey(), "100").create();
+        final XOManagerFactory xoManagerFactory = XO.createXOManagerFactory(xoUnit);
+        try (final XOManager xoManager = xoManagerFactory.createXOManager()) {
+            xoManager.currentTransaction().begin();
+            final Object id = xoManager.getId(xoManager.create(A.class));
+            xoManager.currentTransaction().commit();
+            final CountDownLatch migrated = new CountDownLatch(1);
+            final CountDownLatch read = new CountDownLatch(1);
+            ExecutorService executorService = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> migrating = executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        xoManager.currentTransaction().begin();
+                        xoManager.migrate(xoManager.findById(A.class, id), A.class, B.class);
+                        migrated.countDown();
+                        read.await(5, TimeUnit.SECONDS);
+                        xoManager.currentTransaction().commit();
+                        return null;
+                    }
+                });
+                Future<?> committing = executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        migrated.await(5, TimeUnit.SECONDS);
+                        xoManager.currentTransaction().begin();
+                        xoManager.create(A.class);
+                        xoManager.currentTransaction().commit();
+                        // populate the shared label cache with the labels committed so far
+                        readStatistics(xoManagerFactory, id, false);
+                        read.countDown();
+                        return null;
+                    }
+                });
+                migrating.get();
+                committing.get();
+            } finally {
+                executorService.shutdown();
+            }
+            // the labels modified by the migrating transaction are read again
+            CacheStatistics statistics = readStatistics(xoManagerFactory, id, true);
+            assertThat(statistics.getMisses(), equalTo(1L));
+        } finally {
+            xoManagerFactory.close();
+        }
+    }
+
+    private CacheStatistics readStatistics(Object id, boolean expectB) {
+        return readStatistics(getXoManagerFactory(), id, expectB);
+    }
+
+    private static CacheStatistics readStatistics(XOManagerFactory xoManagerFactory, Object id, boolean expectB) {
+        try (XOManager xoManager = xoManagerFactory.createXOManager()) {
+            xoManager.currentTransaction().begin();
+            A a = xoManager.findById(A.class, id);
+            assertThat(a, expectB ? instanceOf(B.class) : not(instanceOf(B.class)));
+            xoManager.currentTransaction().commit();
+            return xoManager.getDatastoreSession(Neo4jDatastoreSession.class).getLabelCacheStatistics();
+        }
+    }
+}
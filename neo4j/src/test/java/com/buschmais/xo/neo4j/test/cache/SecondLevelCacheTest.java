@@ -0,0 +1,84 @@
+package com.buschmais.xo.neo4j.test.cache;
+
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.api.bootstrap.XOUnitProperty;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.cache.composite.A;
+
+@RunWith(Parameterized.class)
+public class SecondLevelCacheTest extends AbstractNeo4jXOManagerTest {
+
+    public SecondLevelCacheTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return Arrays.<Object[]> asList(new Object[] { XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class)
+                .property(XOUnitProperty.SECOND_LEVEL_CACHE_MAXIMUM_SIZE.getKey(), "100").create() });
+    }
+
+    @Test
+    public void sharedState() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setIndex(1);
+        Object id = xoManager.getId(a);
+        assertThat(a.getIndex(), equalTo(1));
+        xoManager.currentTransaction().commit();
+        // populate the second level cache
+        assertThat(readIndex(id), equalTo(1));
+        // modifications by queries are not detected, the cached state is used
+        // by other sessions
+        xoManager.currentTransaction().begin();
+        xoManager.createQuery("MATCH (a:A) SET a.index=2").execute();
+        xoManager.currentTransaction().commit();
+        assertThat(readIndex(id), equalTo(1));
+        // modifications of instances invalidate the cached state on commit
+        xoManager.currentTransaction().begin();
+        a = xoManager.findById(A.class, id);
+        a.setIndex(3);
+        assertThat(a.getIndex(), equalTo(3));
+        assertThat(readIndex(id), equalTo(1));
+        xoManager.currentTransaction().commit();
+        assertThat(readIndex(id), equalTo(3));
+    }
+
+    @Test
+    public void rollback() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setIndex(1);
+        Object id = xoManager.getId(a);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        a.setIndex(2);
+        assertThat(a.getIndex(), equalTo(2));
+        xoManager.currentTransaction().rollback();
+        assertThat(readIndex(id), equalTo(1));
+    }
+
+    private int readIndex(Object id) {
+        try (XOManager xoManager = getXoManagerFactory().createXOManager()) {
+            xoManager.currentTransaction().begin();
+            int index = xoManager.findById(A.class, id).getIndex();
+            xoManager.currentTransaction().commit();
+            return index;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.buschmais.xo.neo4j.test.cache.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("A")
+public interface A {
+
+    int getIndex();
+
+    void setIndex(int index);
+}
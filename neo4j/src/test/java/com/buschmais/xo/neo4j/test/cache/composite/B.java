@@ -0,0 +1,7 @@
+package com.buschmais.xo.neo4j.test.cache.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("B")
+public interface B {
+}
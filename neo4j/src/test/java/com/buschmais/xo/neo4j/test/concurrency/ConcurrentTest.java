@@ -0,0 +1,185 @@
+package com.buschmais.xo.neo4j.test.concurrency;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.concurrency.composite.B;
+
+@RunWith(Parameterized.class)
+public class ConcurrentTest extends AbstractNeo4jXOManagerTest {
+
+    public ConcurrentTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return xoUnits(asList(B.class), Collections.<Class<?>> emptyList(), ValidationMode.AUTO, ConcurrencyMode.CONCURRENT,
+                Transaction.TransactionAttribute.REQUIRES);
+    }
+
+    @Test
+    public void concurrentInvocations() throws Exception {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        final B b = xoManager.create(B.class);
+        b.setName("b");
+        xoManager.currentTransaction().commit();
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Callable<String> worker = new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return b.await(barrier);
+                }
+            };
+            Future<String> future1 = executorService.submit(worker);
+            Future<String> future2 = executorService.submit(worker);
+            assertThat(future1.get(), equalTo("b"));
+            assertThat(future2.get(), equalTo("b"));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void threadBoundTransactions() throws Exception {
+        final XOManager xoManager = getXoManager();
+        final CyclicBarrier created = new CyclicBarrier(2);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> committing = executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    xoManager.currentTransaction().begin();
+                    xoManager.create(B.class).setName("committed");
+                    created.await(5, TimeUnit.SECONDS);
+                    xoManager.currentTransaction().commit();
+                    return null;
+                }
+            });
+            Future<?> rollingBack = executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    xoManager.currentTransaction().begin();
+                    xoManager.create(B.class).setName("rolledBack");
+                    created.await(5, TimeUnit.SECONDS);
+                    xoManager.currentTransaction().rollback();
+                    return null;
+                }
+            });
+            committing.get();
+            rollingBack.get();
+        } finally {
+            executorService.shutdown();
+        }
+        xoManager.currentTransaction().begin();
+        List<String> names = executeQuery("MATCH (b:B) RETURN b.name as name").getColumn("name");
+        assertThat(names, equalTo(asList("committed")));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void isolatedPropertyWrites() throws Exception {
+        final XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        final B b = xoManager.create(B.class);
+        b.setName("b");
+        xoManager.currentTransaction().commit();
+        final CountDownLatch written = new CountDownLatch(1);
+        final CountDownLatch read = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> rollingBack = executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    xoManager.currentTransaction().begin();
+                    b.setName("rolledBack");
+                    assertThat(b.getName(), equalTo("rolledBack"));
+                    written.countDown();
+                    read.await(5, TimeUnit.SECONDS);
+                    xoManager.currentTransaction().rollback();
+                    return null;
+                }
+            });
+            Future<String> committing = executorService.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    written.await(5, TimeUnit.SECONDS);
+                    xoManager.currentTransaction().begin();
+                    String name = b.getName();
+                    read.countDown();
+                    // blocks until the other transaction has released the node
+                    b.setValue("committed");
+                    xoManager.currentTransaction().commit();
+                    return name;
+                }
+            });
+            rollingBack.get();
+            assertThat(committing.get(), equalTo("b"));
+        } finally {
+            executorService.shutdown();
+        }
+        xoManager.currentTransaction().begin();
+        assertThat(b.getName(), equalTo("b"));
+        assertThat(b.getValue(), equalTo("committed"));
+        TestResult result = executeQuery("MATCH (b:B) RETURN b.name as name, b.value as value");
+        assertThat(result.<String> getColumn("name"), equalTo(asList("b")));
+        assertThat(result.<String> getColumn("value"), equalTo(asList("committed")));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void oneInstancePerId() throws Exception {
+        // create the node using another manager, i.e. it is not cached by the shared one
+        XOManager otherXOManager = getXoManagerFactory().createXOManager();
+        otherXOManager.currentTransaction().begin();
+        otherXOManager.create(B.class).setName("b");
+        otherXOManager.currentTransaction().commit();
+        otherXOManager.close();
+        final XOManager xoManager = getXoManager();
+        int threads = 4;
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<B>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(new Callable<B>() {
+                    @Override
+                    public B call() throws Exception {
+                        xoManager.currentTransaction().begin();
+                        barrier.await(5, TimeUnit.SECONDS);
+                        B b = xoManager.createQuery("MATCH (b:B) RETURN b").execute().getSingleResult().get("b", B.class);
+                        xoManager.currentTransaction().commit();
+                        return b;
+                    }
+                }));
+            }
+            B b = futures.get(0).get();
+            for (Future<B> future : futures) {
+                assertThat(future.get(), sameInstance(b));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
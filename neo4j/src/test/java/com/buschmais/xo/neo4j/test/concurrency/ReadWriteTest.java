@@ -0,0 +1,205 @@
+package com.buschmais.xo.neo4j.test.concurrency;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.annotation.PostLoad;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.concurrency.composite.B;
+
+@RunWith(Parameterized.class)
+public class ReadWriteTest extends AbstractNeo4jXOManagerTest {
+
+    public ReadWriteTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return xoUnits(asList(B.class), Collections.<Class<?>> emptyList(), ValidationMode.AUTO, ConcurrencyMode.READ_WRITE,
+                Transaction.TransactionAttribute.REQUIRES);
+    }
+
+    @Test
+    public void concurrentReads() throws Exception {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        B b1 = xoManager.create(B.class);
+        b1.setName("b1");
+        B b2 = xoManager.create(B.class);
+        b2.setName("b2");
+        final Object id1 = xoManager.getId(b1);
+        final Object id2 = xoManager.getId(b2);
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        final XOManager readingXOManager = getXoManager();
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        // Both lookups load an instance and therefore wait in the listener
+        // while holding the read lock.
+        readingXOManager.registerInstanceListener(new AwaitingListener(barrier));
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<B> future1 = executorService.submit(new Callable<B>() {
+                @Override
+                public B call() throws Exception {
+                    return readingXOManager.findById(B.class, id1);
+                }
+            });
+            Future<B> future2 = executorService.submit(new Callable<B>() {
+                @Override
+                public B call() throws Exception {
+                    return readingXOManager.findById(B.class, id2);
+                }
+            });
+            assertThat(readingXOManager.getId(future1.get()), equalTo(id1));
+            assertThat(readingXOManager.getId(future2.get()), equalTo(id2));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentQueries() throws Exception {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        B b = xoManager.create(B.class);
+        b.setName("b");
+        final Object id = xoManager.getId(b);
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        final XOManager readingXOManager = getXoManager();
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        readingXOManager.registerInstanceListener(new AwaitingListener(barrier));
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // The lookup waits in the listener while holding the read lock,
+            // the query must not wait for the write lock.
+            Future<B> future1 = executorService.submit(new Callable<B>() {
+                @Override
+                public B call() throws Exception {
+                    return readingXOManager.findById(B.class, id);
+                }
+            });
+            Future<Long> future2 = executorService.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    Long count = readingXOManager.createQuery("MATCH (b:B) RETURN count(b) as count").execute().getSingleResult().get("count",
+                            Long.class);
+                    barrier.await(5, TimeUnit.SECONDS);
+                    return count;
+                }
+            });
+            assertThat(readingXOManager.getId(future1.get()), equalTo(id));
+            assertThat(future2.get(), equalTo(1L));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void queryFlushesModifiedInstances() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        B b = xoManager.create(B.class);
+        b.setName("b");
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        b.setName("modified");
+        B result = xoManager.createQuery("MATCH (b:B) WHERE b.name='modified' RETURN b", B.class).execute().getSingleResult();
+        assertThat(result, equalTo(b));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void exclusiveWrites() throws Exception {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        final B b = xoManager.create(B.class);
+        b.setName("b");
+        xoManager.currentTransaction().commit();
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Callable<String> worker = new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return b.await(barrier);
+                }
+            };
+            Future<String> future1 = executorService.submit(worker);
+            Future<String> future2 = executorService.submit(worker);
+            // The second invocation waits for the write lock, so the barrier
+            // of the first one times out and the second one finds it broken.
+            for (Future<String> future : asList(future1, future2)) {
+                try {
+                    future.get();
+                    fail("Expecting a broken barrier.");
+                } catch (ExecutionException e) {
+                    // expected
+                }
+            }
+            assertThat(barrier.isBroken(), equalTo(true));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void writeWithinRead() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        B b = xoManager.create(B.class);
+        b.setName("b");
+        Object id = xoManager.getId(b);
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        XOManager readingXOManager = getXoManager();
+        readingXOManager.registerInstanceListener(new ModifyingListener());
+        readingXOManager.currentTransaction().begin();
+        try {
+            readingXOManager.findById(B.class, id);
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+            // the read lock cannot be upgraded
+        }
+        readingXOManager.currentTransaction().rollback();
+    }
+
+    public static class ModifyingListener {
+
+        @PostLoad
+        public void postLoad(B instance) {
+            instance.setName("modified");
+        }
+    }
+
+    public static class AwaitingListener {
+
+        private final CyclicBarrier barrier;
+
+        AwaitingListener(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @PostLoad
+        public void postLoad(Object instance) throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
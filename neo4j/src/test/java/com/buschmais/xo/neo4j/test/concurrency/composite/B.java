@@ -0,0 +1,34 @@
+package com.buschmais.xo.neo4j.test.concurrency.composite;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Node;
+
+import com.buschmais.xo.api.annotation.ImplementedBy;
+import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("B")
+public interface B {
+
+    String getName();
+
+    void setName(String name);
+
+    String getValue();
+
+    void setValue(String value);
+
+    @ImplementedBy(Await.class)
+    String await(CyclicBarrier barrier);
+
+    class Await implements ProxyMethod<Node> {
+
+        @Override
+        public Object invoke(Node node, Object instance, Object[] args) throws Exception {
+            ((CyclicBarrier) args[0]).await(5, TimeUnit.SECONDS);
+            return ((B) instance).getName();
+        }
+    }
+}
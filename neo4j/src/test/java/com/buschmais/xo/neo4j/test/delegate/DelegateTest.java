@@ -16,6 +16,7 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +47,31 @@ public class DelegateTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void bufferedProperties() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        // the properties of both types use the same slot
+        CompositeObject composite = xoManager.create(A.class, B.class);
+        A a = composite.as(A.class);
+        B b = composite.as(B.class);
+        a.setName("a");
+        b.setValue("b");
+        assertThat(a.getName(), equalTo("a"));
+        assertThat(b.getValue(), equalTo("b"));
+        // access by name reads through pending values and writes through
+        Node node = composite.getDelegate();
+        assertThat(node.hasProperty("name"), equalTo(true));
+        assertThat((String) node.getProperty("value"), equalTo("b"));
+        node.setProperty("name", "c");
+        assertThat(a.getName(), equalTo("c"));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        List<String> values = executeQuery("MATCH (n:A:B) RETURN n.name + n.value as v").getColumn("v");
+        assertThat(values, equalTo(Arrays.asList("cb")));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void relation() {
         XOManager xoManager = getXoManager();
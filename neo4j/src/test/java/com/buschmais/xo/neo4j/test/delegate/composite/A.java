@@ -7,4 +7,8 @@ public interface A {
 
     A2B getA2B();
 
+    String getName();
+
+    void setName(String name);
+
 }
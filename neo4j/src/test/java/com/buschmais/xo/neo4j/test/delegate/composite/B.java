@@ -7,4 +7,8 @@ public interface B {
 
     A2B getA2B();
 
+    String getValue();
+
+    void setValue(String value);
+
 }
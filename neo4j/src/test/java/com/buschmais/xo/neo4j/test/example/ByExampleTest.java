@@ -2,6 +2,7 @@ package com.buschmais.xo.neo4j.test.example;
 
 import com.buschmais.xo.api.CompositeObject;
 import com.buschmais.xo.api.Example;
+import com.buschmais.xo.api.ResultIterator;
 import com.buschmais.xo.api.XOManager;
 import com.buschmais.xo.api.bootstrap.XOUnit;
 import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
@@ -13,7 +14,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
@@ -71,6 +75,41 @@ public class ByExampleTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void createAllByExample() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        List<Example<A>> examples = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String value = "A" + i;
+            examples.add(example -> {
+                example.setValue(value);
+                example.setName("Name of " + value);
+            });
+        }
+        List<A> instances = new ArrayList<>();
+        try (ResultIterator<A> iterator = xoManager.createAll(A.class, examples)) {
+            while (iterator.hasNext()) {
+                instances.add(iterator.next());
+            }
+        }
+        assertThat(instances.size(), equalTo(10));
+        for (int i = 0; i < 10; i++) {
+            assertThat(instances.get(i).getValue(), equalTo("A" + i));
+            assertThat(instances.get(i).getName(), equalTo("Name of A" + i));
+        }
+        xoManager.currentTransaction().commit();
+
+        xoManager.currentTransaction().begin();
+        for (int i = 0; i < 10; i++) {
+            A a = instances.get(i);
+            assertThat(xoManager.findById(A.class, xoManager.getId(a)), equalTo(a));
+            assertThat(xoManager.find(A.class, "A" + i).getSingleResult(), equalTo(a));
+        }
+        assertThat(xoManager.createAll(A.class, Collections.<Example<A>> emptyList()).hasNext(), equalTo(false));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void findCompositeByExample() {
         XOManager xoManager = getXoManager();
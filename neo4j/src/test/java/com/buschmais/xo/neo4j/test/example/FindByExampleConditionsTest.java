@@ -0,0 +1,148 @@
+package com.buschmais.xo.neo4j.test.example;
+
+import com.buschmais.xo.api.Examples;
+import com.buschmais.xo.api.ResultIterable;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.example.composite.Item;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(Parameterized.class)
+public class FindByExampleConditionsTest extends AbstractNeo4jXOManagerTest {
+
+    public FindByExampleConditionsTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        return xoUnits(Item.class);
+    }
+
+    @Before
+    public void createData() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        for (int i = 0; i < 10; i++) {
+            int quantity = i;
+            xoManager.create(example -> {
+                example.setName((quantity % 2 == 0 ? "Even" : "Odd") + quantity);
+                example.setQuantity(quantity);
+            }, Item.class);
+        }
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void multipleProperties() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Item item = xoManager.find(example -> {
+            example.setName("Even4");
+            example.setQuantity(4);
+        }, Item.class).getSingleResult();
+        assertThat(item.getName(), equalTo("Even4"));
+        assertThat(xoManager.find(example -> {
+            example.setName("Even4");
+            example.setQuantity(5);
+        }, Item.class).hasResult(), equalTo(false));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void range() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        assertThat(names(xoManager.find(example -> Examples.conditions(example).between("quantity", 3, 5), Item.class)),
+                containsInAnyOrder("Odd3", "Even4", "Odd5"));
+        assertThat(names(xoManager.find(example -> Examples.conditions(example).greaterThan("quantity", 3).lessThan("quantity", 5), Item.class)),
+                containsInAnyOrder("Even4"));
+        assertThat(names(xoManager.find(example -> Examples.conditions(example).greaterThanOrEqualTo("quantity", 8), Item.class)),
+                containsInAnyOrder("Even8", "Odd9"));
+        assertThat(names(xoManager.find(example -> Examples.conditions(example).lessThanOrEqualTo("quantity", 1), Item.class)),
+                containsInAnyOrder("Even0", "Odd1"));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void prefixAndRange() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        assertThat(names(xoManager.find(example -> Examples.conditions(example).startsWith("name", "Odd"), Item.class)),
+                containsInAnyOrder("Odd1", "Odd3", "Odd5", "Odd7", "Odd9"));
+        assertThat(names(xoManager.find(example -> Examples.conditions(example).startsWith("name", "Even").lessThan("quantity", 4), Item.class)),
+                containsInAnyOrder("Even0", "Even2"));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void unknownProperty() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        try {
+            xoManager.find(example -> Examples.conditions(example).greaterThan("unknown", 1), Item.class);
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void valueAndCondition() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        try {
+            xoManager.find(example -> {
+                example.setQuantity(4);
+                Examples.conditions(example).greaterThan("quantity", 3);
+            }, Item.class);
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        try {
+            xoManager.find(example -> {
+                Examples.conditions(example).greaterThan("quantity", 3);
+                example.setQuantity(4);
+            }, Item.class);
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void emptyExample() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        try {
+            xoManager.find(example -> {
+            }, Item.class);
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+        }
+        xoManager.currentTransaction().commit();
+    }
+
+    private Set<String> names(ResultIterable<Item> items) {
+        Set<String> names = new TreeSet<>();
+        for (Item item : items) {
+            names.add(item.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,18 @@
+package com.buschmais.xo.neo4j.test.example.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Indexed;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label
+public interface Item {
+
+    @Indexed
+    String getName();
+
+    void setName(String name);
+
+    int getQuantity();
+
+    void setQuantity(int quantity);
+
+}
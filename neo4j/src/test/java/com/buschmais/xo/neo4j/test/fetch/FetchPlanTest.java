@@ -0,0 +1,145 @@
+package com.buschmais.xo.neo4j.test.fetch;
+
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOFetchPlan;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.fetch.composite.Node;
+import com.buschmais.xo.test.trace.api.TraceDatastoreProvider;
+
+@RunWith(Parameterized.class)
+public class FetchPlanTest extends AbstractNeo4jXOManagerTest {
+
+    public FetchPlanTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        // The datastore is traced for counting its invocations.
+        return Arrays.<Object[]> asList(new Object[] { XOUnitBuilder.create(MEMORY.getUri(), TraceDatastoreProvider.class, Node.class)
+                .property(TraceDatastoreProvider.DELEGATE_KEY, MEMORY.getProvider().getName()).create() });
+    }
+
+    @Test
+    public void fetchTree() throws JMException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Node owner = create(xoManager, "owner");
+        Node root = create(xoManager, "root");
+        root.setOwner(owner);
+        for (int i = 0; i < 2; i++) {
+            Node child = create(xoManager, "child" + i);
+            root.getChildren().add(child);
+            for (int j = 0; j < 3; j++) {
+                child.getChildren().add(create(xoManager, "child" + i + j));
+            }
+        }
+        Object rootId = xoManager.getId(root);
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        root = xoManager.findById(Node.class, rootId);
+        assertThat(xoManager.fetch(root).with(Node.class, Node::getChildren).properties(Node.class, Node::getName).execute().getInstances().size(),
+                equalTo(2));
+        resetTrace();
+        XOFetchPlan.Result result = xoManager.fetch(root).with(Node.class, Node::getChildren).with(Node.class, Node::getOwner)
+                .properties(Node.class, Node::getName).depth(3).execute();
+        assertThat(result.getInstances().size(), equalTo(9));
+        // The relations are read by a single traversal.
+        assertThat(getInvocations("getReachableRelations"), equalTo(1L));
+        assertThat(getInvocations("getRelations"), equalTo(0L));
+        // Navigating the fetched tree uses the fetched relations.
+        assertThat(root.getOwner().getName(), equalTo("owner"));
+        int count = 0;
+        for (Node child : root.getChildren()) {
+            count += child.getChildren().size();
+            for (Node grandChild : child.getChildren()) {
+                assertThat(grandChild.getChildren().isEmpty(), equalTo(true));
+            }
+        }
+        assertThat(count, equalTo(6));
+        assertThat(getInvocations("getReachableRelations"), equalTo(1L));
+        assertThat(getInvocations("getRelations"), equalTo(0L));
+        assertThat(getInvocations("getRelationCount"), equalTo(0L));
+        assertThat(getInvocations("hasSingleRelation"), equalTo(0L));
+        assertThat(getInvocations("getSingleRelation"), equalTo(0L));
+        // Creating a relation discards the fetched relations.
+        root.getChildren().add(create(xoManager, "child2"));
+        assertThat(root.getChildren().size(), equalTo(3));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void invalidPropertyReference() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Node root = create(xoManager, "root");
+        try {
+            xoManager.fetch(root).with(Node.class, Node::getName);
+            fail("Expecting an XOException.");
+        } catch (XOException e) {
+        }
+        try {
+            xoManager.fetch(root).properties(Node.class, Node::getChildren);
+            fail("Expecting an XOException.");
+        } catch (XOException e) {
+        }
+        try {
+            xoManager.fetch(root).with(Node.class, node -> null);
+            fail("Expecting an XOException.");
+        } catch (XOException e) {
+        }
+        xoManager.currentTransaction().commit();
+    }
+
+    private Node create(XOManager xoManager, String name) {
+        Node node = xoManager.create(Node.class);
+        node.setName(name);
+        return node;
+    }
+
+    private void resetTrace() throws JMException {
+        getMBeanServer().invoke(getTraceMonitorName(), "reset", null, null);
+    }
+
+    private long getInvocations(String method) throws JMException {
+        long invocations = 0;
+        for (CompositeData statistics : (CompositeData[]) getMBeanServer().getAttribute(getTraceMonitorName(), "MethodStatistics")) {
+            if (((String) statistics.get("method")).contains("." + method + "(")) {
+                invocations += (Long) statistics.get("invocations");
+            }
+        }
+        return invocations;
+    }
+
+    private MBeanServer getMBeanServer() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+
+    private ObjectName getTraceMonitorName() throws JMException {
+        return new ObjectName("com.buschmais.xo.trace", "xo-unit", "default");
+    }
+}
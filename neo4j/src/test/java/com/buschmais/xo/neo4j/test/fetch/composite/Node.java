@@ -0,0 +1,19 @@
+package com.buschmais.xo.neo4j.test.fetch.composite;
+
+import java.util.List;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("Node")
+public interface Node {
+
+    String getName();
+
+    void setName(String name);
+
+    List<Node> getChildren();
+
+    Node getOwner();
+
+    void setOwner(Node owner);
+}
@@ -110,6 +110,39 @@ public class InstanceListenerTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void unmodifiedInstances() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setVersion(1);
+        B b = xoManager.create(B.class);
+        xoManager.currentTransaction().commit();
+        StaticInstanceListener.getPreUpdate().clear();
+        StaticInstanceListener.getPostUpdate().clear();
+        // the endpoints of a created relation are not flushed
+        xoManager.currentTransaction().begin();
+        A2B a2b = xoManager.create(a, A2B.class, b);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(StaticInstanceListener.getPreUpdate(), equalTo(Arrays.<Object> asList(a2b)));
+        assertThat(StaticInstanceListener.getPostUpdate(), equalTo(Arrays.<Object> asList(a2b)));
+        xoManager.currentTransaction().commit();
+        StaticInstanceListener.getPreUpdate().clear();
+        StaticInstanceListener.getPostUpdate().clear();
+        // setting an unchanged value does not modify the instance
+        xoManager.currentTransaction().begin();
+        a.setVersion(1);
+        xoManager.currentTransaction().commit();
+        assertThat(StaticInstanceListener.getPreUpdate().isEmpty(), equalTo(true));
+        xoManager.currentTransaction().begin();
+        a.setVersion(2);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(StaticInstanceListener.getPreUpdate(), equalTo(Arrays.<Object> asList(a)));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void typedInstanceListener() {
         XOManager xoManager = getXoManager();
@@ -0,0 +1,88 @@
+package com.buschmais.xo.neo4j.test.label;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.api.model.Neo4jLabel;
+import com.buschmais.xo.neo4j.impl.datastore.LabelIndex;
+import com.buschmais.xo.neo4j.impl.datastore.LabelSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.Label;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class LabelSetTest {
+
+    private static final int LABELS = 130;
+
+    private LabelIndex labelIndex;
+
+    private List<Neo4jLabel> labels;
+
+    @Before
+    public void setUp() {
+        labelIndex = new LabelIndex();
+        labels = new ArrayList<>();
+        for (int i = 0; i < LABELS; i++) {
+            Neo4jLabel label = new Neo4jLabel("L" + i);
+            labelIndex.register(label);
+            labels.add(label);
+        }
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        Set<Neo4jLabel> expected = new HashSet<>(Arrays.asList(new Neo4jLabel("L1"), new Neo4jLabel("L2")));
+        LabelSet labelSet = LabelSet.of(labelIndex, expected);
+        LabelSet fromLabels = LabelSet.fromLabels(labelIndex, Arrays.<Label> asList(DynamicLabel.label("L2"), DynamicLabel.label("L1")));
+        assertThat(labelSet, equalTo(fromLabels));
+        assertThat(labelSet.hashCode(), equalTo(fromLabels.hashCode()));
+        // The contract of java.util.Set is fulfilled for other set implementations.
+        assertThat(labelSet.equals(expected), equalTo(true));
+        assertThat(expected.equals(labelSet), equalTo(true));
+        assertThat(labelSet.hashCode(), equalTo(expected.hashCode()));
+        assertThat(labelSet, not(equalTo(LabelSet.of(labelIndex, Collections.singleton(labels.get(1))))));
+        assertThat(LabelSet.of(labelIndex, labelSet), sameInstance(labelSet));
+    }
+
+    @Test
+    public void moreThan64Labels() {
+        Set<Neo4jLabel> expected = new HashSet<>(Arrays.asList(labels.get(0), labels.get(63), labels.get(64), labels.get(129)));
+        LabelSet labelSet = LabelSet.of(labelIndex, expected);
+        assertThat(labelSet.size(), equalTo(4));
+        assertThat(new ArrayList<>(labelSet), contains(labels.get(0), labels.get(63), labels.get(64), labels.get(129)));
+        assertThat(labelSet.contains(new Neo4jLabel("L64")), equalTo(true));
+        assertThat(labelSet.contains(labels.get(65)), equalTo(false));
+        assertThat(labelSet, equalTo((Set<Neo4jLabel>) expected));
+        assertThat(labelSet.hashCode(), equalTo(expected.hashCode()));
+        // Removing the highest label results in the same set as creating it without that label.
+        LabelSet withoutHighest = labelSet.without(LabelSet.of(labelIndex, Collections.singleton(labels.get(129))));
+        LabelSet lowerLabels = LabelSet.of(labelIndex, new HashSet<>(Arrays.asList(labels.get(0), labels.get(63), labels.get(64))));
+        assertThat(withoutHighest, equalTo(lowerLabels));
+        assertThat(withoutHighest.hashCode(), equalTo(lowerLabels.hashCode()));
+        assertThat(labelSet.without(labelSet).isEmpty(), equalTo(true));
+        assertThat(labelSet.without(labelSet), equalTo(LabelSet.of(labelIndex, Collections.<Neo4jLabel> emptySet())));
+    }
+
+    @Test
+    public void unregisteredLabelsAreNotInterned() {
+        LabelSet labelSet = LabelSet.fromLabels(labelIndex, Arrays.<Label> asList(DynamicLabel.label("L1"), DynamicLabel.label("Unregistered")));
+        assertThat(labelSet, contains(labels.get(1)));
+        assertThat(labelIndex.findId("Unregistered"), equalTo(-1));
+        try {
+            LabelSet.of(labelIndex, Collections.singleton(new Neo4jLabel("Unregistered")));
+            fail("Expecting an XOException.");
+        } catch (XOException e) {
+        }
+        assertThat(labelIndex.findId("Unregistered"), equalTo(-1));
+    }
+}
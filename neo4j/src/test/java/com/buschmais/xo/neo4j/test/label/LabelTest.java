@@ -13,6 +13,9 @@ import java.net.URISyntaxException;
 import java.util.Collection;
 
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertThat;
 
 @RunWith(Parameterized.class)
@@ -45,4 +48,24 @@ public class LabelTest extends AbstractNeo4jXOManagerTest {
         assertThat(executeQuery("MATCH (n:EXPLICIT_LABEL) RETURN n").getColumn("n"), hasItem(explicitLabel));
         xoManager.currentTransaction().commit();
     }
+
+    @Test
+    public void unregisteredLabel() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        xoManager.create(ImplicitLabel.class).setString("value");
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        // Labels which are not declared by registered types are ignored.
+        Object instance = xoManager.createQuery("MATCH (n:ImplicitLabel) SET n:Unregistered RETURN n").execute().getSingleResult().get("n", Object.class);
+        assertThat(instance, instanceOf(ImplicitLabel.class));
+        assertThat(((ImplicitLabel) instance).getString(), equalTo("value"));
+        // Migration removes all labels which are not declared by the target types.
+        xoManager.migrate((ImplicitLabel) instance, ExplicitLabel.class);
+        assertThat(executeQuery("MATCH (n:Unregistered) RETURN count(n) AS c").getColumn("c"), hasItem(0L));
+        assertThat(executeQuery("MATCH (n:EXPLICIT_LABEL) RETURN n").getColumn("n").get(0), not(instanceOf(ImplicitLabel.class)));
+        xoManager.currentTransaction().commit();
+    }
 }
@@ -0,0 +1,149 @@
+package com.buschmais.xo.neo4j.test.proxy;
+
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XO;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.api.bootstrap.XOUnitProperty;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.proxy.composite.A;
+import com.buschmais.xo.neo4j.test.proxy.composite.B;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.buschmais.xo.api.Query.Result.CompositeRowObject;
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class ProxyEngineTest extends AbstractNeo4jXOManagerTest {
+
+    public ProxyEngineTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        List<Object[]> xoUnits = new ArrayList<>();
+        for (String engine : new String[] { "jdk", "bytecode" }) {
+            xoUnits.add(new Object[] { xoUnit(engine) });
+        }
+        return xoUnits;
+    }
+
+    private static XOUnit xoUnit(String engine) {
+        return XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class, B.class).property(XOUnitProperty.PROXY_ENGINE.getKey(), engine).create();
+    }
+
+    @Test
+    public void properties() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setName("a");
+        a.setValue(1);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(a.getName(), equalTo("a"));
+        assertThat(a.getValue(), equalTo(1));
+        assertThat(xoManager.findById(A.class, xoManager.getId(a)), sameInstance(a));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void sessions() {
+        XOManager xoManager1 = getXoManager();
+        XOManager xoManager2 = getXoManagerFactory().createXOManager();
+        xoManager1.currentTransaction().begin();
+        A a1 = xoManager1.create(A.class);
+        a1.setName("a1");
+        xoManager1.currentTransaction().commit();
+        xoManager2.currentTransaction().begin();
+        A a2 = xoManager2.create(A.class);
+        a2.setName("a2");
+        xoManager2.currentTransaction().commit();
+        for (int i = 0; i < 2; i++) {
+            xoManager1.currentTransaction().begin();
+            assertThat(a1.getName(), equalTo("a1"));
+            xoManager1.currentTransaction().commit();
+            xoManager2.currentTransaction().begin();
+            assertThat(a2.getName(), equalTo("a2"));
+            xoManager2.currentTransaction().commit();
+        }
+        xoManager2.close();
+    }
+
+    @Test
+    public void relations() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A parent = xoManager.create(A.class);
+        A child1 = xoManager.create(A.class);
+        A child2 = xoManager.create(A.class);
+        parent.getChildren().add(child1);
+        parent.getChildren().add(child2);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(parent.getChildren(), hasItems(child1, child2));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void objectMethods() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a1 = xoManager.create(A.class);
+        A a2 = xoManager.create(A.class);
+        assertThat(a1, equalTo(a1));
+        assertThat(a1, not(equalTo(a2)));
+        assertThat(a1.hashCode(), equalTo(a1.hashCode()));
+        assertThat(a1.toString(), not(equalTo(a2.toString())));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void compositeTypes() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        CompositeObject composite = xoManager.create(A.class, B.class);
+        assertThat(composite, instanceOf(A.class));
+        assertThat(composite, instanceOf(B.class));
+        composite.as(B.class).setEnabled(true);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(composite.as(B.class).isEnabled(), equalTo(true));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void query() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setName("a");
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        CompositeRowObject row = xoManager.createQuery("match (a:A) return a, a.name as name").execute().getSingleResult();
+        assertThat(row.get("a", A.class), sameInstance(a));
+        assertThat(row.get("name", String.class), equalTo("a"));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test(expected = XOException.class)
+    public void unsupportedEngine() {
+        XO.createXOManagerFactory(xoUnit("unknown"));
+    }
+}
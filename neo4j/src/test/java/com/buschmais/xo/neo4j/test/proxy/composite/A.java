@@ -0,0 +1,25 @@
+package com.buschmais.xo.neo4j.test.proxy.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+import java.util.List;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+@Label("A")
+public interface A {
+
+    String getName();
+
+    void setName(String name);
+
+    int getValue();
+
+    void setValue(int value);
+
+    @Relation("CHILD")
+    @Outgoing
+    List<A> getChildren();
+
+}
@@ -0,0 +1,12 @@
+package com.buschmais.xo.neo4j.test.proxy.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("B")
+public interface B {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+}
@@ -2,6 +2,7 @@ package com.buschmais.xo.neo4j.test.query;
 
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.annotation.PostLoad;
 import com.buschmais.xo.api.bootstrap.XOUnit;
 import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
 import com.buschmais.xo.neo4j.test.query.composite.A;
@@ -13,6 +14,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -81,6 +83,55 @@ public class QueryTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void compositeRowRepeated() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        for (String value : Arrays.asList("A1", "A2", "A1")) {
+            Result<CompositeRowObject> result = xoManager
+                    .createQuery("match (a:A) where a.value={value} return a, count(a) as count", ResultPart1.class, ResultPart2.class)
+                    .withParameter("value", value).execute();
+            int rows = 0;
+            for (CompositeRowObject row : result) {
+                assertThat(row.as(ResultPart1.class).getA().getValue(), equalTo(value));
+                assertThat(row.as(ResultPart2.class).getCount().intValue(), equalTo(1));
+                rows++;
+            }
+            assertThat(rows, equalTo("A1".equals(value) ? 1 : 2));
+        }
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void compositeRowAfterIteration() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        List<CompositeRowObject> rows = new ArrayList<>();
+        for (CompositeRowObject row : xoManager.createQuery("match (a:A) return a order by id(a)").execute()) {
+            rows.add(row);
+        }
+        assertThat(rows.size(), equalTo(3));
+        assertThat(rows.get(0).get("a", A.class), equalTo(a1));
+        assertThat(rows.get(1).get("a", A.class), equalTo(a2_1));
+        assertThat(rows.get(2).get("a", A.class), equalTo(a2_2));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void compositeRowIsDecodedOnFirstAccess() {
+        closeXOmanager();
+        XOManager xoManager = getXoManager();
+        List<A> loaded = new ArrayList<>();
+        xoManager.registerInstanceListener(new LoadListener(loaded));
+        xoManager.currentTransaction().begin();
+        CompositeRowObject row = xoManager.createQuery("match (a:A) where a.value='A1' return a").execute().getSingleResult();
+        assertThat(loaded.isEmpty(), equalTo(true));
+        A a = row.get("a", A.class);
+        assertThat(loaded, equalTo(Arrays.asList(a)));
+        assertThat(a.getValue(), equalTo("A1"));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void compositeRowAsMap() {
         assumeThat(getXoManagerFactory().getXOUnit().getUri().getScheme(), equalTo("memory"));
@@ -148,4 +199,18 @@ public class QueryTest extends AbstractNeo4jXOManagerTest {
     public interface ResultPart2 {
         Number getCount();
     }
+
+    public static class LoadListener {
+
+        private final List<A> loaded;
+
+        private LoadListener(List<A> loaded) {
+            this.loaded = loaded;
+        }
+
+        @PostLoad
+        public void postLoad(A instance) {
+            loaded.add(instance);
+        }
+    }
 }
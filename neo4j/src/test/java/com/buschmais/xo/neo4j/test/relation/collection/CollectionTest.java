@@ -0,0 +1,62 @@
+package com.buschmais.xo.neo4j.test.relation.collection;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.relation.collection.composite.A;
+
+@RunWith(Parameterized.class)
+public class CollectionTest extends AbstractNeo4jXOManagerTest {
+
+    public CollectionTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return xoUnits(A.class);
+    }
+
+    @Test
+    public void sizeAndContains() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A hub = xoManager.create(A.class);
+        A a1 = xoManager.create(A.class);
+        A a2 = xoManager.create(A.class);
+        A a3 = xoManager.create(A.class);
+        hub.getList().add(a1);
+        hub.getList().add(a2);
+        hub.getList().add(a1);
+        a3.getList().add(hub);
+        hub.getSet().add(a1);
+        hub.getSet().add(a1);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(hub.getList().size(), equalTo(3));
+        assertThat(hub.getList().contains(a1), equalTo(true));
+        assertThat(hub.getList().contains(a2), equalTo(true));
+        assertThat(hub.getList().contains(a3), equalTo(false));
+        assertThat(hub.getList().contains(hub), equalTo(false));
+        assertThat(hub.getList().contains("a1"), equalTo(false));
+        assertThat(hub.getList().indexOf(a2), equalTo(1));
+        assertThat(hub.getList().indexOf(a3), equalTo(-1));
+        assertThat(a1.getList().isEmpty(), equalTo(true));
+        assertThat(hub.getSet().size(), equalTo(1));
+        assertThat(hub.getSet().contains(a1), equalTo(true));
+        assertThat(hub.getSet().contains(a2), equalTo(false));
+        hub.getList().remove(a2);
+        assertThat(hub.getList().size(), equalTo(2));
+        assertThat(hub.getList().contains(a2), equalTo(false));
+        xoManager.currentTransaction().commit();
+    }
+}
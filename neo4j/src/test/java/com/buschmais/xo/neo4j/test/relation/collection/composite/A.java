@@ -0,0 +1,14 @@
+package com.buschmais.xo.neo4j.test.relation.collection.composite;
+
+import java.util.List;
+import java.util.Set;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("A")
+public interface A {
+
+    List<A> getList();
+
+    Set<A> getSet();
+}
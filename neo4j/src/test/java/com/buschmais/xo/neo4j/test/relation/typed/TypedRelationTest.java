@@ -1,6 +1,9 @@
 package com.buschmais.xo.neo4j.test.relation.typed;
 
+import com.buschmais.xo.api.RelationTriple;
+import com.buschmais.xo.api.ResultIterator;
 import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.annotation.PostCreate;
 import com.buschmais.xo.api.bootstrap.XOUnit;
 import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
 import com.buschmais.xo.neo4j.test.relation.typed.composite.*;
@@ -9,7 +12,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
@@ -147,4 +152,103 @@ public class TypedRelationTest extends AbstractNeo4jXOManagerTest {
         assertThat(executeQuery("MATCH ()-[r]->() RETURN r").<TypedManyToManyRelation>getColumn("r"), hasItems(relationB1_2, relationB2_2));
         xoManager.currentTransaction().commit();
     }
+
+    @Test
+    public void createAllManyToMany() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b1 = xoManager.create(B.class);
+        B b2 = xoManager.create(B.class);
+        List<RelationTriple<A, TypedManyToManyRelation, B>> triples = new ArrayList<>();
+        triples.add(RelationTriple.of(a, example -> example.setVersion(1), b1));
+        triples.add(RelationTriple.of(a, example -> example.setVersion(2), b2));
+        triples.add(RelationTriple.of(a, b2));
+        List<TypedManyToManyRelation> relations = createAllRelations(xoManager, TypedManyToManyRelation.class, triples);
+        assertThat(relations.size(), equalTo(3));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(a.getManyToMany(), hasItems(relations.get(0), relations.get(1), relations.get(2)));
+        assertThat(b1.getManyToMany(), hasItems(relations.get(0)));
+        assertThat(b2.getManyToMany(), hasItems(relations.get(1), relations.get(2)));
+        assertThat(relations.get(0).getVersion(), equalTo(1));
+        assertThat(relations.get(0).getA(), equalTo(a));
+        assertThat(relations.get(0).getB(), equalTo(b1));
+        assertThat(relations.get(1).getVersion(), equalTo(2));
+        assertThat(relations.get(1).getB(), equalTo(b2));
+        assertThat(relations.get(2).getB(), equalTo(b2));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void createAllOneToOne() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b1 = xoManager.create(B.class);
+        B b2 = xoManager.create(B.class);
+        List<RelationTriple<A, TypedOneToOneRelation, B>> triples = new ArrayList<>();
+        triples.add(RelationTriple.of(a, b1));
+        triples.add(RelationTriple.of(a, b2));
+        List<TypedOneToOneRelation> relations = createAllRelations(xoManager, TypedOneToOneRelation.class, triples);
+        assertThat(relations.size(), equalTo(2));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(a.getOneToOne(), equalTo(relations.get(1)));
+        assertThat(b1.getOneToOne(), equalTo(null));
+        assertThat(b2.getOneToOne(), equalTo(relations.get(1)));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void createAllRelationsInChunks() {
+        XOManager xoManager = getXoManager();
+        CreatedListener listener = new CreatedListener();
+        xoManager.registerInstanceListener(listener);
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b = xoManager.create(B.class);
+        List<RelationTriple<A, TypedManyToManyRelation, B>> triples = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            triples.add(RelationTriple.of(a, b));
+        }
+        listener.created = 0;
+        int count = 0;
+        try (ResultIterator<TypedManyToManyRelation> iterator = xoManager.createAllRelations(TypedManyToManyRelation.class, triples)) {
+            while (iterator.hasNext()) {
+                assertThat(iterator.next().getB(), equalTo(b));
+                if (count == 0) {
+                    // The listeners have been notified for the first chunk only.
+                    assertThat(listener.created, equalTo(1000));
+                }
+                count++;
+            }
+        }
+        assertThat(count, equalTo(2500));
+        assertThat(listener.created, equalTo(2500));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(a.getManyToMany().size(), equalTo(2500));
+        xoManager.currentTransaction().commit();
+    }
+
+    private <R> List<R> createAllRelations(XOManager xoManager, Class<R> relationType, List<RelationTriple<A, R, B>> triples) {
+        List<R> relations = new ArrayList<>();
+        try (ResultIterator<R> iterator = xoManager.createAllRelations(relationType, triples)) {
+            while (iterator.hasNext()) {
+                relations.add(iterator.next());
+            }
+        }
+        return relations;
+    }
+
+    public static class CreatedListener {
+
+        private int created = 0;
+
+        @PostCreate
+        public void postCreate(Object instance) {
+            created++;
+        }
+    }
 }
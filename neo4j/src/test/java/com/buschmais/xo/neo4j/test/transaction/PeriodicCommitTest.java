@@ -0,0 +1,166 @@
+package com.buschmais.xo.neo4j.test.transaction;
+
+import static com.buschmais.xo.neo4j.test.Neo4jDatabase.MEMORY;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.Example;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.api.bootstrap.XOUnitBuilder;
+import com.buschmais.xo.api.bootstrap.XOUnitProperty;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.transaction.composite.A;
+import com.buschmais.xo.neo4j.test.transaction.composite.B;
+
+@RunWith(Parameterized.class)
+public class PeriodicCommitTest extends AbstractNeo4jXOManagerTest {
+
+    public PeriodicCommitTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return Arrays.<Object[]> asList(new Object[] { XOUnitBuilder.create(MEMORY.getUri(), MEMORY.getProvider(), A.class, B.class)
+                .property(XOUnitProperty.PERIODIC_COMMIT.getKey(), "5").create() });
+    }
+
+    @Test
+    public void periodicCommit() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        for (int i = 0; i < 12; i++) {
+            String value = "A" + i;
+            xoManager.create(example -> example.setValue(value), A.class);
+            if (i == 3) {
+                assertThat(countInOtherSession("MATCH (a:A) RETURN count(a) as c"), equalTo(0L));
+            } else if (i == 4) {
+                assertThat(countInOtherSession("MATCH (a:A) RETURN count(a) as c"), equalTo(5L));
+            }
+        }
+        assertThat(xoManager.currentTransaction().isActive(), equalTo(true));
+        assertThat(countInOtherSession("MATCH (a:A) RETURN count(a) as c"), equalTo(10L));
+        xoManager.currentTransaction().rollback();
+        xoManager.currentTransaction().begin();
+        assertThat(executeQuery("MATCH (a:A) RETURN count(a) as c").getColumn("c"), equalTo(Arrays.asList(10L)));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void createAllInChunks() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        List<Example<A>> examples = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            String value = "A" + i;
+            examples.add(example -> example.setValue(value));
+        }
+        int count = 0;
+        try (ResultIterator<A> iterator = xoManager.createAll(A.class, examples)) {
+            while (iterator.hasNext()) {
+                assertThat(iterator.next().getValue(), equalTo("A" + count));
+                if (count == 0) {
+                    // The first chunk has been committed after it has been created.
+                    assertThat(countInOtherSession("MATCH (a:A) RETURN count(a) as c"), equalTo(1000L));
+                }
+                count++;
+            }
+        }
+        assertThat(count, equalTo(2500));
+        assertThat(countInOtherSession("MATCH (a:A) RETURN count(a) as c"), equalTo(2500L));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void refuseWithOpenResult() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        for (int i = 0; i < 10; i++) {
+            String value = "A" + i;
+            xoManager.create(example -> example.setValue(value), A.class);
+        }
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        int count = 0;
+        try (ResultIterator<A> iterator = xoManager.createQuery("MATCH (a:A) RETURN a", A.class).execute().iterator()) {
+            while (iterator.hasNext()) {
+                A a = iterator.next();
+                if (count < 5) {
+                    a.setValue("updated");
+                } else {
+                    // The limit has been reached while the result is open, reading is still possible.
+                    assertThat(a.getValue(), startsWith("A"));
+                    try {
+                        a.setValue("updated");
+                        fail("Expecting an exception.");
+                    } catch (XOException e) {
+                        assertThat(e.getMessage(), containsString("query results are open"));
+                    }
+                }
+                count++;
+            }
+        }
+        assertThat(count, equalTo(10));
+        assertThat(countInOtherSession("MATCH (a:A) WHERE a.value='updated' RETURN count(a) as c"), equalTo(0L));
+        // The result has been closed, the next mutating operation commits first.
+        xoManager.create(A.class);
+        assertThat(countInOtherSession("MATCH (a:A) WHERE a.value='updated' RETURN count(a) as c"), equalTo(5L));
+        xoManager.currentTransaction().rollback();
+        xoManager.currentTransaction().begin();
+        assertThat(executeQuery("MATCH (a:A) RETURN count(a) as c").getColumn("c"), equalTo(Arrays.asList(10L)));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void readsAreNotCounted() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(example -> example.setValue("A"), A.class);
+        for (int i = 0; i < 10; i++) {
+            assertThat(a.getValue(), equalTo("A"));
+            assertThat(xoManager.createQuery("MATCH (a:A) RETURN a", A.class).execute().getSingleResult(), equalTo(a));
+        }
+        assertThat(countInOtherSession("MATCH (a:A) RETURN count(a) as c"), equalTo(0L));
+        xoManager.currentTransaction().commit();
+    }
+
+    /**
+     * Execute a counting query using another session within another thread,
+     * i.e. only committed data is visible.
+     */
+    private long countInOtherSession(final String query) {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            return executorService.submit(() -> {
+                try (XOManager otherXOManager = getXoManagerFactory().createXOManager()) {
+                    otherXOManager.currentTransaction().begin();
+                    Long count = otherXOManager.createQuery(query).execute().getSingleResult().get("c", Long.class);
+                    otherXOManager.currentTransaction().commit();
+                    return count;
+                }
+            }).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Cannot execute query " + query, e);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -51,4 +51,14 @@ public class TransactionAttributeMandatoryTest extends AbstractNeo4jXOManagerTes
         } catch (XOException e) {
         }
     }
+
+    @Test
+    public void notSupported() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        xoManager.currentTransaction().commit();
+        assertThat(xoManager.currentTransaction().isActive(), equalTo(false));
+        assertThat(a.echo("value"), equalTo("value"));
+    }
 }
@@ -1,5 +1,6 @@
 package com.buschmais.xo.neo4j.test.transaction.composite;
 
+import com.buschmais.xo.api.Transaction;
 import com.buschmais.xo.api.annotation.ImplementedBy;
 import com.buschmais.xo.api.annotation.ResultOf;
 import com.buschmais.xo.api.proxy.ProxyMethod;
@@ -28,6 +29,10 @@ public interface A {
     @ImplementedBy(ThrowRuntimeException.class)
     void throwRuntimeException(String value);
 
+    @Transaction(Transaction.TransactionAttribute.NOT_SUPPORTED)
+    @ImplementedBy(Echo.class)
+    String echo(String value);
+
     @ResultOf
     ByValue getByValue(@Parameter("value") String value);
 
@@ -44,6 +49,13 @@ public interface A {
         }
     }
 
+    class Echo implements ProxyMethod<Node> {
+        @Override
+        public Object invoke(Node node, Object instance, Object[] args) {
+            return args[0];
+        }
+    }
+
     class ThrowRuntimeException implements ProxyMethod<Node> {
         @Override
         public Object invoke(Node node, Object instance, Object[] args) {
@@ -0,0 +1,192 @@
+package com.buschmais.xo.neo4j.test.transfer;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.buschmais.xo.api.XOExporter;
+import com.buschmais.xo.api.XOImporter;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.test.transfer.composite.Book;
+import com.buschmais.xo.neo4j.test.transfer.composite.Knows;
+import com.buschmais.xo.neo4j.test.transfer.composite.Person;
+import com.buschmais.xo.neo4j.test.transfer.composite.Tag;
+
+@RunWith(Parameterized.class)
+public class ExportImportTest extends AbstractNeo4jXOManagerTest {
+
+    public ExportImportTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        return xoUnits(Person.class, Knows.class, Book.class, Tag.class);
+    }
+
+    @Test
+    public void exportImport() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Person alice = createPerson(xoManager, "Alice", 30, new String[] { "Al" });
+        Person bob = createPerson(xoManager, "Bob", 40, null);
+        Person carol = createPerson(xoManager, "Carol", 50, new String[] { "Caro", "C" });
+        Knows knows = xoManager.create(alice, Knows.class, bob);
+        knows.setSince(2010L);
+        xoManager.create(bob, Knows.class, carol);
+        alice.getFollows().add(carol);
+        xoManager.currentTransaction().commit();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        xoManager.currentTransaction().begin();
+        try (XOExporter exporter = xoManager.createExporter(outputStream)) {
+            assertThat(exporter.exportEntities(xoManager.createQuery("MATCH (p:Person) RETURN p", Person.class).execute()), equalTo(3L));
+            assertThat(exporter.exportRelations(xoManager.createQuery("MATCH (p:Person) RETURN p", Person.class).execute()), equalTo(3L));
+        }
+        xoManager.currentTransaction().commit();
+
+        dropDatabase();
+
+        try (XOImporter importer = xoManager.createImporter(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertThat(importer.withChunkSize(2).execute(), equalTo(6L));
+        }
+        assertThat(xoManager.currentTransaction().isActive(), equalTo(false));
+
+        xoManager.currentTransaction().begin();
+        Person importedAlice = findPerson(xoManager, "Alice");
+        Person importedBob = findPerson(xoManager, "Bob");
+        Person importedCarol = findPerson(xoManager, "Carol");
+        assertThat(importedAlice.getAge(), equalTo(30));
+        assertThat(importedAlice.getNicknames(), equalTo(new String[] { "Al" }));
+        assertThat(importedBob.getNicknames(), nullValue());
+        assertThat(importedCarol.getNicknames(), equalTo(new String[] { "Caro", "C" }));
+        List<Knows> aliceKnows = importedAlice.getKnows();
+        assertThat(aliceKnows.size(), equalTo(1));
+        assertThat(aliceKnows.get(0).getTo(), equalTo(importedBob));
+        assertThat(aliceKnows.get(0).getSince(), equalTo(2010L));
+        assertThat(importedBob.getKnows().get(0).getTo(), equalTo(importedCarol));
+        assertThat(importedAlice.getFollows(), contains(importedCarol));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void incomingRelations() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Person alice = createPerson(xoManager, "Alice", 30, null);
+        Book book = xoManager.create(Book.class);
+        book.setName("Wonderland");
+        book.getAuthors().add(alice);
+        xoManager.currentTransaction().commit();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        xoManager.currentTransaction().begin();
+        try (XOExporter exporter = xoManager.createExporter(outputStream)) {
+            assertThat(exporter.exportEntities(executeQuery("MATCH (n) RETURN n").getColumn("n")), equalTo(2L));
+            assertThat(exporter.exportRelations(executeQuery("MATCH (n) RETURN n").getColumn("n")), equalTo(1L));
+        }
+        xoManager.currentTransaction().commit();
+
+        dropDatabase();
+
+        try (XOImporter importer = xoManager.createImporter(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertThat(importer.execute(), equalTo(3L));
+        }
+
+        xoManager.currentTransaction().begin();
+        Book importedBook = xoManager.createQuery("MATCH (b:Book) WHERE b.title='Wonderland' RETURN b", Book.class).execute().getSingleResult();
+        assertThat(importedBook.getName(), equalTo("Wonderland"));
+        assertThat(importedBook.getAuthors(), contains(findPerson(xoManager, "Alice")));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void relationOfUnlabeledMixin() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Book book = xoManager.create(Book.class);
+        book.setName("Wonderland");
+        Tag tag = xoManager.create(Tag.class);
+        tag.setName("Fantasy");
+        book.getTags().add(tag);
+        xoManager.currentTransaction().commit();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        xoManager.currentTransaction().begin();
+        try (XOExporter exporter = xoManager.createExporter(outputStream)) {
+            assertThat(exporter.exportEntities(executeQuery("MATCH (n) RETURN n").getColumn("n")), equalTo(2L));
+            assertThat(exporter.exportRelations(executeQuery("MATCH (n) RETURN n").getColumn("n")), equalTo(1L));
+        }
+        xoManager.currentTransaction().commit();
+
+        dropDatabase();
+
+        try (XOImporter importer = xoManager.createImporter(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertThat(importer.execute(), equalTo(3L));
+        }
+
+        xoManager.currentTransaction().begin();
+        Book importedBook = xoManager.createQuery("MATCH (b:Book) RETURN b", Book.class).execute().getSingleResult();
+        Tag importedTag = xoManager.createQuery("MATCH (t:Tag) RETURN t", Tag.class).execute().getSingleResult();
+        assertThat(importedTag.getName(), equalTo("Fantasy"));
+        assertThat(importedBook.getTags(), contains(importedTag));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void partialImport() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        createPerson(xoManager, "Alice", 30, null);
+        createPerson(xoManager, "Bob", 40, null);
+        createPerson(xoManager, "Carol", 50, null);
+        xoManager.currentTransaction().commit();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        xoManager.currentTransaction().begin();
+        try (XOExporter exporter = xoManager.createExporter(outputStream)) {
+            exporter.exportEntities(xoManager.createQuery("MATCH (p:Person) RETURN p ORDER BY p.name", Person.class).execute());
+        }
+        xoManager.currentTransaction().commit();
+
+        dropDatabase();
+
+        byte[] bytes = outputStream.toByteArray();
+        try (XOImporter importer = xoManager.createImporter(new ByteArrayInputStream(bytes, 0, bytes.length - 1))) {
+            importer.withChunkSize(2).execute();
+            fail("Expecting an exception.");
+        } catch (XOException e) {
+            assertThat(e.getMessage(), containsString("2 records have already been committed"));
+        }
+        xoManager.currentTransaction().begin();
+        assertThat(executeQuery("MATCH (p:Person) RETURN count(p) as c").getColumn("c"), equalTo(Arrays.asList(2L)));
+        xoManager.currentTransaction().commit();
+    }
+
+    private Person createPerson(XOManager xoManager, String name, int age, String[] nicknames) {
+        Person person = xoManager.create(Person.class);
+        person.setName(name);
+        person.setAge(age);
+        person.setNicknames(nicknames);
+        return person;
+    }
+
+    private Person findPerson(XOManager xoManager, String name) {
+        return xoManager.createQuery("MATCH (p:Person) WHERE p.name={name} RETURN p", Person.class).withParameter("name", name).execute()
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,23 @@
+package com.buschmais.xo.neo4j.test.transfer.composite;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+
+import java.util.List;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Property;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+@Label("Book")
+public interface Book extends Taggable {
+
+    @Property("title")
+    String getName();
+
+    void setName(String name);
+
+    @Relation("WROTE")
+    @Incoming
+    List<Person> getAuthors();
+
+}
@@ -0,0 +1,21 @@
+package com.buschmais.xo.neo4j.test.transfer.composite;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+@Relation("KNOWS")
+public interface Knows {
+
+    @Outgoing
+    Person getFrom();
+
+    @Incoming
+    Person getTo();
+
+    long getSince();
+
+    void setSince(long since);
+
+}
@@ -0,0 +1,36 @@
+package com.buschmais.xo.neo4j.test.transfer.composite;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+import java.util.List;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+@Label("Person")
+public interface Person {
+
+    String getName();
+
+    void setName(String name);
+
+    int getAge();
+
+    void setAge(int age);
+
+    String[] getNicknames();
+
+    void setNicknames(String[] nicknames);
+
+    @Outgoing
+    List<Knows> getKnows();
+
+    @Incoming
+    List<Knows> getKnownBy();
+
+    @Relation("FOLLOWS")
+    @Outgoing
+    List<Person> getFollows();
+
+}
@@ -0,0 +1,12 @@
+package com.buschmais.xo.neo4j.test.transfer.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("Tag")
+public interface Tag {
+
+    String getName();
+
+    void setName(String name);
+
+}
@@ -0,0 +1,15 @@
+package com.buschmais.xo.neo4j.test.transfer.composite;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+import java.util.List;
+
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+public interface Taggable {
+
+    @Relation("TAGGED")
+    @Outgoing
+    List<Tag> getTags();
+
+}
@@ -0,0 +1,146 @@
+package com.buschmais.xo.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.buschmais.xo.spi.annotation.EntityDefinition;
+import com.buschmais.xo.spi.annotation.RelationDefinition;
+import com.buschmais.xo.spi.bootstrap.TypeIndexResource;
+
+/**
+ * Annotation processor creating an index of all entity and relation types,
+ * i.e. interfaces annotated with an annotation which itself is annotated with
+ * {@link EntityDefinition} or {@link RelationDefinition}.
+ * <p>
+ * The index is written to the class output as resource
+ * {@link TypeIndexResource#NAME} and contains the binary class name of one type per line. Entries of an already
+ * existing index are retained to support incremental compilation as long as
+ * their types still exist and define entities or relations.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+public class TypeIndexProcessor extends AbstractProcessor {
+
+    private final Set<String> types = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (TypeElement annotation : annotations) {
+                if (isTypeDefinition(annotation)) {
+                    for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                        if (ElementKind.INTERFACE.equals(element.getKind())) {
+                            types.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine if an annotation defines entities or relations.
+     *
+     * @param annotation
+     *            The annotation.
+     * @return <code>true</code> if the annotation is annotated with
+     *         {@link EntityDefinition} or {@link RelationDefinition}.
+     */
+    private boolean isTypeDefinition(TypeElement annotation) {
+        for (AnnotationMirror annotationMirror : annotation.getAnnotationMirrors()) {
+            String name = ((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (EntityDefinition.class.getName().equals(name) || RelationDefinition.class.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine if a type listed in an existing index is still a type
+     * definition.
+     *
+     * @param binaryName
+     *            The binary name of the type.
+     * @return <code>true</code> if the type exists and is annotated with an
+     *         annotation defining entities or relations.
+     */
+    private boolean isIndexed(String binaryName) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+        if (element == null || !ElementKind.INTERFACE.equals(element.getKind())) {
+            return false;
+        }
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (isTypeDefinition((TypeElement) annotationMirror.getAnnotationType().asElement())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merges the collected types with an existing index and writes it, types
+     * which have been removed since the previous compilation are dropped.
+     */
+    private void writeIndex() {
+        boolean modified = !types.isEmpty();
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", TypeIndexResource.NAME);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String type = line.trim();
+                    if (!type.isEmpty()) {
+                        if (types.contains(type) || isIndexed(type)) {
+                            types.add(type);
+                        } else {
+                            modified = true;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // No index from a previous compilation available.
+        }
+        if (!modified) {
+            return;
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", TypeIndexResource.NAME);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String type : types) {
+                    writer.write(type);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write XO type index " + TypeIndexResource.NAME + ": " + e.getMessage());
+        }
+    }
+}
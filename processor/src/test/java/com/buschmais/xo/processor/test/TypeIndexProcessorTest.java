@@ -0,0 +1,74 @@
+package com.buschmais.xo.processor.test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.buschmais.xo.processor.TypeIndexProcessor;
+import com.buschmais.xo.spi.bootstrap.TypeIndexResource;
+
+public class TypeIndexProcessorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void index() throws IOException {
+        File output = temporaryFolder.newFolder();
+        compile(output, source("test.Entity", "package test; @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) "
+                + "@com.buschmais.xo.spi.annotation.EntityDefinition public @interface Entity {}"),
+                source("test.Relation", "package test; @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) "
+                        + "@com.buschmais.xo.spi.annotation.RelationDefinition public @interface Relation {}"),
+                source("test.B", "package test; @Entity public interface B { @Entity interface Inner {} }"),
+                source("test.A", "package test; @Entity public interface A { @Relation A getA(); }"),
+                source("test.R", "package test; @Relation public interface R {}"),
+                source("test.C", "package test; @Deprecated public interface C {}"));
+        assertThat(readIndex(output), equalTo(asList("test.A", "test.B", "test.B$Inner", "test.R")));
+        // Incremental compilation
+        compile(output, source("test.D", "package test; @Entity public interface D {}"));
+        assertThat(readIndex(output), equalTo(asList("test.A", "test.B", "test.B$Inner", "test.D", "test.R")));
+        // Removed types
+        assertThat(new File(output, "test/R.class").delete(), equalTo(true));
+        compile(output, source("test.D", "package test; public interface D {}"));
+        assertThat(readIndex(output), equalTo(asList("test.A", "test.B", "test.B$Inner")));
+    }
+
+    private void compile(File output, JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String classPath = System.getProperty("java.class.path") + File.pathSeparator + output.getAbsolutePath();
+        List<String> options = new ArrayList<>(asList("-d", output.getAbsolutePath(), "-classpath", classPath));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, asList(sources));
+        task.setProcessors(asList(new TypeIndexProcessor()));
+        assertThat(task.call(), equalTo(true));
+    }
+
+    private List<String> readIndex(File output) throws IOException {
+        return Files.readAllLines(new File(output, TypeIndexResource.NAME).toPath(), StandardCharsets.UTF_8);
+    }
+
+    private JavaFileObject source(String name, final String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+}
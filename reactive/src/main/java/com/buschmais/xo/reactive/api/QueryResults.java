@@ -0,0 +1,90 @@
+package com.buschmais.xo.reactive.api;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.reactivestreams.Publisher;
+
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.reactive.impl.ResultPublisher;
+
+/**
+ * Provides {@link Stream}s and reactive stream {@link Publisher}s for the
+ * results of {@link Query}s.
+ * <p>
+ * This module is optional and requires a Java 8 runtime.
+ * </p>
+ */
+public final class QueryResults {
+
+    /**
+     * The default number of rows which are read ahead by a publisher.
+     */
+    public static final int DEFAULT_PREFETCH = 256;
+
+    private QueryResults() {
+    }
+
+    /**
+     * Execute a query and return its result as sequential {@link Stream}.
+     * <p>
+     * The stream must be consumed on the thread which is bound to the session,
+     * closing the stream closes the underlying result.
+     * </p>
+     *
+     * @param query The query.
+     * @param <T>   The result type.
+     * @return The stream.
+     */
+    public static <T> Stream<T> stream(Query<T> query) {
+        Query.Result<T> result = query.execute();
+        ResultIterator<T> iterator = result.iterator();
+        Stream<T> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        return stream.onClose(iterator::close);
+    }
+
+    /**
+     * Return a {@link Publisher} for the result of a query using the
+     * {@link #DEFAULT_PREFETCH}.
+     *
+     * @param query    The query.
+     * @param executor The executor running on the thread which is bound to the
+     *                 session, all interactions with the query and its result
+     *                 are performed by this executor.
+     * @param <T>      The result type.
+     * @return The publisher.
+     * @see #publish(Query, Executor, int)
+     */
+    public static <T> Publisher<T> publish(Query<T> query, Executor executor) {
+        return publish(query, executor, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Return a {@link Publisher} for the result of a query.
+     * <p>
+     * The query is executed when the publisher is subscribed. Executing the
+     * query, reading rows and emitting signals to the subscriber is performed
+     * exclusively by the given executor, i.e. the subscriber may request
+     * elements from any thread while the session is only accessed by the thread
+     * it is bound to. The publisher supports a single subscriber.
+     * </p>
+     *
+     * @param query    The query.
+     * @param executor The executor running on the thread which is bound to the
+     *                 session.
+     * @param prefetch The maximum number of rows to read and emit within one
+     *                 task of the executor.
+     * @param <T>      The result type.
+     * @return The publisher.
+     */
+    public static <T> Publisher<T> publish(Query<T> query, Executor executor, int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("The prefetch must be positive but is " + prefetch);
+        }
+        return new ResultPublisher<>(query, executor, prefetch);
+    }
+}
@@ -0,0 +1,277 @@
+package com.buschmais.xo.reactive.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.ResultIterator;
+
+/**
+ * A {@link Publisher} emitting the rows of a query result.
+ * <p>
+ * Executing the query, reading and closing the result and all signals to the
+ * subscriber are performed by tasks of the given executor, the subscription
+ * itself only records demand and cancellation. The executor is expected to run
+ * on the thread which is bound to the session of the query.
+ * </p>
+ *
+ * @param <T> The result type.
+ */
+public class ResultPublisher<T> implements Publisher<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultPublisher.class);
+
+    private final Query<T> query;
+
+    private final Executor executor;
+
+    private final int prefetch;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Constructor.
+     *
+     * @param query    The query.
+     * @param executor The executor running on the thread of the session.
+     * @param prefetch The maximum number of rows emitted within one task.
+     */
+    public ResultPublisher(Query<T> query, Executor executor, int prefetch) {
+        this.query = query;
+        this.executor = executor;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("The subscriber must not be null.");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The result of a query can only be published to one subscriber."));
+            return;
+        }
+        new ResultSubscription(subscriber).schedule();
+    }
+
+    /**
+     * The subscription, all fields which are not thread safe are only accessed
+     * by the drain task which is exclusively scheduled using
+     * {@link #pending}.
+     */
+    private class ResultSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile boolean cancelled = false;
+
+        private volatile IllegalArgumentException invalidRequest = null;
+
+        private boolean started = false;
+
+        private boolean terminated = false;
+
+        private ResultIterator<T> iterator = null;
+
+        private ResultSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The number of requested elements must be positive but is " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = demand.get();
+                    next = current + n;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                } while (!demand.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        /**
+         * Schedule the drain task if it is not already running.
+         */
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                execute(false);
+            }
+        }
+
+        /**
+         * Submit the drain task to the executor.
+         *
+         * @param draining <code>true</code> if called from the drain task, i.e. on
+         *                 the thread of the session.
+         */
+        private void execute(boolean draining) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // No other task is running and pending is never released again, i.e. signalling from here is serialized.
+                if (!terminated) {
+                    if (draining) {
+                        terminate();
+                    } else {
+                        // The result can only be closed on the thread of the session.
+                        terminated = true;
+                        cancelled = true;
+                    }
+                    if (!started) {
+                        started = true;
+                        subscriber.onSubscribe(this);
+                    }
+                    signalError(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!terminated && emit()) {
+                    // The batch is exhausted but there is still demand, yield to other tasks of the executor.
+                    execute(true);
+                    return;
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Emit signals to the subscriber.
+         *
+         * @return <code>true</code> if the batch has been exhausted while there
+         * is still demand.
+         */
+        private boolean emit() {
+            if (!started) {
+                started = true;
+                try {
+                    subscriber.onSubscribe(this);
+                } catch (Throwable t) {
+                    LOGGER.warn("Subscriber " + subscriber + " failed in onSubscribe, cancelling subscription.", t);
+                    terminate();
+                    return false;
+                }
+            }
+            if (cancelled) {
+                terminate();
+                return false;
+            }
+            IllegalArgumentException invalid = invalidRequest;
+            if (invalid != null) {
+                terminate();
+                signalError(invalid);
+                return false;
+            }
+            long requested = demand.get();
+            long emitted = 0;
+            while (emitted < requested && emitted < prefetch) {
+                if (cancelled) {
+                    terminate();
+                    return false;
+                }
+                T next;
+                try {
+                    if (iterator == null) {
+                        iterator = query.execute().iterator();
+                    }
+                    if (!iterator.hasNext()) {
+                        terminate();
+                        signalComplete();
+                        return false;
+                    }
+                    next = iterator.next();
+                } catch (RuntimeException e) {
+                    terminate();
+                    signalError(e);
+                    return false;
+                }
+                try {
+                    subscriber.onNext(next);
+                } catch (Throwable t) {
+                    LOGGER.warn("Subscriber " + subscriber + " failed in onNext, cancelling subscription.", t);
+                    terminate();
+                    return false;
+                }
+                emitted++;
+            }
+            if (requested != Long.MAX_VALUE) {
+                requested = demand.addAndGet(-emitted);
+            }
+            return emitted == prefetch && requested > 0;
+        }
+
+        /**
+         * Mark the subscription as terminated and close the result.
+         */
+        private void terminate() {
+            terminated = true;
+            cancelled = true;
+            if (iterator != null) {
+                try {
+                    iterator.close();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Cannot close result.", e);
+                }
+                iterator = null;
+            }
+        }
+
+        private void signalComplete() {
+            try {
+                subscriber.onComplete();
+            } catch (Throwable t) {
+                LOGGER.warn("Subscriber " + subscriber + " failed in onComplete.", t);
+            }
+        }
+
+        private void signalError(Throwable error) {
+            try {
+                subscriber.onError(error);
+            } catch (Throwable t) {
+                LOGGER.warn("Subscriber " + subscriber + " failed in onError.", t);
+            }
+        }
+    }
+}
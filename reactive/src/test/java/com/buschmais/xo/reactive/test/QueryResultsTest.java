@@ -0,0 +1,164 @@
+package com.buschmais.xo.reactive.test;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.bootstrap.XO;
+import com.buschmais.xo.reactive.api.QueryResults;
+import com.buschmais.xo.reactive.test.composite.A;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class QueryResultsTest {
+
+    private XOManagerFactory xoManagerFactory;
+
+    private XOManager xoManager;
+
+    private ExecutorService sessionExecutor;
+
+    private Thread sessionThread;
+
+    @Before
+    public void setUp() throws Exception {
+        xoManagerFactory = XO.createXOManagerFactory("default");
+        sessionExecutor = Executors.newSingleThreadExecutor();
+        inSession(new Callable<Void>() {
+            @Override
+            public Void call() {
+                sessionThread = Thread.currentThread();
+                xoManager = xoManagerFactory.createXOManager();
+                xoManager.currentTransaction().begin();
+                xoManager.createQuery("MATCH (n)-[r]-() DELETE r").execute();
+                xoManager.createQuery("MATCH (n) DELETE n").execute();
+                for (int i = 0; i < 10; i++) {
+                    A a = xoManager.create(A.class);
+                    a.setValue("A" + i);
+                }
+                xoManager.currentTransaction().commit();
+                return null;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        inSession(new Callable<Void>() {
+            @Override
+            public Void call() {
+                xoManager.close();
+                return null;
+            }
+        });
+        sessionExecutor.shutdown();
+        xoManagerFactory.close();
+    }
+
+    @Test
+    public void stream() throws Exception {
+        List<String> values = inSession(new Callable<List<String>>() {
+            @Override
+            public List<String> call() {
+                xoManager.currentTransaction().begin();
+                try (Stream<A> stream = QueryResults.stream(xoManager.createQuery("MATCH (a:A) RETURN a ORDER BY a.value", A.class))) {
+                    return stream.map(A::getValue).limit(3).collect(Collectors.toList());
+                } finally {
+                    xoManager.currentTransaction().commit();
+                }
+            }
+        });
+        assertThat(values, equalTo(Arrays.asList("A0", "A1", "A2")));
+    }
+
+    @Test
+    public void publish() throws Exception {
+        Publisher<A> publisher = inSession(new Callable<Publisher<A>>() {
+            @Override
+            public Publisher<A> call() {
+                xoManager.currentTransaction().begin();
+                return QueryResults.publish(xoManager.createQuery("MATCH (a:A) RETURN a ORDER BY a.value", A.class), sessionExecutor, 4);
+            }
+        });
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        assertThat(subscriber.subscribed.await(10, TimeUnit.SECONDS), equalTo(true));
+        subscriber.subscription.request(3);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.terminated.await(10, TimeUnit.SECONDS), equalTo(true));
+        assertThat(subscriber.values.size(), equalTo(10));
+        assertThat(subscriber.values.get(9), equalTo("A9"));
+        assertThat(subscriber.error, nullValue());
+        assertThat(subscriber.signalledOnSessionThread, equalTo(true));
+        inSession(new Callable<Void>() {
+            @Override
+            public Void call() {
+                xoManager.currentTransaction().commit();
+                return null;
+            }
+        });
+    }
+
+    private <T> T inSession(Callable<T> task) throws Exception {
+        return sessionExecutor.submit(task).get(10, TimeUnit.SECONDS);
+    }
+
+    private class TestSubscriber implements Subscriber<A> {
+
+        private final List<String> values = new CopyOnWriteArrayList<>();
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile Subscription subscription;
+        private volatile Throwable error = null;
+        private volatile boolean signalledOnSessionThread = true;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            verifyThread();
+            this.subscription = subscription;
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onNext(A a) {
+            verifyThread();
+            values.add(a.getValue());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            verifyThread();
+            this.error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            verifyThread();
+            terminated.countDown();
+        }
+
+        private void verifyThread() {
+            if (Thread.currentThread() != sessionThread) {
+                signalledOnSessionThread = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.buschmais.xo.reactive.test;
+
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.reactive.api.QueryResults;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Verifies the rules of the reactive streams specification for the publisher
+ * of query results, the test names refer to the rules of the specification.
+ */
+public class ResultPublisherTest {
+
+    private static final List<String> VALUES = Arrays.asList("A0", "A1", "A2", "A3", "A4");
+
+    private TaskQueue executor;
+
+    private ListQuery query;
+
+    @Before
+    public void setUp() {
+        executor = new TaskQueue();
+        query = new ListQuery(VALUES);
+    }
+
+    @Test
+    public void spec101_emitsNoMoreThanRequested() {
+        TestSubscriber subscriber = subscribe(QueryResults.publish(query, executor));
+        subscriber.subscription.request(2);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0", "A1")));
+        subscriber.subscription.request(1);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0", "A1", "A2")));
+        assertThat(subscriber.completed, equalTo(false));
+        assertThat(query.closed, equalTo(false));
+    }
+
+    @Test
+    public void spec102_signalsOnlyOnTheExecutor() {
+        Publisher<String> publisher = QueryResults.publish(query, executor);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        assertThat(subscriber.subscription, nullValue());
+        assertThat(query.executed, equalTo(0));
+        executor.runAll();
+        assertThat(subscriber.subscription, notNullValue());
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.values, empty());
+        assertThat(query.executed, equalTo(0));
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(VALUES));
+        assertThat(query.executed, equalTo(1));
+    }
+
+    @Test
+    public void spec105_completesAndClosesTheResult() {
+        TestSubscriber subscriber = subscribe(QueryResults.publish(query, executor));
+        subscriber.subscription.request(VALUES.size() + 1);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(VALUES));
+        assertThat(subscriber.completed, equalTo(true));
+        assertThat(subscriber.error, nullValue());
+        assertThat(query.closed, equalTo(true));
+    }
+
+    @Test
+    public void spec104_signalsErrorsOfTheResult() {
+        query.failAt = 2;
+        TestSubscriber subscriber = subscribe(QueryResults.publish(query, executor));
+        subscriber.subscription.request(Long.MAX_VALUE);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0", "A1")));
+        assertThat(subscriber.error, instanceOf(IllegalStateException.class));
+        assertThat(subscriber.completed, equalTo(false));
+        assertThat(query.closed, equalTo(true));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void spec109_rejectsNullSubscriber() {
+        QueryResults.publish(query, executor).subscribe(null);
+    }
+
+    @Test
+    public void spec109_signalsOnSubscribeBeforeOtherSignals() {
+        executor.reject = true;
+        TestSubscriber subscriber = new TestSubscriber();
+        QueryResults.publish(query, executor).subscribe(subscriber);
+        assertThat(subscriber.subscription, notNullValue());
+        assertThat(subscriber.error, instanceOf(RejectedExecutionException.class));
+        assertThat(subscriber.signals, equalTo(Arrays.asList("onSubscribe", "onError")));
+    }
+
+    @Test
+    public void spec114_rejectsSecondSubscriber() {
+        Publisher<String> publisher = QueryResults.publish(query, executor);
+        subscribe(publisher);
+        TestSubscriber second = new TestSubscriber();
+        publisher.subscribe(second);
+        assertThat(second.subscription, notNullValue());
+        assertThat(second.error, instanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    public void spec213_cancelsIfOnNextFails() {
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onNext(String value) {
+                super.onNext(value);
+                throw new IllegalStateException("Subscriber failed.");
+            }
+        };
+        subscribe(QueryResults.publish(query, executor), subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0")));
+        assertThat(subscriber.error, nullValue());
+        assertThat(subscriber.completed, equalTo(false));
+        assertThat(query.closed, equalTo(true));
+    }
+
+    @Test
+    public void spec303_doesNotRecurseOnRequestFromOnNext() {
+        final int[] depth = {0, 0};
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onNext(String value) {
+                super.onNext(value);
+                depth[0]++;
+                depth[1] = Math.max(depth[0], depth[1]);
+                subscription.request(1);
+                depth[0]--;
+            }
+        };
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        QueryResults.publish(query, direct).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertThat(subscriber.values, equalTo(VALUES));
+        assertThat(subscriber.completed, equalTo(true));
+        assertThat(depth[1], equalTo(1));
+    }
+
+    @Test
+    public void spec306_noSignalsAfterCancel() {
+        TestSubscriber subscriber = subscribe(QueryResults.publish(query, executor));
+        subscriber.subscription.request(1);
+        executor.runAll();
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0")));
+        assertThat(subscriber.signals, equalTo(Arrays.asList("onSubscribe", "onNext")));
+        assertThat(query.closed, equalTo(true));
+    }
+
+    @Test
+    public void spec309_signalsErrorForNonPositiveRequest() {
+        TestSubscriber subscriber = subscribe(QueryResults.publish(query, executor));
+        subscriber.subscription.request(1);
+        executor.runAll();
+        subscriber.subscription.request(0);
+        executor.runAll();
+        assertThat(subscriber.error, instanceOf(IllegalArgumentException.class));
+        assertThat(query.closed, equalTo(true));
+        subscriber.subscription.request(1);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0")));
+    }
+
+    @Test
+    public void spec317_supportsUnboundedDemand() {
+        TestSubscriber subscriber = subscribe(QueryResults.publish(query, executor));
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(VALUES));
+        assertThat(subscriber.completed, equalTo(true));
+    }
+
+    @Test
+    public void prefetchYieldsToTheExecutor() {
+        TestSubscriber subscriber = subscribe(QueryResults.publish(query, executor, 2));
+        subscriber.subscription.request(Long.MAX_VALUE);
+        executor.runNext();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0", "A1")));
+        executor.runNext();
+        assertThat(subscriber.values, equalTo(Arrays.asList("A0", "A1", "A2", "A3")));
+        executor.runAll();
+        assertThat(subscriber.values, equalTo(VALUES));
+        assertThat(subscriber.completed, equalTo(true));
+    }
+
+    private TestSubscriber subscribe(Publisher<String> publisher) {
+        return subscribe(publisher, new TestSubscriber());
+    }
+
+    private TestSubscriber subscribe(Publisher<String> publisher, TestSubscriber subscriber) {
+        publisher.subscribe(subscriber);
+        executor.runAll();
+        assertThat(subscriber.subscription, notNullValue());
+        return subscriber;
+    }
+
+    /**
+     * An executor queueing tasks until they are explicitly run.
+     */
+    private static class TaskQueue implements Executor {
+
+        private final LinkedList<Runnable> tasks = new LinkedList<>();
+
+        private boolean reject = false;
+
+        @Override
+        public void execute(Runnable command) {
+            if (reject) {
+                throw new RejectedExecutionException("Rejected.");
+            }
+            tasks.add(command);
+        }
+
+        private void runNext() {
+            tasks.removeFirst().run();
+        }
+
+        private void runAll() {
+            while (!tasks.isEmpty()) {
+                runNext();
+            }
+        }
+    }
+
+    /**
+     * A query returning a list of values.
+     */
+    private static class ListQuery implements Query<String> {
+
+        private final List<String> values;
+
+        private int executed = 0;
+
+        private boolean closed = false;
+
+        private int failAt = -1;
+
+        private ListQuery(List<String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Query<String> using(Class<? extends Annotation> queryLanguage) {
+            return this;
+        }
+
+        @Override
+        public Query<String> withParameter(String name, Object value) {
+            return this;
+        }
+
+        @Override
+        public Query<String> withParameters(Map<String, Object> parameters) {
+            return this;
+        }
+
+        @Override
+        public Result<String> execute() {
+            executed++;
+            final Iterator<String> iterator = values.iterator();
+            final ResultIterator<String> resultIterator = new ResultIterator<String>() {
+
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    assertOpen();
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    assertOpen();
+                    if (index++ == failAt) {
+                        throw new IllegalStateException("Cannot read next row.");
+                    }
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() {
+                    closed = true;
+                }
+            };
+            return new Result<String>() {
+                @Override
+                public String getSingleResult() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public boolean hasResult() {
+                    return resultIterator.hasNext();
+                }
+
+                @Override
+                public ResultIterator<String> iterator() {
+                    return resultIterator;
+                }
+
+                @Override
+                public void close() {
+                    resultIterator.close();
+                }
+            };
+        }
+
+        private void assertOpen() {
+            if (closed) {
+                fail("The result has already been closed.");
+            }
+        }
+    }
+
+    private static class TestSubscriber implements Subscriber<String> {
+
+        protected Subscription subscription;
+        private final List<String> signals = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private boolean completed = false;
+        private Throwable error = null;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            signals.add("onSubscribe");
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(String value) {
+            if (!signals.contains("onNext")) {
+                signals.add("onNext");
+            }
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.add("onError");
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add("onComplete");
+            this.completed = true;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.buschmais.xo.reactive.test.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("A")
+public interface A {
+
+    String getValue();
+
+    void setValue(String value);
+}
@@ -0,0 +1,21 @@
+package com.buschmais.xo.spi.bootstrap;
+
+/**
+ * Defines the resource of a type index, i.e. the list of entity and relation
+ * types which is created at compile time by the XO annotation processor
+ * (module xo.processor) and read while an
+ * {@link com.buschmais.xo.api.XOManagerFactory} is initialized.
+ * <p>
+ * The resource contains the binary class name of one type per line.
+ * </p>
+ */
+public final class TypeIndexResource {
+
+    /**
+     * The name of the index resource.
+     */
+    public static final String NAME = "META-INF/xo/types";
+
+    private TypeIndexResource() {
+    }
+}
@@ -0,0 +1,94 @@
+package com.buschmais.xo.spi.datastore;
+
+import java.util.*;
+
+/**
+ * The columns of a query result.
+ * <p>
+ * The indexes of the columns are resolved once and shared by all
+ * {@link DatastoreRow}s of a result.
+ * </p>
+ */
+public final class DatastoreColumns {
+
+    private final String[] names;
+
+    private final Map<String, Integer> indexes;
+
+    /**
+     * Constructor.
+     *
+     * @param names The column names in the order of the result.
+     */
+    public DatastoreColumns(Collection<String> names) {
+        this.names = names.toArray(new String[names.size()]);
+        this.indexes = new HashMap<>(this.names.length * 2);
+        for (int i = 0; i < this.names.length; i++) {
+            indexes.put(this.names[i], i);
+        }
+    }
+
+    /**
+     * Return the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Return the name of a column.
+     *
+     * @param index The index of the column.
+     * @return The name.
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Return the column names.
+     *
+     * @return The column names in the order of the result.
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Return the index of a column.
+     *
+     * @param name The column name.
+     * @return The index or <code>-1</code> if the column does not exist.
+     */
+    public int indexOf(Object name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Determines if the columns match the given column names in their order.
+     *
+     * @param names The column names.
+     * @return <code>true</code> if the columns match.
+     */
+    public boolean matches(Collection<String> names) {
+        if (names.size() != this.names.length) {
+            return false;
+        }
+        int i = 0;
+        for (String name : names) {
+            String column = this.names[i++];
+            if (column != name && !column.equals(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(names);
+    }
+}
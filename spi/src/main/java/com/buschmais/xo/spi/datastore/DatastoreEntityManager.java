@@ -1,5 +1,6 @@
 package com.buschmais.xo.spi.datastore;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -56,6 +57,21 @@ public interface DatastoreEntityManager<EntityId, Entity, EntityMetadata extends
     Entity createEntity(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types, Set<EntityDiscriminator> discriminators,
             Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity);
 
+    /**
+     * Create a batch of new entities for the given types using a set of
+     * discriminators representing these types.
+     *
+     * @param types
+     *            The types.
+     * @param discriminators
+     *            The set of discriminators.
+     * @param exampleEntities
+     *            The example entities, one for each entity to create.
+     * @return The created entities in the order of the example entities.
+     */
+    List<Entity> createEntities(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types, Set<EntityDiscriminator> discriminators,
+            List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> exampleEntities);
+
     /**
      * Delete an entity.
      *
@@ -79,13 +95,18 @@ public interface DatastoreEntityManager<EntityId, Entity, EntityMetadata extends
 
     /**
      * Find entities using given primitive property values.
+     * <p>
+     * Entities must match all given values. A value is either compared for
+     * equality or is a {@link PropertyPredicate}. A <code>null</code> key
+     * refers to the indexed property of the type.
+     * </p>
      *
      * @param type
      *            The type of the instances.
      * @param discriminator
      *            The discriminator to find the entities.
      * @param values
-     *            The primitive value.
+     *            The primitive values.
      * @return An iterator returning matching entities.
      */
     ResultIterator<Entity> findEntity(EntityTypeMetadata<EntityMetadata> type, EntityDiscriminator discriminator,
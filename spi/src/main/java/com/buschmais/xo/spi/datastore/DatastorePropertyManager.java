@@ -16,8 +16,10 @@ public interface DatastorePropertyManager<Element, PropertyMetadata> {
      *            The property metadata.
      * @param value
      *            The value
+     * @return <code>true</code> if the value has been modified, i.e. it is
+     *         different from the current value.
      */
-    void setProperty(Element entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value);
+    boolean setProperty(Element entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value);
 
     /**
      * Determine if the value of a primitive property is set.
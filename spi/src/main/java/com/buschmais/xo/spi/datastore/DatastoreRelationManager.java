@@ -1,6 +1,8 @@
 package com.buschmais.xo.spi.datastore;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
@@ -43,6 +45,29 @@ public interface DatastoreRelationManager<Entity, RelationId, Relation, Relation
     Relation createRelation(Entity source, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction, Entity target,
             Map<PrimitivePropertyMethodMetadata<PrimitivePropertyMetadata>, Object> exampleEntity);
 
+    /**
+     * Create a batch of relations (i.e. within collections) between entities.
+     * <p>
+     * The lists of sources, targets and examples must have the same size, the
+     * n-th relation is created between the n-th source and target using the
+     * n-th example.
+     * </p>
+     *
+     * @param sources
+     *            The sources.
+     * @param metadata
+     *            The relation metadata.
+     * @param direction
+     *            The direction.
+     * @param targets
+     *            The targets.
+     * @param examples
+     *            The examples.
+     * @return The relations in the order of the provided sources.
+     */
+    List<Relation> createRelations(List<Entity> sources, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction,
+            List<Entity> targets, List<Map<PrimitivePropertyMethodMetadata<PrimitivePropertyMetadata>, Object>> examples);
+
     /**
      * Delete a relation between entities.
      *
@@ -129,6 +154,55 @@ public interface DatastoreRelationManager<Entity, RelationId, Relation, Relation
      */
     Iterable<Relation> getRelations(Entity source, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction);
 
+    /**
+     * Return the relations which are reachable from an entity following
+     * relations of the given types and directions using a single access to
+     * the datastore, e.g. for executing a fetch plan. The result may contain
+     * further relations which are ignored by the caller.
+     *
+     * @param source
+     *            The source.
+     * @param types
+     *            The relation metadata and the directions to follow.
+     * @param depth
+     *            The maximum number of relations on a path starting at the
+     *            source.
+     * @return The relations.
+     */
+    Iterable<Relation> getReachableRelations(Entity source, Map<RelationTypeMetadata<RelationMetadata>, Set<RelationTypeMetadata.Direction>> types,
+            int depth);
+
+    /**
+     * Return the number of relations (i.e. the size of a collection) of an
+     * entity.
+     *
+     * @param source
+     *            The source.
+     * @param metadata
+     *            The relation metadata.
+     * @param direction
+     *            The direction.
+     * @return The number of relations.
+     */
+    long getRelationCount(Entity source, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction);
+
+    /**
+     * Determine if a relation (i.e. within a collection) between two entities
+     * exists.
+     *
+     * @param source
+     *            The source.
+     * @param metadata
+     *            The relation metadata.
+     * @param direction
+     *            The direction.
+     * @param target
+     *            The target.
+     * @return <code>true</code> if a relation exists, <code>false</code>
+     *         otherwise.
+     */
+    boolean hasRelation(Entity source, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction, Entity target);
+
     /**
      * Return the source of a relation (i.e. where the direction is
      * {@link com.buschmais.xo.spi.metadata.type.RelationTypeMetadata.Direction#TO}
@@ -0,0 +1,27 @@
+package com.buschmais.xo.spi.datastore;
+
+/**
+ * A row of a query result.
+ * <p>
+ * A row is a view on the result provided by the datastore, i.e. values are
+ * converted to their datastore representation on access.
+ * </p>
+ */
+public interface DatastoreRow {
+
+    /**
+     * Return the columns of the row.
+     *
+     * @return The {@link DatastoreColumns}, shared by all rows of a result.
+     */
+    DatastoreColumns getColumns();
+
+    /**
+     * Return the value of a column.
+     *
+     * @param index The index of the column.
+     * @return The value in datastore representation.
+     */
+    Object get(int index);
+
+}
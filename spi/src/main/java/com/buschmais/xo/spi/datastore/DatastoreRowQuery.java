@@ -0,0 +1,40 @@
+package com.buschmais.xo.spi.datastore;
+
+import com.buschmais.xo.api.ResultIterator;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+/**
+ * Optional capability of a {@link DatastoreQuery} providing its results as
+ * {@link DatastoreRow}s, i.e. as views on the results of the datastore
+ * without copying them into maps.
+ * <p>
+ * The results of queries which do not implement this interface are adapted
+ * from {@link DatastoreQuery#execute(String, Map)} using a
+ * {@link MapDatastoreRowIterator}.
+ * </p>
+ *
+ * @param <QL> The query language type.
+ */
+public interface DatastoreRowQuery<QL extends Annotation> {
+
+    /**
+     * Execute the query using a string expression.
+     *
+     * @param query      The expression.
+     * @param parameters The parameters.
+     * @return The {@link com.buschmais.xo.api.ResultIterator}, each entry holding a {@link DatastoreRow}.
+     */
+    ResultIterator<DatastoreRow> executeRows(String query, Map<String, Object> parameters);
+
+    /**
+     * Execute the query using an annotation expression.
+     *
+     * @param query      The expression.
+     * @param parameters The parameters.
+     * @return The {@link com.buschmais.xo.api.ResultIterator}, each entry holding a {@link DatastoreRow}.
+     */
+    ResultIterator<DatastoreRow> executeRows(QL query, Map<String, Object> parameters);
+
+}
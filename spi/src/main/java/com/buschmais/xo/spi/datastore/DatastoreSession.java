@@ -75,6 +75,12 @@ public interface DatastoreSession<EntityId, Entity, EntityMetadata extends Datas
      */
     <R> R createRepository(XOSession xoSession, Class<R> type);
 
+    /**
+     * Reset the session before it is reused by another user, i.e. clear all
+     * state cached by the session.
+     */
+    void reset();
+
     /**
      * Close the session.
      */
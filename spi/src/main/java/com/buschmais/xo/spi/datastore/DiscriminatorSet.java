@@ -0,0 +1,16 @@
+package com.buschmais.xo.spi.datastore;
+
+import java.util.Set;
+
+/**
+ * Marks a set of discriminators provided by a datastore as immutable.
+ * <p>
+ * Such sets may be shared, e.g. used as keys for resolving types, without
+ * creating a copy.
+ * </p>
+ *
+ * @param <Discriminator>
+ *            The discriminator type.
+ */
+public interface DiscriminatorSet<Discriminator> extends Set<Discriminator> {
+}
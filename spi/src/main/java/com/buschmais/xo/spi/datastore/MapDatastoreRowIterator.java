@@ -0,0 +1,57 @@
+package com.buschmais.xo.spi.datastore;
+
+import com.buschmais.xo.api.ResultIterator;
+
+import java.util.Map;
+
+/**
+ * Adapts a {@link ResultIterator} providing rows as maps to
+ * {@link DatastoreRow}s, it is used for {@link DatastoreQuery}s which do not
+ * implement {@link DatastoreRowQuery}.
+ */
+public class MapDatastoreRowIterator implements ResultIterator<DatastoreRow> {
+
+    private final ResultIterator<Map<String, Object>> iterator;
+
+    private DatastoreColumns columns = null;
+
+    public MapDatastoreRowIterator(ResultIterator<Map<String, Object>> iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public DatastoreRow next() {
+        Map<String, Object> row = iterator.next();
+        if (columns == null || !columns.matches(row.keySet())) {
+            columns = new DatastoreColumns(row.keySet());
+        }
+        final DatastoreColumns rowColumns = columns;
+        final Object[] values = row.values().toArray();
+        return new DatastoreRow() {
+            @Override
+            public DatastoreColumns getColumns() {
+                return rowColumns;
+            }
+
+            @Override
+            public Object get(int index) {
+                return values[index];
+            }
+        };
+    }
+
+    @Override
+    public void remove() {
+        iterator.remove();
+    }
+
+    @Override
+    public void close() {
+        iterator.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.buschmais.xo.spi.datastore;
+
+/**
+ * A condition for a property value other than equality which may be passed as
+ * value of an example to the find operation of a
+ * {@link DatastoreEntityManager}.
+ */
+public interface PropertyPredicate {
+
+    /**
+     * Evaluates the predicate, e.g. for datastores filtering values which
+     * cannot be evaluated natively.
+     *
+     * @param value The property value, may be <code>null</code>.
+     * @return <code>true</code> if the value matches.
+     */
+    boolean matches(Object value);
+
+}
@@ -0,0 +1,32 @@
+package com.buschmais.xo.spi.datastore;
+
+/**
+ * Predicate matching string values starting with a prefix.
+ */
+public final class PropertyPrefix implements PropertyPredicate {
+
+    private final String prefix;
+
+    /**
+     * Constructor.
+     *
+     * @param prefix The prefix.
+     */
+    public PropertyPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public boolean matches(Object value) {
+        return value instanceof String && ((String) value).startsWith(prefix);
+    }
+
+    @Override
+    public String toString() {
+        return "startsWith " + prefix;
+    }
+}
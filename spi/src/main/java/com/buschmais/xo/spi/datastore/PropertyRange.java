@@ -0,0 +1,108 @@
+package com.buschmais.xo.spi.datastore;
+
+/**
+ * Predicate matching values within an optionally bounded range.
+ * <p>
+ * Instances are immutable, bounds are added using {@link #withLower(Object, boolean)} and
+ * {@link #withUpper(Object, boolean)}.
+ * </p>
+ */
+public final class PropertyRange implements PropertyPredicate {
+
+    /**
+     * The unbounded range.
+     */
+    public static final PropertyRange ALL = new PropertyRange(null, false, null, false);
+
+    private final Object lower;
+    private final boolean lowerInclusive;
+    private final Object upper;
+    private final boolean upperInclusive;
+
+    private PropertyRange(Object lower, boolean lowerInclusive, Object upper, boolean upperInclusive) {
+        this.lower = lower;
+        this.lowerInclusive = lowerInclusive;
+        this.upper = upper;
+        this.upperInclusive = upperInclusive;
+    }
+
+    /**
+     * Return a range with the given lower bound.
+     *
+     * @param lower     The lower bound.
+     * @param inclusive <code>true</code> if the bound is included.
+     * @return The range.
+     */
+    public PropertyRange withLower(Object lower, boolean inclusive) {
+        return new PropertyRange(lower, inclusive, upper, upperInclusive);
+    }
+
+    /**
+     * Return a range with the given upper bound.
+     *
+     * @param upper     The upper bound.
+     * @param inclusive <code>true</code> if the bound is included.
+     * @return The range.
+     */
+    public PropertyRange withUpper(Object upper, boolean inclusive) {
+        return new PropertyRange(lower, lowerInclusive, upper, inclusive);
+    }
+
+    /**
+     * Return the lower bound.
+     *
+     * @return The lower bound or <code>null</code> if the range has no lower bound.
+     */
+    public Object getLower() {
+        return lower;
+    }
+
+    public boolean isLowerInclusive() {
+        return lowerInclusive;
+    }
+
+    /**
+     * Return the upper bound.
+     *
+     * @return The upper bound or <code>null</code> if the range has no upper bound.
+     */
+    public Object getUpper() {
+        return upper;
+    }
+
+    public boolean isUpperInclusive() {
+        return upperInclusive;
+    }
+
+    @Override
+    public boolean matches(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (lower != null) {
+            int result = compare(value, lower);
+            if (result < 0 || (result == 0 && !lowerInclusive)) {
+                return false;
+            }
+        }
+        if (upper != null) {
+            int result = compare(value, upper);
+            if (result > 0 || (result == 0 && !upperInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compare(Object value, Object bound) {
+        if (value instanceof Number && bound instanceof Number) {
+            return Double.compare(((Number) value).doubleValue(), ((Number) bound).doubleValue());
+        }
+        return ((Comparable<Object>) value).compareTo(bound);
+    }
+
+    @Override
+    public String toString() {
+        return (lowerInclusive ? "[" : "(") + (lower != null ? lower : "") + ", " + (upper != null ? upper : "") + (upperInclusive ? "]" : ")");
+    }
+}
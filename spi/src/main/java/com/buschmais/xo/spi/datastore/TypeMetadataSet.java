@@ -2,7 +2,9 @@ package com.buschmais.xo.spi.datastore;
 
 import static java.util.Arrays.asList;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 
 import com.buschmais.xo.api.CompositeObject;
 import com.buschmais.xo.api.CompositeType;
@@ -11,6 +13,11 @@ import com.buschmais.xo.spi.metadata.type.DatastoreTypeMetadata;
 
 /**
  * Represents a set of type metadata.
+ * <p>
+ * Sets which are shared (e.g. cached for a set of discriminators) are made
+ * unmodifiable using {@link #asUnmodifiable()}, all modifications are rejected
+ * with an {@link UnsupportedOperationException}.
+ * </p>
  */
 public final class TypeMetadataSet<TypeMetadata extends DatastoreTypeMetadata<?>> extends HashSet<TypeMetadata> {
 
@@ -18,6 +25,25 @@ public final class TypeMetadataSet<TypeMetadata extends DatastoreTypeMetadata<?>
 
     private boolean containsFinalType = false;
 
+    private boolean unmodifiable = false;
+
+    private transient volatile CompositeType compositeType;
+
+    /**
+     * Return an unmodifiable copy of this set.
+     *
+     * @return The unmodifiable set.
+     */
+    public TypeMetadataSet<TypeMetadata> asUnmodifiable() {
+        if (unmodifiable) {
+            return this;
+        }
+        TypeMetadataSet<TypeMetadata> copy = new TypeMetadataSet<>();
+        copy.addAll(this);
+        copy.unmodifiable = true;
+        return copy;
+    }
+
     /**
      * Add a type metadata.
      * 
@@ -26,18 +52,87 @@ public final class TypeMetadataSet<TypeMetadata extends DatastoreTypeMetadata<?>
      * @return <code>true</code> if the metadata could be added.
      */
     public boolean add(TypeMetadata typeMetadata) {
+        ensureModifiable();
         containsAbstractType = containsAbstractType || typeMetadata.isAbstract();
         containsFinalType = containsFinalType || typeMetadata.isFinal();
+        compositeType = null;
         return super.add(typeMetadata);
     }
 
+    @Override
+    public boolean remove(Object o) {
+        ensureModifiable();
+        compositeType = null;
+        return super.remove(o);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends TypeMetadata> c) {
+        ensureModifiable();
+        return super.addAll(c);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        ensureModifiable();
+        return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        ensureModifiable();
+        return super.retainAll(c);
+    }
+
+    @Override
+    public void clear() {
+        ensureModifiable();
+        compositeType = null;
+        super.clear();
+    }
+
+    @Override
+    public Iterator<TypeMetadata> iterator() {
+        final Iterator<TypeMetadata> iterator = super.iterator();
+        return new Iterator<TypeMetadata>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public TypeMetadata next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                ensureModifiable();
+                compositeType = null;
+                iterator.remove();
+            }
+        };
+    }
+
+    private void ensureModifiable() {
+        if (unmodifiable) {
+            throw new UnsupportedOperationException("The set of type metadata is shared and cannot be modified.");
+        }
+    }
+
     /**
-     * Convert this set into a composite type.
+     * Convert this set into a composite type, the result is computed once
+     * until the set is modified.
      * 
      * @return The composite type.
      */
     public CompositeType getCompositeType() {
-        return CompositeTypeBuilder.create(CompositeObject.class, this, t -> t.getAnnotatedType().getAnnotatedElement());
+        CompositeType type = compositeType;
+        if (type == null) {
+            type = CompositeTypeBuilder.create(CompositeObject.class, this, t -> t.getAnnotatedType().getAnnotatedElement());
+            compositeType = type;
+        }
+        return type;
     }
 
     /**
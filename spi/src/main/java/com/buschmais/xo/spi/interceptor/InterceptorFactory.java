@@ -2,16 +2,27 @@ package com.buschmais.xo.spi.interceptor;
 
 import com.buschmais.xo.api.XOException;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class InterceptorFactory {
 
+    private static final XOInterceptor[] EMPTY_CHAIN = new XOInterceptor[0];
+
     private final XOInterceptor[] chain;
 
+    private final ConcurrentMap<Method, XOInterceptor[]> methodChains = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<ProxyKey, Constructor<?>> proxyConstructors = new ConcurrentHashMap<>();
+
     public InterceptorFactory(List<? extends XOInterceptor> chain) {
         List<XOInterceptor> effectiveChain = new ArrayList<>(chain.size());
         for (XOInterceptor xoInterceptor : chain) {
@@ -26,8 +37,16 @@ public class InterceptorFactory {
         if (chain.length == 0) {
             return instance;
         }
-        InterceptorInvocationHandler invocationHandler = new InterceptorInvocationHandler(instance, chain);
-        return (T) Proxy.newProxyInstance(instance.getClass().getClassLoader(), interfaces, invocationHandler);
+        InterceptorInvocationHandler invocationHandler = new InterceptorInvocationHandler(instance, this);
+        Constructor<?> constructor = getProxyConstructor(instance.getClass().getClassLoader(), interfaces);
+        try {
+            // The proxy class implements the interfaces of the instance.
+            @SuppressWarnings("unchecked")
+            T proxy = (T) constructor.newInstance(invocationHandler);
+            return proxy;
+        } catch (ReflectiveOperationException e) {
+            throw new XOException("Cannot create interceptor for " + instance, e);
+        }
     }
 
     public <T> boolean hasInterceptor(T instance) {
@@ -39,6 +58,98 @@ public class InterceptorFactory {
         if (!InterceptorInvocationHandler.class.isAssignableFrom(invocationHandler.getClass())) {
             throw new XOException(invocationHandler + " implementing " + Arrays.asList(invocationHandler.getClass().getInterfaces()) + " is not of expected type " + InterceptorInvocationHandler.class.getName());
         }
-        return (T) ((InterceptorInvocationHandler) invocationHandler).getInstance();
+        // The handler has been created by addInterceptor for an instance of the same type.
+        @SuppressWarnings("unchecked")
+        T delegate = (T) ((InterceptorInvocationHandler) invocationHandler).getInstance();
+        return delegate;
+    }
+
+    /**
+     * Return the interceptors which must be invoked for a method.
+     * <p>
+     * The chain is determined on first invocation of the method and cached,
+     * {@link XOMethodInterceptor}s which are not active for the method are
+     * removed.
+     * </p>
+     *
+     * @param method
+     *            The method.
+     * @return The interceptors, an empty array if the method can be invoked
+     *         directly.
+     */
+    XOInterceptor[] getChain(Method method) {
+        XOInterceptor[] methodChain = methodChains.get(method);
+        if (methodChain == null) {
+            List<XOInterceptor> interceptors = new ArrayList<>(chain.length);
+            for (XOInterceptor xoInterceptor : chain) {
+                if (!(xoInterceptor instanceof XOMethodInterceptor) || ((XOMethodInterceptor) xoInterceptor).isActive(method)) {
+                    interceptors.add(xoInterceptor);
+                }
+            }
+            methodChain = interceptors.isEmpty() ? EMPTY_CHAIN : interceptors.toArray(new XOInterceptor[interceptors.size()]);
+            methodChains.put(method, methodChain);
+        }
+        return methodChain;
+    }
+
+    /**
+     * Return the constructor of the proxy class for the given class loader and
+     * interfaces, this avoids resolving the proxy class for each instance.
+     *
+     * @param classLoader
+     *            The class loader.
+     * @param interfaces
+     *            The interfaces.
+     * @return The constructor.
+     */
+    private Constructor<?> getProxyConstructor(ClassLoader classLoader, Class<?>[] interfaces) {
+        ProxyKey key = new ProxyKey(classLoader, interfaces);
+        Constructor<?> constructor = proxyConstructors.get(key);
+        if (constructor == null) {
+            try {
+                Class<?> proxyClass = Proxy.getProxyClass(classLoader, interfaces);
+                constructor = proxyClass.getConstructor(InvocationHandler.class);
+                if (!Modifier.isPublic(proxyClass.getModifiers())) {
+                    constructor.setAccessible(true);
+                }
+            } catch (NoSuchMethodException e) {
+                throw new XOException("Cannot find constructor of proxy class for " + Arrays.asList(interfaces), e);
+            }
+            proxyConstructors.put(key, constructor);
+        }
+        return constructor;
+    }
+
+    /**
+     * The key identifying a proxy class.
+     */
+    private static final class ProxyKey {
+
+        private final ClassLoader classLoader;
+        private final Class<?>[] interfaces;
+        private final int hashCode;
+
+        private ProxyKey(ClassLoader classLoader, Class<?>[] interfaces) {
+            this.classLoader = classLoader;
+            this.interfaces = interfaces;
+            this.hashCode = 31 * System.identityHashCode(classLoader) + Arrays.hashCode(interfaces);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ProxyKey)) {
+                return false;
+            }
+            ProxyKey other = (ProxyKey) o;
+            return classLoader == other.classLoader && Arrays.equals(interfaces, other.interfaces);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 }
@@ -6,17 +6,26 @@ import java.lang.reflect.Method;
 public class InterceptorInvocationHandler implements InvocationHandler {
 
     private final Object instance;
-    private final XOInterceptor[] chain;
+    private final InterceptorFactory interceptorFactory;
 
-    public InterceptorInvocationHandler(Object instance, XOInterceptor[] chain) {
+    public InterceptorInvocationHandler(Object instance, InterceptorFactory interceptorFactory) {
         this.instance = instance;
-        this.chain = chain;
+        this.interceptorFactory = interceptorFactory;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        InvocationContext invocationContext = new InvocationContext(instance, method, args, chain);
-        return invocationContext.proceed();
+        XOInterceptor[] chain = interceptorFactory.getChain(method);
+        if (chain.length == 0) {
+            return InvocationContext.invoke(instance, method, args);
+        }
+        InvocationContextStack stack = InvocationContextStack.get();
+        InvocationContext invocationContext = stack.push(instance, method, args, chain);
+        try {
+            return invocationContext.proceed();
+        } finally {
+            stack.pop();
+        }
     }
 
     public Object getInstance() {
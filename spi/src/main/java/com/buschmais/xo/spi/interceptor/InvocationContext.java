@@ -3,19 +3,54 @@ package com.buschmais.xo.spi.interceptor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+/**
+ * The context of an intercepted invocation.
+ * <p>
+ * Contexts created by the {@link InterceptorInvocationHandler} are re-used for
+ * subsequent invocations on the same thread, i.e. an interceptor must not keep
+ * a reference to a context after its invocation returned.
+ * </p>
+ */
 public class InvocationContext {
 
-    private final Object instance;
-    private final Method method;
-    private final Object[] args;
-    private final XOInterceptor[] chain;
+    private Object instance;
+    private Method method;
+    private Object[] args;
+    private XOInterceptor[] chain;
     private int index = 0;
 
     public InvocationContext(Object instance, Method method, Object[] args, XOInterceptor[] chain) {
+        init(instance, method, args, chain);
+    }
+
+    InvocationContext() {
+    }
+
+    /**
+     * Prepare the context for an invocation.
+     *
+     * @param instance
+     *            The instance.
+     * @param method
+     *            The method.
+     * @param args
+     *            The arguments.
+     * @param chain
+     *            The interceptors to invoke.
+     */
+    void init(Object instance, Method method, Object[] args, XOInterceptor[] chain) {
         this.instance = instance;
         this.method = method;
         this.args = args;
         this.chain = chain;
+        this.index = 0;
+    }
+
+    /**
+     * Release the references held for the last invocation.
+     */
+    void clear() {
+        init(null, null, null, null);
     }
 
     public Object proceed() throws Throwable {
@@ -24,11 +59,29 @@ public class InvocationContext {
             index++;
             return xoInterceptor.invoke(this);
         } else {
-            try {
-                return method.invoke(instance, args);
-            } catch (InvocationTargetException e) {
-                throw e.getTargetException();
-            }
+            return invoke(instance, method, args);
+        }
+    }
+
+    /**
+     * Invokes a method on an instance, an exception thrown by the method is
+     * re-thrown unwrapped.
+     *
+     * @param instance
+     *            The instance.
+     * @param method
+     *            The method.
+     * @param args
+     *            The arguments.
+     * @return The result of the invocation.
+     * @throws Throwable
+     *             If the invoked method throws an exception.
+     */
+    static Object invoke(Object instance, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(instance, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
         }
     }
 
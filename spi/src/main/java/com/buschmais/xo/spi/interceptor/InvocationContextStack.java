@@ -0,0 +1,75 @@
+package com.buschmais.xo.spi.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * The {@link InvocationContext}s of a thread, one for each nesting depth of
+ * intercepted invocations.
+ * <p>
+ * Contexts are created on first use of a depth and re-used by all subsequent
+ * invocations at that depth, i.e. an intercepted invocation does not allocate
+ * a context.
+ * </p>
+ */
+final class InvocationContextStack {
+
+    private static final ThreadLocal<InvocationContextStack> STACKS = new ThreadLocal<InvocationContextStack>() {
+        @Override
+        protected InvocationContextStack initialValue() {
+            return new InvocationContextStack();
+        }
+    };
+
+    private InvocationContext[] contexts = new InvocationContext[8];
+
+    private int depth = 0;
+
+    private InvocationContextStack() {
+    }
+
+    /**
+     * Return the stack of the current thread.
+     *
+     * @return The stack.
+     */
+    static InvocationContextStack get() {
+        return STACKS.get();
+    }
+
+    /**
+     * Return the context for an invocation at the next depth, it must be
+     * released using {@link #pop()} after the invocation.
+     *
+     * @param instance
+     *            The instance.
+     * @param method
+     *            The method.
+     * @param args
+     *            The arguments.
+     * @param chain
+     *            The interceptors to invoke.
+     * @return The context.
+     */
+    InvocationContext push(Object instance, Method method, Object[] args, XOInterceptor[] chain) {
+        if (depth == contexts.length) {
+            contexts = Arrays.copyOf(contexts, depth * 2);
+        }
+        InvocationContext context = contexts[depth];
+        if (context == null) {
+            context = new InvocationContext();
+            contexts[depth] = context;
+        }
+        depth++;
+        context.init(instance, method, args, chain);
+        return context;
+    }
+
+    /**
+     * Release the context of the current depth.
+     */
+    void pop() {
+        depth--;
+        contexts[depth].clear();
+    }
+}
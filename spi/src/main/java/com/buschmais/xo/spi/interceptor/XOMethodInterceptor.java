@@ -0,0 +1,25 @@
+package com.buschmais.xo.spi.interceptor;
+
+import java.lang.reflect.Method;
+
+/**
+ * An {@link XOInterceptor} which is only required for a subset of the
+ * intercepted methods.
+ * <p>
+ * The result of {@link #isActive(Method)} is evaluated once per method and
+ * cached by the {@link InterceptorFactory}, therefore it must not change over
+ * time.
+ * </p>
+ */
+public interface XOMethodInterceptor extends XOInterceptor {
+
+    /**
+     * Determine if the interceptor must be invoked for the given method.
+     *
+     * @param method
+     *            The method.
+     * @return <code>true</code> if the interceptor must be invoked.
+     */
+    boolean isActive(Method method);
+
+}
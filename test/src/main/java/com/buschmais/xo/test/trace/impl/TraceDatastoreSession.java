@@ -59,6 +59,11 @@ public class TraceDatastoreSession<EntityId, Entity, EntityMetadata extends Data
         return delegate.createRepository(xoSession, type);
     }
 
+    @Override
+    public void reset() {
+        delegate.reset();
+    }
+
     @Override
     public void close() {
         delegate.close();
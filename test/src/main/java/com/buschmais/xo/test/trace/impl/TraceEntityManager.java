@@ -7,6 +7,7 @@ import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -43,6 +44,12 @@ public class TraceEntityManager<EntityId, Entity, EntityMetadata extends Datasto
         return delegate.createEntity(types, entityDiscriminators, exampleEntity);
     }
 
+    @Override
+    public List<Entity> createEntities(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types, Set<EntityDiscriminator> entityDiscriminators,
+            List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> exampleEntities) {
+        return delegate.createEntities(types, entityDiscriminators, exampleEntities);
+    }
+
     public void deleteEntity(Entity entity) {
         delegate.deleteEntity(entity);
     }
@@ -82,8 +89,8 @@ public class TraceEntityManager<EntityId, Entity, EntityMetadata extends Datasto
         delegate.clearEntity(entity);
     }
 
-    public void setProperty(Entity entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
-        delegate.setProperty(entity, metadata, value);
+    public boolean setProperty(Entity entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
+        return delegate.setProperty(entity, metadata, value);
     }
 
     public boolean hasProperty(Entity entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
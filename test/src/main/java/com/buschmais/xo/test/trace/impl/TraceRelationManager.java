@@ -5,7 +5,9 @@ import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of a
@@ -43,6 +45,12 @@ public class TraceRelationManager<Entity, RelationId, Relation, RelationMetadata
         return delegate.createRelation(source, metadata, direction, target, example);
     }
 
+    @Override
+    public List<Relation> createRelations(List<Entity> sources, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction,
+            List<Entity> targets, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        return delegate.createRelations(sources, metadata, direction, targets, examples);
+    }
+
     @Override
     public void deleteRelation(Relation relation) {
         delegate.deleteRelation(relation);
@@ -83,6 +91,22 @@ public class TraceRelationManager<Entity, RelationId, Relation, RelationMetadata
         return delegate.getRelations(source, metadata, direction);
     }
 
+    @Override
+    public Iterable<Relation> getReachableRelations(Entity source, Map<RelationTypeMetadata<RelationMetadata>, Set<RelationTypeMetadata.Direction>> types,
+            int depth) {
+        return delegate.getReachableRelations(source, types, depth);
+    }
+
+    @Override
+    public long getRelationCount(Entity source, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction) {
+        return delegate.getRelationCount(source, metadata, direction);
+    }
+
+    @Override
+    public boolean hasRelation(Entity source, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction, Entity target) {
+        return delegate.hasRelation(source, metadata, direction, target);
+    }
+
     @Override
     public Entity getFrom(Relation relation) {
         return delegate.getFrom(relation);
@@ -94,8 +118,8 @@ public class TraceRelationManager<Entity, RelationId, Relation, RelationMetadata
     }
 
     @Override
-    public void setProperty(Relation entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
-        delegate.setProperty(entity, metadata, value);
+    public boolean setProperty(Relation entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
+        return delegate.setProperty(entity, metadata, value);
     }
 
     @Override